@@ -0,0 +1,46 @@
+package com.hidrologia.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hidrologia.listing.ModelSerializers;
+import com.hidrologia.service.AlertRuleService;
+import com.hidrologia.service.ChangeEventBus;
+import com.hidrologia.service.HidrologiaMetrics;
+import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.HistoryService;
+import com.hidrologia.simulation.SyntheticDataGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDateTime;
+
+// Construcción de los servicios fuera de CDI, con datos sintéticos deterministas
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private BenchmarkData() {}
+
+    static HidrologiaService service(int stations, int reservoirs) {
+        HidrologiaService service = new HidrologiaService(new HistoryService(90, 365, 3650, 1000, 10000), new ChangeEventBus(256), metrics(),
+                new AlertRuleService());
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(SEED);
+        LocalDateTime now = LocalDateTime.now();
+        service.saveWaterLevels(generator.generateWaterLevels(stations, now));
+        service.saveReservoirs(generator.generateReservoirs(reservoirs, now));
+        return service;
+    }
+
+    // Registro en memoria: los benchmarks incluyen el coste de instrumentación que tiene la aplicación
+    static HidrologiaMetrics metrics() {
+        return new HidrologiaMetrics(new SimpleMeterRegistry());
+    }
+
+    // Misma configuración relevante que el ObjectMapper de Quarkus
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(ModelSerializers.module())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
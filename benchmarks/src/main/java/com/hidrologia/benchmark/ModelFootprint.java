@@ -0,0 +1,100 @@
+package com.hidrologia.benchmark;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.simulation.SyntheticDataGenerator;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Memoria retenida por registro y pausas de GC al renovar registros como lo hace el simulador
+// (copia con nuevos valores medidos y sustitución de la anterior). No es un benchmark JMH: mide
+// el heap ocupado tras forzar el GC y las pausas notificadas por la JVM. Ejecutar con las mismas
+// opciones de GC que el Dockerfile para comparar versiones:
+//   java -XX:+UseParallelGC -Xmx2g -cp target/benchmarks.jar com.hidrologia.benchmark.ModelFootprint [registros] [segundos]
+public final class ModelFootprint {
+
+    private static final int UPDATES_PER_STEP = 10_000;
+
+    private ModelFootprint() {}
+
+    public static void main(String[] args) throws Exception {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        LocalDateTime now = LocalDateTime.now();
+
+        long baseline = usedHeapAfterGc();
+        SyntheticDataGenerator stations = new SyntheticDataGenerator(BenchmarkData.SEED);
+        List<WaterLevel> levels = stations.generateWaterLevels(records, now);
+        long withStations = usedHeapAfterGc();
+        SyntheticDataGenerator reservoirGenerator = new SyntheticDataGenerator(BenchmarkData.SEED);
+        List<Reservoir> reservoirs = reservoirGenerator.generateReservoirs(records, now);
+        long withReservoirs = usedHeapAfterGc();
+
+        System.out.printf("Estaciones: %,d registros, %,d bytes/registro%n",
+                levels.size(), (withStations - baseline) / levels.size());
+        System.out.printf("Embalses:   %,d registros, %,d bytes/registro%n",
+                reservoirs.size(), (withReservoirs - withStations) / reservoirs.size());
+        levels = null;
+        reservoirs = null;
+
+        // Renovación continua: cada paso sustituye UPDATES_PER_STEP estaciones y embalses
+        GcPauses pauses = new GcPauses();
+        long gcCountBefore = gcCount();
+        long updates = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            now = now.plusMinutes(5);
+            updates += stations.advanceWaterLevels(UPDATES_PER_STEP, now).size();
+            updates += reservoirGenerator.advanceReservoirs(UPDATES_PER_STEP, 0.25, now).size();
+        }
+
+        System.out.printf("Renovación: %,d actualizaciones en %d s (%,d/s)%n", updates, seconds, updates / seconds);
+        System.out.printf("GC: %d colecciones, %d ms en pausa, pausa máxima %d ms%n",
+                gcCount() - gcCountBefore, pauses.total.get(), pauses.max.get());
+        System.out.printf("Heap ocupado al terminar: %,d MB%n", usedHeapAfterGc() >> 20);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    // Duración de cada colección notificada por la JVM desde que se crea
+    private static final class GcPauses {
+
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+
+        GcPauses() {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        long duration = GarbageCollectionNotificationInfo
+                                .from((CompositeData) notification.getUserData()).getGcInfo().getDuration();
+                        total.addAndGet(duration);
+                        max.accumulateAndGet(duration, Math::max);
+                    }
+                }, null, null);
+            }
+        }
+    }
+}
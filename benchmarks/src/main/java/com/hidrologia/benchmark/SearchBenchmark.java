@@ -0,0 +1,57 @@
+package com.hidrologia.benchmark;
+
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.search.SearchHit;
+import com.hidrologia.search.TextIndex;
+import com.hidrologia.simulation.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda de texto sobre estaciones simuladas, con los mismos pesos por campo que SearchService
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"50000"})
+    int size;
+
+    // Prefijo corto, palabra de río, varias palabras y una consulta sin resultados
+    @Param({"gua", "guadalquivir", "rio", "estacion simulada 123", "tajo toledo", "xyz"})
+    String query;
+
+    TextIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new TextIndex(8, 4, 2, 1);
+        List<WaterLevel> levels = new SyntheticDataGenerator(BenchmarkData.SEED)
+                .generateWaterLevels(size, LocalDateTime.now());
+        for (WaterLevel level : levels) {
+            index.update(level.getStationId(), level.getStationName(), level.getRiver(),
+                    level.getLocation(), level.getObservations());
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hidrologia.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.SnapshotCache;
+import com.hidrologia.service.WireFormats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coste de serializar los listados completos con Jackson frente a servirlos desde SnapshotCache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    ObjectMapper objectMapper;
+    HidrologiaService service;
+    SnapshotCache snapshotCache;
+    List<WaterLevel> waterLevels;
+    List<Reservoir> reservoirs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = BenchmarkData.objectMapper();
+        service = BenchmarkData.service(size, size);
+        snapshotCache = new SnapshotCache(new WireFormats(objectMapper), BenchmarkData.metrics());
+        waterLevels = service.getAllWaterLevels();
+        reservoirs = service.getAllReservoirs();
+    }
+
+    @Benchmark
+    public byte[] serializeWaterLevels() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(waterLevels);
+    }
+
+    @Benchmark
+    public byte[] serializeReservoirs() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservoirs);
+    }
+
+    @Benchmark
+    public byte[] cachedWaterLevels() {
+        return snapshotCache.get("water-levels", service.getWaterLevelsVersion(), service::getAllWaterLevels).getBytes();
+    }
+
+    @Benchmark
+    public byte[] cachedReservoirs() {
+        return snapshotCache.get("reservoirs", service.getReservoirsVersion(), service::getAllReservoirs).getBytes();
+    }
+}
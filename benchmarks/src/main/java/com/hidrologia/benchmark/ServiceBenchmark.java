@@ -0,0 +1,94 @@
+package com.hidrologia.benchmark;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.SystemStatistics;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HidrologiaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Búsquedas, filtros y estadísticas de HidrologiaService con 10, 1k y 100k registros
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    HidrologiaService service;
+    String[] stationIds;
+    String[] reservoirIds;
+    SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = BenchmarkData.service(size, size);
+        stationIds = service.getAllWaterLevels().stream().map(WaterLevel::getStationId).toArray(String[]::new);
+        reservoirIds = service.getAllReservoirs().stream().map(Reservoir::getReservoirId).toArray(String[]::new);
+        random = new SplittableRandom(BenchmarkData.SEED);
+    }
+
+    @Benchmark
+    public Optional<WaterLevel> waterLevelById() {
+        return service.getWaterLevelByStationId(stationIds[random.nextInt(stationIds.length)]);
+    }
+
+    @Benchmark
+    public Optional<Reservoir> reservoirById() {
+        return service.getReservoirById(reservoirIds[random.nextInt(reservoirIds.length)]);
+    }
+
+    @Benchmark
+    public List<WaterLevel> allWaterLevels() {
+        return service.getAllWaterLevels();
+    }
+
+    @Benchmark
+    public List<WaterLevel> waterLevelsByAlertStatus() {
+        return service.getWaterLevelsByAlertStatus(WaterLevel.AlertStatus.ALERTA);
+    }
+
+    @Benchmark
+    public List<WaterLevel> waterLevelsByType() {
+        return service.getWaterLevelsByType(WaterLevel.WaterType.LAGO);
+    }
+
+    @Benchmark
+    public List<Reservoir> reservoirsByPrimaryUse() {
+        return service.getReservoirsByPrimaryUse(Reservoir.PrimaryUse.RIEGO);
+    }
+
+    @Benchmark
+    public String systemStatisticsText() {
+        return service.getSystemStatistics();
+    }
+
+    @Benchmark
+    public SystemStatistics systemStatisticsSummary() {
+        return service.getSystemStatisticsSummary();
+    }
+
+    @Benchmark
+    public boolean systemHealthy() {
+        return service.isSystemHealthy();
+    }
+}
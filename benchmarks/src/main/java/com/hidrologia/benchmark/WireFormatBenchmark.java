@@ -0,0 +1,90 @@
+package com.hidrologia.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.WireFormat;
+import com.hidrologia.service.WireFormats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Coste de codificar y decodificar los listados en cada formato de respuesta, con y sin gzip.
+// El tamaño de cada carga se imprime al preparar el estado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    WireFormat format;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    ObjectMapper mapper;
+    List<WaterLevel> waterLevels;
+    List<Reservoir> reservoirs;
+    byte[] encodedWaterLevels;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        mapper = new WireFormats(BenchmarkData.objectMapper()).mapper(format);
+        HidrologiaService service = BenchmarkData.service(size, size);
+        waterLevels = service.getAllWaterLevels();
+        reservoirs = service.getAllReservoirs();
+        encodedWaterLevels = mapper.writeValueAsBytes(waterLevels);
+        byte[] encodedReservoirs = mapper.writeValueAsBytes(reservoirs);
+        System.out.printf("%n%s (%d): water-levels %d bytes, gzip %d bytes; reservoirs %d bytes, gzip %d bytes%n",
+                format, size, encodedWaterLevels.length, gzip(encodedWaterLevels).length,
+                encodedReservoirs.length, gzip(encodedReservoirs).length);
+    }
+
+    @Benchmark
+    public byte[] encodeWaterLevels() throws IOException {
+        return mapper.writeValueAsBytes(waterLevels);
+    }
+
+    @Benchmark
+    public byte[] encodeReservoirs() throws IOException {
+        return mapper.writeValueAsBytes(reservoirs);
+    }
+
+    @Benchmark
+    public byte[] encodeWaterLevelsGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(waterLevels));
+    }
+
+    // Lado del consumidor: el coste que motivó los formatos binarios
+    @Benchmark
+    public WaterLevel[] decodeWaterLevels() throws IOException {
+        return mapper.readValue(encodedWaterLevels, WaterLevel[].class);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
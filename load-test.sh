@@ -0,0 +1,76 @@
+#!/bin/bash
+
+# Prueba de carga concurrente para Hidrología Mock API
+# Uso: ./load-test.sh <etiqueta> [url]
+#   etiqueta: nombre del resultado (p. ej. la versión o el commit que se mide)
+# Requiere wrk (https://github.com/wg/wrk). Los resultados quedan en load-results/<etiqueta>.txt
+# Para comparar modelos de ejecución, lanzar el mismo script contra cada build con la misma
+# configuración del simulador (hidrologia.simulation.*) y comparar los ficheros.
+# Todo el tráfico sale de una misma IP: arrancar la API con -Dhidrologia.rate-limit.enabled=false
+# o las peticiones por encima del límite se contarán como "Non-2xx or 3xx responses". El script
+# compara hidrologia_api_throttled_total antes y después y avisa si ha habido rechazos.
+# La cabecera del resultado recoge las condiciones (commit, máquina, parámetros de wrk) para que
+# los números se puedan publicar junto con ellas.
+
+LABEL=${1:?"Uso: ./load-test.sh <etiqueta> [url]"}
+BASE_URL=${2:-"http://localhost:8080"}
+DURATION=${DURATION:-30s}
+THREADS=${THREADS:-4}
+CONNECTIONS=${CONNECTIONS:-"16 64 256"}
+
+if ! command -v wrk &> /dev/null; then
+    echo "❌ wrk no está instalado"
+    exit 1
+fi
+
+if ! curl -sf "$BASE_URL/q/health" > /dev/null; then
+    echo "❌ La API no responde en $BASE_URL"
+    exit 1
+fi
+
+throttled() {
+    curl -sf "$BASE_URL/q/metrics" | awk '/^hidrologia_api_throttled_total/ { sum += $NF } END { print sum + 0 }'
+}
+
+mkdir -p load-results
+OUTPUT="load-results/$LABEL.txt"
+{
+    echo "# Etiqueta: $LABEL"
+    echo "# Fecha: $(date -u +%Y-%m-%dT%H:%M:%SZ)"
+    echo "# Commit: $(git rev-parse --short HEAD 2>/dev/null || echo desconocido)"
+    echo "# Máquina: $(nproc) CPU, $(grep -m1 'model name' /proc/cpuinfo 2>/dev/null | cut -d: -f2 | xargs)"
+    echo "# wrk: $THREADS hilos, $DURATION por prueba, conexiones: $CONNECTIONS"
+    echo "# URL: $BASE_URL"
+    echo ""
+} > "$OUTPUT"
+THROTTLED_BEFORE=$(throttled)
+
+run() {
+    local name=$1
+    local path=$2
+    shift 2
+    for c in $CONNECTIONS; do
+        echo "🔥 $name ($c conexiones)..."
+        echo "=== $name | $c conexiones | $path" >> "$OUTPUT"
+        wrk -t"$THREADS" -c"$c" -d"$DURATION" --latency "$@" "$BASE_URL$path" >> "$OUTPUT"
+        echo "" >> "$OUTPUT"
+    done
+}
+
+run "Estación por ID" "/api/water/levels/HIDRO_001"
+run "Listado completo" "/api/water/levels"
+run "Listado completo gzip" "/api/water/levels" -H "Accept-Encoding: gzip"
+run "Listado completo CBOR" "/api/water/levels" -H "Accept: application/cbor"
+run "Página ordenada" "/api/water/levels?sort=-waterLevel&limit=100"
+run "Embalses por estado" "/api/reservoirs/status/OPERATIVO"
+run "Estaciones más cercanas" "/api/geo/stations/nearest?lat=40.4&lon=-3.7&k=10"
+run "Estadísticas" "/api/statistics"
+
+THROTTLED=$(( $(throttled) - THROTTLED_BEFORE ))
+echo "# Peticiones rechazadas por límite durante la prueba: $THROTTLED" >> "$OUTPUT"
+if [ "$THROTTLED" -gt 0 ]; then
+    echo "⚠️  $THROTTLED peticiones rechazadas con 429: arranca la API con -Dhidrologia.rate-limit.enabled=false"
+fi
+
+echo "✅ Resultados en $OUTPUT"
+grep -E "^===|Requests/sec|99%" "$OUTPUT"
@@ -30,7 +30,11 @@ import jakarta.ws.rs.core.Application;
     },
     tags = {
         @Tag(name = "Water Levels API", description = "Gestión de niveles de agua en estaciones hidrológicas"),
-        @Tag(name = "Reservoirs API", description = "Gestión de información de embalses y reservorios")
+        @Tag(name = "Reservoirs API", description = "Gestión de información de embalses y reservorios"),
+        @Tag(name = "Statistics API", description = "Estadísticas agregadas del sistema hidrológico"),
+        @Tag(name = "Streaming API", description = "Eventos en tiempo real de niveles, embalses y alertas"),
+        @Tag(name = "Geo API", description = "Consultas geográficas sobre estaciones y embalses"),
+        @Tag(name = "Alerts API", description = "Reglas de alerta por estación y por embalse")
     }
 )
 public class HidrologiaApplication extends Application {
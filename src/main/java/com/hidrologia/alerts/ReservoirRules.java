@@ -0,0 +1,96 @@
+package com.hidrologia.alerts;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirAlertRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static com.hidrologia.alerts.WaterLevelRules.nullIfNaN;
+import static com.hidrologia.alerts.WaterLevelRules.valueOrNaN;
+
+// Reglas de embalses compiladas en arrays primitivos. Solo alternan entre OPERATIVO y EMERGENCIA:
+// los estados administrativos (MANTENIMIENTO, FUERA_SERVICIO) se respetan tal como llegan
+public class ReservoirRules {
+
+    private final RuleSlots slots = new RuleSlots();
+    private double[] highFill = new double[0];
+    private double[] lowFill = new double[0];
+    private double[] maxOutflow = new double[0];
+    private double[] spikeFactor = new double[0];
+    private double[] lastOutflow = new double[0];
+
+    // ========== Evaluación ==========
+
+    public synchronized void apply(Collection<Reservoir> reservoirs) {
+        for (Reservoir reservoir : reservoirs) {
+            int slot = slots.find(reservoir.getReservoirId());
+            Reservoir.OperationalStatus current = reservoir.getStatus();
+            if (slot >= 0 && current != Reservoir.OperationalStatus.MANTENIMIENTO
+                    && current != Reservoir.OperationalStatus.FUERA_SERVICIO) {
+                reservoir.setStatus(evaluate(slot, reservoir.fillPercentageOrNaN(), reservoir.outflowOrNaN()));
+            }
+        }
+    }
+
+    // El pico solo se mide sobre un desembalse anterior positivo y una subida real: con base 0
+    // cualquier valor superaría el factor, y repetir la misma lectura no es un pico
+    private Reservoir.OperationalStatus evaluate(int slot, double fillPercentage, double outflow) {
+        double previous = lastOutflow[slot];
+        boolean spike = previous > 0 && outflow > previous && outflow >= previous * spikeFactor[slot];
+        boolean emergency = fillPercentage >= highFill[slot]
+                || fillPercentage <= lowFill[slot]
+                || outflow >= maxOutflow[slot]
+                || spike;
+        if (!Double.isNaN(outflow)) {
+            lastOutflow[slot] = outflow;
+        }
+        return emergency ? Reservoir.OperationalStatus.EMERGENCIA : Reservoir.OperationalStatus.OPERATIVO;
+    }
+
+    // ========== Definición ==========
+
+    public synchronized void put(ReservoirAlertRule rule) {
+        int slot = slots.define(rule.getReservoirId());
+        ensureCapacity(slots.capacity());
+        highFill[slot] = valueOrNaN(rule.getHighFillPercentage());
+        lowFill[slot] = valueOrNaN(rule.getLowFillPercentage());
+        maxOutflow[slot] = valueOrNaN(rule.getMaxOutflow());
+        spikeFactor[slot] = valueOrNaN(rule.getOutflowSpikeFactor());
+        lastOutflow[slot] = Double.NaN;
+    }
+
+    public synchronized boolean remove(String reservoirId) {
+        return slots.remove(reservoirId) >= 0;
+    }
+
+    public synchronized Optional<ReservoirAlertRule> get(String reservoirId) {
+        int slot = slots.find(reservoirId);
+        return slot < 0 ? Optional.empty() : Optional.of(toRule(reservoirId, slot));
+    }
+
+    public synchronized List<ReservoirAlertRule> getAll() {
+        List<ReservoirAlertRule> rules = new ArrayList<>();
+        slots.definedSlots().forEach((reservoirId, slot) -> rules.add(toRule(reservoirId, slot)));
+        rules.sort((a, b) -> a.getReservoirId().compareTo(b.getReservoirId()));
+        return rules;
+    }
+
+    private ReservoirAlertRule toRule(String reservoirId, int slot) {
+        return new ReservoirAlertRule(reservoirId, nullIfNaN(highFill[slot]), nullIfNaN(lowFill[slot]),
+                nullIfNaN(maxOutflow[slot]), nullIfNaN(spikeFactor[slot]));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (highFill.length < capacity) {
+            highFill = Arrays.copyOf(highFill, capacity);
+            lowFill = Arrays.copyOf(lowFill, capacity);
+            maxOutflow = Arrays.copyOf(maxOutflow, capacity);
+            spikeFactor = Arrays.copyOf(spikeFactor, capacity);
+            lastOutflow = Arrays.copyOf(lastOutflow, capacity);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hidrologia.alerts;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Asignación de IDs a posiciones de los arrays de umbrales. Una posición se conserva
+// aunque se borre su regla, de modo que volver a definirla no desplaza a las demás
+final class RuleSlots {
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private boolean[] defined = new boolean[16];
+    private int count;
+
+    int find(String id) {
+        Integer slot = slotById.get(id);
+        return slot != null && defined[slot] ? slot : -1;
+    }
+
+    int define(String id) {
+        Integer slot = slotById.get(id);
+        if (slot == null) {
+            slot = count++;
+            slotById.put(id, slot);
+            if (slot == defined.length) {
+                defined = Arrays.copyOf(defined, slot * 2);
+            }
+        }
+        defined[slot] = true;
+        return slot;
+    }
+
+    int remove(String id) {
+        int slot = find(id);
+        if (slot >= 0) {
+            defined[slot] = false;
+        }
+        return slot;
+    }
+
+    int capacity() {
+        return defined.length;
+    }
+
+    Map<String, Integer> definedSlots() {
+        Map<String, Integer> result = new HashMap<>();
+        slotById.forEach((id, slot) -> {
+            if (defined[slot]) {
+                result.put(id, slot);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+package com.hidrologia.alerts;
+
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelAlertRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Reglas de alerta de estaciones compiladas en arrays primitivos: evaluar una lectura son
+// comparaciones de doubles, sin objetos intermedios. Un umbral desactivado es NaN, y cualquier
+// comparación con NaN es falsa. Guarda el último caudal de cada estación para calcular su variación
+public class WaterLevelRules {
+
+    private static final WaterLevel.AlertStatus[] STATUSES = WaterLevel.AlertStatus.values();
+    private static final int NORMAL = WaterLevel.AlertStatus.NORMAL.ordinal();
+    private static final int PRECAUCION = WaterLevel.AlertStatus.PRECAUCION.ordinal();
+    private static final int ALERTA = WaterLevel.AlertStatus.ALERTA.ordinal();
+    private static final int EMERGENCIA = WaterLevel.AlertStatus.EMERGENCIA.ordinal();
+
+    private final RuleSlots slots = new RuleSlots();
+    private double[] precautionLevel = new double[0];
+    private double[] alertLevel = new double[0];
+    private double[] emergencyLevel = new double[0];
+    private double[] lowLevel = new double[0];
+    private double[] flowRisePrecaution = new double[0];
+    private double[] flowRiseAlert = new double[0];
+    private double[] lastFlow = new double[0];
+    private long[] lastEpochSecond = new long[0];
+
+    // ========== Evaluación ==========
+
+    // Evalúa un lote bajo un único bloqueo y actualiza el estado de cada lectura.
+    // Sin regla para la estación se conserva el estado recibido
+    public synchronized void apply(Collection<WaterLevel> levels) {
+        for (WaterLevel level : levels) {
+            int slot = slots.find(level.getStationId());
+            if (slot >= 0) {
+                long time = level.lastUpdatedEpochMilli();
+                level.setAlertStatus(evaluate(slot, level.waterLevelOrNaN(), level.flowOrNaN(),
+                        time == WaterLevel.NO_TIMESTAMP ? Long.MIN_VALUE : Math.floorDiv(time, 1000L)));
+            }
+        }
+    }
+
+    private WaterLevel.AlertStatus evaluate(int slot, double level, double flow, long epochSecond) {
+        int status = NORMAL;
+        if (level >= emergencyLevel[slot]) {
+            status = EMERGENCIA;
+        } else if (level >= alertLevel[slot]) {
+            status = ALERTA;
+        } else if (level >= precautionLevel[slot] || level <= lowLevel[slot]) {
+            status = PRECAUCION;
+        }
+
+        // Variación de caudal respecto a la lectura anterior; las lecturas atrasadas no cuentan
+        if (epochSecond > lastEpochSecond[slot] && !Double.isNaN(flow)) {
+            if (lastEpochSecond[slot] != Long.MIN_VALUE && !Double.isNaN(lastFlow[slot])) {
+                double risePerHour = (flow - lastFlow[slot]) * 3600.0 / (epochSecond - lastEpochSecond[slot]);
+                if (risePerHour >= flowRiseAlert[slot]) {
+                    status = Math.max(status, ALERTA);
+                } else if (risePerHour >= flowRisePrecaution[slot]) {
+                    status = Math.max(status, PRECAUCION);
+                }
+            }
+            lastFlow[slot] = flow;
+            lastEpochSecond[slot] = epochSecond;
+        }
+        return STATUSES[status];
+    }
+
+    // ========== Definición ==========
+
+    public synchronized void put(WaterLevelAlertRule rule) {
+        int slot = slots.define(rule.getStationId());
+        ensureCapacity(slots.capacity());
+        precautionLevel[slot] = valueOrNaN(rule.getPrecautionLevel());
+        alertLevel[slot] = valueOrNaN(rule.getAlertLevel());
+        emergencyLevel[slot] = valueOrNaN(rule.getEmergencyLevel());
+        lowLevel[slot] = valueOrNaN(rule.getLowLevel());
+        flowRisePrecaution[slot] = valueOrNaN(rule.getFlowRisePrecaution());
+        flowRiseAlert[slot] = valueOrNaN(rule.getFlowRiseAlert());
+        lastFlow[slot] = Double.NaN;
+        lastEpochSecond[slot] = Long.MIN_VALUE;
+    }
+
+    public synchronized boolean remove(String stationId) {
+        return slots.remove(stationId) >= 0;
+    }
+
+    public synchronized Optional<WaterLevelAlertRule> get(String stationId) {
+        int slot = slots.find(stationId);
+        return slot < 0 ? Optional.empty() : Optional.of(toRule(stationId, slot));
+    }
+
+    public synchronized List<WaterLevelAlertRule> getAll() {
+        List<WaterLevelAlertRule> rules = new ArrayList<>();
+        slots.definedSlots().forEach((stationId, slot) -> rules.add(toRule(stationId, slot)));
+        rules.sort((a, b) -> a.getStationId().compareTo(b.getStationId()));
+        return rules;
+    }
+
+    private WaterLevelAlertRule toRule(String stationId, int slot) {
+        return new WaterLevelAlertRule(stationId, nullIfNaN(precautionLevel[slot]), nullIfNaN(alertLevel[slot]),
+                nullIfNaN(emergencyLevel[slot]), nullIfNaN(lowLevel[slot]),
+                nullIfNaN(flowRisePrecaution[slot]), nullIfNaN(flowRiseAlert[slot]));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (precautionLevel.length < capacity) {
+            precautionLevel = Arrays.copyOf(precautionLevel, capacity);
+            alertLevel = Arrays.copyOf(alertLevel, capacity);
+            emergencyLevel = Arrays.copyOf(emergencyLevel, capacity);
+            lowLevel = Arrays.copyOf(lowLevel, capacity);
+            flowRisePrecaution = Arrays.copyOf(flowRisePrecaution, capacity);
+            flowRiseAlert = Arrays.copyOf(flowRiseAlert, capacity);
+            lastFlow = Arrays.copyOf(lastFlow, capacity);
+            lastEpochSecond = Arrays.copyOf(lastEpochSecond, capacity);
+        }
+    }
+
+    static double valueOrNaN(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    static Double nullIfNaN(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,143 @@
+package com.hidrologia.analytics;
+
+import com.hidrologia.model.GroupAggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Agregación agrupada sobre columnas primitivas. Los parciales por bloque de filas se
+// calculan en paralelo (pool común fork-join) y se combinan; los valores NaN se ignoran
+public final class ReservoirAggregator {
+
+    private static final int BLOCK_SIZE = 16_384;
+
+    private ReservoirAggregator() {}
+
+    public static List<GroupAggregate> aggregate(ReservoirColumns columns, ReservoirDimension dimension,
+                                                 ReservoirMetric metric, double[] percentiles) {
+        double[] values = columns.metric(metric);
+        int[] codes = columns.groupCodes(dimension);
+        String[] dictionary = columns.dictionary(dimension);
+        int groups = dictionary.length;
+        int rows = columns.getRowCount();
+
+        int blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        Partial total = IntStream.range(0, blocks)
+                .parallel()
+                .mapToObj(block -> Partial.of(values, codes, groups,
+                        block * BLOCK_SIZE, Math.min(rows, (block + 1) * BLOCK_SIZE)))
+                .reduce(new Partial(groups), Partial::merge);
+
+        double[][] sorted = percentiles.length == 0 ? null : sortedByGroup(values, codes, total.count);
+
+        List<GroupAggregate> result = new ArrayList<>(groups);
+        for (int g = 0; g < groups; g++) {
+            if (total.count[g] == 0 && total.rows[g] == 0) {
+                continue;
+            }
+            GroupAggregate aggregate = new GroupAggregate();
+            aggregate.setGroup(dictionary[g]);
+            aggregate.setCount(total.count[g]);
+            if (total.count[g] > 0) {
+                aggregate.setSum(total.sum[g]);
+                aggregate.setAvg(total.sum[g] / total.count[g]);
+                aggregate.setMin(total.min[g]);
+                aggregate.setMax(total.max[g]);
+                if (sorted != null) {
+                    Map<String, Double> byPercentile = new LinkedHashMap<>();
+                    for (double p : percentiles) {
+                        byPercentile.put("p" + formatPercentile(p), nearestRank(sorted[g], p));
+                    }
+                    aggregate.setPercentiles(byPercentile);
+                }
+            }
+            result.add(aggregate);
+        }
+        result.sort((a, b) -> a.getGroup().compareTo(b.getGroup()));
+        return result;
+    }
+
+    // Reparto por grupo (counting sort) y ordenación de cada grupo en paralelo
+    private static double[][] sortedByGroup(double[] values, int[] codes, int[] counts) {
+        double[][] byGroup = new double[counts.length][];
+        int[] fill = new int[counts.length];
+        for (int g = 0; g < counts.length; g++) {
+            byGroup[g] = new double[counts[g]];
+        }
+        for (int row = 0; row < values.length; row++) {
+            double value = values[row];
+            if (!Double.isNaN(value)) {
+                int g = codes[row];
+                byGroup[g][fill[g]++] = value;
+            }
+        }
+        IntStream.range(0, byGroup.length).parallel().forEach(g -> Arrays.sort(byGroup[g]));
+        return byGroup;
+    }
+
+    private static double nearestRank(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static String formatPercentile(double p) {
+        return p == Math.rint(p) ? Long.toString((long) p) : Double.toString(p);
+    }
+
+    private static final class Partial {
+        final int[] rows;
+        final int[] count;
+        final double[] sum;
+        final double[] min;
+        final double[] max;
+
+        Partial(int groups) {
+            rows = new int[groups];
+            count = new int[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        static Partial of(double[] values, int[] codes, int groups, int from, int to) {
+            Partial partial = new Partial(groups);
+            for (int row = from; row < to; row++) {
+                int g = codes[row];
+                double value = values[row];
+                partial.rows[g]++;
+                if (value == value) { // descarta NaN
+                    partial.count[g]++;
+                    partial.sum[g] += value;
+                    if (value < partial.min[g]) {
+                        partial.min[g] = value;
+                    }
+                    if (value > partial.max[g]) {
+                        partial.max[g] = value;
+                    }
+                }
+            }
+            return partial;
+        }
+
+        Partial merge(Partial other) {
+            Partial merged = new Partial(rows.length);
+            for (int g = 0; g < rows.length; g++) {
+                merged.rows[g] = rows[g] + other.rows[g];
+                merged.count[g] = count[g] + other.count[g];
+                merged.sum[g] = sum[g] + other.sum[g];
+                merged.min[g] = Math.min(min[g], other.min[g]);
+                merged.max[g] = Math.max(max[g], other.max[g]);
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.hidrologia.analytics;
+
+import com.hidrologia.model.Reservoir;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Representación columnar de los embalses: un double[] por métrica y códigos de grupo int[]
+// por dimensión, con su diccionario. Se construye una vez por versión del almacén
+public final class ReservoirColumns {
+
+    private final long version;
+    private final int rowCount;
+    private final double[][] metrics;
+    private final int[][] groupCodes;
+    private final String[][] dictionaries;
+
+    private ReservoirColumns(long version, int rowCount, double[][] metrics, int[][] groupCodes, String[][] dictionaries) {
+        this.version = version;
+        this.rowCount = rowCount;
+        this.metrics = metrics;
+        this.groupCodes = groupCodes;
+        this.dictionaries = dictionaries;
+    }
+
+    public static ReservoirColumns build(long version, List<Reservoir> reservoirs) {
+        int n = reservoirs.size();
+        ReservoirMetric[] metricTypes = ReservoirMetric.values();
+        ReservoirDimension[] dimensions = ReservoirDimension.values();
+
+        double[][] metrics = new double[metricTypes.length][n];
+        int[][] groupCodes = new int[dimensions.length][n];
+        String[][] dictionaries = new String[dimensions.length][];
+        @SuppressWarnings("unchecked")
+        Map<String, Integer>[] codes = new Map[dimensions.length];
+        for (int d = 0; d < dimensions.length; d++) {
+            codes[d] = new HashMap<>();
+        }
+
+        for (int row = 0; row < n; row++) {
+            Reservoir reservoir = reservoirs.get(row);
+            for (ReservoirMetric metric : metricTypes) {
+                metrics[metric.ordinal()][row] = metric.extract(reservoir);
+            }
+            for (ReservoirDimension dimension : dimensions) {
+                Map<String, Integer> dictionary = codes[dimension.ordinal()];
+                String key = dimension.extract(reservoir);
+                Integer code = dictionary.get(key);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.put(key, code);
+                }
+                groupCodes[dimension.ordinal()][row] = code;
+            }
+        }
+
+        for (int d = 0; d < dimensions.length; d++) {
+            String[] dictionary = new String[codes[d].size()];
+            codes[d].forEach((key, code) -> dictionary[code] = key);
+            dictionaries[d] = dictionary;
+        }
+        return new ReservoirColumns(version, n, metrics, groupCodes, dictionaries);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    double[] metric(ReservoirMetric metric) {
+        return metrics[metric.ordinal()];
+    }
+
+    int[] groupCodes(ReservoirDimension dimension) {
+        return groupCodes[dimension.ordinal()];
+    }
+
+    String[] dictionary(ReservoirDimension dimension) {
+        return dictionaries[dimension.ordinal()];
+    }
+}
@@ -0,0 +1,48 @@
+package com.hidrologia.analytics;
+
+import com.hidrologia.model.Reservoir;
+
+import java.util.function.Function;
+
+// Dimensiones de agrupación de embalses
+public enum ReservoirDimension {
+    MAIN_RIVER("mainRiver", Reservoir::getMainRiver),
+    PRIMARY_USE("primaryUse", reservoir -> reservoir.getPrimaryUse() == null ? null : reservoir.getPrimaryUse().name()),
+    STATUS("status", reservoir -> reservoir.getStatus() == null ? null : reservoir.getStatus().name()),
+    // La región es el último componente de la localización ("Mequinenza, Zaragoza" -> "Zaragoza")
+    REGION("region", reservoir -> region(reservoir.getLocation()));
+
+    private final String paramName;
+    private final Function<Reservoir, String> accessor;
+
+    ReservoirDimension(String paramName, Function<Reservoir, String> accessor) {
+        this.paramName = paramName;
+        this.accessor = accessor;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    String extract(Reservoir reservoir) {
+        String value = accessor.apply(reservoir);
+        return value == null ? "SIN_DATO" : value;
+    }
+
+    private static String region(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.lastIndexOf(',');
+        return comma < 0 ? location.trim() : location.substring(comma + 1).trim();
+    }
+
+    public static ReservoirDimension fromParamName(String name) {
+        for (ReservoirDimension dimension : values()) {
+            if (dimension.paramName.equalsIgnoreCase(name) || dimension.name().equalsIgnoreCase(name)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -0,0 +1,42 @@
+package com.hidrologia.analytics;
+
+import com.hidrologia.model.Reservoir;
+
+import java.util.function.ToDoubleFunction;
+
+// Columnas numéricas agregables de un embalse; el nombre coincide con el campo JSON
+public enum ReservoirMetric {
+    MAX_CAPACITY("maxCapacity", Reservoir::maxCapacityOrNaN),
+    CURRENT_VOLUME("currentVolume", Reservoir::currentVolumeOrNaN),
+    FILL_PERCENTAGE("fillPercentage", Reservoir::fillPercentageOrNaN),
+    DAM_HEIGHT("damHeight", Reservoir::damHeightOrNaN),
+    DAM_LENGTH("damLength", Reservoir::damLengthOrNaN),
+    OUTFLOW("outflow", Reservoir::outflowOrNaN),
+    CONSTRUCTION_YEAR("constructionYear", reservoir ->
+            reservoir.constructionYearOrNone() == Reservoir.NO_YEAR ? Double.NaN : reservoir.constructionYearOrNone());
+
+    private final String fieldName;
+    private final ToDoubleFunction<Reservoir> accessor;
+
+    ReservoirMetric(String fieldName, ToDoubleFunction<Reservoir> accessor) {
+        this.fieldName = fieldName;
+        this.accessor = accessor;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    double extract(Reservoir reservoir) {
+        return accessor.applyAsDouble(reservoir);
+    }
+
+    public static ReservoirMetric fromFieldName(String name) {
+        for (ReservoirMetric metric : values()) {
+            if (metric.fieldName.equalsIgnoreCase(name) || metric.name().equalsIgnoreCase(name)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
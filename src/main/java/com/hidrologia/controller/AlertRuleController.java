@@ -0,0 +1,255 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.model.ReservoirAlertRule;
+import com.hidrologia.model.WaterLevelAlertRule;
+import com.hidrologia.service.AlertRuleService;
+import com.hidrologia.service.HidrologiaService;
+import io.smallrye.common.annotation.NonBlocking;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Optional;
+
+@Path("/api/alerts/rules")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Alerts API", description = "Reglas de alerta por estación y por embalse")
+public class AlertRuleController {
+
+    @Inject
+    AlertRuleService alertRuleService;
+
+    @Inject
+    HidrologiaService hidrologiaService;
+
+    // ========== Estaciones ==========
+
+    @GET
+    @Path("/water")
+    @Operation(summary = "Reglas de alerta de estaciones",
+               description = "Todas las reglas de alerta de nivel y caudal, ordenadas por estación")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Reglas obtenidas exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = WaterLevelAlertRule.class))),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getWaterLevelRules() {
+        try {
+            return Response.ok(alertRuleService.getWaterLevelRules()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener reglas de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/water/{stationId}")
+    @NonBlocking
+    @Operation(summary = "Regla de alerta de una estación")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Regla encontrada",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = WaterLevelAlertRule.class))),
+        @APIResponse(responseCode = "404", description = "La estación no tiene regla de alerta"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getWaterLevelRule(@PathParam("stationId") String stationId) {
+        try {
+            Optional<WaterLevelAlertRule> rule = alertRuleService.getWaterLevelRule(stationId);
+            if (rule.isPresent()) {
+                return Response.ok(rule.get()).build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("La estación " + stationId + " no tiene regla de alerta")
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener regla de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @PUT
+    @Path("/water/{stationId}")
+    @Operation(summary = "Crear o reemplazar la regla de alerta de una estación",
+               description = "Umbrales de nivel (precaución < alerta < emergencia, nivel bajo opcional) y de " +
+                             "subida de caudal por hora. La última lectura de la estación se reevalúa al instante")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Regla guardada",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = WaterLevelAlertRule.class))),
+        @APIResponse(responseCode = "400", description = "Umbrales inválidos"),
+        @APIResponse(responseCode = "404", description = "Estación no encontrada"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response putWaterLevelRule(@PathParam("stationId") String stationId, @Valid WaterLevelAlertRule rule) {
+        try {
+            if (rule == null) {
+                throw new IllegalArgumentException("se requiere el cuerpo de la regla");
+            }
+            if (hidrologiaService.getWaterLevelByStationId(stationId).isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Estación con ID " + stationId + " no encontrada")
+                        .build();
+            }
+            rule.setStationId(stationId);
+            alertRuleService.putWaterLevelRule(rule);
+            hidrologiaService.reevaluateWaterLevel(stationId);
+            return Response.ok(rule).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Regla de alerta inválida: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al guardar regla de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @DELETE
+    @Path("/water/{stationId}")
+    @Operation(summary = "Eliminar la regla de alerta de una estación",
+               description = "La estación conserva el último estado de alerta calculado")
+    @APIResponses({
+        @APIResponse(responseCode = "204", description = "Regla eliminada"),
+        @APIResponse(responseCode = "404", description = "La estación no tiene regla de alerta"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response deleteWaterLevelRule(@PathParam("stationId") String stationId) {
+        try {
+            if (alertRuleService.removeWaterLevelRule(stationId)) {
+                return Response.noContent().build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("La estación " + stationId + " no tiene regla de alerta")
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al eliminar regla de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    // ========== Embalses ==========
+
+    @GET
+    @Path("/reservoirs")
+    @Operation(summary = "Reglas de alerta de embalses",
+               description = "Todas las reglas de llenado y desembalse, ordenadas por embalse")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Reglas obtenidas exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = ReservoirAlertRule.class))),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getReservoirRules() {
+        try {
+            return Response.ok(alertRuleService.getReservoirRules()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener reglas de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/reservoirs/{reservoirId}")
+    @NonBlocking
+    @Operation(summary = "Regla de alerta de un embalse")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Regla encontrada",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = ReservoirAlertRule.class))),
+        @APIResponse(responseCode = "404", description = "El embalse no tiene regla de alerta"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getReservoirRule(@PathParam("reservoirId") String reservoirId) {
+        try {
+            Optional<ReservoirAlertRule> rule = alertRuleService.getReservoirRule(reservoirId);
+            if (rule.isPresent()) {
+                return Response.ok(rule.get()).build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("El embalse " + reservoirId + " no tiene regla de alerta")
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener regla de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @PUT
+    @Path("/reservoirs/{reservoirId}")
+    @Operation(summary = "Crear o reemplazar la regla de alerta de un embalse",
+               description = "Porcentajes de llenado alto y bajo, desembalse máximo y factor de pico de desembalse. " +
+                             "La última lectura del embalse se reevalúa al instante")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Regla guardada",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = ReservoirAlertRule.class))),
+        @APIResponse(responseCode = "400", description = "Umbrales inválidos"),
+        @APIResponse(responseCode = "404", description = "Embalse no encontrado"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response putReservoirRule(@PathParam("reservoirId") String reservoirId, @Valid ReservoirAlertRule rule) {
+        try {
+            if (rule == null) {
+                throw new IllegalArgumentException("se requiere el cuerpo de la regla");
+            }
+            if (hidrologiaService.getReservoirById(reservoirId).isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Embalse con ID " + reservoirId + " no encontrado")
+                        .build();
+            }
+            rule.setReservoirId(reservoirId);
+            alertRuleService.putReservoirRule(rule);
+            hidrologiaService.reevaluateReservoir(reservoirId);
+            return Response.ok(rule).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Regla de alerta inválida: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al guardar regla de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @DELETE
+    @Path("/reservoirs/{reservoirId}")
+    @Operation(summary = "Eliminar la regla de alerta de un embalse",
+               description = "El embalse conserva el último estado operativo calculado")
+    @APIResponses({
+        @APIResponse(responseCode = "204", description = "Regla eliminada"),
+        @APIResponse(responseCode = "404", description = "El embalse no tiene regla de alerta"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response deleteReservoirRule(@PathParam("reservoirId") String reservoirId) {
+        try {
+            if (alertRuleService.removeReservoirRule(reservoirId)) {
+                return Response.noContent().build();
+            }
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("El embalse " + reservoirId + " no tiene regla de alerta")
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al eliminar regla de alerta: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.service.WireFormat;
+import com.hidrologia.service.WireFormats;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+// Escribe cualquier entidad en CBOR o Smile cuando el cliente los negocia; JSON sigue
+// a cargo del proveedor de Jackson de Quarkus
+@Provider
+@Produces({WireFormat.APPLICATION_CBOR, WireFormat.APPLICATION_SMILE})
+public class BinaryBodyWriter implements MessageBodyWriter<Object> {
+
+    @Inject
+    WireFormats wireFormats;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return !byte[].class.equals(type) && WireFormat.of(mediaType) != WireFormat.JSON;
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        entityStream.write(wireFormats.mapper(WireFormat.of(mediaType)).writeValueAsBytes(entity));
+    }
+}
@@ -0,0 +1,148 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.model.GeoMatch;
+import com.hidrologia.service.GeoService;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@Path("/api/geo")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Geo API", description = "Consultas geográficas sobre estaciones y embalses")
+public class GeoController {
+
+    @Inject
+    GeoService geoService;
+
+    @GET
+    @Path("/stations/within")
+    @Operation(summary = "Estaciones dentro de un radio",
+               description = "Estaciones a menos de 'radiusKm' kilómetros del punto (lat, lon), ordenadas por distancia")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = GeoMatch.class))),
+        @APIResponse(responseCode = "400", description = "Coordenadas o radio inválidos"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getStationsWithinRadius(@QueryParam("lat") Double latitude,
+                                            @QueryParam("lon") Double longitude,
+                                            @QueryParam("radiusKm") Double radiusKm,
+                                            @QueryParam("limit") Integer limit) {
+        return query(() -> geoService.findStationsWithinRadius(latitude, longitude, radiusKm, limit));
+    }
+
+    @GET
+    @Path("/stations/nearest")
+    @Operation(summary = "Estaciones más cercanas",
+               description = "Las 'k' estaciones más cercanas al punto (lat, lon), 5 por defecto")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = GeoMatch.class))),
+        @APIResponse(responseCode = "400", description = "Coordenadas inválidas"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getNearestStations(@QueryParam("lat") Double latitude,
+                                       @QueryParam("lon") Double longitude,
+                                       @QueryParam("k") Integer k) {
+        return query(() -> geoService.findNearestStations(latitude, longitude, k));
+    }
+
+    @GET
+    @Path("/stations/bbox")
+    @Operation(summary = "Estaciones dentro de un rectángulo",
+               description = "Estaciones entre las latitudes 'minLat'-'maxLat' y las longitudes 'minLon'-'maxLon'")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = GeoMatch.class))),
+        @APIResponse(responseCode = "400", description = "Rectángulo inválido"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getStationsInBox(@QueryParam("minLat") Double minLatitude,
+                                     @QueryParam("minLon") Double minLongitude,
+                                     @QueryParam("maxLat") Double maxLatitude,
+                                     @QueryParam("maxLon") Double maxLongitude,
+                                     @QueryParam("limit") Integer limit) {
+        return query(() -> geoService.findStationsInBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit));
+    }
+
+    @GET
+    @Path("/reservoirs/within")
+    @Operation(summary = "Embalses dentro de un radio",
+               description = "Embalses a menos de 'radiusKm' kilómetros del punto (lat, lon), ordenados por distancia")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = GeoMatch.class))),
+        @APIResponse(responseCode = "400", description = "Coordenadas o radio inválidos"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getReservoirsWithinRadius(@QueryParam("lat") Double latitude,
+                                              @QueryParam("lon") Double longitude,
+                                              @QueryParam("radiusKm") Double radiusKm,
+                                              @QueryParam("limit") Integer limit) {
+        return query(() -> geoService.findReservoirsWithinRadius(latitude, longitude, radiusKm, limit));
+    }
+
+    @GET
+    @Path("/reservoirs/nearest")
+    @Operation(summary = "Embalses más cercanos",
+               description = "Los 'k' embalses más cercanos al punto (lat, lon), 5 por defecto")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = GeoMatch.class))),
+        @APIResponse(responseCode = "400", description = "Coordenadas inválidas"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getNearestReservoirs(@QueryParam("lat") Double latitude,
+                                         @QueryParam("lon") Double longitude,
+                                         @QueryParam("k") Integer k) {
+        return query(() -> geoService.findNearestReservoirs(latitude, longitude, k));
+    }
+
+    @GET
+    @Path("/reservoirs/bbox")
+    @Operation(summary = "Embalses dentro de un rectángulo",
+               description = "Embalses entre las latitudes 'minLat'-'maxLat' y las longitudes 'minLon'-'maxLon'")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = GeoMatch.class))),
+        @APIResponse(responseCode = "400", description = "Rectángulo inválido"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getReservoirsInBox(@QueryParam("minLat") Double minLatitude,
+                                       @QueryParam("minLon") Double minLongitude,
+                                       @QueryParam("maxLat") Double maxLatitude,
+                                       @QueryParam("maxLon") Double maxLongitude,
+                                       @QueryParam("limit") Integer limit) {
+        return query(() -> geoService.findReservoirsInBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit));
+    }
+
+    private static Response query(Supplier<List<GeoMatch>> search) {
+        try {
+            return Response.ok(search.get()).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Consulta geográfica inválida: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error en la consulta geográfica: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.model.NetworkNode;
+import com.hidrologia.model.RiverInflow;
+import com.hidrologia.model.RiverSummary;
+import com.hidrologia.service.NetworkService;
+import io.smallrye.common.annotation.NonBlocking;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Path("/api/network")
+@Produces(MediaType.APPLICATION_JSON)
+@NonBlocking
+@Tag(name = "Network API", description = "Recorridos de la red fluvial entre estaciones y embalses")
+public class NetworkController {
+
+    @Inject
+    NetworkService networkService;
+
+    @GET
+    @Path("/rivers")
+    @Operation(summary = "Ríos de la red",
+               description = "Longitud, río receptor, punto de confluencia y número de estaciones y embalses de cada río")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = RiverSummary.class))),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getRivers() {
+        try {
+            return Response.ok(networkService.getRivers()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener la red fluvial: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{id}/downstream")
+    @Operation(summary = "Puntos aguas abajo",
+               description = "Estaciones y embalses aguas abajo del punto hasta 'maxKm' kilómetros por el río, " +
+                             "con el tiempo de llegada de una onda de crecida a 'celerityKmh' (5 km/h por defecto)")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = NetworkNode.class))),
+        @APIResponse(responseCode = "400", description = "Distancia, celeridad o límite inválidos"),
+        @APIResponse(responseCode = "404", description = "Punto no encontrado"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getDownstream(@PathParam("id") String id,
+                                  @QueryParam("maxKm") Double maxKm,
+                                  @QueryParam("celerityKmh") Double celerityKmh,
+                                  @QueryParam("limit") Integer limit) {
+        return query(id, () -> networkService.findDownstream(id, maxKm, celerityKmh, limit));
+    }
+
+    @GET
+    @Path("/{id}/upstream")
+    @Operation(summary = "Cuenca vertiente",
+               description = "Estaciones y embalses aguas arriba del punto hasta 'maxKm' kilómetros por el río, " +
+                             "ordenados por distancia")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = NetworkNode.class))),
+        @APIResponse(responseCode = "400", description = "Distancia o límite inválidos"),
+        @APIResponse(responseCode = "404", description = "Punto no encontrado"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getUpstream(@PathParam("id") String id,
+                                @QueryParam("maxKm") Double maxKm,
+                                @QueryParam("limit") Integer limit) {
+        return query(id, () -> networkService.findUpstream(id, maxKm, limit));
+    }
+
+    @GET
+    @Path("/{id}/inflow")
+    @Operation(summary = "Caudal entrante",
+               description = "Suma del caudal de las estaciones y embalses con medida más cercanos aguas arriba, " +
+                             "y totales de la cuenca vertiente")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = RiverInflow.class))),
+        @APIResponse(responseCode = "404", description = "Punto no encontrado"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getInflow(@PathParam("id") String id) {
+        return query(id, () -> networkService.getInflow(id));
+    }
+
+    private static Response query(String id, Supplier<? extends Optional<?>> search) {
+        try {
+            Optional<?> result = search.get();
+            if (result.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Punto con ID " + id + " no encontrado en la red fluvial")
+                        .build();
+            }
+            return Response.ok(result.get()).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Consulta de red inválida: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error en la consulta de red: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.service.HidrologiaMetrics;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+// Cuenta las respuestas 400/404/5xx de cada endpoint
+public class OutcomeMetricsFilter {
+
+    @Inject
+    HidrologiaMetrics metrics;
+
+    @ServerResponseFilter
+    public void countOutcome(ContainerResponseContext response, ResourceInfo resourceInfo) {
+        if (response.getStatus() >= 400) {
+            metrics.recordOutcome(resourceInfo.getResourceMethod(), response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.ratelimit.ClientLimiter;
+import com.hidrologia.service.HidrologiaMetrics;
+import com.hidrologia.service.RateLimitService;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.util.concurrent.TimeUnit;
+
+// Aplica los límites por cliente a los endpoints @RateLimited antes de llamar al servicio.
+// Rechazar cuesta un par de operaciones atómicas y una respuesta 429 de texto, sin serializar nada
+public class RateLimitFilter {
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    @Inject
+    RateLimitService rateLimits;
+
+    @Inject
+    HidrologiaMetrics metrics;
+
+    @RateLimited
+    @ServerRequestFilter
+    public Response limit(ContainerRequestContext request, RoutingContext routing) {
+        if (!rateLimits.isEnabled()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        ClientLimiter client = rateLimits.client(request.getHeaderString(rateLimits.getClientHeader()),
+                routing.request().remoteAddress().host(), now);
+
+        long waitNanos = client.tryAcquire(now);
+        if (waitNanos > 0) {
+            metrics.recordRateLimited();
+            long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            return tooManyRequests(seconds, "Límite de peticiones excedido; reintente en " + seconds + " s");
+        }
+        if (!client.enter()) {
+            client.refund();
+            metrics.recordConcurrencyLimited();
+            return tooManyRequests(1, "Demasiadas peticiones simultáneas del mismo cliente");
+        }
+        // El hueco se libera al terminar la respuesta o al cerrarse la conexión
+        routing.addEndHandler(done -> client.exit());
+        return null;
+    }
+
+    private static Response tooManyRequests(long retryAfterSeconds, String message) {
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(RETRY_AFTER, retryAfterSeconds)
+                .type(MediaType.TEXT_PLAIN)
+                .entity(message)
+                .build();
+    }
+}
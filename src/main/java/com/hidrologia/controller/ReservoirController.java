@@ -1,37 +1,103 @@
 package com.hidrologia.controller;
 
+import com.hidrologia.analytics.ReservoirDimension;
+import com.hidrologia.analytics.ReservoirMetric;
+import com.hidrologia.model.AnalyticsResult;
+import com.hidrologia.model.ForecastResult;
+import com.hidrologia.model.HistorySeries;
+import com.hidrologia.model.QueryResult;
 import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirForecast;
+import com.hidrologia.model.ReservoirQuery;
+import com.hidrologia.service.AnalyticsService;
+import com.hidrologia.service.ForecastService;
 import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.HistoryService;
+import com.hidrologia.service.ListingService;
+import com.hidrologia.service.QueryService;
+import com.hidrologia.service.SnapshotCache;
+import com.hidrologia.service.WireFormat;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Optional;
 
 @Path("/api/reservoirs")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, WireFormat.APPLICATION_CBOR, WireFormat.APPLICATION_SMILE})
 @Consumes(MediaType.APPLICATION_JSON)
+@RateLimited
 public class ReservoirController {
 
     @Inject
     HidrologiaService hidrologiaService;
 
+    @Inject
+    HistoryService historyService;
+
+    @Inject
+    SnapshotCache snapshotCache;
+
+    @Inject
+    AnalyticsService analyticsService;
+
+    @Inject
+    ListingService listingService;
+
+    @Inject
+    QueryService queryService;
+
+    @Inject
+    ForecastService forecastService;
+
     @GET
-    public Response getAllReservoirs() {
+    public Uni<Response> getAllReservoirs(@Context Request request,
+                                          @Context HttpHeaders headers,
+                                          @QueryParam("fields") String fields,
+                                          @QueryParam("sort") String sort,
+                                          @QueryParam("cursor") String cursor,
+                                          @QueryParam("limit") Integer limit) {
+        if (fields != null || sort != null || cursor != null || limit != null) {
+            WireFormat format = SnapshotResponses.format(headers);
+            return SnapshotResponses.onWorker(() -> SnapshotResponses.of(
+                    listingService.listReservoirs(fields, sort, cursor, limit, format), format),
+                    "Error al obtener embalses: ");
+        }
+        long version = hidrologiaService.getReservoirsVersion();
+        return SnapshotResponses.of(request, headers, snapshotCache, "reservoirs", version,
+                hidrologiaService::getAllReservoirs, "Error al obtener embalses: ");
+    }
+
+    @POST
+    @Path("/query")
+    public Response queryReservoirs(ReservoirQuery query) {
         try {
-            List<Reservoir> reservoirs = hidrologiaService.getAllReservoirs();
-            return Response.ok(reservoirs).build();
+            QueryResult<Reservoir> result = queryService.queryReservoirs(query);
+            return Response.ok(result)
+                    .header(SnapshotResponses.VERSION_HEADER, result.getVersion())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Consulta inválida: " + e.getMessage())
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Error al obtener embalses: " + e.getMessage())
+                    .entity("Error al consultar embalses: " + e.getMessage())
                     .build();
         }
     }
 
     @GET
     @Path("/{id}")
+    @NonBlocking
     public Response getReservoirById(@PathParam("id") String reservoirId) {
         try {
             Optional<Reservoir> reservoir = hidrologiaService.getReservoirById(reservoirId);
@@ -49,46 +115,83 @@ public class ReservoirController {
         }
     }
 
+    // Volumen y caudal de salida; mismo criterio de niveles y reducción que el histórico de estaciones
     @GET
-    @Path("/use/{primaryUse}")
-    public Response getReservoirsByPrimaryUse(@PathParam("primaryUse") String primaryUse) {
+    @Path("/{id}/history/downsampled")
+    public Response getReservoirHistorySeries(@PathParam("id") String reservoirId,
+                                              @QueryParam("from") String from,
+                                              @QueryParam("to") String to,
+                                              @QueryParam("maxPoints") Integer maxPoints) {
         try {
-            Reservoir.PrimaryUse use = Reservoir.PrimaryUse.valueOf(primaryUse.toUpperCase());
-            List<Reservoir> reservoirs = hidrologiaService.getReservoirsByPrimaryUse(use);
-            return Response.ok(reservoirs).build();
+            if (hidrologiaService.getReservoirById(reservoirId).isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Embalse con ID " + reservoirId + " no encontrado")
+                        .build();
+            }
+            LocalDateTime toTime = to == null ? LocalDateTime.now() : LocalDateTime.parse(to);
+            LocalDateTime fromTime = from == null ? toTime.minusHours(24) : LocalDateTime.parse(from);
+            if (fromTime.isAfter(toTime)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Rango inválido: 'from' es posterior a 'to'")
+                        .build();
+            }
+            HistorySeries series = historyService.getReservoirSeries(reservoirId, fromTime, toTime, maxPoints);
+            return Response.ok(series).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Fecha inválida: " + e.getParsedString() +
+                           ". Formato esperado: yyyy-MM-ddTHH:mm:ss")
+                    .build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity("Uso principal inválido: " + primaryUse + 
-                           ". Valores permitidos: HIDROELECTRICA, ABASTECIMIENTO, RIEGO, CONTROL_AVENIDAS, RECREATIVO, INDUSTRIAL")
+                    .entity(e.getMessage())
                     .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Error al filtrar por uso: " + e.getMessage())
+                    .entity("Error al obtener histórico: " + e.getMessage())
                     .build();
         }
     }
 
+    @GET
+    @Path("/use/{primaryUse}")
+    public Uni<Response> getReservoirsByPrimaryUse(@PathParam("primaryUse") String primaryUse, @Context Request request,
+                                                   @Context HttpHeaders headers) {
+        Reservoir.PrimaryUse use;
+        try {
+            use = Reservoir.PrimaryUse.valueOf(primaryUse.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Uso principal inválido: " + primaryUse + 
+                           ". Valores permitidos: HIDROELECTRICA, ABASTECIMIENTO, RIEGO, CONTROL_AVENIDAS, RECREATIVO, INDUSTRIAL")
+                    .build());
+        }
+        long version = hidrologiaService.getReservoirsVersion();
+        return SnapshotResponses.of(request, headers, snapshotCache, "reservoirs-use-" + use, version,
+                () -> hidrologiaService.getReservoirsByPrimaryUse(use), "Error al filtrar por uso: ");
+    }
+
     @GET
     @Path("/status/{status}")
-    public Response getReservoirsByStatus(@PathParam("status") String status) {
+    public Uni<Response> getReservoirsByStatus(@PathParam("status") String status, @Context Request request,
+                                               @Context HttpHeaders headers) {
+        Reservoir.OperationalStatus operationalStatus;
         try {
-            Reservoir.OperationalStatus operationalStatus = Reservoir.OperationalStatus.valueOf(status.toUpperCase());
-            List<Reservoir> reservoirs = hidrologiaService.getReservoirsByStatus(operationalStatus);
-            return Response.ok(reservoirs).build();
+            operationalStatus = Reservoir.OperationalStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
                     .entity("Estado operativo inválido: " + status + 
                            ". Valores permitidos: OPERATIVO, MANTENIMIENTO, FUERA_SERVICIO, EMERGENCIA")
-                    .build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Error al filtrar por estado: " + e.getMessage())
-                    .build();
+                    .build());
         }
+        long version = hidrologiaService.getReservoirsVersion();
+        return SnapshotResponses.of(request, headers, snapshotCache, "reservoirs-status-" + operationalStatus, version,
+                () -> hidrologiaService.getReservoirsByStatus(operationalStatus), "Error al filtrar por estado: ");
     }
 
     @GET
     @Path("/statistics")
+    @NonBlocking
     public Response getSystemStatistics() {
         try {
             String statistics = hidrologiaService.getSystemStatistics();
@@ -99,4 +202,105 @@ public class ReservoirController {
                     .build();
         }
     }
-}
\ No newline at end of file
+
+    @GET
+    @Path("/analytics")
+    public Response getReservoirAnalytics(@QueryParam("groupBy") @DefaultValue("mainRiver") String groupBy,
+                                          @QueryParam("metric") @DefaultValue("fillPercentage") String metric,
+                                          @QueryParam("percentiles") String percentiles) {
+        ReservoirDimension dimension;
+        ReservoirMetric reservoirMetric;
+        double[] requestedPercentiles;
+        try {
+            dimension = ReservoirDimension.fromParamName(groupBy);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Agrupación inválida: " + groupBy +
+                           ". Valores permitidos: mainRiver, primaryUse, status, region")
+                    .build();
+        }
+        try {
+            reservoirMetric = ReservoirMetric.fromFieldName(metric);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Métrica inválida: " + metric +
+                           ". Valores permitidos: maxCapacity, currentVolume, fillPercentage, damHeight, damLength, outflow, constructionYear")
+                    .build();
+        }
+        try {
+            requestedPercentiles = parsePercentiles(percentiles);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Percentiles inválidos: " + percentiles + ". Valores entre 0 y 100 separados por comas")
+                    .build();
+        }
+
+        try {
+            AnalyticsResult result = analyticsService.aggregateReservoirs(dimension, reservoirMetric, requestedPercentiles);
+            return Response.ok(result).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al calcular analítica: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    // Volumen y llenado previstos de todos los embalses para los próximos 'days' días
+    @GET
+    @Path("/forecast")
+    public Response getReservoirsForecast(@QueryParam("days") Integer days) {
+        try {
+            ForecastResult result = forecastService.forecastReservoirs(days);
+            return Response.ok(result)
+                    .header(SnapshotResponses.VERSION_HEADER, result.getSnapshotVersion())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al calcular previsión: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{id}/forecast")
+    public Response getReservoirForecast(@PathParam("id") String reservoirId,
+                                         @QueryParam("days") Integer days) {
+        try {
+            Optional<ReservoirForecast> forecast = forecastService.forecastReservoir(reservoirId, days);
+            if (forecast.isPresent()) {
+                return Response.ok(forecast.get()).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Embalse con ID " + reservoirId + " no encontrado")
+                        .build();
+            }
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al calcular previsión: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private static double[] parsePercentiles(String percentiles) {
+        if (percentiles == null || percentiles.isBlank()) {
+            return new double[0];
+        }
+        String[] parts = percentiles.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+            if (!(values[i] > 0 && values[i] <= 100)) {
+                throw new IllegalArgumentException(parts[i]);
+            }
+        }
+        return values;
+    }
+}
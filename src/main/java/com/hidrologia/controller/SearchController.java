@@ -0,0 +1,89 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.model.SearchMatch;
+import com.hidrologia.service.SearchService;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@Path("/api/search")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Search API", description = "Búsqueda de texto de estaciones y embalses")
+public class SearchController {
+
+    @Inject
+    SearchService searchService;
+
+    @GET
+    @Operation(summary = "Buscar estaciones y embalses",
+               description = "Busca 'q' en nombre, río, ubicación y observaciones sin distinguir tildes ni mayúsculas. " +
+                             "Cada palabra debe aparecer: las de una o dos letras como inicio de palabra y las demás " +
+                             "en cualquier posición. Resultados por relevancia, 10 por defecto")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = SearchMatch.class))),
+        @APIResponse(responseCode = "400", description = "Consulta o límite inválidos"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response search(@QueryParam("q") String query,
+                           @QueryParam("limit") Integer limit) {
+        return query(() -> searchService.search(query, limit));
+    }
+
+    @GET
+    @Path("/stations")
+    @Operation(summary = "Buscar estaciones",
+               description = "Como /api/search, solo entre las estaciones hidrológicas")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = SearchMatch.class))),
+        @APIResponse(responseCode = "400", description = "Consulta o límite inválidos"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response searchStations(@QueryParam("q") String query,
+                                   @QueryParam("limit") Integer limit) {
+        return query(() -> searchService.searchStations(query, limit));
+    }
+
+    @GET
+    @Path("/reservoirs")
+    @Operation(summary = "Buscar embalses",
+               description = "Como /api/search, solo entre los embalses")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = SearchMatch.class))),
+        @APIResponse(responseCode = "400", description = "Consulta o límite inválidos"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response searchReservoirs(@QueryParam("q") String query,
+                                     @QueryParam("limit") Integer limit) {
+        return query(() -> searchService.searchReservoirs(query, limit));
+    }
+
+    private static Response query(Supplier<List<SearchMatch>> search) {
+        try {
+            return Response.ok(search.get()).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Búsqueda inválida: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error en la búsqueda: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.service.ListingPage;
+import com.hidrologia.service.SnapshotCache;
+import com.hidrologia.service.SnapshotCache.SerializedSnapshot;
+import com.hidrologia.service.WireFormat;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Construye respuestas a partir de snapshots serializados, con soporte de If-None-Match
+// y de la variante gzip precomprimida cuando el cliente la acepta
+final class SnapshotResponses {
+
+    // Por debajo de este tamaño la compresión no compensa
+    private static final int MIN_GZIP_BYTES = 1024;
+    // Versión del almacén de la que procede el cuerpo; todo el listado sale de esa única versión
+    static final String VERSION_HEADER = "X-Snapshot-Version";
+
+    private SnapshotResponses() {}
+
+    static WireFormat format(HttpHeaders headers) {
+        return WireFormat.negotiate(headers.getAcceptableMediaTypes());
+    }
+
+    // Con el snapshot vigente ya en caché la respuesta se construye en el event loop; serializar
+    // o comprimir un listado completo se hace en un hilo worker para no bloquearlo
+    static Uni<Response> of(Request request, HttpHeaders headers, SnapshotCache cache, String key, long version,
+                            Supplier<?> data, String errorMessage) {
+        WireFormat format = format(headers);
+        SerializedSnapshot cached = cache.getIfCurrent(key, format, version);
+        if (cached != null && (!gzip(cached, headers) || cached.hasGzipBytes())) {
+            return Uni.createFrom().item(of(request, headers, cached));
+        }
+        return onWorker(() -> of(request, headers, cache.get(key, format, version, data)), errorMessage);
+    }
+
+    // Ejecuta un listado en un hilo worker; IllegalArgumentException se traduce a 400
+    static Uni<Response> onWorker(Supplier<Response> response, String errorMessage) {
+        return Uni.createFrom().item(response)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .onFailure().recoverWithItem(e -> e instanceof IllegalArgumentException
+                        ? Response.status(Response.Status.BAD_REQUEST)
+                                .entity("Parámetros de listado inválidos: " + e.getMessage())
+                                .build()
+                        : Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                .entity(errorMessage + e.getMessage())
+                                .build());
+    }
+
+    static Response of(Request request, HttpHeaders headers, SerializedSnapshot snapshot) {
+        boolean gzip = gzip(snapshot, headers);
+        EntityTag etag = new EntityTag(gzip ? snapshot.getEtag() + "-gzip" : snapshot.getEtag());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.tag(etag)
+                    .header("Vary", "Accept, Accept-Encoding")
+                    .header(VERSION_HEADER, snapshot.getVersion())
+                    .build();
+        }
+        Response.ResponseBuilder response = Response.ok(gzip ? snapshot.getGzipBytes() : snapshot.getBytes(),
+                        snapshot.getFormat().getType())
+                .tag(etag)
+                .header("Vary", "Accept, Accept-Encoding")
+                .header(VERSION_HEADER, snapshot.getVersion());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    static Response of(ListingPage page, WireFormat format) {
+        return Response.ok(page.getBytes(), format.getType())
+                .header(VERSION_HEADER, page.getVersion())
+                .build();
+    }
+
+    private static boolean gzip(SerializedSnapshot snapshot, HttpHeaders headers) {
+        return snapshot.getBytes().length >= MIN_GZIP_BYTES && acceptsGzip(headers);
+    }
+
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        String acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.model.SystemStatistics;
+import com.hidrologia.service.HidrologiaService;
+import io.smallrye.common.annotation.NonBlocking;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@Path("/api/statistics")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Statistics API", description = "Estadísticas agregadas del sistema hidrológico")
+public class StatisticsController {
+
+    @Inject
+    HidrologiaService hidrologiaService;
+
+    @GET
+    @NonBlocking
+    @Operation(summary = "Estadísticas estructuradas del sistema",
+               description = "Conteos por estado de alerta y estado operativo, llenado medio/mínimo/máximo y totales por cuenca. " +
+                             "Los agregados se mantienen de forma incremental en cada actualización")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = SystemStatistics.class))),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getStatistics() {
+        try {
+            return Response.ok(hidrologiaService.getSystemStatisticsSummary()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener estadísticas: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hidrologia.controller;
+
+import com.hidrologia.model.ChangeEvent;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.ChangeEventBus;
+import io.smallrye.mutiny.Multi;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Path("/api/stream")
+@Produces(MediaType.SERVER_SENT_EVENTS)
+@Tag(name = "Streaming API", description = "Eventos en tiempo real (Server-Sent Events) de niveles, embalses y alertas")
+public class StreamController {
+
+    @Inject
+    ChangeEventBus eventBus;
+
+    @GET
+    @Path("/water")
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream de lecturas de estaciones",
+               description = "Emite cada nueva lectura y los cambios de estado de alerta. Filtros opcionales: " +
+                             "stationId (lista separada por comas), type y minAlert (nivel mínimo de alerta)")
+    public Multi<ChangeEvent> streamWaterLevels(@QueryParam("stationId") String stationIds,
+                                                @QueryParam("type") String type,
+                                                @QueryParam("minAlert") String minAlert) {
+        return eventBus.subscribeWaterLevels(parseIds(stationIds),
+                parseEnum(WaterLevel.WaterType.class, type, "Tipo inválido"),
+                parseEnum(WaterLevel.AlertStatus.class, minAlert, "Estado de alerta inválido"));
+    }
+
+    @GET
+    @Path("/reservoirs")
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream de actualizaciones de embalses",
+               description = "Emite cada actualización de embalse y los cambios de estado operativo. Filtros opcionales: " +
+                             "reservoirId (lista separada por comas) y status")
+    public Multi<ChangeEvent> streamReservoirs(@QueryParam("reservoirId") String reservoirIds,
+                                               @QueryParam("status") String status) {
+        return eventBus.subscribeReservoirs(parseIds(reservoirIds),
+                parseEnum(Reservoir.OperationalStatus.class, status, "Estado operativo inválido"));
+    }
+
+    @GET
+    @Path("/alerts")
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream de transiciones de estado",
+               description = "Emite solo los cambios de estado de alerta de estaciones y de estado operativo de embalses")
+    public Multi<ChangeEvent> streamTransitions(@QueryParam("minAlert") String minAlert) {
+        return eventBus.subscribeTransitions(parseEnum(WaterLevel.AlertStatus.class, minAlert, "Estado de alerta inválido"));
+    }
+
+    private static Set<String> parseIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(ids.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String message) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(message + ": " + value + ". Valores permitidos: " + Arrays.toString(type.getEnumConstants()))
+                    .type(MediaType.TEXT_PLAIN)
+                    .build());
+        }
+    }
+}
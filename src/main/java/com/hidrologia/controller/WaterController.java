@@ -1,7 +1,22 @@
 package com.hidrologia.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.hidrologia.model.BatchResult;
+import com.hidrologia.model.HistorySeries;
+import com.hidrologia.model.QueryResult;
 import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelHistory;
+import com.hidrologia.model.WaterLevelQuery;
 import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.HistoryService;
+import com.hidrologia.service.IngestionService;
+import com.hidrologia.service.ListingService;
+import com.hidrologia.service.QueryService;
+import com.hidrologia.service.SnapshotCache;
+import com.hidrologia.service.WireFormat;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Uni;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -10,44 +25,328 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Optional;
 
 @Path("/api/water")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, WireFormat.APPLICATION_CBOR, WireFormat.APPLICATION_SMILE})
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Water Levels API", description = "Operaciones para consultar niveles de agua en estaciones hidrológicas")
+@RateLimited
 public class WaterController {
 
     @Inject
     HidrologiaService hidrologiaService;
 
+    @Inject
+    HistoryService historyService;
+
+    @Inject
+    SnapshotCache snapshotCache;
+
+    @Inject
+    IngestionService ingestionService;
+
+    @Inject
+    ListingService listingService;
+
+    @Inject
+    QueryService queryService;
+
     @GET
     @Path("/levels")
     @Operation(summary = "Obtener todos los niveles de agua", 
-               description = "Retorna una lista completa de todas las estaciones con sus niveles actuales de agua")
+               description = "Retorna una lista completa de todas las estaciones con sus niveles actuales de agua. " +
+                             "Con 'limit', 'cursor', 'sort' (campo numérico, '-' para descendente) o 'fields' " +
+                             "(lista separada por comas) retorna una página {items, count, nextCursor}")
     @APIResponses({
         @APIResponse(responseCode = "200", description = "Lista de niveles obtenida exitosamente",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = WaterLevel.class))),
+        @APIResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
+        @APIResponse(responseCode = "400", description = "Parámetros de paginación inválidos"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Uni<Response> getAllWaterLevels(@Context Request request,
+                                           @Context HttpHeaders headers,
+                                           @QueryParam("fields") String fields,
+                                           @QueryParam("sort") String sort,
+                                           @QueryParam("cursor") String cursor,
+                                           @QueryParam("limit") Integer limit) {
+        if (fields != null || sort != null || cursor != null || limit != null) {
+            WireFormat format = SnapshotResponses.format(headers);
+            return SnapshotResponses.onWorker(() -> SnapshotResponses.of(
+                    listingService.listWaterLevels(fields, sort, cursor, limit, format), format),
+                    "Error al obtener niveles de agua: ");
+        }
+        long version = hidrologiaService.getWaterLevelsVersion();
+        return SnapshotResponses.of(request, headers, snapshotCache, "water-levels", version,
+                hidrologiaService::getAllWaterLevels, "Error al obtener niveles de agua: ");
+    }
+
+    @GET
+    @Path("/levels/type/{type}")
+    @Operation(summary = "Filtrar niveles por tipo de fuente",
+               description = "Retorna las estaciones de un tipo: RIO, EMBALSE, LAGO o ACUIFERO")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Lista filtrada obtenida exitosamente"),
+        @APIResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
+        @APIResponse(responseCode = "400", description = "Tipo inválido"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Uni<Response> getWaterLevelsByType(@PathParam("type") String type, @Context Request request,
+                                              @Context HttpHeaders headers) {
+        WaterLevel.WaterType waterType;
+        try {
+            waterType = WaterLevel.WaterType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Tipo inválido: " + type +
+                           ". Valores permitidos: RIO, EMBALSE, LAGO, ACUIFERO")
+                    .build());
+        }
+        long version = hidrologiaService.getWaterLevelsVersion();
+        return SnapshotResponses.of(request, headers, snapshotCache, "water-levels-type-" + waterType, version,
+                () -> hidrologiaService.getWaterLevelsByType(waterType), "Error al filtrar por tipo: ");
+    }
+
+    @GET
+    @Path("/levels/alerts/{alertStatus}")
+    @Operation(summary = "Filtrar niveles por estado de alerta",
+               description = "Retorna las estaciones en un estado: NORMAL, PRECAUCION, ALERTA o EMERGENCIA")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Lista filtrada obtenida exitosamente"),
+        @APIResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
+        @APIResponse(responseCode = "400", description = "Estado de alerta inválido"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Uni<Response> getWaterLevelsByAlertStatus(@PathParam("alertStatus") String alertStatus, @Context Request request,
+                                                     @Context HttpHeaders headers) {
+        WaterLevel.AlertStatus status;
+        try {
+            status = WaterLevel.AlertStatus.valueOf(alertStatus.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Estado de alerta inválido: " + alertStatus +
+                           ". Valores permitidos: NORMAL, PRECAUCION, ALERTA, EMERGENCIA")
+                    .build());
+        }
+        long version = hidrologiaService.getWaterLevelsVersion();
+        return SnapshotResponses.of(request, headers, snapshotCache, "water-levels-alert-" + status, version,
+                () -> hidrologiaService.getWaterLevelsByAlertStatus(status), "Error al filtrar por alerta: ");
+    }
+
+    @POST
+    @Path("/levels/batch")
+    @Blocking
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Ingesta de lecturas por lotes (array JSON)",
+               description = "Aplica un array de lecturas en una única escritura. Para estaciones existentes basta con " +
+                             "stationId y los valores medidos; el resto de datos se hereda de la estación")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Lote procesado; el resultado incluye el estado de cada lectura",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = BatchResult.class))),
+        @APIResponse(responseCode = "400", description = "Cuerpo mal formado"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response ingestBatch(InputStream body) {
+        try {
+            return Response.ok(ingestionService.ingestJsonArray(body)).build();
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Lote inválido: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al procesar lote: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/levels/batch")
+    @Blocking
+    @Consumes("application/x-ndjson")
+    @Operation(summary = "Ingesta de lecturas por lotes (NDJSON)",
+               description = "Una lectura JSON por línea; cada línea se valida de forma independiente")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Lote procesado; el resultado incluye el estado de cada lectura",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = BatchResult.class))),
         @APIResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public Response getAllWaterLevels() {
+    public Response ingestBatchNdjson(InputStream body) {
         try {
-            List<WaterLevel> levels = hidrologiaService.getAllWaterLevels();
-            return Response.ok(levels).build();
+            return Response.ok(ingestionService.ingestNdjson(body)).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al procesar lote: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/levels/query")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Consulta compuesta de estaciones",
+               description = "Varias estaciones por ID y filtros combinados (tipos, estados de alerta, rangos de nivel " +
+                             "y caudal, ventana de lastUpdated) en una sola consulta sobre la misma versión del almacén")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Consulta realizada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = QueryResult.class))),
+        @APIResponse(responseCode = "400", description = "Consulta inválida"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response queryWaterLevels(WaterLevelQuery query) {
+        try {
+            QueryResult<WaterLevel> result = queryService.queryWaterLevels(query);
+            return Response.ok(result)
+                    .header(SnapshotResponses.VERSION_HEADER, result.getVersion())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Consulta inválida: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al consultar estaciones: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/levels/{stationId}")
+    @NonBlocking
+    @Operation(summary = "Obtener nivel de agua por estación",
+               description = "Retorna la última lectura de una estación hidrológica")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Estación encontrada",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = WaterLevel.class))),
+        @APIResponse(responseCode = "404", description = "Estación no encontrada"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getWaterLevelByStationId(@PathParam("stationId") String stationId) {
+        try {
+            Optional<WaterLevel> level = hidrologiaService.getWaterLevelByStationId(stationId);
+            if (level.isPresent()) {
+                return Response.ok(level.get()).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Estación con ID " + stationId + " no encontrada")
+                        .build();
+            }
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener estación: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/levels/{stationId}/history")
+    @Operation(summary = "Histórico de lecturas de una estación",
+               description = "Retorna en formato columnar las lecturas entre 'from' y 'to' (ISO-8601, por defecto las últimas 24 horas)")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Histórico obtenido exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = WaterLevelHistory.class))),
+        @APIResponse(responseCode = "400", description = "Rango de fechas inválido"),
+        @APIResponse(responseCode = "404", description = "Estación no encontrada"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getWaterLevelHistory(@PathParam("stationId") String stationId,
+                                         @QueryParam("from") String from,
+                                         @QueryParam("to") String to) {
+        try {
+            if (hidrologiaService.getWaterLevelByStationId(stationId).isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Estación con ID " + stationId + " no encontrada")
+                        .build();
+            }
+            LocalDateTime toTime = to == null ? LocalDateTime.now() : LocalDateTime.parse(to);
+            LocalDateTime fromTime = from == null ? toTime.minusHours(24) : LocalDateTime.parse(from);
+            if (fromTime.isAfter(toTime)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Rango inválido: 'from' es posterior a 'to'")
+                        .build();
+            }
+            WaterLevelHistory history = historyService.getWaterLevelHistory(stationId, fromTime, toTime);
+            return Response.ok(history).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Fecha inválida: " + e.getParsedString() +
+                           ". Formato esperado: yyyy-MM-ddTHH:mm:ss")
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al obtener histórico: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/levels/{stationId}/history/downsampled")
+    @Operation(summary = "Histórico reducido para gráficas",
+               description = "Retorna como mucho 'maxPoints' puntos entre 'from' y 'to' (por defecto las últimas 24 horas). " +
+                             "Según el rango se usan las lecturas en bruto o los resúmenes horario o diario " +
+                             "(media, mínimo, máximo y último valor), reducidos con LTTB si hace falta")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Histórico obtenido exitosamente",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = HistorySeries.class))),
+        @APIResponse(responseCode = "400", description = "Rango de fechas o número de puntos inválido"),
+        @APIResponse(responseCode = "404", description = "Estación no encontrada"),
+        @APIResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Response getWaterLevelHistorySeries(@PathParam("stationId") String stationId,
+                                               @QueryParam("from") String from,
+                                               @QueryParam("to") String to,
+                                               @QueryParam("maxPoints") Integer maxPoints) {
+        try {
+            if (hidrologiaService.getWaterLevelByStationId(stationId).isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Estación con ID " + stationId + " no encontrada")
+                        .build();
+            }
+            LocalDateTime toTime = to == null ? LocalDateTime.now() : LocalDateTime.parse(to);
+            LocalDateTime fromTime = from == null ? toTime.minusHours(24) : LocalDateTime.parse(from);
+            if (fromTime.isAfter(toTime)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Rango inválido: 'from' es posterior a 'to'")
+                        .build();
+            }
+            HistorySeries series = historyService.getWaterLevelSeries(stationId, fromTime, toTime, maxPoints);
+            return Response.ok(series).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Fecha inválida: " + e.getParsedString() +
+                           ". Formato esperado: yyyy-MM-ddTHH:mm:ss")
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Error al obtener niveles de agua: " + e.getMessage())
+                    .entity("Error al obtener histórico: " + e.getMessage())
                     .build();
         }
     }
 
     @GET
     @Path("/health")
+    @NonBlocking
     @Operation(summary = "Health check del sistema hidrológico", 
                description = "Verifica el estado general del sistema de monitoreo")
     @APIResponses({
@@ -0,0 +1,96 @@
+package com.hidrologia.forecast;
+
+import com.hidrologia.history.TimeSeriesSlice;
+import com.hidrologia.model.Reservoir;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Estado actual y tendencia de todos los embalses en columnas primitivas, por versión del almacén.
+// La tendencia (variación neta de volumen y desembalse medio) se ajusta con el histórico reciente;
+// al reconstruir se reutiliza la de los embalses cuya última lectura no ha cambiado, así que tras
+// una actualización solo se vuelven a ajustar los embalses actualizados
+public final class ReservoirTrends {
+
+    // Columnas del histórico de embalses
+    static final int VOLUME = 0;
+    static final int OUTFLOW = 1;
+
+    private final long version;
+    private final int rowCount;
+    private final Map<String, Integer> rows;
+    final Reservoir[] reservoirs;
+    final double[] volume;
+    final double[] capacity;
+    // Variación neta de volumen en hm³/día (NaN sin tendencia)
+    final double[] netFlow;
+    // Desembalse medio en la ventana, m³/s
+    final double[] meanOutflow;
+    final int[] samples;
+    final long[] asOf;
+
+    private ReservoirTrends(long version, int rowCount) {
+        this.version = version;
+        this.rowCount = rowCount;
+        this.rows = new HashMap<>(rowCount * 2);
+        this.reservoirs = new Reservoir[rowCount];
+        this.volume = new double[rowCount];
+        this.capacity = new double[rowCount];
+        this.netFlow = new double[rowCount];
+        this.meanOutflow = new double[rowCount];
+        this.samples = new int[rowCount];
+        this.asOf = new long[rowCount];
+    }
+
+    // 'history' devuelve las lecturas recientes de un embalse (null si no hay)
+    public static ReservoirTrends build(long version, List<Reservoir> reservoirs, ReservoirTrends previous,
+                                        Function<Reservoir, TimeSeriesSlice> history) {
+        int n = reservoirs.size();
+        ReservoirTrends trends = new ReservoirTrends(version, n);
+        for (int row = 0; row < n; row++) {
+            Reservoir reservoir = reservoirs.get(row);
+            trends.rows.put(reservoir.getReservoirId(), row);
+            trends.reservoirs[row] = reservoir;
+            trends.volume[row] = reservoir.currentVolumeOrNaN();
+            trends.capacity[row] = reservoir.maxCapacityOrNaN();
+            trends.asOf[row] = reservoir.lastUpdatedEpochMilli();
+
+            Integer old = previous == null ? null : previous.rows.get(reservoir.getReservoirId());
+            if (old != null && previous.asOf[old] == trends.asOf[row]) {
+                trends.netFlow[row] = previous.netFlow[old];
+                trends.meanOutflow[row] = previous.meanOutflow[old];
+                trends.samples[row] = previous.samples[old];
+                continue;
+            }
+            TimeSeriesSlice slice = reservoir.lastUpdatedEpochMilli() == Reservoir.NO_TIMESTAMP
+                    ? null : history.apply(reservoir);
+            if (slice == null || slice.size() == 0) {
+                trends.netFlow[row] = Double.NaN;
+                trends.meanOutflow[row] = reservoir.outflowOrNaN();
+                continue;
+            }
+            double[] volumes = slice.column(VOLUME);
+            double outflow = VolumeTrend.mean(slice.column(OUTFLOW));
+            trends.netFlow[row] = VolumeTrend.slopePerDay(slice.getEpochSeconds(), volumes);
+            trends.meanOutflow[row] = Double.isNaN(outflow) ? reservoir.outflowOrNaN() : outflow;
+            trends.samples[row] = VolumeTrend.validCount(volumes);
+        }
+        return trends;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // Fila del embalse o -1 si no existe en esta versión
+    public int row(String reservoirId) {
+        Integer row = rows.get(reservoirId);
+        return row == null ? -1 : row;
+    }
+}
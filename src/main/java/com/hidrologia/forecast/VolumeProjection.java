@@ -0,0 +1,107 @@
+package com.hidrologia.forecast;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirForecast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Proyección lineal del volumen de los embalses a partir de sus tendencias, entre 0 y la capacidad.
+// Los bucles recorren arrays primitivos solo con operaciones aritméticas, min/max y selecciones,
+// que el compilador JIT puede vectorizar; no se usa la Vector API, todavía en incubación en Java 17
+public final class VolumeProjection {
+
+    // 1 hm³/día en m³/s
+    private static final double HM3_PER_DAY_TO_M3_PER_SECOND = 1_000_000.0 / 86_400.0;
+
+    private VolumeProjection() {}
+
+    public static List<ReservoirForecast> projectAll(ReservoirTrends trends, int days) {
+        int n = trends.getRowCount();
+        double[] daysToFull = new double[n];
+        double[] daysToEmpty = new double[n];
+        horizons(trends, 0, n, daysToFull, daysToEmpty);
+
+        double[] steps = steps(days);
+        List<ReservoirForecast> forecasts = new ArrayList<>(n);
+        for (int row = 0; row < n; row++) {
+            forecasts.add(forecast(trends, row, steps, daysToFull[row], daysToEmpty[row]));
+        }
+        return forecasts;
+    }
+
+    public static ReservoirForecast project(ReservoirTrends trends, int row, int days) {
+        double[] daysToFull = new double[1];
+        double[] daysToEmpty = new double[1];
+        horizons(trends, row, row + 1, daysToFull, daysToEmpty);
+        return forecast(trends, row, steps(days), daysToFull[0], daysToEmpty[0]);
+    }
+
+    // Días hasta llenarse (tendencia positiva) o vaciarse (negativa) de las filas [from, to), desde la
+    // posición 0 de la salida; NaN si el embalse no se dirige hacia ese extremo
+    static void horizons(ReservoirTrends trends, int from, int to, double[] daysToFull, double[] daysToEmpty) {
+        double[] volume = trends.volume;
+        double[] capacity = trends.capacity;
+        double[] netFlow = trends.netFlow;
+        for (int i = from; i < to; i++) {
+            double rate = netFlow[i];
+            daysToFull[i - from] = rate > 0 && capacity[i] > 0 ? Math.max(0.0, capacity[i] - volume[i]) / rate : Double.NaN;
+            daysToEmpty[i - from] = rate < 0 ? Math.max(0.0, volume[i]) / -rate : Double.NaN;
+        }
+    }
+
+    // Volumen y llenado al final de cada día; 'steps' son los días transcurridos (1, 2, ...).
+    // Una capacidad nula o negativa se trata como desconocida (NaN): sin límite superior ni llenado
+    static void project(double volume, double ratePerDay, double capacity, double[] steps,
+                        double[] volumes, double[] fillPercentages) {
+        boolean known = capacity > 0;
+        double upper = known ? capacity : Double.POSITIVE_INFINITY;
+        double scale = known ? 100.0 / capacity : Double.NaN;
+        for (int d = 0; d < steps.length; d++) {
+            double projected = Math.min(Math.max(volume + ratePerDay * steps[d], 0.0), upper);
+            volumes[d] = projected;
+            fillPercentages[d] = projected * scale;
+        }
+    }
+
+    private static double[] steps(int days) {
+        double[] steps = new double[days];
+        for (int d = 0; d < days; d++) {
+            steps[d] = d + 1;
+        }
+        return steps;
+    }
+
+    private static ReservoirForecast forecast(ReservoirTrends trends, int row, double[] steps,
+                                              double daysToFull, double daysToEmpty) {
+        Reservoir reservoir = trends.reservoirs[row];
+        double netFlow = trends.netFlow[row];
+        double meanOutflow = trends.meanOutflow[row];
+
+        double[] volumes = new double[steps.length];
+        double[] fillPercentages = new double[steps.length];
+        project(trends.volume[row], Double.isNaN(netFlow) ? 0.0 : netFlow, trends.capacity[row], steps,
+                volumes, fillPercentages);
+
+        ReservoirForecast forecast = new ReservoirForecast();
+        forecast.setReservoirId(reservoir.getReservoirId());
+        forecast.setName(reservoir.getName());
+        forecast.setAsOf(reservoir.getLastUpdated());
+        forecast.setCurrentVolume(reservoir.getCurrentVolume());
+        forecast.setMaxCapacity(reservoir.getMaxCapacity());
+        forecast.setFillPercentage(reservoir.getFillPercentage());
+        forecast.setNetFlow(orNull(netFlow));
+        forecast.setMeanOutflow(orNull(meanOutflow));
+        forecast.setEstimatedInflow(orNull(netFlow * HM3_PER_DAY_TO_M3_PER_SECOND + meanOutflow));
+        forecast.setTrendSamples(trends.samples[row]);
+        forecast.setDaysToFull(orNull(daysToFull));
+        forecast.setDaysToEmpty(orNull(daysToEmpty));
+        forecast.setProjectedVolume(volumes);
+        forecast.setProjectedFillPercentage(fillPercentages);
+        return forecast;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? null : value;
+    }
+}
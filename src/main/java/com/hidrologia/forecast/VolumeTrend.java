@@ -0,0 +1,69 @@
+package com.hidrologia.forecast;
+
+// Ajustes sobre el histórico reciente de un embalse. Los tiempos se miden en días desde la
+// última muestra para no perder precisión con segundos epoch; los valores NaN se ignoran
+final class VolumeTrend {
+
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    private VolumeTrend() {}
+
+    // Pendiente por mínimos cuadrados del volumen frente al tiempo, en unidades de volumen por día.
+    // NaN con menos de dos muestras válidas o si todas tienen el mismo instante
+    static double slopePerDay(long[] epochSeconds, double[] values) {
+        int n = epochSeconds.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        long origin = epochSeconds[n - 1];
+        double count = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < n; i++) {
+            double y = values[i];
+            if (!Double.isNaN(y)) {
+                count++;
+                sumX += (epochSeconds[i] - origin) / SECONDS_PER_DAY;
+                sumY += y;
+            }
+        }
+        if (count < 2) {
+            return Double.NaN;
+        }
+        double meanX = sumX / count;
+        double meanY = sumY / count;
+        double sxy = 0;
+        double sxx = 0;
+        for (int i = 0; i < n; i++) {
+            double y = values[i];
+            if (!Double.isNaN(y)) {
+                double dx = (epochSeconds[i] - origin) / SECONDS_PER_DAY - meanX;
+                sxy += dx * (y - meanY);
+                sxx += dx * dx;
+            }
+        }
+        return sxx > 0 ? sxy / sxx : Double.NaN;
+    }
+
+    static double mean(double[] values) {
+        double sum = 0;
+        int count = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                sum += value;
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    static int validCount(double[] values) {
+        int count = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
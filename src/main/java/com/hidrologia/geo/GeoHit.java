@@ -0,0 +1,17 @@
+package com.hidrologia.geo;
+
+// Resultado de una consulta espacial: ID del punto y distancia al origen (NaN si no aplica)
+public class GeoHit {
+
+    private final String id;
+    private final double distanceKm;
+
+    GeoHit(String id, double distanceKm) {
+        this.id = id;
+        this.distanceKm = distanceKm;
+    }
+
+    public String getId() { return id; }
+
+    public double getDistanceKm() { return distanceKm; }
+}
@@ -0,0 +1,341 @@
+package com.hidrologia.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice espacial sobre una rejilla regular de latitud/longitud.
+// Las coordenadas se guardan en arrays primitivos indexados por slot y cada celda guarda
+// los slots que contiene, de modo que una consulta solo recorre las celdas que la cubren.
+// No contempla el antimeridiano: la red está acotada a la península y las islas.
+public class GridIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Map<Integer, Cell> cells = new HashMap<>();
+    private String[] ids = new String[64];
+    private double[] latitudes = new double[64];
+    private double[] longitudes = new double[64];
+    private int[] cellOfSlot = new int[64];
+    // Puntos por fila y por columna de la rejilla, para acotar las consultas a la zona ocupada
+    private final int[] pointsPerRow;
+    private final int[] pointsPerColumn;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    public GridIndex(double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("Tamaño de celda inválido: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180.0 / cellDegrees);
+        this.columns = (int) Math.ceil(360.0 / cellDegrees);
+        this.pointsPerRow = new int[rows];
+        this.pointsPerColumn = new int[columns];
+    }
+
+    // ========== Mantenimiento ==========
+
+    // Sin coordenadas (NaN) el punto se retira del índice
+    public void update(String id, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                if (slot != null) {
+                    release(id, slot);
+                }
+                return;
+            }
+            int cell = cellOf(row(latitude), column(longitude));
+            if (slot == null) {
+                slot = allocate();
+                slotById.put(id, slot);
+                ids[slot] = id;
+            } else if (cellOfSlot[slot] != cell) {
+                removeFromCell(slot);
+            } else {
+                latitudes[slot] = latitude;
+                longitudes[slot] = longitude;
+                return;
+            }
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+            cellOfSlot[slot] = cell;
+            cells.computeIfAbsent(cell, key -> new Cell()).add(slot);
+            pointsPerRow[cell / columns]++;
+            pointsPerColumn[cell % columns]++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Consultas ==========
+
+    // Puntos a menos de 'radiusKm' del origen, ordenados por distancia
+    public List<GeoHit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(90.0, Math.abs(latitude) + latitudeSpan)));
+        double longitudeSpan = cos < 1e-6 ? 180.0 : Math.min(180.0, latitudeSpan / cos);
+
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int minRow = row(latitude - latitudeSpan);
+            int maxRow = row(latitude + latitudeSpan);
+            int minColumn = column(longitude - longitudeSpan);
+            int maxColumn = column(longitude + longitudeSpan);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    Cell cell = cells.get(cellOf(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        int slot = cell.slots[i];
+                        double distance = distanceKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+                        if (distance <= radiusKm) {
+                            hits.add(new GeoHit(ids[slot], distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(GeoHit::getDistanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    // Puntos dentro del rectángulo, sin distancia
+    public List<GeoHit> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                  int limit) {
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int maxRow = row(maxLatitude);
+            int maxColumn = column(maxLongitude);
+            for (int r = row(minLatitude); r <= maxRow && hits.size() < limit; r++) {
+                for (int c = column(minLongitude); c <= maxColumn && hits.size() < limit; c++) {
+                    Cell cell = cells.get(cellOf(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size && hits.size() < limit; i++) {
+                        int slot = cell.slots[i];
+                        double lat = latitudes[slot];
+                        double lon = longitudes[slot];
+                        if (lat >= minLatitude && lat <= maxLatitude && lon >= minLongitude && lon <= maxLongitude) {
+                            hits.add(new GeoHit(ids[slot], Double.NaN));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits;
+    }
+
+    // Los k puntos más cercanos. Recorre anillos de celdas alrededor del origen, limitados a las filas
+    // y columnas con puntos, y se detiene cuando el siguiente anillo ya no puede contener nada más
+    // cercano que el k-ésimo encontrado o cuando ya se han visitado todos los puntos
+    public List<GeoHit> nearest(double latitude, double longitude, int k) {
+        PriorityQueue<GeoHit> best = new PriorityQueue<>(k, Comparator.comparingDouble(GeoHit::getDistanceKm).reversed());
+        lock.readLock().lock();
+        try {
+            int total = slotById.size();
+            if (total == 0) {
+                return new ArrayList<>();
+            }
+            int minRow = firstOccupied(pointsPerRow);
+            int maxRow = lastOccupied(pointsPerRow);
+            int minColumn = firstOccupied(pointsPerColumn);
+            int maxColumn = lastOccupied(pointsPerColumn);
+            int centerRow = row(latitude);
+            int centerColumn = column(longitude);
+            int maxRing = Math.max(Math.max(centerRow - minRow, maxRow - centerRow),
+                    Math.max(centerColumn - minColumn, maxColumn - centerColumn));
+            // Los anillos anteriores al primero que alcanza la zona ocupada están vacíos
+            int firstRing = Math.max(Math.max(minRow - centerRow, centerRow - maxRow),
+                    Math.max(minColumn - centerColumn, centerColumn - maxColumn));
+            int visited = 0;
+            for (int ring = Math.max(0, firstRing); ring <= maxRing && visited < total; ring++) {
+                if (best.size() == k && ringLowerBoundKm(latitude, ring) > best.peek().getDistanceKm()) {
+                    break;
+                }
+                int top = Math.max(centerRow - ring, minRow);
+                int bottom = Math.min(centerRow + ring, maxRow);
+                int left = centerColumn - ring;
+                int right = centerColumn + ring;
+                for (int r = top; r <= bottom; r++) {
+                    boolean edgeRow = r == centerRow - ring || r == centerRow + ring;
+                    if (edgeRow) {
+                        for (int c = Math.max(left, minColumn); c <= Math.min(right, maxColumn); c++) {
+                            visited += visit(cellOf(r, c), latitude, longitude, k, best);
+                        }
+                    } else {
+                        // Filas intermedias del anillo: solo sus dos extremos
+                        if (left >= minColumn) {
+                            visited += visit(cellOf(r, left), latitude, longitude, k, best);
+                        }
+                        if (right != left && right <= maxColumn) {
+                            visited += visit(cellOf(r, right), latitude, longitude, k, best);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<GeoHit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(GeoHit::getDistanceKm));
+        return hits;
+    }
+
+    // Añade a 'best' los puntos de la celda que mejoran los k actuales; devuelve cuántos ha visto
+    private int visit(int cellKey, double latitude, double longitude, int k, PriorityQueue<GeoHit> best) {
+        Cell cell = cells.get(cellKey);
+        if (cell == null) {
+            return 0;
+        }
+        for (int i = 0; i < cell.size; i++) {
+            int slot = cell.slots[i];
+            double distance = distanceKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+            if (best.size() < k) {
+                best.add(new GeoHit(ids[slot], distance));
+            } else if (distance < best.peek().getDistanceKm()) {
+                best.poll();
+                best.add(new GeoHit(ids[slot], distance));
+            }
+        }
+        return cell.size;
+    }
+
+    // Distancia mínima posible a cualquier punto de un anillo: (ring - 1) celdas completas en latitud,
+    // o la distancia al meridiano situado (ring - 1) celdas al este u oeste
+    private double ringLowerBoundKm(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0.0;
+        }
+        double span = (ring - 1) * cellDegrees;
+        double byLatitude = span * KM_PER_DEGREE;
+        double byLongitude = EARTH_RADIUS_KM * Math.asin(Math.min(1.0,
+                Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(Math.min(90.0, span)))));
+        return Math.min(byLatitude, byLongitude);
+    }
+
+    // Fórmula del semiverseno
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // ========== Rejilla ==========
+
+    private int row(double latitude) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((latitude + 90.0) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((longitude + 180.0) / cellDegrees)));
+    }
+
+    private int cellOf(int row, int column) {
+        return row * columns + column;
+    }
+
+    private static int firstOccupied(int[] counts) {
+        int i = 0;
+        while (counts[i] == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lastOccupied(int[] counts) {
+        int i = counts.length - 1;
+        while (counts[i] == 0) {
+            i--;
+        }
+        return i;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            cellOfSlot = Arrays.copyOf(cellOfSlot, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void removeFromCell(int slot) {
+        int cell = cellOfSlot[slot];
+        cells.get(cell).remove(slot);
+        pointsPerRow[cell / columns]--;
+        pointsPerColumn[cell % columns]--;
+    }
+
+    private void release(String id, int slot) {
+        removeFromCell(slot);
+        slotById.remove(id);
+        ids[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private static final class Cell {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
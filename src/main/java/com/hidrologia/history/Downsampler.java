@@ -0,0 +1,73 @@
+package com.hidrologia.history;
+
+// Largest-Triangle-Three-Buckets: reduce una serie a un número de puntos conservando la forma
+// visual (picos y valles). Conserva el primer y el último punto y, en cada cubo intermedio,
+// el punto que forma el triángulo de mayor área con el elegido antes y la media del cubo siguiente
+public final class Downsampler {
+
+    private Downsampler() {}
+
+    // Índices de los puntos elegidos, en orden; todos si la serie ya cabe en el presupuesto
+    public static int[] lttb(long[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            throw new IllegalArgumentException("El número de puntos debe ser al menos 3");
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Media del cubo siguiente (el último punto si este es el último cubo); los NaN no cuentan
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0.0;
+            double avgY = 0.0;
+            int valid = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                if (!Double.isNaN(y[i])) {
+                    avgX += x[i];
+                    avgY += y[i];
+                    valid++;
+                }
+            }
+            if (valid == 0) {
+                avgX = x[nextEnd - 1];
+                avgY = y[nextEnd - 1];
+            } else {
+                avgX /= valid;
+                avgY /= valid;
+            }
+
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1.0;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                // Con NaN el área también es NaN y el punto solo se elige si ninguno tiene valor
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            a = chosen;
+        }
+
+        selected[threshold - 1] = n - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,140 @@
+package com.hidrologia.history;
+
+import java.util.Arrays;
+
+// Resumen por intervalos fijos de una serie: mínimo, máximo, media y último valor por columna.
+// Se mantiene de forma incremental: el intervalo abierto acumula en arrays primitivos y, al
+// llegar una muestra del siguiente, se cierra como una fila más de una TimeSeries.
+// Los NaN (valores ausentes) no cuentan; un intervalo sin valores queda a NaN
+public class RollupSeries {
+
+    public static final int MIN = 0;
+    public static final int MAX = 1;
+    public static final int AVG = 2;
+    public static final int LAST = 3;
+    public static final int STATS = 4;
+
+    private final int columnCount;
+    private final long bucketSeconds;
+    private final TimeSeries closed;
+
+    private long openBucket = Long.MIN_VALUE;
+    private final double[] min;
+    private final double[] max;
+    private final double[] sum;
+    private final int[] count;
+    private final double[] last;
+    private final double[] row;
+
+    public RollupSeries(int columnCount, long bucketSeconds, int chunkCapacity, long retentionSeconds) {
+        if (bucketSeconds < 1) {
+            throw new IllegalArgumentException("El intervalo de resumen debe ser positivo");
+        }
+        this.columnCount = columnCount;
+        this.bucketSeconds = bucketSeconds;
+        this.closed = new TimeSeries(columnCount * STATS, chunkCapacity, retentionSeconds);
+        this.min = new double[columnCount];
+        this.max = new double[columnCount];
+        this.sum = new double[columnCount];
+        this.count = new int[columnCount];
+        this.last = new double[columnCount];
+        this.row = new double[columnCount * STATS];
+        reset();
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    // Las muestras deben llegar en orden (la serie de origen ya descarta las atrasadas)
+    public synchronized void add(long epochSecond, double c0, double c1, double c2) {
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds) * bucketSeconds;
+        if (bucket < openBucket) {
+            return;
+        }
+        if (bucket > openBucket) {
+            flush();
+            openBucket = bucket;
+        }
+        accumulate(0, c0);
+        if (columnCount > 1) {
+            accumulate(1, c1);
+        }
+        if (columnCount > 2) {
+            accumulate(2, c2);
+        }
+    }
+
+    private void accumulate(int column, double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        min[column] = Math.min(min[column], value);
+        max[column] = Math.max(max[column], value);
+        sum[column] += value;
+        count[column]++;
+        last[column] = value;
+    }
+
+    private void flush() {
+        if (openBucket != Long.MIN_VALUE) {
+            closed.append(openBucket, currentRow());
+        }
+        reset();
+    }
+
+    private double[] currentRow() {
+        for (int c = 0; c < columnCount; c++) {
+            boolean empty = count[c] == 0;
+            row[c * STATS + MIN] = empty ? Double.NaN : min[c];
+            row[c * STATS + MAX] = empty ? Double.NaN : max[c];
+            row[c * STATS + AVG] = empty ? Double.NaN : sum[c] / count[c];
+            row[c * STATS + LAST] = last[c];
+        }
+        return row;
+    }
+
+    private void reset() {
+        for (int c = 0; c < columnCount; c++) {
+            min[c] = Double.POSITIVE_INFINITY;
+            max[c] = Double.NEGATIVE_INFINITY;
+            sum[c] = 0.0;
+            count[c] = 0;
+            last[c] = Double.NaN;
+        }
+    }
+
+    // ========== Lectura ==========
+
+    // Intervalos cuyo inicio está en [fromEpochSecond, toEpochSecond], incluido el abierto
+    public synchronized int count(long fromEpochSecond, long toEpochSecond) {
+        return closed.count(fromEpochSecond, toEpochSecond) + (openInRange(fromEpochSecond, toEpochSecond) ? 1 : 0);
+    }
+
+    // Columna c de la serie original -> columnas c * STATS + {MIN, MAX, AVG, LAST} del resultado
+    public synchronized TimeSeriesSlice slice(long fromEpochSecond, long toEpochSecond) {
+        TimeSeriesSlice slice = closed.slice(fromEpochSecond, toEpochSecond);
+        if (!openInRange(fromEpochSecond, toEpochSecond)) {
+            return slice;
+        }
+
+        int size = slice.size();
+        long[] epochSeconds = Arrays.copyOf(slice.getEpochSeconds(), size + 1);
+        epochSeconds[size] = openBucket;
+        double[] open = currentRow();
+        double[][] columns = new double[columnCount * STATS][];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(slice.column(c), size + 1);
+            columns[c][size] = (float) open[c];
+        }
+        return new TimeSeriesSlice(epochSeconds, columns);
+    }
+
+    private boolean openInRange(long fromEpochSecond, long toEpochSecond) {
+        return openBucket != Long.MIN_VALUE && openBucket >= fromEpochSecond && openBucket <= toEpochSecond;
+    }
+}
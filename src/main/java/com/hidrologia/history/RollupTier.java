@@ -0,0 +1,24 @@
+package com.hidrologia.history;
+
+// Niveles de resolución del histórico, de más fino a más grueso
+public enum RollupTier {
+    RAW("raw", 0),
+    HOUR("1h", 3600),
+    DAY("1d", 86400);
+
+    private final String label;
+    private final long bucketSeconds;
+
+    RollupTier(String label, long bucketSeconds) {
+        this.label = label;
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hidrologia.history;
+
+// Serie con histórico en bruto y resúmenes horario y diario mantenidos al registrar cada muestra.
+// Las consultas eligen el nivel más fino que no supere OVERSAMPLING veces el presupuesto de
+// puntos y, si aun así lo supera, lo reducen con LTTB sobre la primera columna
+public class TieredSeries {
+
+    static final int OVERSAMPLING = 4;
+    // Los resúmenes tienen pocas filas por serie: bloques más pequeños que los de la serie en bruto
+    private static final int ROLLUP_CHUNK_CAPACITY = 256;
+
+    private final TimeSeries raw;
+    private final RollupSeries hourly;
+    private final RollupSeries daily;
+
+    public TieredSeries(int columnCount, long rawRetentionSeconds, long hourlyRetentionSeconds, long dailyRetentionSeconds) {
+        this.raw = new TimeSeries(columnCount, rawRetentionSeconds);
+        this.hourly = new RollupSeries(columnCount, RollupTier.HOUR.getBucketSeconds(), ROLLUP_CHUNK_CAPACITY, hourlyRetentionSeconds);
+        this.daily = new RollupSeries(columnCount, RollupTier.DAY.getBucketSeconds(), ROLLUP_CHUNK_CAPACITY, dailyRetentionSeconds);
+    }
+
+    public TimeSeries raw() {
+        return raw;
+    }
+
+    // Solo las muestras aceptadas por la serie en bruto (en orden) llegan a los resúmenes
+    public synchronized boolean append(long epochSecond, double c0, double c1, double c2) {
+        if (!raw.append(epochSecond, c0, c1, c2)) {
+            return false;
+        }
+        hourly.add(epochSecond, c0, c1, c2);
+        daily.add(epochSecond, c0, c1, c2);
+        return true;
+    }
+
+    public synchronized TieredSlice query(long fromEpochSecond, long toEpochSecond, int maxPoints) {
+        RollupTier tier = RollupTier.RAW;
+        for (RollupTier candidate : RollupTier.values()) {
+            tier = candidate;
+            if (count(candidate, fromEpochSecond, toEpochSecond) <= (long) OVERSAMPLING * maxPoints) {
+                break;
+            }
+        }
+
+        TimeSeriesSlice slice = tier == RollupTier.RAW
+                ? raw.slice(fromEpochSecond, toEpochSecond)
+                : rollup(tier).slice(fromEpochSecond, toEpochSecond);
+        int sourceCount = slice.size();
+        if (sourceCount > maxPoints) {
+            int primary = tier == RollupTier.RAW ? 0 : RollupSeries.AVG;
+            slice = select(slice, Downsampler.lttb(slice.getEpochSeconds(), slice.column(primary), maxPoints));
+        }
+        return new TieredSlice(tier, sourceCount, slice);
+    }
+
+    private int count(RollupTier tier, long fromEpochSecond, long toEpochSecond) {
+        return tier == RollupTier.RAW
+                ? raw.count(fromEpochSecond, toEpochSecond)
+                : rollup(tier).count(fromEpochSecond, toEpochSecond);
+    }
+
+    private RollupSeries rollup(RollupTier tier) {
+        return tier == RollupTier.HOUR ? hourly : daily;
+    }
+
+    private static TimeSeriesSlice select(TimeSeriesSlice slice, int[] indexes) {
+        long[] source = slice.getEpochSeconds();
+        long[] epochSeconds = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            epochSeconds[i] = source[indexes[i]];
+        }
+        int columnCount = slice.getColumnCount();
+        double[][] columns = new double[columnCount][indexes.length];
+        for (int c = 0; c < columnCount; c++) {
+            double[] column = slice.column(c);
+            for (int i = 0; i < indexes.length; i++) {
+                columns[c][i] = column[indexes[i]];
+            }
+        }
+        return new TimeSeriesSlice(epochSeconds, columns);
+    }
+}
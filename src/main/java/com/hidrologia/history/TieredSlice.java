@@ -0,0 +1,28 @@
+package com.hidrologia.history;
+
+// Resultado de una consulta por niveles: el nivel elegido, cuántas filas tenía en el rango
+// y las filas devueltas (reducidas con LTTB si superaban el presupuesto)
+public class TieredSlice {
+
+    private final RollupTier tier;
+    private final int sourceCount;
+    private final TimeSeriesSlice slice;
+
+    public TieredSlice(RollupTier tier, int sourceCount, TimeSeriesSlice slice) {
+        this.tier = tier;
+        this.sourceCount = sourceCount;
+        this.slice = slice;
+    }
+
+    public RollupTier getTier() {
+        return tier;
+    }
+
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    public TimeSeriesSlice getSlice() {
+        return slice;
+    }
+}
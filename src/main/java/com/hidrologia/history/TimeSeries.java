@@ -0,0 +1,162 @@
+package com.hidrologia.history;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// Serie temporal de una estación: segmentos columnares encadenados, sin objetos por muestra.
+// Cada muestra ocupa 4 bytes de timestamp + 4 bytes por columna.
+public class TimeSeries {
+
+    public static final int DEFAULT_CHUNK_CAPACITY = 2048;
+
+    private final int columnCount;
+    private final int chunkCapacity;
+    private final long retentionSeconds;
+    private final ArrayDeque<TimeSeriesChunk> chunks = new ArrayDeque<>();
+    private int size;
+
+    public TimeSeries(int columnCount, long retentionSeconds) {
+        this(columnCount, DEFAULT_CHUNK_CAPACITY, retentionSeconds);
+    }
+
+    public TimeSeries(int columnCount, int chunkCapacity, long retentionSeconds) {
+        if (columnCount < 1 || chunkCapacity < 1) {
+            throw new IllegalArgumentException("Número de columnas y capacidad deben ser positivos");
+        }
+        this.columnCount = columnCount;
+        this.chunkCapacity = chunkCapacity;
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    // Las muestras deben llegar en orden; las repetidas o atrasadas se descartan
+    public synchronized boolean append(long epochSecond, double c0, double c1, double c2) {
+        TimeSeriesChunk tail = writableTail(epochSecond);
+        if (tail == null) {
+            return false;
+        }
+
+        int i = tail.size;
+        tail.offsets[i] = (int) (epochSecond - tail.baseEpochSecond);
+        float[][] columns = tail.columns;
+        columns[0][i] = (float) c0;
+        if (columnCount > 1) {
+            columns[1][i] = (float) c1;
+        }
+        if (columnCount > 2) {
+            columns[2][i] = (float) c2;
+        }
+        tail.size++;
+        size++;
+
+        evictExpired(epochSecond);
+        return true;
+    }
+
+    // Variante para series con cualquier número de columnas, p. ej. los agregados de un nivel de resumen
+    public synchronized boolean append(long epochSecond, double[] values) {
+        TimeSeriesChunk tail = writableTail(epochSecond);
+        if (tail == null) {
+            return false;
+        }
+
+        int i = tail.size;
+        tail.offsets[i] = (int) (epochSecond - tail.baseEpochSecond);
+        for (int c = 0; c < columnCount; c++) {
+            tail.columns[c][i] = (float) values[c];
+        }
+        tail.size++;
+        size++;
+
+        evictExpired(epochSecond);
+        return true;
+    }
+
+    private TimeSeriesChunk writableTail(long epochSecond) {
+        TimeSeriesChunk tail = chunks.peekLast();
+        if (tail != null && tail.size > 0 && epochSecond <= tail.lastEpochSecond()) {
+            return null;
+        }
+        if (tail == null || !tail.accepts(epochSecond)) {
+            tail = new TimeSeriesChunk(epochSecond, chunkCapacity, columnCount);
+            chunks.addLast(tail);
+        }
+        return tail;
+    }
+
+    public synchronized boolean append(long epochSecond, double c0, double c1) {
+        return append(epochSecond, c0, c1, Double.NaN);
+    }
+
+    private void evictExpired(long newestEpochSecond) {
+        long cutoff = newestEpochSecond - retentionSeconds;
+        while (chunks.size() > 1 && chunks.peekFirst().lastEpochSecond() < cutoff) {
+            size -= chunks.removeFirst().size;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long lastEpochSecond() {
+        TimeSeriesChunk tail = chunks.peekLast();
+        return tail == null ? Long.MIN_VALUE : tail.lastEpochSecond();
+    }
+
+    // Número de muestras en [fromEpochSecond, toEpochSecond], sin copiarlas
+    public synchronized int count(long fromEpochSecond, long toEpochSecond) {
+        int count = 0;
+        for (TimeSeriesChunk chunk : chunks) {
+            if (overlaps(chunk, fromEpochSecond, toEpochSecond)) {
+                count += upperBound(chunk, toEpochSecond) - chunk.lowerBound(fromEpochSecond);
+            }
+        }
+        return count;
+    }
+
+    // Copia columnar de las muestras en [fromEpochSecond, toEpochSecond]
+    public synchronized TimeSeriesSlice slice(long fromEpochSecond, long toEpochSecond) {
+        int count = count(fromEpochSecond, toEpochSecond);
+
+        long[] timestamps = new long[count];
+        double[][] values = new double[columnCount][count];
+        int out = 0;
+        Iterator<TimeSeriesChunk> it = chunks.iterator();
+        while (it.hasNext() && out < count) {
+            TimeSeriesChunk chunk = it.next();
+            if (!overlaps(chunk, fromEpochSecond, toEpochSecond)) {
+                continue;
+            }
+            int start = chunk.lowerBound(fromEpochSecond);
+            int end = upperBound(chunk, toEpochSecond);
+            for (int i = start; i < end; i++, out++) {
+                timestamps[out] = chunk.epochSecondAt(i);
+                for (int c = 0; c < columnCount; c++) {
+                    values[c][out] = chunk.columns[c][i];
+                }
+            }
+        }
+        return new TimeSeriesSlice(timestamps, values);
+    }
+
+    // Copia de todas las muestras retenidas
+    public synchronized TimeSeriesSlice all() {
+        TimeSeriesChunk head = chunks.peekFirst();
+        if (head == null || head.size == 0) {
+            return new TimeSeriesSlice(new long[0], new double[columnCount][0]);
+        }
+        return slice(head.firstEpochSecond(), Long.MAX_VALUE);
+    }
+
+    private static boolean overlaps(TimeSeriesChunk chunk, long from, long to) {
+        return chunk.size > 0 && chunk.lastEpochSecond() >= from && chunk.firstEpochSecond() <= to;
+    }
+
+    private static int upperBound(TimeSeriesChunk chunk, long epochSecond) {
+        return epochSecond == Long.MAX_VALUE ? chunk.size : chunk.lowerBound(epochSecond + 1);
+    }
+}
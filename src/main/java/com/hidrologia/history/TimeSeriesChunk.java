@@ -0,0 +1,52 @@
+package com.hidrologia.history;
+
+// Segmento columnar de tamaño fijo: offsets en segundos respecto a la base + columnas float
+final class TimeSeriesChunk {
+
+    final long baseEpochSecond;
+    final int[] offsets;
+    final float[][] columns;
+    int size;
+
+    TimeSeriesChunk(long baseEpochSecond, int capacity, int columnCount) {
+        this.baseEpochSecond = baseEpochSecond;
+        this.offsets = new int[capacity];
+        this.columns = new float[columnCount][capacity];
+    }
+
+    boolean isFull() {
+        return size == offsets.length;
+    }
+
+    boolean accepts(long epochSecond) {
+        return !isFull() && epochSecond - baseEpochSecond <= Integer.MAX_VALUE;
+    }
+
+    long firstEpochSecond() {
+        return baseEpochSecond + offsets[0];
+    }
+
+    long lastEpochSecond() {
+        return baseEpochSecond + offsets[size - 1];
+    }
+
+    long epochSecondAt(int i) {
+        return baseEpochSecond + offsets[i];
+    }
+
+    // Primer índice con timestamp >= epochSecond
+    int lowerBound(long epochSecond) {
+        long target = epochSecond - baseEpochSecond;
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (offsets[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hidrologia.history;
+
+// Resultado columnar de una consulta de rango: timestamps en segundos epoch y una fila por columna
+public class TimeSeriesSlice {
+
+    private final long[] epochSeconds;
+    private final double[][] columns;
+
+    public TimeSeriesSlice(long[] epochSeconds, double[][] columns) {
+        this.epochSeconds = epochSeconds;
+        this.columns = columns;
+    }
+
+    public int size() {
+        return epochSeconds.length;
+    }
+
+    public long[] getEpochSeconds() {
+        return epochSeconds;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public double[] column(int index) {
+        return columns[index];
+    }
+}
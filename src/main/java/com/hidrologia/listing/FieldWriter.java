@@ -0,0 +1,12 @@
+package com.hidrologia.listing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+// Escribe un único campo (nombre y valor) de un elemento
+@FunctionalInterface
+public interface FieldWriter<T> {
+
+    void write(JsonGenerator generator, T item) throws IOException;
+}
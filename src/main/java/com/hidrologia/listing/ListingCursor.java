@@ -0,0 +1,49 @@
+package com.hidrologia.listing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor opaco de paginación por clave: orden aplicado y (clave, ID) del último elemento devuelto.
+// La clave se codifica con sus bits exactos para que la comparación no dependa del redondeo decimal
+public class ListingCursor {
+
+    private final String sort;
+    private final boolean descending;
+    private final double key;
+    private final String id;
+
+    public ListingCursor(String sort, boolean descending, double key, String id) {
+        this.sort = sort;
+        this.descending = descending;
+        this.key = key;
+        this.id = id;
+    }
+
+    public String getSort() { return sort; }
+
+    public boolean isDescending() { return descending; }
+
+    public double getKey() { return key; }
+
+    public String getId() { return id; }
+
+    public String encode() {
+        String raw = sort + "|" + (descending ? "d" : "a") + "|" +
+                Long.toHexString(Double.doubleToRawLongBits(key)) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ListingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            double key = Double.longBitsToDouble(Long.parseUnsignedLong(parts[2], 16));
+            return new ListingCursor(parts[0], "d".equals(parts[1]), key, parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hidrologia.listing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+// Tabla de campos listables de un modelo: cómo se escribe cada uno y, si es numérico, cómo se ordena.
+// Los campos se escriben en el mismo orden y formato que la serialización Jackson del modelo
+public class ListingSchema<T> {
+
+    public static final String ID_SORT = "id";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Function<T, String> idExtractor;
+    private final Map<String, FieldWriter<T>> writers = new LinkedHashMap<>();
+    private final Map<String, ToDoubleFunction<T>> sortKeys = new LinkedHashMap<>();
+
+    public ListingSchema(Function<T, String> idExtractor) {
+        this.idExtractor = idExtractor;
+    }
+
+    public ListingSchema<T> string(String name, Function<T, String> accessor) {
+        writers.put(name, (generator, item) -> {
+            String value = accessor.apply(item);
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeStringField(name, value);
+            }
+        });
+        return this;
+    }
+
+    // NaN se escribe como null, igual que un Double ausente en el modelo
+    public ListingSchema<T> number(String name, ToDoubleFunction<T> accessor) {
+        writers.put(name, (generator, item) -> {
+            double value = accessor.applyAsDouble(item);
+            if (Double.isNaN(value)) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeNumberField(name, value);
+            }
+        });
+        sortKeys.put(name, accessor);
+        return this;
+    }
+
+    // 'absent' es el valor que representa un entero sin valor
+    public ListingSchema<T> integer(String name, ToIntFunction<T> accessor, int absent) {
+        writers.put(name, (generator, item) -> {
+            int value = accessor.applyAsInt(item);
+            if (value == absent) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeNumberField(name, value);
+            }
+        });
+        sortKeys.put(name, item -> {
+            int value = accessor.applyAsInt(item);
+            return value == absent ? Double.NaN : value;
+        });
+        return this;
+    }
+
+    public ListingSchema<T> enumeration(String name, Function<T, ? extends Enum<?>> accessor) {
+        writers.put(name, (generator, item) -> {
+            Enum<?> value = accessor.apply(item);
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeStringField(name, value.name());
+            }
+        });
+        return this;
+    }
+
+    public ListingSchema<T> dateTime(String name, Function<T, LocalDateTime> accessor) {
+        writers.put(name, (generator, item) -> {
+            LocalDateTime value = accessor.apply(item);
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeStringField(name, DATE_FORMAT.format(value));
+            }
+        });
+        return this;
+    }
+
+    public String id(T item) {
+        return idExtractor.apply(item);
+    }
+
+    // Sin lista de campos se escriben todos; los nombres desconocidos se rechazan
+    public List<FieldWriter<T>> projection(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new ArrayList<>(writers.values());
+        }
+        List<FieldWriter<T>> projection = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            FieldWriter<T> writer = writers.get(name);
+            if (writer == null) {
+                throw new IllegalArgumentException("Campo desconocido: " + name +
+                        ". Campos disponibles: " + String.join(", ", writers.keySet()));
+            }
+            projection.add(writer);
+        }
+        return projection;
+    }
+
+    // El orden por identificador usa una clave constante, de modo que solo desempata el ID
+    public ToDoubleFunction<T> sortKey(String name) {
+        if (ID_SORT.equals(name)) {
+            return item -> 0;
+        }
+        ToDoubleFunction<T> key = sortKeys.get(name);
+        if (key == null) {
+            throw new IllegalArgumentException("Campo de ordenación no numérico: " + name +
+                    ". Campos disponibles: " + ID_SORT + ", " + String.join(", ", sortKeys.keySet()));
+        }
+        return key;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hidrologia.listing;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+
+// Campos listables de cada modelo, en el orden de sus propiedades JSON
+public final class ListingSchemas {
+
+    public static final ListingSchema<WaterLevel> WATER_LEVELS = new ListingSchema<>(WaterLevel::getStationId)
+            .string("stationId", WaterLevel::getStationId)
+            .string("stationName", WaterLevel::getStationName)
+            .number("waterLevel", WaterLevel::waterLevelOrNaN)
+            .number("flow", WaterLevel::flowOrNaN)
+            .enumeration("type", WaterLevel::getType)
+            .enumeration("alertStatus", WaterLevel::getAlertStatus)
+            .string("location", WaterLevel::getLocation)
+            .number("latitude", WaterLevel::latitudeOrNaN)
+            .number("longitude", WaterLevel::longitudeOrNaN)
+            .dateTime("lastUpdated", WaterLevel::getLastUpdated)
+            .number("temperature", WaterLevel::temperatureOrNaN)
+            .string("observations", WaterLevel::getObservations)
+            .string("river", WaterLevel::getRiver)
+            .number("riverKm", WaterLevel::riverKmOrNaN);
+
+    public static final ListingSchema<Reservoir> RESERVOIRS = new ListingSchema<>(Reservoir::getReservoirId)
+            .string("reservoirId", Reservoir::getReservoirId)
+            .string("name", Reservoir::getName)
+            .number("maxCapacity", Reservoir::maxCapacityOrNaN)
+            .number("currentVolume", Reservoir::currentVolumeOrNaN)
+            .number("fillPercentage", Reservoir::fillPercentageOrNaN)
+            .enumeration("primaryUse", Reservoir::getPrimaryUse)
+            .enumeration("status", Reservoir::getStatus)
+            .string("location", Reservoir::getLocation)
+            .number("latitude", Reservoir::latitudeOrNaN)
+            .number("longitude", Reservoir::longitudeOrNaN)
+            .string("mainRiver", Reservoir::getMainRiver)
+            .integer("constructionYear", Reservoir::constructionYearOrNone, Reservoir.NO_YEAR)
+            .number("damHeight", Reservoir::damHeightOrNaN)
+            .number("damLength", Reservoir::damLengthOrNaN)
+            .number("outflow", Reservoir::outflowOrNaN)
+            .dateTime("lastUpdated", Reservoir::getLastUpdated)
+            .string("observations", Reservoir::getObservations)
+            .number("riverKm", Reservoir::riverKmOrNaN);
+
+    private ListingSchemas() {}
+}
@@ -0,0 +1,27 @@
+package com.hidrologia.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import io.quarkus.jackson.ObjectMapperCustomizer;
+import jakarta.inject.Singleton;
+
+// Registra los serializadores de WaterLevel y Reservoir en el ObjectMapper de la aplicación,
+// y por tanto en las copias CBOR y Smile de WireFormats y en las respuestas anidadas (eventos,
+// resultados geográficos, búsquedas...)
+@Singleton
+public class ModelSerializers implements ObjectMapperCustomizer {
+
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("hidrologia-models");
+        module.addSerializer(WaterLevel.class, new SchemaSerializer<>(WaterLevel.class, ListingSchemas.WATER_LEVELS));
+        module.addSerializer(Reservoir.class, new SchemaSerializer<>(Reservoir.class, ListingSchemas.RESERVOIRS));
+        return module;
+    }
+
+    @Override
+    public void customize(ObjectMapper objectMapper) {
+        objectMapper.registerModule(module());
+    }
+}
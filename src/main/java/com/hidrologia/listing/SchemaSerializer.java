@@ -0,0 +1,30 @@
+package com.hidrologia.listing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+// Serializa un modelo completo con los escritores de su ListingSchema: los valores numéricos
+// se escriben desde los primitivos, sin pasar por los getters Double. La salida es la misma
+// que la de la serialización por getters (mismos campos, orden y formato)
+public class SchemaSerializer<T> extends StdSerializer<T> {
+
+    private final transient List<FieldWriter<T>> writers;
+
+    public SchemaSerializer(Class<T> type, ListingSchema<T> schema) {
+        super(type);
+        this.writers = schema.projection(null);
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+        for (FieldWriter<T> writer : writers) {
+            writer.write(generator, value);
+        }
+        generator.writeEndObject();
+    }
+}
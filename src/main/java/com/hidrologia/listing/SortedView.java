@@ -0,0 +1,192 @@
+package com.hidrologia.listing;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+// Vista inmutable de un listado ordenado por (clave numérica, ID) y ligada a una versión del almacén.
+// El orden es un array primitivo de posiciones del snapshot, sin copiar los elementos; las claves
+// se guardan por posición para localizar el cursor con búsqueda binaria. Al cambiar la versión se
+// parte del orden anterior: si ninguna clave ha cambiado se reutiliza tal cual, y si cambian pocas
+// solo se ordenan esas y se intercalan con el resto. Lo que se ahorra es la ordenación: cada versión
+// sigue leyendo la clave y el ID de todas las posiciones y recorriendo el orden anterior, O(N) por
+// versión más O(k log k) por las k posiciones cambiadas
+public class SortedView<T> {
+
+    // Por encima de esta fracción de posiciones cambiadas se reordena todo
+    private static final int FULL_SORT_DIVISOR = 8;
+
+    private final long version;
+    private final List<T> source;
+    private final int[] order;
+    private final double[] keys;
+    private final String[] ids;
+
+    // 'previous' es la vista anterior del mismo listado y campo, o null
+    public SortedView(long version, List<T> source, ListingSchema<T> schema, String sort, SortedView<T> previous) {
+        ToDoubleFunction<T> sortKey = schema.sortKey(sort);
+        int size = source.size();
+        this.version = version;
+        this.source = source;
+        this.keys = new double[size];
+        this.ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            T item = source.get(i);
+            keys[i] = sortKey.applyAsDouble(item);
+            ids[i] = schema.id(item);
+        }
+        this.order = previous == null ? fullOrder(size) : reorder(previous);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public T item(int index) {
+        return source.get(order[index]);
+    }
+
+    public double key(int index) {
+        return keys[order[index]];
+    }
+
+    public String id(int index) {
+        return ids[order[index]];
+    }
+
+    // Primer índice cuya posición es estrictamente posterior a (key, id) en orden ascendente
+    public int firstAfter(double key, String id) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(order[mid], key, id) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Último índice cuya posición es estrictamente anterior a (key, id) en orden ascendente, o -1
+    public int lastBefore(double key, String id) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(order[mid], key, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    // ========== Ordenación ==========
+
+    private int[] fullOrder(int size) {
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        sort(positions);
+        return positions;
+    }
+
+    // Una posición cambia si es nueva o si su clave o su ID no coinciden con los de la vista anterior
+    private int[] reorder(SortedView<T> previous) {
+        int size = keys.length;
+        int previousSize = previous.keys.length;
+        if (previousSize > size) {
+            return fullOrder(size);
+        }
+        boolean[] changed = new boolean[size];
+        int changedCount = size - previousSize;
+        for (int i = previousSize; i < size; i++) {
+            changed[i] = true;
+        }
+        for (int i = 0; i < previousSize; i++) {
+            if (Double.compare(keys[i], previous.keys[i]) != 0 || !ids[i].equals(previous.ids[i])) {
+                changed[i] = true;
+                changedCount++;
+            }
+        }
+        if (changedCount == 0) {
+            return previous.order;
+        }
+        if (changedCount > size / FULL_SORT_DIVISOR) {
+            return fullOrder(size);
+        }
+
+        // Las posiciones sin cambios conservan su orden relativo; las cambiadas se ordenan aparte
+        int[] moved = new int[changedCount];
+        int movedCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (changed[i]) {
+                moved[movedCount++] = i;
+            }
+        }
+        sort(moved);
+
+        int[] merged = new int[size];
+        int out = 0;
+        int next = 0;
+        for (int position : previous.order) {
+            if (changed[position]) {
+                continue;
+            }
+            while (next < movedCount && compare(moved[next], position) < 0) {
+                merged[out++] = moved[next++];
+            }
+            merged[out++] = position;
+        }
+        while (next < movedCount) {
+            merged[out++] = moved[next++];
+        }
+        return merged;
+    }
+
+    // Ordenación por mezcla de posiciones, estable y sin encapsular en Integer
+    private void sort(int[] positions) {
+        int length = positions.length;
+        int[] from = positions;
+        int[] to = new int[length];
+        for (int width = 1; width < length; width <<= 1) {
+            for (int start = 0; start < length; start += width << 1) {
+                int middle = Math.min(start + width, length);
+                int end = Math.min(start + (width << 1), length);
+                int left = start;
+                int right = middle;
+                for (int out = start; out < end; out++) {
+                    if (left < middle && (right >= end || compare(from[left], from[right]) <= 0)) {
+                        to[out] = from[left++];
+                    } else {
+                        to[out] = from[right++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != positions) {
+            System.arraycopy(from, 0, positions, 0, length);
+        }
+    }
+
+    // Double.compare deja los valores ausentes (NaN) al final del orden ascendente
+    private int compare(int a, int b) {
+        int byKey = Double.compare(keys[a], keys[b]);
+        return byKey != 0 ? byKey : ids[a].compareTo(ids[b]);
+    }
+
+    private int compare(int position, double key, String id) {
+        int byKey = Double.compare(keys[position], key);
+        return byKey != 0 ? byKey : ids[position].compareTo(id);
+    }
+}
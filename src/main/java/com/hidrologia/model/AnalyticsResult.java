@@ -0,0 +1,42 @@
+package com.hidrologia.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+
+@RegisterForReflection
+public class AnalyticsResult {
+
+    private String groupBy;
+    private String metric;
+    private int totalRows;
+    private long snapshotVersion;
+    private List<GroupAggregate> groups;
+
+    // Constructor por defecto
+    public AnalyticsResult() {}
+
+    // Constructor completo
+    public AnalyticsResult(String groupBy, String metric, int totalRows, long snapshotVersion, List<GroupAggregate> groups) {
+        this.groupBy = groupBy;
+        this.metric = metric;
+        this.totalRows = totalRows;
+        this.snapshotVersion = snapshotVersion;
+        this.groups = groups;
+    }
+
+    // Getters y Setters
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public int getTotalRows() { return totalRows; }
+    public void setTotalRows(int totalRows) { this.totalRows = totalRows; }
+
+    public long getSnapshotVersion() { return snapshotVersion; }
+    public void setSnapshotVersion(long snapshotVersion) { this.snapshotVersion = snapshotVersion; }
+
+    public List<GroupAggregate> getGroups() { return groups; }
+    public void setGroups(List<GroupAggregate> groups) { this.groups = groups; }
+}
@@ -0,0 +1,78 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.ArrayList;
+import java.util.List;
+
+// Resultado de una ingesta por lotes, con el detalle de cada elemento recibido
+@RegisterForReflection(ignoreNested = false)
+public class BatchResult {
+
+    private int received;
+    private int accepted;
+    private int rejected;
+    private List<ItemResult> results = new ArrayList<>();
+
+    public enum ItemStatus {
+        ACCEPTED, REJECTED
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class ItemResult {
+
+        private int index;
+        private String id;
+        private ItemStatus status;
+        private List<String> errors;
+
+        public ItemResult() {}
+
+        public ItemResult(int index, String id, ItemStatus status, List<String> errors) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.errors = errors;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public ItemStatus getStatus() { return status; }
+        public void setStatus(ItemStatus status) { this.status = status; }
+
+        public List<String> getErrors() { return errors; }
+        public void setErrors(List<String> errors) { this.errors = errors; }
+    }
+
+    // Constructor por defecto
+    public BatchResult() {}
+
+    public void accept(int index, String id) {
+        results.add(new ItemResult(index, id, ItemStatus.ACCEPTED, null));
+        received++;
+        accepted++;
+    }
+
+    public void reject(int index, String id, List<String> errors) {
+        results.add(new ItemResult(index, id, ItemStatus.REJECTED, errors));
+        received++;
+        rejected++;
+    }
+
+    // Getters y Setters
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+}
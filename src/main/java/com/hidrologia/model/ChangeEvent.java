@@ -0,0 +1,100 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+
+// Evento emitido en streaming cuando cambia una estación, un embalse o su estado
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection(ignoreNested = false)
+public class ChangeEvent {
+
+    private EventType type;
+    private String entityId;
+    private String previousStatus;
+    private String currentStatus;
+    private WaterLevel waterLevel;
+    private Reservoir reservoir;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    public enum EventType {
+        WATER_LEVEL("Actualización de nivel"),
+        RESERVOIR("Actualización de embalse"),
+        ALERT_TRANSITION("Cambio de estado de alerta"),
+        STATUS_TRANSITION("Cambio de estado operativo");
+
+        private final String displayName;
+
+        EventType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    // Constructor por defecto
+    public ChangeEvent() {}
+
+    public static ChangeEvent waterLevel(WaterLevel level) {
+        ChangeEvent event = new ChangeEvent(EventType.WATER_LEVEL, level.getStationId(), level.getLastUpdated());
+        event.waterLevel = level;
+        event.currentStatus = level.getAlertStatus() == null ? null : level.getAlertStatus().name();
+        return event;
+    }
+
+    public static ChangeEvent alertTransition(WaterLevel previous, WaterLevel current) {
+        ChangeEvent event = new ChangeEvent(EventType.ALERT_TRANSITION, current.getStationId(), current.getLastUpdated());
+        event.waterLevel = current;
+        event.previousStatus = previous.getAlertStatus() == null ? null : previous.getAlertStatus().name();
+        event.currentStatus = current.getAlertStatus() == null ? null : current.getAlertStatus().name();
+        return event;
+    }
+
+    public static ChangeEvent reservoir(Reservoir reservoir) {
+        ChangeEvent event = new ChangeEvent(EventType.RESERVOIR, reservoir.getReservoirId(), reservoir.getLastUpdated());
+        event.reservoir = reservoir;
+        event.currentStatus = reservoir.getStatus() == null ? null : reservoir.getStatus().name();
+        return event;
+    }
+
+    public static ChangeEvent statusTransition(Reservoir previous, Reservoir current) {
+        ChangeEvent event = new ChangeEvent(EventType.STATUS_TRANSITION, current.getReservoirId(), current.getLastUpdated());
+        event.reservoir = current;
+        event.previousStatus = previous.getStatus() == null ? null : previous.getStatus().name();
+        event.currentStatus = current.getStatus() == null ? null : current.getStatus().name();
+        return event;
+    }
+
+    private ChangeEvent(EventType type, String entityId, LocalDateTime timestamp) {
+        this.type = type;
+        this.entityId = entityId;
+        this.timestamp = timestamp == null ? LocalDateTime.now() : timestamp;
+    }
+
+    // Getters y Setters
+    public EventType getType() { return type; }
+    public void setType(EventType type) { this.type = type; }
+
+    public String getEntityId() { return entityId; }
+    public void setEntityId(String entityId) { this.entityId = entityId; }
+
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+
+    public String getCurrentStatus() { return currentStatus; }
+    public void setCurrentStatus(String currentStatus) { this.currentStatus = currentStatus; }
+
+    public WaterLevel getWaterLevel() { return waterLevel; }
+    public void setWaterLevel(WaterLevel waterLevel) { this.waterLevel = waterLevel; }
+
+    public Reservoir getReservoir() { return reservoir; }
+    public void setReservoir(Reservoir reservoir) { this.reservoir = reservoir; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
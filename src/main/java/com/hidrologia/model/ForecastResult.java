@@ -0,0 +1,42 @@
+package com.hidrologia.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+
+@RegisterForReflection
+public class ForecastResult {
+
+    private int days;
+    private int trendDays;
+    private long snapshotVersion;
+    private int count;
+    private List<ReservoirForecast> reservoirs;
+
+    // Constructor por defecto
+    public ForecastResult() {}
+
+    // Constructor completo
+    public ForecastResult(int days, int trendDays, long snapshotVersion, List<ReservoirForecast> reservoirs) {
+        this.days = days;
+        this.trendDays = trendDays;
+        this.snapshotVersion = snapshotVersion;
+        this.count = reservoirs.size();
+        this.reservoirs = reservoirs;
+    }
+
+    // Getters y Setters
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    public int getTrendDays() { return trendDays; }
+    public void setTrendDays(int trendDays) { this.trendDays = trendDays; }
+
+    public long getSnapshotVersion() { return snapshotVersion; }
+    public void setSnapshotVersion(long snapshotVersion) { this.snapshotVersion = snapshotVersion; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public List<ReservoirForecast> getReservoirs() { return reservoirs; }
+    public void setReservoirs(List<ReservoirForecast> reservoirs) { this.reservoirs = reservoirs; }
+}
@@ -0,0 +1,42 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Resultado de una consulta geográfica: la estación o el embalse y su distancia al punto consultado
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class GeoMatch {
+
+    private Double distanceKm;
+    private WaterLevel waterLevel;
+    private Reservoir reservoir;
+
+    // Constructor por defecto
+    public GeoMatch() {}
+
+    // Constructor completo
+    public GeoMatch(Double distanceKm, WaterLevel waterLevel, Reservoir reservoir) {
+        this.distanceKm = distanceKm;
+        this.waterLevel = waterLevel;
+        this.reservoir = reservoir;
+    }
+
+    public static GeoMatch of(WaterLevel waterLevel, double distanceKm) {
+        return new GeoMatch(Double.isNaN(distanceKm) ? null : distanceKm, waterLevel, null);
+    }
+
+    public static GeoMatch of(Reservoir reservoir, double distanceKm) {
+        return new GeoMatch(Double.isNaN(distanceKm) ? null : distanceKm, null, reservoir);
+    }
+
+    // Getters y Setters
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+
+    public WaterLevel getWaterLevel() { return waterLevel; }
+    public void setWaterLevel(WaterLevel waterLevel) { this.waterLevel = waterLevel; }
+
+    public Reservoir getReservoir() { return reservoir; }
+    public void setReservoir(Reservoir reservoir) { this.reservoir = reservoir; }
+}
@@ -0,0 +1,44 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.Map;
+
+// Fila de resultado de una agregación agrupada
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class GroupAggregate {
+
+    private String group;
+    private int count;
+    private Double sum;
+    private Double avg;
+    private Double min;
+    private Double max;
+    private Map<String, Double> percentiles;
+
+    // Constructor por defecto
+    public GroupAggregate() {}
+
+    // Getters y Setters
+    public String getGroup() { return group; }
+    public void setGroup(String group) { this.group = group; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public Double getSum() { return sum; }
+    public void setSum(Double sum) { this.sum = sum; }
+
+    public Double getAvg() { return avg; }
+    public void setAvg(Double avg) { this.avg = avg; }
+
+    public Double getMin() { return min; }
+    public void setMin(Double min) { this.min = min; }
+
+    public Double getMax() { return max; }
+    public void setMax(Double max) { this.max = max; }
+
+    public Map<String, Double> getPercentiles() { return percentiles; }
+    public void setPercentiles(Map<String, Double> percentiles) { this.percentiles = percentiles; }
+}
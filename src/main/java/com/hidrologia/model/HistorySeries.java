@@ -0,0 +1,106 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Histórico reducido para gráficas, en formato columnar. En el nivel "raw" cada punto es una
+// lectura; en "1h" y "1d" cada punto es un intervalo (timestamp de inicio) con media en
+// 'values' y mínimo, máximo y último valor. Los valores ausentes se representan como NaN.
+@RegisterForReflection(ignoreNested = false)
+public class HistorySeries {
+
+    private String id;
+    private String tier;
+    private long bucketSeconds;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;
+
+    // Filas del nivel elegido dentro del rango, antes de reducirlas al presupuesto de puntos
+    private int sourceCount;
+    private int count;
+    private long[] timestamps;
+    private Map<String, Column> columns;
+
+    // Serie de una variable; min, max y last solo en los niveles de resumen
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Column {
+
+        private double[] values;
+        private double[] min;
+        private double[] max;
+        private double[] last;
+
+        public Column() {}
+
+        public Column(double[] values, double[] min, double[] max, double[] last) {
+            this.values = values;
+            this.min = min;
+            this.max = max;
+            this.last = last;
+        }
+
+        public double[] getValues() { return values; }
+        public void setValues(double[] values) { this.values = values; }
+
+        public double[] getMin() { return min; }
+        public void setMin(double[] min) { this.min = min; }
+
+        public double[] getMax() { return max; }
+        public void setMax(double[] max) { this.max = max; }
+
+        public double[] getLast() { return last; }
+        public void setLast(double[] last) { this.last = last; }
+    }
+
+    // Constructor por defecto
+    public HistorySeries() {}
+
+    // Constructor completo
+    public HistorySeries(String id, String tier, long bucketSeconds, LocalDateTime from, LocalDateTime to,
+                         int sourceCount, long[] timestamps, Map<String, Column> columns) {
+        this.id = id;
+        this.tier = tier;
+        this.bucketSeconds = bucketSeconds;
+        this.from = from;
+        this.to = to;
+        this.sourceCount = sourceCount;
+        this.count = timestamps.length;
+        this.timestamps = timestamps;
+        this.columns = columns;
+    }
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTier() { return tier; }
+    public void setTier(String tier) { this.tier = tier; }
+
+    public long getBucketSeconds() { return bucketSeconds; }
+    public void setBucketSeconds(long bucketSeconds) { this.bucketSeconds = bucketSeconds; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public int getSourceCount() { return sourceCount; }
+    public void setSourceCount(int sourceCount) { this.sourceCount = sourceCount; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public long[] getTimestamps() { return timestamps; }
+    public void setTimestamps(long[] timestamps) { this.timestamps = timestamps; }
+
+    public Map<String, Column> getColumns() { return columns; }
+    public void setColumns(Map<String, Column> columns) { this.columns = columns; }
+}
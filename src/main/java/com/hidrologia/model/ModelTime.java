@@ -0,0 +1,29 @@
+package com.hidrologia.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Conversión entre las fechas de la API (LocalDateTime) y los milisegundos epoch que guardan los
+// modelos, en la zona del sistema
+final class ModelTime {
+
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private ModelTime() {}
+
+    static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime == null ? NO_TIMESTAMP : dateTime.atZone(Zone.SYSTEM).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMilli(long epochMilli) {
+        return epochMilli == NO_TIMESTAMP ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), Zone.SYSTEM);
+    }
+
+    // La zona se resuelve aparte para que los registros sin fecha (los datos iniciales que la imagen
+    // nativa construye al compilar) no la fijen: esta clase se inicializa al arrancar
+    // (quarkus.native.additional-build-args) y no toma la zona de la máquina de compilación
+    private static final class Zone {
+        static final ZoneId SYSTEM = ZoneId.systemDefault();
+    }
+}
@@ -0,0 +1,91 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Punto de la red fluvial en una consulta de recorrido: su posición en el río, el caudal
+// (medido en la estación o desembalsado) y la distancia por el río al punto consultado
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection(ignoreNested = false)
+public class NetworkNode {
+
+    private String id;
+    private String name;
+    private NodeType type;
+    private String river;
+    private Double riverKm;
+    private Double flow;
+    private Double distanceKm;
+    private Double travelHours;
+
+    public enum NodeType {
+        ESTACION("Estación"),
+        EMBALSE("Embalse");
+
+        private final String displayName;
+
+        NodeType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    // Constructor por defecto
+    public NetworkNode() {}
+
+    // Constructor completo
+    public NetworkNode(String id, String name, NodeType type, String river, Double riverKm, Double flow,
+                       Double distanceKm, Double travelHours) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.river = river;
+        this.riverKm = riverKm;
+        this.flow = flow;
+        this.distanceKm = distanceKm;
+        this.travelHours = travelHours;
+    }
+
+    public static NetworkNode of(WaterLevel level, double distanceKm, double travelHours) {
+        return new NetworkNode(level.getStationId(), level.getStationName(), NodeType.ESTACION, level.getRiver(),
+                level.getRiverKm(), level.getFlow(), boxed(distanceKm), boxed(travelHours));
+    }
+
+    public static NetworkNode of(Reservoir reservoir, double distanceKm, double travelHours) {
+        return new NetworkNode(reservoir.getReservoirId(), reservoir.getName(), NodeType.EMBALSE,
+                reservoir.getMainRiver(), reservoir.getRiverKm(), reservoir.getOutflow(),
+                boxed(distanceKm), boxed(travelHours));
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public NodeType getType() { return type; }
+    public void setType(NodeType type) { this.type = type; }
+
+    public String getRiver() { return river; }
+    public void setRiver(String river) { this.river = river; }
+
+    public Double getRiverKm() { return riverKm; }
+    public void setRiverKm(Double riverKm) { this.riverKm = riverKm; }
+
+    public Double getFlow() { return flow; }
+    public void setFlow(Double flow) { this.flow = flow; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+
+    public Double getTravelHours() { return travelHours; }
+    public void setTravelHours(Double travelHours) { this.travelHours = travelHours; }
+}
@@ -0,0 +1,42 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+// Resultado de una consulta compuesta: elementos en orden de alta, todos de la versión del
+// almacén indicada, y los IDs pedidos que no existen (solo si la consulta incluía IDs)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class QueryResult<T> {
+
+    private List<T> items;
+    private Integer count;
+    private List<String> missingIds;
+    private Long version;
+
+    // Constructor por defecto
+    public QueryResult() {}
+
+    // Constructor completo
+    public QueryResult(List<T> items, Integer count, List<String> missingIds, Long version) {
+        this.items = items;
+        this.count = count;
+        this.missingIds = missingIds;
+        this.version = version;
+    }
+
+    // Getters y Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+
+    public List<String> getMissingIds() { return missingIds; }
+    public void setMissingIds(List<String> missingIds) { this.missingIds = missingIds; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -1,6 +1,9 @@
 package com.hidrologia.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -8,44 +11,36 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.time.LocalDateTime;
 
+// Misma representación que WaterLevel: primitivos con NaN (o NO_YEAR) para los valores ausentes,
+// fecha en milisegundos epoch y validaciones en los getters, que conservan los tipos de la API JSON
+@RegisterForReflection(ignoreNested = false)
 public class Reservoir {
 
+    public static final long NO_TIMESTAMP = ModelTime.NO_TIMESTAMP;
+    public static final int NO_YEAR = Integer.MIN_VALUE;
+
     @NotBlank(message = "El ID del embalse no puede estar vacío")
     private String reservoirId;
 
     @NotBlank(message = "El nombre del embalse no puede estar vacío")
     private String name;
 
-    @NotNull(message = "La capacidad máxima no puede ser nula")
-    @Positive(message = "La capacidad máxima debe ser positiva")
-    private Double maxCapacity;
-
-    @NotNull(message = "El volumen actual no puede ser nulo")
-    @Positive(message = "El volumen actual debe ser positivo")
-    private Double currentVolume;
-
-    @Min(value = 0, message = "El porcentaje no puede ser menor a 0")
-    @Max(value = 100, message = "El porcentaje no puede ser mayor a 100")
-    private Double fillPercentage;
-
+    private double maxCapacity = Double.NaN;
+    private double currentVolume = Double.NaN;
+    private double fillPercentage = Double.NaN;
     private PrimaryUse primaryUse;
     private OperationalStatus status;
     private String location;
+    private double latitude = Double.NaN;
+    private double longitude = Double.NaN;
     private String mainRiver;
-    private Integer constructionYear;
-
-    @Positive(message = "La altura debe ser positiva")
-    private Double damHeight;
-
-    @Positive(message = "La longitud debe ser positiva")
-    private Double damLength;
-
-    private Double outflow;
-
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
-    private LocalDateTime lastUpdated;
-
+    private int constructionYear = NO_YEAR;
+    private double damHeight = Double.NaN;
+    private double damLength = Double.NaN;
+    private double outflow = Double.NaN;
+    private long lastUpdated = NO_TIMESTAMP;
     private String observations;
+    private double riverKm = Double.NaN;
 
     // Enums
     public enum PrimaryUse {
@@ -93,23 +88,58 @@ public class Reservoir {
                     String location, String mainRiver, Integer constructionYear,
                     Double damHeight, Double damLength, Double outflow,
                     LocalDateTime lastUpdated, String observations) {
+        this(reservoirId, name, maxCapacity, currentVolume, fillPercentage, primaryUse, status,
+             location, null, null, mainRiver, constructionYear, damHeight, damLength, outflow,
+             lastUpdated, observations);
+    }
+
+    // Constructor completo con coordenadas
+    public Reservoir(String reservoirId, String name, Double maxCapacity, Double currentVolume,
+                    Double fillPercentage, PrimaryUse primaryUse, OperationalStatus status,
+                    String location, Double latitude, Double longitude, String mainRiver, Integer constructionYear,
+                    Double damHeight, Double damLength, Double outflow,
+                    LocalDateTime lastUpdated, String observations) {
         this.reservoirId = reservoirId;
         this.name = name;
-        this.maxCapacity = maxCapacity;
-        this.currentVolume = currentVolume;
-        this.fillPercentage = fillPercentage;
+        setMaxCapacity(maxCapacity);
+        setCurrentVolume(currentVolume);
+        setFillPercentage(fillPercentage);
         this.primaryUse = primaryUse;
         this.status = status;
         this.location = location;
+        setLatitude(latitude);
+        setLongitude(longitude);
         this.mainRiver = mainRiver;
-        this.constructionYear = constructionYear;
-        this.damHeight = damHeight;
-        this.damLength = damLength;
-        this.outflow = outflow;
-        this.lastUpdated = lastUpdated;
+        setConstructionYear(constructionYear);
+        setDamHeight(damHeight);
+        setDamLength(damLength);
+        setOutflow(outflow);
+        setLastUpdated(lastUpdated);
         this.observations = observations;
     }
 
+    // Constructor de copia
+    public Reservoir(Reservoir other) {
+        this.reservoirId = other.reservoirId;
+        this.name = other.name;
+        this.maxCapacity = other.maxCapacity;
+        this.currentVolume = other.currentVolume;
+        this.fillPercentage = other.fillPercentage;
+        this.primaryUse = other.primaryUse;
+        this.status = other.status;
+        this.location = other.location;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.mainRiver = other.mainRiver;
+        this.constructionYear = other.constructionYear;
+        this.damHeight = other.damHeight;
+        this.damLength = other.damLength;
+        this.outflow = other.outflow;
+        this.lastUpdated = other.lastUpdated;
+        this.observations = other.observations;
+        this.riverKm = other.riverKm;
+    }
+
     // Getters y Setters
     public String getReservoirId() { return reservoirId; }
     public void setReservoirId(String reservoirId) { this.reservoirId = reservoirId; }
@@ -117,14 +147,20 @@ public class Reservoir {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
-    public Double getMaxCapacity() { return maxCapacity; }
-    public void setMaxCapacity(Double maxCapacity) { this.maxCapacity = maxCapacity; }
+    @NotNull(message = "La capacidad máxima no puede ser nula")
+    @Positive(message = "La capacidad máxima debe ser positiva")
+    public Double getMaxCapacity() { return boxed(maxCapacity); }
+    public void setMaxCapacity(Double maxCapacity) { this.maxCapacity = unboxed(maxCapacity); }
 
-    public Double getCurrentVolume() { return currentVolume; }
-    public void setCurrentVolume(Double currentVolume) { this.currentVolume = currentVolume; }
+    @NotNull(message = "El volumen actual no puede ser nulo")
+    @Positive(message = "El volumen actual debe ser positivo")
+    public Double getCurrentVolume() { return boxed(currentVolume); }
+    public void setCurrentVolume(Double currentVolume) { this.currentVolume = unboxed(currentVolume); }
 
-    public Double getFillPercentage() { return fillPercentage; }
-    public void setFillPercentage(Double fillPercentage) { this.fillPercentage = fillPercentage; }
+    @Min(value = 0, message = "El porcentaje no puede ser menor a 0")
+    @Max(value = 100, message = "El porcentaje no puede ser mayor a 100")
+    public Double getFillPercentage() { return boxed(fillPercentage); }
+    public void setFillPercentage(Double fillPercentage) { this.fillPercentage = unboxed(fillPercentage); }
 
     public PrimaryUse getPrimaryUse() { return primaryUse; }
     public void setPrimaryUse(PrimaryUse primaryUse) { this.primaryUse = primaryUse; }
@@ -135,24 +171,69 @@ public class Reservoir {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    public Double getLatitude() { return boxed(latitude); }
+    public void setLatitude(Double latitude) { this.latitude = unboxed(latitude); }
+
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    public Double getLongitude() { return boxed(longitude); }
+    public void setLongitude(Double longitude) { this.longitude = unboxed(longitude); }
+
     public String getMainRiver() { return mainRiver; }
     public void setMainRiver(String mainRiver) { this.mainRiver = mainRiver; }
 
-    public Integer getConstructionYear() { return constructionYear; }
-    public void setConstructionYear(Integer constructionYear) { this.constructionYear = constructionYear; }
+    public Integer getConstructionYear() { return constructionYear == NO_YEAR ? null : constructionYear; }
+    public void setConstructionYear(Integer constructionYear) {
+        this.constructionYear = constructionYear == null ? NO_YEAR : constructionYear;
+    }
 
-    public Double getDamHeight() { return damHeight; }
-    public void setDamHeight(Double damHeight) { this.damHeight = damHeight; }
+    @Positive(message = "La altura debe ser positiva")
+    public Double getDamHeight() { return boxed(damHeight); }
+    public void setDamHeight(Double damHeight) { this.damHeight = unboxed(damHeight); }
 
-    public Double getDamLength() { return damLength; }
-    public void setDamLength(Double damLength) { this.damLength = damLength; }
+    @Positive(message = "La longitud debe ser positiva")
+    public Double getDamLength() { return boxed(damLength); }
+    public void setDamLength(Double damLength) { this.damLength = unboxed(damLength); }
 
-    public Double getOutflow() { return outflow; }
-    public void setOutflow(Double outflow) { this.outflow = outflow; }
+    public Double getOutflow() { return boxed(outflow); }
+    public void setOutflow(Double outflow) { this.outflow = unboxed(outflow); }
 
-    public LocalDateTime getLastUpdated() { return lastUpdated; }
-    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    public LocalDateTime getLastUpdated() {
+        return ModelTime.fromEpochMilli(lastUpdated);
+    }
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = ModelTime.toEpochMilli(lastUpdated);
+    }
 
     public String getObservations() { return observations; }
     public void setObservations(String observations) { this.observations = observations; }
-}
\ No newline at end of file
+
+    // Punto kilométrico en mainRiver desde su nacimiento
+    @DecimalMin(value = "0.0", message = "El punto kilométrico no puede ser negativo")
+    public Double getRiverKm() { return boxed(riverKm); }
+    public void setRiverKm(Double riverKm) { this.riverKm = unboxed(riverKm); }
+
+    // Acceso primitivo
+    public double maxCapacityOrNaN() { return maxCapacity; }
+    public double currentVolumeOrNaN() { return currentVolume; }
+    public double fillPercentageOrNaN() { return fillPercentage; }
+    public double latitudeOrNaN() { return latitude; }
+    public double longitudeOrNaN() { return longitude; }
+    public int constructionYearOrNone() { return constructionYear; }
+    public double damHeightOrNaN() { return damHeight; }
+    public double damLengthOrNaN() { return damLength; }
+    public double outflowOrNaN() { return outflow; }
+    public double riverKmOrNaN() { return riverKm; }
+    public long lastUpdatedEpochMilli() { return lastUpdated; }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double unboxed(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hidrologia.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+
+// Umbrales de emergencia de un embalse. Un umbral nulo no se evalúa.
+// Llenado en porcentaje; desembalse en m³/s; el factor de pico compara con la lectura anterior
+@RegisterForReflection
+public class ReservoirAlertRule {
+
+    private String reservoirId;
+
+    @Min(value = 0, message = "El porcentaje no puede ser menor a 0")
+    @Max(value = 100, message = "El porcentaje no puede ser mayor a 100")
+    private Double highFillPercentage;
+
+    @Min(value = 0, message = "El porcentaje no puede ser menor a 0")
+    @Max(value = 100, message = "El porcentaje no puede ser mayor a 100")
+    private Double lowFillPercentage;
+
+    @Positive(message = "El desembalse máximo debe ser positivo")
+    private Double maxOutflow;
+
+    @Positive(message = "El factor de pico de desembalse debe ser positivo")
+    private Double outflowSpikeFactor;
+
+    // Constructor por defecto
+    public ReservoirAlertRule() {}
+
+    // Constructor completo
+    public ReservoirAlertRule(String reservoirId, Double highFillPercentage, Double lowFillPercentage,
+                              Double maxOutflow, Double outflowSpikeFactor) {
+        this.reservoirId = reservoirId;
+        this.highFillPercentage = highFillPercentage;
+        this.lowFillPercentage = lowFillPercentage;
+        this.maxOutflow = maxOutflow;
+        this.outflowSpikeFactor = outflowSpikeFactor;
+    }
+
+    // Getters y Setters
+    public String getReservoirId() { return reservoirId; }
+    public void setReservoirId(String reservoirId) { this.reservoirId = reservoirId; }
+
+    public Double getHighFillPercentage() { return highFillPercentage; }
+    public void setHighFillPercentage(Double highFillPercentage) { this.highFillPercentage = highFillPercentage; }
+
+    public Double getLowFillPercentage() { return lowFillPercentage; }
+    public void setLowFillPercentage(Double lowFillPercentage) { this.lowFillPercentage = lowFillPercentage; }
+
+    public Double getMaxOutflow() { return maxOutflow; }
+    public void setMaxOutflow(Double maxOutflow) { this.maxOutflow = maxOutflow; }
+
+    public Double getOutflowSpikeFactor() { return outflowSpikeFactor; }
+    public void setOutflowSpikeFactor(Double outflowSpikeFactor) { this.outflowSpikeFactor = outflowSpikeFactor; }
+}
@@ -0,0 +1,81 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+
+// Proyección de un embalse: volumen (hm³) y llenado (%) al final de cada uno de los próximos días
+// desde su última lectura ('asOf'), con la variación neta de volumen del histórico reciente.
+// Sin tendencia la proyección es constante; los días hasta lleno o vacío se omiten si el embalse
+// no se dirige hacia ese extremo. Los valores ausentes se representan como NaN
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class ReservoirForecast {
+
+    private String reservoirId;
+    private String name;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime asOf;
+
+    private Double currentVolume;
+    private Double maxCapacity;
+    private Double fillPercentage;
+    // hm³/día; positivo si el embalse se llena
+    private Double netFlow;
+    // m³/s; entrada estimada = variación neta + desembalse medio
+    private Double estimatedInflow;
+    private Double meanOutflow;
+    private int trendSamples;
+    private Double daysToFull;
+    private Double daysToEmpty;
+    private double[] projectedVolume;
+    private double[] projectedFillPercentage;
+
+    // Constructor por defecto
+    public ReservoirForecast() {}
+
+    // Getters y Setters
+    public String getReservoirId() { return reservoirId; }
+    public void setReservoirId(String reservoirId) { this.reservoirId = reservoirId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDateTime getAsOf() { return asOf; }
+    public void setAsOf(LocalDateTime asOf) { this.asOf = asOf; }
+
+    public Double getCurrentVolume() { return currentVolume; }
+    public void setCurrentVolume(Double currentVolume) { this.currentVolume = currentVolume; }
+
+    public Double getMaxCapacity() { return maxCapacity; }
+    public void setMaxCapacity(Double maxCapacity) { this.maxCapacity = maxCapacity; }
+
+    public Double getFillPercentage() { return fillPercentage; }
+    public void setFillPercentage(Double fillPercentage) { this.fillPercentage = fillPercentage; }
+
+    public Double getNetFlow() { return netFlow; }
+    public void setNetFlow(Double netFlow) { this.netFlow = netFlow; }
+
+    public Double getEstimatedInflow() { return estimatedInflow; }
+    public void setEstimatedInflow(Double estimatedInflow) { this.estimatedInflow = estimatedInflow; }
+
+    public Double getMeanOutflow() { return meanOutflow; }
+    public void setMeanOutflow(Double meanOutflow) { this.meanOutflow = meanOutflow; }
+
+    public int getTrendSamples() { return trendSamples; }
+    public void setTrendSamples(int trendSamples) { this.trendSamples = trendSamples; }
+
+    public Double getDaysToFull() { return daysToFull; }
+    public void setDaysToFull(Double daysToFull) { this.daysToFull = daysToFull; }
+
+    public Double getDaysToEmpty() { return daysToEmpty; }
+    public void setDaysToEmpty(Double daysToEmpty) { this.daysToEmpty = daysToEmpty; }
+
+    public double[] getProjectedVolume() { return projectedVolume; }
+    public void setProjectedVolume(double[] projectedVolume) { this.projectedVolume = projectedVolume; }
+
+    public double[] getProjectedFillPercentage() { return projectedFillPercentage; }
+    public void setProjectedFillPercentage(double[] projectedFillPercentage) { this.projectedFillPercentage = projectedFillPercentage; }
+}
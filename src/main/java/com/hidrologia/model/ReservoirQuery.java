@@ -0,0 +1,52 @@
+package com.hidrologia.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Consulta compuesta de embalses, con las mismas reglas que WaterLevelQuery
+@RegisterForReflection
+public class ReservoirQuery {
+
+    private List<String> reservoirIds;
+    private List<Reservoir.PrimaryUse> primaryUses;
+    private List<Reservoir.OperationalStatus> statuses;
+    private Double minFillPercentage;
+    private Double maxFillPercentage;
+    private Double minOutflow;
+    private Double maxOutflow;
+    private LocalDateTime updatedFrom;
+    private LocalDateTime updatedTo;
+
+    // Constructor por defecto
+    public ReservoirQuery() {}
+
+    // Getters y Setters
+    public List<String> getReservoirIds() { return reservoirIds; }
+    public void setReservoirIds(List<String> reservoirIds) { this.reservoirIds = reservoirIds; }
+
+    public List<Reservoir.PrimaryUse> getPrimaryUses() { return primaryUses; }
+    public void setPrimaryUses(List<Reservoir.PrimaryUse> primaryUses) { this.primaryUses = primaryUses; }
+
+    public List<Reservoir.OperationalStatus> getStatuses() { return statuses; }
+    public void setStatuses(List<Reservoir.OperationalStatus> statuses) { this.statuses = statuses; }
+
+    public Double getMinFillPercentage() { return minFillPercentage; }
+    public void setMinFillPercentage(Double minFillPercentage) { this.minFillPercentage = minFillPercentage; }
+
+    public Double getMaxFillPercentage() { return maxFillPercentage; }
+    public void setMaxFillPercentage(Double maxFillPercentage) { this.maxFillPercentage = maxFillPercentage; }
+
+    public Double getMinOutflow() { return minOutflow; }
+    public void setMinOutflow(Double minOutflow) { this.minOutflow = minOutflow; }
+
+    public Double getMaxOutflow() { return maxOutflow; }
+    public void setMaxOutflow(Double maxOutflow) { this.maxOutflow = maxOutflow; }
+
+    public LocalDateTime getUpdatedFrom() { return updatedFrom; }
+    public void setUpdatedFrom(LocalDateTime updatedFrom) { this.updatedFrom = updatedFrom; }
+
+    public LocalDateTime getUpdatedTo() { return updatedTo; }
+    public void setUpdatedTo(LocalDateTime updatedTo) { this.updatedTo = updatedTo; }
+}
@@ -0,0 +1,58 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+// Caudal que llega a un punto de la red: suma de los puntos medidos más cercanos aguas arriba
+// (sources) y totales de la cuenca vertiente completa
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class RiverInflow {
+
+    private NetworkNode node;
+    private Double inflow;
+    private List<NetworkNode> sources;
+    private int upstreamStations;
+    private int upstreamReservoirs;
+    private double upstreamVolume;
+    private double upstreamCapacity;
+
+    // Constructor por defecto
+    public RiverInflow() {}
+
+    // Constructor completo
+    public RiverInflow(NetworkNode node, Double inflow, List<NetworkNode> sources, int upstreamStations,
+                       int upstreamReservoirs, double upstreamVolume, double upstreamCapacity) {
+        this.node = node;
+        this.inflow = inflow;
+        this.sources = sources;
+        this.upstreamStations = upstreamStations;
+        this.upstreamReservoirs = upstreamReservoirs;
+        this.upstreamVolume = upstreamVolume;
+        this.upstreamCapacity = upstreamCapacity;
+    }
+
+    // Getters y Setters
+    public NetworkNode getNode() { return node; }
+    public void setNode(NetworkNode node) { this.node = node; }
+
+    public Double getInflow() { return inflow; }
+    public void setInflow(Double inflow) { this.inflow = inflow; }
+
+    public List<NetworkNode> getSources() { return sources; }
+    public void setSources(List<NetworkNode> sources) { this.sources = sources; }
+
+    public int getUpstreamStations() { return upstreamStations; }
+    public void setUpstreamStations(int upstreamStations) { this.upstreamStations = upstreamStations; }
+
+    public int getUpstreamReservoirs() { return upstreamReservoirs; }
+    public void setUpstreamReservoirs(int upstreamReservoirs) { this.upstreamReservoirs = upstreamReservoirs; }
+
+    public double getUpstreamVolume() { return upstreamVolume; }
+    public void setUpstreamVolume(double upstreamVolume) { this.upstreamVolume = upstreamVolume; }
+
+    public double getUpstreamCapacity() { return upstreamCapacity; }
+    public void setUpstreamCapacity(double upstreamCapacity) { this.upstreamCapacity = upstreamCapacity; }
+}
@@ -0,0 +1,50 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Río de la red: longitud, río receptor y número de puntos de medida sobre él
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class RiverSummary {
+
+    private String name;
+    private Double lengthKm;
+    private String receivingRiver;
+    private Double confluenceKm;
+    private int stations;
+    private int reservoirs;
+
+    // Constructor por defecto
+    public RiverSummary() {}
+
+    // Constructor completo
+    public RiverSummary(String name, Double lengthKm, String receivingRiver, Double confluenceKm,
+                        int stations, int reservoirs) {
+        this.name = name;
+        this.lengthKm = lengthKm;
+        this.receivingRiver = receivingRiver;
+        this.confluenceKm = confluenceKm;
+        this.stations = stations;
+        this.reservoirs = reservoirs;
+    }
+
+    // Getters y Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Double getLengthKm() { return lengthKm; }
+    public void setLengthKm(Double lengthKm) { this.lengthKm = lengthKm; }
+
+    public String getReceivingRiver() { return receivingRiver; }
+    public void setReceivingRiver(String receivingRiver) { this.receivingRiver = receivingRiver; }
+
+    public Double getConfluenceKm() { return confluenceKm; }
+    public void setConfluenceKm(Double confluenceKm) { this.confluenceKm = confluenceKm; }
+
+    public int getStations() { return stations; }
+    public void setStations(int stations) { this.stations = stations; }
+
+    public int getReservoirs() { return reservoirs; }
+    public void setReservoirs(int reservoirs) { this.reservoirs = reservoirs; }
+}
@@ -0,0 +1,42 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+// Resultado de una búsqueda de texto: la estación o el embalse y su puntuación
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
+public class SearchMatch {
+
+    private Integer score;
+    private WaterLevel waterLevel;
+    private Reservoir reservoir;
+
+    // Constructor por defecto
+    public SearchMatch() {}
+
+    // Constructor completo
+    public SearchMatch(Integer score, WaterLevel waterLevel, Reservoir reservoir) {
+        this.score = score;
+        this.waterLevel = waterLevel;
+        this.reservoir = reservoir;
+    }
+
+    public static SearchMatch of(WaterLevel waterLevel, int score) {
+        return new SearchMatch(score, waterLevel, null);
+    }
+
+    public static SearchMatch of(Reservoir reservoir, int score) {
+        return new SearchMatch(score, null, reservoir);
+    }
+
+    // Getters y Setters
+    public Integer getScore() { return score; }
+    public void setScore(Integer score) { this.score = score; }
+
+    public WaterLevel getWaterLevel() { return waterLevel; }
+    public void setWaterLevel(WaterLevel waterLevel) { this.waterLevel = waterLevel; }
+
+    public Reservoir getReservoir() { return reservoir; }
+    public void setReservoir(Reservoir reservoir) { this.reservoir = reservoir; }
+}
@@ -0,0 +1,121 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RegisterForReflection(ignoreNested = false)
+public class SystemStatistics {
+
+    private int totalStations;
+    private int totalReservoirs;
+    private int alertStations;
+    private Map<WaterLevel.AlertStatus, Integer> stationsByAlertStatus;
+    private Map<Reservoir.OperationalStatus, Integer> reservoirsByStatus;
+    private double averageFillPercentage;
+    private Double minFillPercentage;
+    private Double maxFillPercentage;
+    private double totalCapacity;
+    private double totalVolume;
+    private List<BasinStatistics> basins;
+    private boolean healthy;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastUpdated;
+
+    // Versión publicada de cada almacén de la que proceden los totales
+    private long waterLevelsVersion;
+    private long reservoirsVersion;
+
+    // Totales por cuenca (río principal de los embalses)
+    public static class BasinStatistics {
+
+        private String mainRiver;
+        private int reservoirs;
+        private double totalCapacity;
+        private double totalVolume;
+        private double totalOutflow;
+        private double fillPercentage;
+
+        public BasinStatistics() {}
+
+        public BasinStatistics(String mainRiver, int reservoirs, double totalCapacity,
+                               double totalVolume, double totalOutflow) {
+            this.mainRiver = mainRiver;
+            this.reservoirs = reservoirs;
+            this.totalCapacity = totalCapacity;
+            this.totalVolume = totalVolume;
+            this.totalOutflow = totalOutflow;
+            this.fillPercentage = totalCapacity > 0 ? totalVolume / totalCapacity * 100.0 : 0.0;
+        }
+
+        public String getMainRiver() { return mainRiver; }
+        public void setMainRiver(String mainRiver) { this.mainRiver = mainRiver; }
+
+        public int getReservoirs() { return reservoirs; }
+        public void setReservoirs(int reservoirs) { this.reservoirs = reservoirs; }
+
+        public double getTotalCapacity() { return totalCapacity; }
+        public void setTotalCapacity(double totalCapacity) { this.totalCapacity = totalCapacity; }
+
+        public double getTotalVolume() { return totalVolume; }
+        public void setTotalVolume(double totalVolume) { this.totalVolume = totalVolume; }
+
+        public double getTotalOutflow() { return totalOutflow; }
+        public void setTotalOutflow(double totalOutflow) { this.totalOutflow = totalOutflow; }
+
+        public double getFillPercentage() { return fillPercentage; }
+        public void setFillPercentage(double fillPercentage) { this.fillPercentage = fillPercentage; }
+    }
+
+    // Constructor por defecto
+    public SystemStatistics() {}
+
+    // Getters y Setters
+    public int getTotalStations() { return totalStations; }
+    public void setTotalStations(int totalStations) { this.totalStations = totalStations; }
+
+    public int getTotalReservoirs() { return totalReservoirs; }
+    public void setTotalReservoirs(int totalReservoirs) { this.totalReservoirs = totalReservoirs; }
+
+    public int getAlertStations() { return alertStations; }
+    public void setAlertStations(int alertStations) { this.alertStations = alertStations; }
+
+    public Map<WaterLevel.AlertStatus, Integer> getStationsByAlertStatus() { return stationsByAlertStatus; }
+    public void setStationsByAlertStatus(Map<WaterLevel.AlertStatus, Integer> stationsByAlertStatus) { this.stationsByAlertStatus = stationsByAlertStatus; }
+
+    public Map<Reservoir.OperationalStatus, Integer> getReservoirsByStatus() { return reservoirsByStatus; }
+    public void setReservoirsByStatus(Map<Reservoir.OperationalStatus, Integer> reservoirsByStatus) { this.reservoirsByStatus = reservoirsByStatus; }
+
+    public double getAverageFillPercentage() { return averageFillPercentage; }
+    public void setAverageFillPercentage(double averageFillPercentage) { this.averageFillPercentage = averageFillPercentage; }
+
+    public Double getMinFillPercentage() { return minFillPercentage; }
+    public void setMinFillPercentage(Double minFillPercentage) { this.minFillPercentage = minFillPercentage; }
+
+    public Double getMaxFillPercentage() { return maxFillPercentage; }
+    public void setMaxFillPercentage(Double maxFillPercentage) { this.maxFillPercentage = maxFillPercentage; }
+
+    public double getTotalCapacity() { return totalCapacity; }
+    public void setTotalCapacity(double totalCapacity) { this.totalCapacity = totalCapacity; }
+
+    public double getTotalVolume() { return totalVolume; }
+    public void setTotalVolume(double totalVolume) { this.totalVolume = totalVolume; }
+
+    public List<BasinStatistics> getBasins() { return basins; }
+    public void setBasins(List<BasinStatistics> basins) { this.basins = basins; }
+
+    public boolean isHealthy() { return healthy; }
+    public void setHealthy(boolean healthy) { this.healthy = healthy; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+
+    public long getWaterLevelsVersion() { return waterLevelsVersion; }
+    public void setWaterLevelsVersion(long waterLevelsVersion) { this.waterLevelsVersion = waterLevelsVersion; }
+
+    public long getReservoirsVersion() { return reservoirsVersion; }
+    public void setReservoirsVersion(long reservoirsVersion) { this.reservoirsVersion = reservoirsVersion; }
+}
@@ -1,35 +1,41 @@
 package com.hidrologia.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.time.LocalDateTime;
 
+// Los valores numéricos se guardan como primitivos (NaN si no hay valor) y la fecha como
+// milisegundos epoch en la zona del sistema: un registro no arrastra objetos Double ni
+// LocalDateTime. Los getters y setters conservan los tipos de la API JSON, y las validaciones
+// están en los getters; los métodos *OrNaN evitan crear objetos en el código interno
+@RegisterForReflection(ignoreNested = false)
 public class WaterLevel {
 
+    public static final long NO_TIMESTAMP = ModelTime.NO_TIMESTAMP;
+
     @NotBlank(message = "El ID de la estación no puede estar vacío")
     private String stationId;
 
     @NotBlank(message = "El nombre de la estación no puede estar vacío")
     private String stationName;
 
-    @NotNull(message = "El nivel de agua no puede ser nulo")
-    @Positive(message = "El nivel de agua debe ser positivo")
-    private Double waterLevel;
-
-    @Positive(message = "El caudal debe ser positivo")
-    private Double flow;
-
+    private double waterLevel = Double.NaN;
+    private double flow = Double.NaN;
     private WaterType type;
     private AlertStatus alertStatus;
     private String location;
-
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
-    private LocalDateTime lastUpdated;
-
-    private Double temperature;
+    private double latitude = Double.NaN;
+    private double longitude = Double.NaN;
+    private long lastUpdated = NO_TIMESTAMP;
+    private double temperature = Double.NaN;
     private String observations;
+    private String river;
+    private double riverKm = Double.NaN;
 
     // Enums
     public enum WaterType {
@@ -73,18 +79,46 @@ public class WaterLevel {
     public WaterLevel(String stationId, String stationName, Double waterLevel, Double flow, 
                      WaterType type, AlertStatus alertStatus, String location, 
                      LocalDateTime lastUpdated, Double temperature, String observations) {
+        this(stationId, stationName, waterLevel, flow, type, alertStatus, location, null, null,
+             lastUpdated, temperature, observations);
+    }
+
+    // Constructor completo con coordenadas
+    public WaterLevel(String stationId, String stationName, Double waterLevel, Double flow,
+                     WaterType type, AlertStatus alertStatus, String location, Double latitude, Double longitude,
+                     LocalDateTime lastUpdated, Double temperature, String observations) {
         this.stationId = stationId;
         this.stationName = stationName;
-        this.waterLevel = waterLevel;
-        this.flow = flow;
+        setWaterLevel(waterLevel);
+        setFlow(flow);
         this.type = type;
         this.alertStatus = alertStatus;
         this.location = location;
-        this.lastUpdated = lastUpdated;
-        this.temperature = temperature;
+        setLatitude(latitude);
+        setLongitude(longitude);
+        setLastUpdated(lastUpdated);
+        setTemperature(temperature);
         this.observations = observations;
     }
 
+    // Constructor de copia
+    public WaterLevel(WaterLevel other) {
+        this.stationId = other.stationId;
+        this.stationName = other.stationName;
+        this.waterLevel = other.waterLevel;
+        this.flow = other.flow;
+        this.type = other.type;
+        this.alertStatus = other.alertStatus;
+        this.location = other.location;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.lastUpdated = other.lastUpdated;
+        this.temperature = other.temperature;
+        this.observations = other.observations;
+        this.river = other.river;
+        this.riverKm = other.riverKm;
+    }
+
     // Getters y Setters
     public String getStationId() { return stationId; }
     public void setStationId(String stationId) { this.stationId = stationId; }
@@ -92,11 +126,14 @@ public class WaterLevel {
     public String getStationName() { return stationName; }
     public void setStationName(String stationName) { this.stationName = stationName; }
 
-    public Double getWaterLevel() { return waterLevel; }
-    public void setWaterLevel(Double waterLevel) { this.waterLevel = waterLevel; }
+    @NotNull(message = "El nivel de agua no puede ser nulo")
+    @Positive(message = "El nivel de agua debe ser positivo")
+    public Double getWaterLevel() { return boxed(waterLevel); }
+    public void setWaterLevel(Double waterLevel) { this.waterLevel = unboxed(waterLevel); }
 
-    public Double getFlow() { return flow; }
-    public void setFlow(Double flow) { this.flow = flow; }
+    @Positive(message = "El caudal debe ser positivo")
+    public Double getFlow() { return boxed(flow); }
+    public void setFlow(Double flow) { this.flow = unboxed(flow); }
 
     public WaterType getType() { return type; }
     public void setType(WaterType type) { this.type = type; }
@@ -107,12 +144,52 @@ public class WaterLevel {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
-    public LocalDateTime getLastUpdated() { return lastUpdated; }
-    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    public Double getLatitude() { return boxed(latitude); }
+    public void setLatitude(Double latitude) { this.latitude = unboxed(latitude); }
 
-    public Double getTemperature() { return temperature; }
-    public void setTemperature(Double temperature) { this.temperature = temperature; }
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    public Double getLongitude() { return boxed(longitude); }
+    public void setLongitude(Double longitude) { this.longitude = unboxed(longitude); }
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    public LocalDateTime getLastUpdated() {
+        return ModelTime.fromEpochMilli(lastUpdated);
+    }
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = ModelTime.toEpochMilli(lastUpdated);
+    }
+
+    public Double getTemperature() { return boxed(temperature); }
+    public void setTemperature(Double temperature) { this.temperature = unboxed(temperature); }
 
     public String getObservations() { return observations; }
     public void setObservations(String observations) { this.observations = observations; }
-}
\ No newline at end of file
+
+    public String getRiver() { return river; }
+    public void setRiver(String river) { this.river = river; }
+
+    // Punto kilométrico desde el nacimiento del río
+    @DecimalMin(value = "0.0", message = "El punto kilométrico no puede ser negativo")
+    public Double getRiverKm() { return boxed(riverKm); }
+    public void setRiverKm(Double riverKm) { this.riverKm = unboxed(riverKm); }
+
+    // Acceso primitivo
+    public double waterLevelOrNaN() { return waterLevel; }
+    public double flowOrNaN() { return flow; }
+    public double latitudeOrNaN() { return latitude; }
+    public double longitudeOrNaN() { return longitude; }
+    public double temperatureOrNaN() { return temperature; }
+    public double riverKmOrNaN() { return riverKm; }
+    public long lastUpdatedEpochMilli() { return lastUpdated; }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double unboxed(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hidrologia.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.Positive;
+
+// Umbrales de alerta de una estación. Un umbral nulo no se evalúa.
+// Niveles en metros; subidas de caudal en m³/s por hora
+@RegisterForReflection
+public class WaterLevelAlertRule {
+
+    private String stationId;
+
+    @Positive(message = "El umbral de precaución debe ser positivo")
+    private Double precautionLevel;
+
+    @Positive(message = "El umbral de alerta debe ser positivo")
+    private Double alertLevel;
+
+    @Positive(message = "El umbral de emergencia debe ser positivo")
+    private Double emergencyLevel;
+
+    @Positive(message = "El nivel mínimo debe ser positivo")
+    private Double lowLevel;
+
+    @Positive(message = "La subida de caudal de precaución debe ser positiva")
+    private Double flowRisePrecaution;
+
+    @Positive(message = "La subida de caudal de alerta debe ser positiva")
+    private Double flowRiseAlert;
+
+    // Constructor por defecto
+    public WaterLevelAlertRule() {}
+
+    // Constructor completo
+    public WaterLevelAlertRule(String stationId, Double precautionLevel, Double alertLevel, Double emergencyLevel,
+                               Double lowLevel, Double flowRisePrecaution, Double flowRiseAlert) {
+        this.stationId = stationId;
+        this.precautionLevel = precautionLevel;
+        this.alertLevel = alertLevel;
+        this.emergencyLevel = emergencyLevel;
+        this.lowLevel = lowLevel;
+        this.flowRisePrecaution = flowRisePrecaution;
+        this.flowRiseAlert = flowRiseAlert;
+    }
+
+    // Getters y Setters
+    public String getStationId() { return stationId; }
+    public void setStationId(String stationId) { this.stationId = stationId; }
+
+    public Double getPrecautionLevel() { return precautionLevel; }
+    public void setPrecautionLevel(Double precautionLevel) { this.precautionLevel = precautionLevel; }
+
+    public Double getAlertLevel() { return alertLevel; }
+    public void setAlertLevel(Double alertLevel) { this.alertLevel = alertLevel; }
+
+    public Double getEmergencyLevel() { return emergencyLevel; }
+    public void setEmergencyLevel(Double emergencyLevel) { this.emergencyLevel = emergencyLevel; }
+
+    public Double getLowLevel() { return lowLevel; }
+    public void setLowLevel(Double lowLevel) { this.lowLevel = lowLevel; }
+
+    public Double getFlowRisePrecaution() { return flowRisePrecaution; }
+    public void setFlowRisePrecaution(Double flowRisePrecaution) { this.flowRisePrecaution = flowRisePrecaution; }
+
+    public Double getFlowRiseAlert() { return flowRiseAlert; }
+    public void setFlowRiseAlert(Double flowRiseAlert) { this.flowRiseAlert = flowRiseAlert; }
+}
@@ -0,0 +1,66 @@
+package com.hidrologia.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+
+// Histórico en formato columnar: timestamps en milisegundos epoch y una serie por variable.
+// Los valores ausentes se representan como NaN.
+@RegisterForReflection
+public class WaterLevelHistory {
+
+    private String stationId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;
+
+    private int count;
+    private long[] timestamps;
+    private double[] waterLevel;
+    private double[] flow;
+    private double[] temperature;
+
+    // Constructor por defecto
+    public WaterLevelHistory() {}
+
+    // Constructor completo
+    public WaterLevelHistory(String stationId, LocalDateTime from, LocalDateTime to, long[] timestamps,
+                             double[] waterLevel, double[] flow, double[] temperature) {
+        this.stationId = stationId;
+        this.from = from;
+        this.to = to;
+        this.count = timestamps.length;
+        this.timestamps = timestamps;
+        this.waterLevel = waterLevel;
+        this.flow = flow;
+        this.temperature = temperature;
+    }
+
+    // Getters y Setters
+    public String getStationId() { return stationId; }
+    public void setStationId(String stationId) { this.stationId = stationId; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public long[] getTimestamps() { return timestamps; }
+    public void setTimestamps(long[] timestamps) { this.timestamps = timestamps; }
+
+    public double[] getWaterLevel() { return waterLevel; }
+    public void setWaterLevel(double[] waterLevel) { this.waterLevel = waterLevel; }
+
+    public double[] getFlow() { return flow; }
+    public void setFlow(double[] flow) { this.flow = flow; }
+
+    public double[] getTemperature() { return temperature; }
+    public void setTemperature(double[] temperature) { this.temperature = temperature; }
+}
@@ -0,0 +1,54 @@
+package com.hidrologia.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Consulta compuesta de estaciones. Todos los criterios se combinan (Y); dentro de una lista
+// basta con uno de los valores. Un criterio nulo o vacío no filtra. Los rangos son inclusivos
+// y una estación sin el valor medido no cumple un rango sobre él
+@RegisterForReflection
+public class WaterLevelQuery {
+
+    private List<String> stationIds;
+    private List<WaterLevel.WaterType> types;
+    private List<WaterLevel.AlertStatus> alertStatuses;
+    private Double minWaterLevel;
+    private Double maxWaterLevel;
+    private Double minFlow;
+    private Double maxFlow;
+    private LocalDateTime updatedFrom;
+    private LocalDateTime updatedTo;
+
+    // Constructor por defecto
+    public WaterLevelQuery() {}
+
+    // Getters y Setters
+    public List<String> getStationIds() { return stationIds; }
+    public void setStationIds(List<String> stationIds) { this.stationIds = stationIds; }
+
+    public List<WaterLevel.WaterType> getTypes() { return types; }
+    public void setTypes(List<WaterLevel.WaterType> types) { this.types = types; }
+
+    public List<WaterLevel.AlertStatus> getAlertStatuses() { return alertStatuses; }
+    public void setAlertStatuses(List<WaterLevel.AlertStatus> alertStatuses) { this.alertStatuses = alertStatuses; }
+
+    public Double getMinWaterLevel() { return minWaterLevel; }
+    public void setMinWaterLevel(Double minWaterLevel) { this.minWaterLevel = minWaterLevel; }
+
+    public Double getMaxWaterLevel() { return maxWaterLevel; }
+    public void setMaxWaterLevel(Double maxWaterLevel) { this.maxWaterLevel = maxWaterLevel; }
+
+    public Double getMinFlow() { return minFlow; }
+    public void setMinFlow(Double minFlow) { this.minFlow = minFlow; }
+
+    public Double getMaxFlow() { return maxFlow; }
+    public void setMaxFlow(Double maxFlow) { this.maxFlow = maxFlow; }
+
+    public LocalDateTime getUpdatedFrom() { return updatedFrom; }
+    public void setUpdatedFrom(LocalDateTime updatedFrom) { this.updatedFrom = updatedFrom; }
+
+    public LocalDateTime getUpdatedTo() { return updatedTo; }
+    public void setUpdatedTo(LocalDateTime updatedTo) { this.updatedTo = updatedTo; }
+}
@@ -0,0 +1,26 @@
+package com.hidrologia.network;
+
+// Tramo de la red fluvial: longitud desde el nacimiento y punto kilométrico del río receptor
+// en el que desemboca (sin receptor si llega al mar)
+public final class River {
+
+    private final String name;
+    private final double lengthKm;
+    private final String receivingRiver;
+    private final double confluenceKm;
+
+    River(String name, double lengthKm, String receivingRiver, double confluenceKm) {
+        this.name = name;
+        this.lengthKm = lengthKm;
+        this.receivingRiver = receivingRiver;
+        this.confluenceKm = confluenceKm;
+    }
+
+    public String getName() { return name; }
+
+    public double getLengthKm() { return lengthKm; }
+
+    public String getReceivingRiver() { return receivingRiver; }
+
+    public double getConfluenceKm() { return confluenceKm; }
+}
@@ -0,0 +1,43 @@
+package com.hidrologia.network;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Ríos de las cuencas simuladas con longitudes y confluencias aproximadas. Un río que no
+// figura aquí forma su propia cuenca y desemboca tras su punto más aguas abajo
+public final class RiverCatalog {
+
+    private static final Map<String, River> RIVERS = new LinkedHashMap<>();
+
+    static {
+        add("Río Ebro", 930.0, null, 0.0);
+        add("Río Tajo", 1007.0, null, 0.0);
+        add("Río Duero", 897.0, null, 0.0);
+        add("Río Guadiana", 744.0, null, 0.0);
+        add("Río Guadalquivir", 657.0, null, 0.0);
+        add("Río Júcar", 498.0, null, 0.0);
+        add("Río Segura", 325.0, null, 0.0);
+        add("Río Miño", 340.0, null, 0.0);
+        add("Río Genil", 337.0, "Río Guadalquivir", 390.0);
+        add("Río Esla", 286.0, "Río Duero", 560.0);
+        add("Río Guadiela", 115.0, "Río Tajo", 200.0);
+        add("Río Zújar", 214.0, "Río Guadiana", 330.0);
+    }
+
+    private RiverCatalog() {}
+
+    private static void add(String name, double lengthKm, String receivingRiver, double confluenceKm) {
+        RIVERS.put(name, new River(name, lengthKm, receivingRiver, confluenceKm));
+    }
+
+    public static Optional<River> find(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(RIVERS.get(name));
+    }
+
+    public static Collection<River> all() {
+        return Collections.unmodifiableCollection(RIVERS.values());
+    }
+}
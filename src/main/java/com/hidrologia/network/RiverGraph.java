@@ -0,0 +1,342 @@
+package com.hidrologia.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+// Red fluvial como bosque orientado aguas abajo. Cada punto (estación o embalse) enlaza con el
+// siguiente de su río o, si es el último, con el primero del río receptor aguas abajo de la
+// confluencia. Los enlaces viven en arrays primitivos indexados por nodo: uno aguas abajo por
+// nodo y las listas aguas arriba en formato CSR. El orden topológico es un preorden desde las
+// desembocaduras, en el que la cuenca vertiente de cada nodo ocupa un tramo contiguo.
+// Es inmutable: se reconstruye cuando cambia la topología, no con cada lectura
+public final class RiverGraph {
+
+    private static final int NONE = -1;
+
+    private final Map<String, Integer> nodeById;
+    private final String[] ids;
+    private final boolean[] reservoirs;
+
+    private final int[] downstream;
+    private final double[] downstreamKm;
+    private final int[] upstreamStart;
+    private final int[] upstreamNodes;
+
+    private final int[] order;
+    private final int[] position;
+    private final int[] basinEnd;
+
+    private final String[] riverNames;
+    private final int[] stationsOnRiver;
+    private final int[] reservoirsOnRiver;
+
+    private RiverGraph(Builder builder) {
+        int n = builder.ids.size();
+        this.nodeById = builder.nodeById;
+        this.ids = builder.ids.toArray(new String[0]);
+        this.reservoirs = Arrays.copyOf(builder.reservoirs, n);
+        double[] km = builder.riverKm;
+
+        // Los ríos del catálogo primero, después los que solo aparecen en los datos
+        Map<String, Integer> riverIndex = new LinkedHashMap<>();
+        for (River river : RiverCatalog.all()) {
+            riverIndex.put(river.getName(), riverIndex.size());
+        }
+        int[] riverOf = new int[n];
+        for (int node = 0; node < n; node++) {
+            String river = builder.rivers.get(node);
+            riverOf[node] = river == null ? NONE : riverIndex.computeIfAbsent(river, name -> riverIndex.size());
+        }
+        int riverCount = riverIndex.size();
+        this.riverNames = riverIndex.keySet().toArray(new String[0]);
+        this.stationsOnRiver = new int[riverCount];
+        this.reservoirsOnRiver = new int[riverCount];
+        for (int node = 0; node < n; node++) {
+            if (riverOf[node] != NONE) {
+                (reservoirs[node] ? reservoirsOnRiver : stationsOnRiver)[riverOf[node]]++;
+            }
+        }
+
+        // Puntos con posición, agrupados por río y ordenados por punto kilométrico (a igualdad, por
+        // orden de alta). Se ordena el rango de cada punto kilométrico junto con el nodo en un long
+        // y después se reparte por río de forma estable, sin comparadores ni objetos por nodo
+        int positioned = 0;
+        double[] distinctKm = new double[n];
+        for (int node = 0; node < n; node++) {
+            if (riverOf[node] != NONE && !Double.isNaN(km[node])) {
+                distinctKm[positioned++] = km[node];
+            }
+        }
+        Arrays.sort(distinctKm, 0, positioned);
+        int distinct = 0;
+        for (int i = 0; i < positioned; i++) {
+            if (distinct == 0 || distinctKm[i] != distinctKm[distinct - 1]) {
+                distinctKm[distinct++] = distinctKm[i];
+            }
+        }
+        long[] keys = new long[positioned];
+        int[] riverStart = new int[riverCount + 1];
+        for (int node = 0, i = 0; node < n; node++) {
+            if (riverOf[node] != NONE && !Double.isNaN(km[node])) {
+                long rank = Arrays.binarySearch(distinctKm, 0, distinct, km[node]);
+                keys[i++] = rank << 31 | node;
+                riverStart[riverOf[node] + 1]++;
+            }
+        }
+        Arrays.sort(keys);
+        for (int river = 0; river < riverCount; river++) {
+            riverStart[river + 1] += riverStart[river];
+        }
+        int[] sorted = new int[positioned];
+        int[] next = Arrays.copyOf(riverStart, riverCount);
+        for (long key : keys) {
+            int node = (int) (key & Integer.MAX_VALUE);
+            sorted[next[riverOf[node]]++] = node;
+        }
+
+        this.downstream = new int[n];
+        this.downstreamKm = new double[n];
+        Arrays.fill(downstream, NONE);
+        for (int river = 0; river < riverCount; river++) {
+            int first = riverStart[river];
+            int last = riverStart[river + 1] - 1;
+            for (int p = first; p < last; p++) {
+                downstream[sorted[p]] = sorted[p + 1];
+                downstreamKm[sorted[p]] = km[sorted[p + 1]] - km[sorted[p]];
+            }
+            if (last >= first) {
+                linkToReceiving(sorted[last], river, km, sorted, riverStart, riverIndex);
+            }
+        }
+
+        this.upstreamStart = new int[n + 1];
+        for (int node = 0; node < n; node++) {
+            if (downstream[node] != NONE) {
+                upstreamStart[downstream[node] + 1]++;
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            upstreamStart[node + 1] += upstreamStart[node];
+        }
+        this.upstreamNodes = new int[upstreamStart[n]];
+        int[] fill = Arrays.copyOf(upstreamStart, n);
+        for (int node = 0; node < n; node++) {
+            if (downstream[node] != NONE) {
+                upstreamNodes[fill[downstream[node]]++] = node;
+            }
+        }
+
+        // Preorden desde cada desembocadura: un nodo precede a toda su cuenca vertiente
+        this.order = new int[n];
+        this.position = new int[n];
+        int visited = 0;
+        int[] stack = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (downstream[root] != NONE) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int node = stack[--top];
+                position[node] = visited;
+                order[visited++] = node;
+                for (int e = upstreamStart[node + 1] - 1; e >= upstreamStart[node]; e--) {
+                    stack[top++] = upstreamNodes[e];
+                }
+            }
+        }
+
+        // Recorriendo el preorden al revés, la cuenca de cada nodo está completa al llegar a él
+        this.basinEnd = new int[n];
+        int[] basinSize = new int[n];
+        Arrays.fill(basinSize, 1);
+        for (int p = n - 1; p >= 0; p--) {
+            int node = order[p];
+            basinEnd[node] = p + basinSize[node];
+            if (downstream[node] != NONE) {
+                basinSize[downstream[node]] += basinSize[node];
+            }
+        }
+    }
+
+    // Tras el último punto de un río se sigue la cadena de confluencias hasta el primer río
+    // receptor con algún punto aguas abajo; los ríos sin catálogo terminan en su último punto
+    private void linkToReceiving(int node, int river, double[] km, int[] sorted, int[] riverStart,
+                                 Map<String, Integer> riverIndex) {
+        double distance = 0.0;
+        double fromKm = km[node];
+        String name = riverNames[river];
+        for (int hop = 0; hop < riverNames.length; hop++) {
+            River info = RiverCatalog.find(name).orElse(null);
+            if (info == null || info.getReceivingRiver() == null) {
+                return;
+            }
+            distance += Math.max(0.0, info.getLengthKm() - fromKm);
+            fromKm = info.getConfluenceKm();
+            name = info.getReceivingRiver();
+            int receiving = riverIndex.get(name);
+            int target = firstAtOrAfter(km, sorted, riverStart[receiving], riverStart[receiving + 1], fromKm);
+            if (target != NONE) {
+                downstream[node] = target;
+                downstreamKm[node] = distance + km[target] - fromKm;
+                return;
+            }
+        }
+    }
+
+    private static int firstAtOrAfter(double[] km, int[] sorted, int from, int to, double riverKm) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (km[sorted[mid]] < riverKm) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < to ? sorted[low] : NONE;
+    }
+
+    // ========== Consultas ==========
+
+    public boolean contains(String id) {
+        return nodeById.containsKey(id);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Puntos aguas abajo hasta 'maxKm', en orden de recorrido (y por tanto de distancia)
+    public List<RiverHit> downstream(String id, double maxKm, int limit) {
+        List<RiverHit> hits = new ArrayList<>();
+        int node = node(id);
+        double distance = 0.0;
+        while (hits.size() < limit && downstream[node] != NONE) {
+            distance += downstreamKm[node];
+            node = downstream[node];
+            if (distance > maxKm) {
+                break;
+            }
+            hits.add(hit(node, distance));
+        }
+        return hits;
+    }
+
+    // Cuenca vertiente hasta 'maxKm', de más cercano a más lejano. Al superar la distancia
+    // se salta el tramo del preorden con la cuenca de ese punto, que queda aún más lejos
+    public List<RiverHit> upstream(String id, double maxKm, int limit) {
+        int node = node(id);
+        int from = position[node];
+        double[] distance = new double[basinEnd[node] - from];
+        List<RiverHit> hits = new ArrayList<>();
+        for (int p = from + 1; p < basinEnd[node]; p++) {
+            int current = order[p];
+            double d = distance[position[downstream[current]] - from] + downstreamKm[current];
+            if (d > maxKm) {
+                p = basinEnd[current] - 1;
+                continue;
+            }
+            distance[p - from] = d;
+            hits.add(hit(current, d));
+        }
+        hits.sort(Comparator.comparingDouble(RiverHit::getDistanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    // Primeros puntos aguas arriba que cumplen 'measured' sin otro que lo cumpla entre ellos y
+    // el nodo: la cuenca de un punto medido ya está recogida en su medida y no se recorre
+    public List<RiverHit> nearestUpstream(String id, Predicate<String> measured) {
+        int node = node(id);
+        int from = position[node];
+        double[] distance = new double[basinEnd[node] - from];
+        List<RiverHit> hits = new ArrayList<>();
+        for (int p = from + 1; p < basinEnd[node]; p++) {
+            int current = order[p];
+            double d = distance[position[downstream[current]] - from] + downstreamKm[current];
+            distance[p - from] = d;
+            if (measured.test(ids[current])) {
+                hits.add(hit(current, d));
+                p = basinEnd[current] - 1;
+            }
+        }
+        return hits;
+    }
+
+    // Todos los puntos de la cuenca vertiente (ID y si es un embalse), sin distancias
+    public void forEachUpstream(String id, BiConsumer<String, Boolean> action) {
+        int node = node(id);
+        for (int p = position[node] + 1; p < basinEnd[node]; p++) {
+            action.accept(ids[order[p]], reservoirs[order[p]]);
+        }
+    }
+
+    // ========== Ríos ==========
+
+    public int riverCount() {
+        return riverNames.length;
+    }
+
+    public String riverName(int river) {
+        return riverNames[river];
+    }
+
+    public int stationCount(int river) {
+        return stationsOnRiver[river];
+    }
+
+    public int reservoirCount(int river) {
+        return reservoirsOnRiver[river];
+    }
+
+    private int node(String id) {
+        Integer node = nodeById.get(id);
+        if (node == null) {
+            throw new IllegalArgumentException("Punto desconocido en la red fluvial: " + id);
+        }
+        return node;
+    }
+
+    private RiverHit hit(int node, double distanceKm) {
+        return new RiverHit(ids[node], reservoirs[node], distanceKm);
+    }
+
+    // Un ID repetido conserva el primer punto añadido
+    public static final class Builder {
+
+        private final Map<String, Integer> nodeById = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> rivers = new ArrayList<>();
+        private boolean[] reservoirs = new boolean[64];
+        private double[] riverKm = new double[64];
+
+        public Builder add(String id, boolean reservoir, String river, double km) {
+            if (id == null || nodeById.putIfAbsent(id, ids.size()) != null) {
+                return this;
+            }
+            int node = ids.size();
+            if (node == riverKm.length) {
+                reservoirs = Arrays.copyOf(reservoirs, node * 2);
+                riverKm = Arrays.copyOf(riverKm, node * 2);
+            }
+            ids.add(id);
+            rivers.add(river);
+            reservoirs[node] = reservoir;
+            riverKm[node] = km;
+            return this;
+        }
+
+        public RiverGraph build() {
+            return new RiverGraph(this);
+        }
+    }
+}
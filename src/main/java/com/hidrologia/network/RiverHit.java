@@ -0,0 +1,21 @@
+package com.hidrologia.network;
+
+// Resultado de un recorrido de la red: ID del punto, si es un embalse y distancia por el río
+public class RiverHit {
+
+    private final String id;
+    private final boolean reservoir;
+    private final double distanceKm;
+
+    RiverHit(String id, boolean reservoir, double distanceKm) {
+        this.id = id;
+        this.reservoir = reservoir;
+        this.distanceKm = distanceKm;
+    }
+
+    public String getId() { return id; }
+
+    public boolean isReservoir() { return reservoir; }
+
+    public double getDistanceKm() { return distanceKm; }
+}
@@ -0,0 +1,271 @@
+package com.hidrologia.persistence;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.HistoryService;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Persistencia del estado: cada escritura de los almacenes se anexa al log y periódicamente se
+// escribe un snapshot que permite descartar los segmentos anteriores. Al arrancar se carga el
+// último snapshot y se aplican los segmentos posteriores
+@ApplicationScoped
+public class PersistenceService {
+
+    private static final Logger LOG = Logger.getLogger(PersistenceService.class);
+
+    @Inject
+    HidrologiaService hidrologiaService;
+
+    @Inject
+    HistoryService historyService;
+
+    @ConfigProperty(name = "hidrologia.persistence.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "hidrologia.persistence.directory", defaultValue = "data")
+    String directory;
+
+    @ConfigProperty(name = "hidrologia.persistence.segment-size-mb", defaultValue = "64")
+    int segmentSizeMb;
+
+    @ConfigProperty(name = "hidrologia.persistence.flush-interval-ms", defaultValue = "1000")
+    long flushIntervalMillis;
+
+    @ConfigProperty(name = "hidrologia.persistence.snapshot-interval-minutes", defaultValue = "15")
+    long snapshotIntervalMinutes;
+
+    private Path path;
+    private SegmentLog log;
+    private ScheduledExecutorService scheduler;
+    // Cada buffer solo se usa bajo el bloqueo de escritura de su almacén
+    private final RecordBuffer waterLevelRecord = new RecordBuffer(512);
+    private final RecordBuffer reservoirRecord = new RecordBuffer(512);
+    // Hilo que está registrando los listeners: las altas que recibe son el estado ya restaurado
+    private volatile Thread attachingThread;
+
+    // Se ejecuta antes que el resto de observadores de arranque (p. ej. el simulador)
+    void onStart(@Observes @Priority(1) StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            path = Path.of(directory);
+            Files.createDirectories(path);
+
+            long start = System.nanoTime();
+            long records = restore();
+            LOG.infof("Persistencia: %d registros restaurados desde %s en %d ms",
+                    records, path.toAbsolutePath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            log = new SegmentLog(path, segmentSizeMb * 1024 * 1024);
+            log.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo inicializar la persistencia en " + directory, e);
+        }
+
+        attachingThread = Thread.currentThread();
+        try {
+            hidrologiaService.addWaterLevelListener(this::onWaterLevelChange);
+            hidrologiaService.addReservoirListener(this::onReservoirChange);
+        } finally {
+            attachingThread = null;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hidrologia-persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(log::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::snapshotQuietly, snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (log == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        snapshotQuietly();
+        try {
+            log.close();
+        } catch (IOException e) {
+            LOG.error("Error al cerrar el log de persistencia", e);
+        }
+    }
+
+    // ========== Escritura ==========
+
+    private void onWaterLevelChange(WaterLevel previous, WaterLevel current) {
+        if (Thread.currentThread() == attachingThread) {
+            return;
+        }
+        waterLevelRecord.clear();
+        if (RecordCodec.isReading(previous, current)) {
+            RecordCodec.writeWaterReading(waterLevelRecord, current);
+        } else {
+            RecordCodec.writeWaterLevel(waterLevelRecord, current);
+        }
+        append(waterLevelRecord);
+    }
+
+    private void onReservoirChange(Reservoir previous, Reservoir current) {
+        if (Thread.currentThread() == attachingThread) {
+            return;
+        }
+        reservoirRecord.clear();
+        if (RecordCodec.isReading(previous, current)) {
+            RecordCodec.writeReservoirReading(reservoirRecord, current);
+        } else {
+            RecordCodec.writeReservoir(reservoirRecord, current);
+        }
+        append(reservoirRecord);
+    }
+
+    // Un fallo de disco no debe dejar la API sin servicio: se registra y la escritura en memoria sigue
+    private void append(RecordBuffer record) {
+        try {
+            log.append(record);
+        } catch (IOException e) {
+            LOG.error("Error al escribir en el log de persistencia", e);
+        }
+    }
+
+    // ========== Snapshots ==========
+
+    // Se abre un segmento nuevo antes de capturar el estado: lo escrito entre ambos pasos queda
+    // en el snapshot y también en el segmento, y aplicarlo dos veces no cambia el resultado
+    public synchronized Path snapshot() throws IOException {
+        long nextSegment = log.roll();
+        Path snapshot = SnapshotFile.write(path, nextSegment,
+                hidrologiaService.getAllWaterLevels(), hidrologiaService.getAllReservoirs(), historyService);
+        SnapshotFile.deleteAllExcept(path, snapshot);
+        log.deleteSegmentsBefore(nextSegment);
+        return snapshot;
+    }
+
+    private void snapshotQuietly() {
+        try {
+            long start = System.nanoTime();
+            Path snapshot = snapshot();
+            LOG.infof("Persistencia: snapshot %s escrito en %d ms",
+                    snapshot.getFileName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            LOG.error("Error al escribir el snapshot", e);
+        }
+    }
+
+    // ========== Restauración ==========
+
+    private long restore() throws IOException {
+        Optional<Path> snapshot = SnapshotFile.latest(path);
+        if (snapshot.isEmpty() && SegmentLog.segments(path).isEmpty()) {
+            return 0;
+        }
+
+        // Se parte de los datos iniciales del servicio: las lecturas del log pueden referirse a ellos
+        Map<String, WaterLevel> stations = new LinkedHashMap<>();
+        Map<String, Reservoir> reservoirs = new LinkedHashMap<>();
+        hidrologiaService.getAllWaterLevels().forEach(level -> stations.put(level.getStationId(), level));
+        hidrologiaService.getAllReservoirs().forEach(reservoir -> reservoirs.put(reservoir.getReservoirId(), reservoir));
+        historyService.clear();
+
+        long[] records = new long[1];
+
+        long firstSegment = 0;
+        if (snapshot.isPresent()) {
+            firstSegment = SnapshotFile.read(snapshot.get(), new SnapshotFile.Reader() {
+                @Override
+                public void onWaterLevel(WaterLevel level) {
+                    stations.put(level.getStationId(), level);
+                    records[0]++;
+                }
+
+                @Override
+                public void onReservoir(Reservoir reservoir) {
+                    reservoirs.put(reservoir.getReservoirId(), reservoir);
+                    records[0]++;
+                }
+
+                @Override
+                public void onWaterLevelSeries(String stationId, long[] epochSeconds,
+                                               float[] level, float[] flow, float[] temperature) {
+                    for (int i = 0; i < epochSeconds.length; i++) {
+                        historyService.recordWaterLevelSample(stationId, epochSeconds[i], level[i], flow[i], temperature[i]);
+                    }
+                    records[0] += epochSeconds.length;
+                }
+
+                @Override
+                public void onReservoirSeries(String reservoirId, long[] epochSeconds, float[] volume, float[] outflow) {
+                    for (int i = 0; i < epochSeconds.length; i++) {
+                        historyService.recordReservoirSample(reservoirId, epochSeconds[i], volume[i], outflow[i]);
+                    }
+                    records[0] += epochSeconds.length;
+                }
+            });
+        }
+
+        for (Path segment : SegmentLog.segments(path)) {
+            if (SegmentLog.sequenceOf(segment) >= firstSegment) {
+                records[0] += SegmentLog.replay(segment, payload -> apply(payload, stations, reservoirs));
+            }
+        }
+
+        hidrologiaService.restoreWaterLevels(stations.values());
+        hidrologiaService.restoreReservoirs(reservoirs.values());
+        return records[0];
+    }
+
+    // Las lecturas se aplican sobre el último estado conocido; el histórico se alimenta con cada una
+    private void apply(ByteBuffer payload, Map<String, WaterLevel> stations, Map<String, Reservoir> reservoirs) {
+        byte type = payload.get();
+        switch (type) {
+            case RecordCodec.WATER_LEVEL -> {
+                WaterLevel level = RecordCodec.readWaterLevel(payload);
+                stations.put(level.getStationId(), level);
+                historyService.recordWaterLevel(level);
+            }
+            case RecordCodec.WATER_READING -> {
+                WaterLevel previous = stations.get(RecordCodec.readId(payload));
+                if (previous != null) {
+                    WaterLevel level = RecordCodec.readWaterReading(payload, previous);
+                    stations.put(level.getStationId(), level);
+                    historyService.recordWaterLevel(level);
+                }
+            }
+            case RecordCodec.RESERVOIR -> {
+                Reservoir reservoir = RecordCodec.readReservoir(payload);
+                reservoirs.put(reservoir.getReservoirId(), reservoir);
+                historyService.recordReservoir(reservoir);
+            }
+            case RecordCodec.RESERVOIR_READING -> {
+                Reservoir previous = reservoirs.get(RecordCodec.readId(payload));
+                if (previous != null) {
+                    Reservoir reservoir = RecordCodec.readReservoirReading(payload, previous);
+                    reservoirs.put(reservoir.getReservoirId(), reservoir);
+                    historyService.recordReservoir(reservoir);
+                }
+            }
+            default -> LOG.warnf("Tipo de registro desconocido en el log: %d", type);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hidrologia.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Buffer de escritura reutilizable que crece según el tamaño del registro
+public final class RecordBuffer {
+
+    private ByteBuffer buffer;
+
+    public RecordBuffer(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    public void clear() {
+        buffer.clear();
+    }
+
+    // Vista de lectura del contenido escrito desde el último clear()
+    public ByteBuffer contents() {
+        ByteBuffer view = buffer.duplicate();
+        view.flip();
+        return view;
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public void putByte(byte value) {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    public void putInt(int value) {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    public void putLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    public void putFloat(float value) {
+        ensure(4);
+        buffer.putFloat(value);
+    }
+
+    public void putDouble(double value) {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    public void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.hidrologia.persistence;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+// Codificación binaria de estaciones y embalses para el log y los snapshots.
+// Los registros completos guardan todos los campos; las lecturas solo los valores medidos,
+// y se aplican sobre el último estado conocido de la entidad. Los campos añadidos después de la
+// primera versión del formato van al final del registro completo y son opcionales al leer:
+// los logs y snapshots anteriores siguen siendo válidos
+public final class RecordCodec {
+
+    public static final byte WATER_LEVEL = 1;
+    public static final byte WATER_READING = 2;
+    public static final byte RESERVOIR = 3;
+    public static final byte RESERVOIR_READING = 4;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final WaterLevel.WaterType[] WATER_TYPES = WaterLevel.WaterType.values();
+    private static final WaterLevel.AlertStatus[] ALERT_STATUSES = WaterLevel.AlertStatus.values();
+    private static final Reservoir.PrimaryUse[] PRIMARY_USES = Reservoir.PrimaryUse.values();
+    private static final Reservoir.OperationalStatus[] STATUSES = Reservoir.OperationalStatus.values();
+
+    private RecordCodec() {}
+
+    // ========== Selección del tipo de registro ==========
+
+    // Basta con una lectura si solo han cambiado los valores medidos
+    public static boolean isReading(WaterLevel previous, WaterLevel current) {
+        return previous != null
+                && Objects.equals(previous.getStationName(), current.getStationName())
+                && previous.getType() == current.getType()
+                && Objects.equals(previous.getLocation(), current.getLocation())
+                && Double.compare(previous.latitudeOrNaN(), current.latitudeOrNaN()) == 0
+                && Double.compare(previous.longitudeOrNaN(), current.longitudeOrNaN()) == 0
+                && Objects.equals(previous.getObservations(), current.getObservations())
+                && Objects.equals(previous.getRiver(), current.getRiver())
+                && Double.compare(previous.riverKmOrNaN(), current.riverKmOrNaN()) == 0;
+    }
+
+    public static boolean isReading(Reservoir previous, Reservoir current) {
+        return previous != null
+                && Objects.equals(previous.getName(), current.getName())
+                && Double.compare(previous.maxCapacityOrNaN(), current.maxCapacityOrNaN()) == 0
+                && previous.getPrimaryUse() == current.getPrimaryUse()
+                && Objects.equals(previous.getLocation(), current.getLocation())
+                && Double.compare(previous.latitudeOrNaN(), current.latitudeOrNaN()) == 0
+                && Double.compare(previous.longitudeOrNaN(), current.longitudeOrNaN()) == 0
+                && Objects.equals(previous.getMainRiver(), current.getMainRiver())
+                && previous.constructionYearOrNone() == current.constructionYearOrNone()
+                && Double.compare(previous.damHeightOrNaN(), current.damHeightOrNaN()) == 0
+                && Double.compare(previous.damLengthOrNaN(), current.damLengthOrNaN()) == 0
+                && Objects.equals(previous.getObservations(), current.getObservations())
+                && Double.compare(previous.riverKmOrNaN(), current.riverKmOrNaN()) == 0;
+    }
+
+    // ========== Escritura ==========
+
+    public static void writeWaterLevel(RecordBuffer out, WaterLevel level) {
+        out.putByte(WATER_LEVEL);
+        out.putString(level.getStationId());
+        out.putString(level.getStationName());
+        out.putDouble(level.waterLevelOrNaN());
+        out.putDouble(level.flowOrNaN());
+        out.putByte(ordinal(level.getType()));
+        out.putByte(ordinal(level.getAlertStatus()));
+        out.putString(level.getLocation());
+        out.putDouble(level.latitudeOrNaN());
+        out.putDouble(level.longitudeOrNaN());
+        putDateTime(out, level.getLastUpdated());
+        out.putDouble(level.temperatureOrNaN());
+        out.putString(level.getObservations());
+        out.putString(level.getRiver());
+        out.putDouble(level.riverKmOrNaN());
+    }
+
+    public static void writeWaterReading(RecordBuffer out, WaterLevel level) {
+        out.putByte(WATER_READING);
+        out.putString(level.getStationId());
+        out.putDouble(level.waterLevelOrNaN());
+        out.putDouble(level.flowOrNaN());
+        out.putByte(ordinal(level.getAlertStatus()));
+        putDateTime(out, level.getLastUpdated());
+        out.putDouble(level.temperatureOrNaN());
+    }
+
+    public static void writeReservoir(RecordBuffer out, Reservoir reservoir) {
+        out.putByte(RESERVOIR);
+        out.putString(reservoir.getReservoirId());
+        out.putString(reservoir.getName());
+        out.putDouble(reservoir.maxCapacityOrNaN());
+        out.putDouble(reservoir.currentVolumeOrNaN());
+        out.putDouble(reservoir.fillPercentageOrNaN());
+        out.putByte(ordinal(reservoir.getPrimaryUse()));
+        out.putByte(ordinal(reservoir.getStatus()));
+        out.putString(reservoir.getLocation());
+        out.putDouble(reservoir.latitudeOrNaN());
+        out.putDouble(reservoir.longitudeOrNaN());
+        out.putString(reservoir.getMainRiver());
+        out.putInt(reservoir.constructionYearOrNone());
+        out.putDouble(reservoir.damHeightOrNaN());
+        out.putDouble(reservoir.damLengthOrNaN());
+        out.putDouble(reservoir.outflowOrNaN());
+        putDateTime(out, reservoir.getLastUpdated());
+        out.putString(reservoir.getObservations());
+        out.putDouble(reservoir.riverKmOrNaN());
+    }
+
+    public static void writeReservoirReading(RecordBuffer out, Reservoir reservoir) {
+        out.putByte(RESERVOIR_READING);
+        out.putString(reservoir.getReservoirId());
+        out.putDouble(reservoir.currentVolumeOrNaN());
+        out.putDouble(reservoir.fillPercentageOrNaN());
+        out.putByte(ordinal(reservoir.getStatus()));
+        out.putDouble(reservoir.outflowOrNaN());
+        putDateTime(out, reservoir.getLastUpdated());
+    }
+
+    // ========== Lectura (el byte de tipo ya se ha consumido) ==========
+
+    public static WaterLevel readWaterLevel(ByteBuffer in) {
+        WaterLevel level = new WaterLevel();
+        level.setStationId(getString(in));
+        level.setStationName(getString(in));
+        level.setWaterLevel(nullIfNaN(in.getDouble()));
+        level.setFlow(nullIfNaN(in.getDouble()));
+        level.setType(fromOrdinal(WATER_TYPES, in.get()));
+        level.setAlertStatus(fromOrdinal(ALERT_STATUSES, in.get()));
+        level.setLocation(getString(in));
+        level.setLatitude(nullIfNaN(in.getDouble()));
+        level.setLongitude(nullIfNaN(in.getDouble()));
+        level.setLastUpdated(getDateTime(in));
+        level.setTemperature(nullIfNaN(in.getDouble()));
+        level.setObservations(getString(in));
+        if (in.hasRemaining()) {
+            level.setRiver(getString(in));
+            level.setRiverKm(nullIfNaN(in.getDouble()));
+        }
+        return level;
+    }
+
+    public static String readId(ByteBuffer in) {
+        return getString(in);
+    }
+
+    // Aplica una lectura sobre una copia del estado anterior
+    public static WaterLevel readWaterReading(ByteBuffer in, WaterLevel previous) {
+        WaterLevel level = new WaterLevel(previous);
+        level.setWaterLevel(nullIfNaN(in.getDouble()));
+        level.setFlow(nullIfNaN(in.getDouble()));
+        level.setAlertStatus(fromOrdinal(ALERT_STATUSES, in.get()));
+        level.setLastUpdated(getDateTime(in));
+        level.setTemperature(nullIfNaN(in.getDouble()));
+        return level;
+    }
+
+    public static Reservoir readReservoir(ByteBuffer in) {
+        Reservoir reservoir = new Reservoir();
+        reservoir.setReservoirId(getString(in));
+        reservoir.setName(getString(in));
+        reservoir.setMaxCapacity(nullIfNaN(in.getDouble()));
+        reservoir.setCurrentVolume(nullIfNaN(in.getDouble()));
+        reservoir.setFillPercentage(nullIfNaN(in.getDouble()));
+        reservoir.setPrimaryUse(fromOrdinal(PRIMARY_USES, in.get()));
+        reservoir.setStatus(fromOrdinal(STATUSES, in.get()));
+        reservoir.setLocation(getString(in));
+        reservoir.setLatitude(nullIfNaN(in.getDouble()));
+        reservoir.setLongitude(nullIfNaN(in.getDouble()));
+        reservoir.setMainRiver(getString(in));
+        int year = in.getInt();
+        reservoir.setConstructionYear(year == Reservoir.NO_YEAR ? null : year);
+        reservoir.setDamHeight(nullIfNaN(in.getDouble()));
+        reservoir.setDamLength(nullIfNaN(in.getDouble()));
+        reservoir.setOutflow(nullIfNaN(in.getDouble()));
+        reservoir.setLastUpdated(getDateTime(in));
+        reservoir.setObservations(getString(in));
+        if (in.hasRemaining()) {
+            reservoir.setRiverKm(nullIfNaN(in.getDouble()));
+        }
+        return reservoir;
+    }
+
+    public static Reservoir readReservoirReading(ByteBuffer in, Reservoir previous) {
+        Reservoir reservoir = new Reservoir(previous);
+        reservoir.setCurrentVolume(nullIfNaN(in.getDouble()));
+        reservoir.setFillPercentage(nullIfNaN(in.getDouble()));
+        reservoir.setStatus(fromOrdinal(STATUSES, in.get()));
+        reservoir.setOutflow(nullIfNaN(in.getDouble()));
+        reservoir.setLastUpdated(getDateTime(in));
+        return reservoir;
+    }
+
+    // ========== Tipos básicos ==========
+
+    public static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // La fecha local se guarda como si fuera UTC (segundos + nanosegundos): no depende de la zona del sistema
+    private static void putDateTime(RecordBuffer out, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            out.putLong(NO_TIMESTAMP);
+            out.putInt(0);
+        } else {
+            out.putLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            out.putInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer in) {
+        long epochSecond = in.getLong();
+        int nanos = in.getInt();
+        return epochSecond == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static <E> E fromOrdinal(E[] values, byte ordinal) {
+        return ordinal < 0 || ordinal >= values.length ? null : values[ordinal];
+    }
+
+    private static Double nullIfNaN(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,186 @@
+package com.hidrologia.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Log binario de solo anexado en segmentos de tamaño fijo proyectados en memoria.
+// Cada registro es [longitud][CRC32][contenido]; una longitud 0 marca el final del segmento.
+// Al abrir siempre se empieza un segmento nuevo, de modo que nunca se escribe tras una cola dañada
+public class SegmentLog implements Closeable {
+
+    static final int MAGIC = 0x484C4F47;
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 4 + 2 + 8;
+    private static final int RECORD_OVERHEAD = 4 + 4;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long sequence;
+    private boolean dirty;
+
+    public SegmentLog(Path directory, int segmentSize) {
+        if (segmentSize < HEADER_SIZE + RECORD_OVERHEAD + 1) {
+            throw new IllegalArgumentException("Tamaño de segmento demasiado pequeño: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    public synchronized void open() throws IOException {
+        List<Path> existing = segments(directory);
+        long last = existing.isEmpty() ? 0 : sequenceOf(existing.get(existing.size() - 1));
+        openSegment(last + 1);
+    }
+
+    // ========== Escritura ==========
+
+    public synchronized void append(RecordBuffer record) throws IOException {
+        int length = record.size();
+        if (length + RECORD_OVERHEAD > segmentSize - HEADER_SIZE) {
+            throw new IOException("Registro de " + length + " bytes mayor que el segmento");
+        }
+        if (mapped.remaining() < length + RECORD_OVERHEAD) {
+            openSegment(sequence + 1);
+        }
+        ByteBuffer contents = record.contents();
+        crc.reset();
+        crc.update(contents.duplicate());
+        mapped.putInt(length);
+        mapped.putInt((int) crc.getValue());
+        mapped.put(contents);
+        dirty = true;
+    }
+
+    // Cierra el segmento actual y abre el siguiente; devuelve la secuencia del nuevo segmento
+    public synchronized long roll() throws IOException {
+        openSegment(sequence + 1);
+        return sequence;
+    }
+
+    // Fuerza a disco las páginas modificadas. Sin forzar, un fallo del proceso no pierde datos
+    // (las páginas siguen en la caché del sistema operativo), pero un fallo de la máquina sí
+    public synchronized void flush() {
+        if (dirty && mapped != null) {
+            mapped.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            finishSegment();
+            channel = null;
+            mapped = null;
+        }
+    }
+
+    private void openSegment(long nextSequence) throws IOException {
+        if (channel != null) {
+            finishSegment();
+        }
+        Path path = directory.resolve(String.format("%s%016d%s", PREFIX, nextSequence, SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        mapped.putInt(MAGIC);
+        mapped.putShort(FORMAT_VERSION);
+        mapped.putLong(nextSequence);
+        sequence = nextSequence;
+        dirty = true;
+    }
+
+    private void finishSegment() throws IOException {
+        if (mapped.remaining() >= 4) {
+            mapped.putInt(0);
+        }
+        mapped.force();
+        dirty = false;
+        channel.close();
+    }
+
+    // ========== Lectura ==========
+
+    // Entrega el contenido de cada registro válido en orden. Se detiene en el final del segmento
+    // o en el primer registro incompleto o con CRC incorrecto; devuelve los registros leídos
+    public static int replay(Path segment, Consumer<ByteBuffer> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+                throw new IOException("Segmento inválido: " + segment);
+            }
+            in.getLong();
+
+            CRC32 crc = new CRC32();
+            int records = 0;
+            while (in.remaining() >= RECORD_OVERHEAD) {
+                int length = in.getInt();
+                int expectedCrc = in.getInt();
+                if (length <= 0 || length > in.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = in.slice();
+                payload.limit(length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                consumer.accept(payload);
+                in.position(in.position() + length);
+                records++;
+            }
+            return records;
+        }
+    }
+
+    // ========== Gestión de ficheros ==========
+
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(SegmentLog::isSegment).forEach(segments::add);
+            segments.sort(Comparator.comparingLong(SegmentLog::sequenceOf));
+            return segments;
+        }
+    }
+
+    public static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                && name.length() == PREFIX.length() + 16 + SUFFIX.length();
+    }
+
+    public synchronized void deleteSegmentsBefore(long firstKept) throws IOException {
+        for (Path segment : segments(directory)) {
+            if (sequenceOf(segment) < firstKept) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+}
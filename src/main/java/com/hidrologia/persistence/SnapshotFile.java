@@ -0,0 +1,237 @@
+package com.hidrologia.persistence;
+
+import com.hidrologia.history.TimeSeriesSlice;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HistoryService;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Snapshot compacto del estado: entidades en el formato del log y el histórico en columnas
+// (timestamps como diferencias de segundos y valores float). Se escribe en un fichero temporal
+// y se renombra de forma atómica; incluye la secuencia del primer segmento que falta por aplicar
+public final class SnapshotFile {
+
+    static final int MAGIC = 0x48534E50;
+    static final short FORMAT_VERSION = 1;
+    // Etiqueta de cada serie del histórico; 0 cierra la lista. Los snapshots sin series de
+    // embalses siguen siendo válidos
+    private static final byte WATER_LEVEL_SERIES = 1;
+    private static final byte RESERVOIR_SERIES = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    // Receptor de los elementos leídos de un snapshot
+    public interface Reader {
+        void onWaterLevel(WaterLevel level);
+
+        void onReservoir(Reservoir reservoir);
+
+        void onWaterLevelSeries(String stationId, long[] epochSeconds, float[] level, float[] flow, float[] temperature);
+
+        void onReservoirSeries(String reservoirId, long[] epochSeconds, float[] volume, float[] outflow);
+    }
+
+    private SnapshotFile() {}
+
+    // ========== Escritura ==========
+
+    public static Path write(Path directory, long nextSegment, Collection<WaterLevel> levels,
+                             Collection<Reservoir> reservoirs, HistoryService history) throws IOException {
+        Path target = directory.resolve(String.format("%s%016d%s", PREFIX, nextSegment, SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        RecordBuffer record = new RecordBuffer(1024);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(nextSegment);
+
+            out.writeInt(levels.size());
+            for (WaterLevel level : levels) {
+                record.clear();
+                RecordCodec.writeWaterLevel(record, level);
+                writeRecord(out, record);
+            }
+            out.writeInt(reservoirs.size());
+            for (Reservoir reservoir : reservoirs) {
+                record.clear();
+                RecordCodec.writeReservoir(record, reservoir);
+                writeRecord(out, record);
+            }
+
+            IOException[] failure = new IOException[1];
+            history.forEachWaterLevelSeries((stationId, slice) ->
+                    writeSeries(out, WATER_LEVEL_SERIES, stationId, slice, failure));
+            history.forEachReservoirSeries((reservoirId, slice) ->
+                    writeSeries(out, RESERVOIR_SERIES, reservoirId, slice, failure));
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.writeByte(0);
+            out.writeInt(MAGIC);
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    private static void writeSeries(DataOutputStream out, byte tag, String id, TimeSeriesSlice slice,
+                                    IOException[] failure) {
+        if (failure[0] != null || slice.size() == 0) {
+            return;
+        }
+        try {
+            out.writeByte(tag);
+            writeString(out, id);
+            long[] epochSeconds = slice.getEpochSeconds();
+            out.writeInt(epochSeconds.length);
+            out.writeLong(epochSeconds[0]);
+            for (int i = 1; i < epochSeconds.length; i++) {
+                out.writeInt((int) (epochSeconds[i] - epochSeconds[i - 1]));
+            }
+            for (int column = 0; column < slice.getColumnCount(); column++) {
+                for (double value : slice.column(column)) {
+                    out.writeFloat((float) value);
+                }
+            }
+        } catch (IOException e) {
+            failure[0] = e;
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, RecordBuffer record) throws IOException {
+        ByteBuffer contents = record.contents();
+        out.writeInt(contents.remaining());
+        out.write(contents.array(), contents.arrayOffset() + contents.position(), contents.remaining());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ========== Lectura ==========
+
+    // Lectura secuencial sobre el fichero proyectado en memoria (hasta 2 GB por snapshot)
+    public static long read(Path snapshot, Reader reader) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot demasiado grande para proyectarlo en memoria: " + snapshot);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+                throw new IOException("Snapshot inválido: " + snapshot);
+            }
+            long nextSegment = in.getLong();
+
+            int levels = in.getInt();
+            for (int i = 0; i < levels; i++) {
+                ByteBuffer record = nextRecord(in);
+                if (record.get() != RecordCodec.WATER_LEVEL) {
+                    throw new IOException("Registro de estación inválido en " + snapshot);
+                }
+                reader.onWaterLevel(RecordCodec.readWaterLevel(record));
+            }
+            int reservoirs = in.getInt();
+            for (int i = 0; i < reservoirs; i++) {
+                ByteBuffer record = nextRecord(in);
+                if (record.get() != RecordCodec.RESERVOIR) {
+                    throw new IOException("Registro de embalse inválido en " + snapshot);
+                }
+                reader.onReservoir(RecordCodec.readReservoir(record));
+            }
+
+            byte tag;
+            while ((tag = in.get()) != 0) {
+                String id = RecordCodec.getString(in);
+                int count = in.getInt();
+                long[] epochSeconds = new long[count];
+                epochSeconds[0] = in.getLong();
+                for (int i = 1; i < count; i++) {
+                    epochSeconds[i] = epochSeconds[i - 1] + in.getInt();
+                }
+                if (tag == WATER_LEVEL_SERIES) {
+                    float[][] columns = readColumns(in, 3, count);
+                    reader.onWaterLevelSeries(id, epochSeconds, columns[0], columns[1], columns[2]);
+                } else if (tag == RESERVOIR_SERIES) {
+                    float[][] columns = readColumns(in, 2, count);
+                    reader.onReservoirSeries(id, epochSeconds, columns[0], columns[1]);
+                } else {
+                    throw new IOException("Serie de histórico desconocida en " + snapshot + ": " + tag);
+                }
+            }
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Snapshot incompleto: " + snapshot);
+            }
+            return nextSegment;
+        }
+    }
+
+    private static float[][] readColumns(ByteBuffer in, int columnCount, int count) {
+        float[][] columns = new float[columnCount][count];
+        for (float[] column : columns) {
+            in.asFloatBuffer().get(column);
+            in.position(in.position() + count * 4);
+        }
+        return columns;
+    }
+
+    private static ByteBuffer nextRecord(ByteBuffer in) {
+        int length = in.getInt();
+        ByteBuffer record = in.slice();
+        record.limit(length);
+        in.position(in.position() + length);
+        return record;
+    }
+
+    // ========== Gestión de ficheros ==========
+
+    public static Optional<Path> latest(Path directory) throws IOException {
+        List<Path> snapshots = snapshots(directory);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    public static void deleteAllExcept(Path directory, Path kept) throws IOException {
+        for (Path snapshot : snapshots(directory)) {
+            if (!snapshot.equals(kept)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private static List<Path> snapshots(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> snapshots = new ArrayList<>();
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(snapshots::add);
+            snapshots.sort(Comparator.comparing(path -> path.getFileName().toString()));
+            return snapshots;
+        }
+    }
+}
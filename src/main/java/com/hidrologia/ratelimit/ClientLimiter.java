@@ -0,0 +1,66 @@
+package com.hidrologia.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cubo de fichas y peticiones en curso de un cliente. El cubo se guarda como el instante
+// teórico en que volvería a estar lleno (GCRA): una sola palabra que se actualiza con CAS,
+// sin bloqueos ni hilo de recarga
+public final class ClientLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxConcurrent;
+    // Instante (System.nanoTime) en que el cubo vuelve a estar lleno
+    private final AtomicLong fullAt;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ClientLimiter(long intervalNanos, long burstNanos, int maxConcurrent, long now) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = burstNanos;
+        this.maxConcurrent = maxConcurrent;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // Consume una ficha. Devuelve 0 si la había o los nanosegundos hasta que haya una
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Devuelve la ficha de una petición que no llega a servirse
+    public void refund() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+
+    // Reserva un hueco de petición en curso; false si el cliente ya tiene el máximo
+    public boolean enter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    // Sin peticiones en curso y con el cubo lleno: olvidarlo no cambia ninguna decisión
+    boolean isIdle(long now) {
+        return inFlight.get() == 0 && fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hidrologia.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Límites por cliente: 'requestsPerSecond' de media, ráfagas de hasta 'burst' peticiones y como
+// mucho 'maxConcurrent' en curso. La tabla de clientes está acotada: al superar 'maxClients' se
+// olvidan los clientes inactivos (como mucho una vez por segundo) y, si sigue llena, los clientes
+// nuevos comparten un mismo límite hasta que haya sitio
+public final class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxConcurrent;
+    private final int maxClients;
+    private final Map<String, ClientLimiter> clients = new ConcurrentHashMap<>();
+    private final ClientLimiter overflow;
+    private final AtomicLong lastSweep;
+
+    public RateLimiter(double requestsPerSecond, int burst, int maxConcurrent, int maxClients) {
+        if (!(requestsPerSecond > 0) || burst < 1 || maxConcurrent < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Los límites de peticiones deben ser positivos");
+        }
+        long now = System.nanoTime();
+        this.intervalNanos = Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.maxConcurrent = maxConcurrent;
+        this.maxClients = maxClients;
+        this.overflow = new ClientLimiter(intervalNanos, burstNanos, maxConcurrent, now);
+        this.lastSweep = new AtomicLong(now);
+    }
+
+    public ClientLimiter client(String key, long now) {
+        ClientLimiter client = clients.get(key);
+        if (client != null) {
+            return client;
+        }
+        if (clients.size() >= maxClients) {
+            sweep(now);
+            if (clients.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return clients.computeIfAbsent(key, k -> new ClientLimiter(intervalNanos, burstNanos, maxConcurrent, now));
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            clients.values().removeIf(client -> client.isIdle(now));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hidrologia.search;
+
+// Resultado de una búsqueda de texto: ID del elemento y puntuación (mayor es más relevante)
+public class SearchHit {
+
+    private final String id;
+    private final int score;
+
+    SearchHit(String id, int score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    public String getId() { return id; }
+
+    public int getScore() { return score; }
+}
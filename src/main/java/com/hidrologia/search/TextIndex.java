@@ -0,0 +1,419 @@
+package com.hidrologia.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice de texto por n-gramas sobre varios campos de cada elemento. El texto se normaliza sin
+// tildes, en minúsculas y con las palabras separadas por un espacio; cada campo indexa sus
+// trigramas y, por palabra, el inicio " a" y " ab". Cada n-grama guarda un BitSet con los slots
+// que lo contienen, así que una consulta intersecta BitSets en lugar de recorrer el texto.
+// Los términos de una y dos letras buscan inicios de palabra y los de tres o más, subcadenas.
+// Los campos van de más a menos relevante: la puntuación de un término es el peso del primer
+// campo en el que aparece, doble si además empieza una palabra
+public class TextIndex {
+
+    public static final int MAX_TERMS = 8;
+    private static final char WORD_START = ' ';
+
+    private final int[] weights;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+    private String[] ids = new String[64];
+    private String[][] sources = new String[64][];
+    private String[][] texts = new String[64][];
+    private int slotCount;
+
+    public TextIndex(int... weights) {
+        if (weights.length == 0 || weights.length > 8) {
+            throw new IllegalArgumentException("Número de campos inválido: " + weights.length);
+        }
+        for (int weight : weights) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Los pesos de los campos deben ser positivos");
+            }
+        }
+        this.weights = weights.clone();
+    }
+
+    // ========== Mantenimiento ==========
+
+    // Solo se vuelven a indexar los campos cuyo texto ha cambiado
+    public void update(String id, String... fields) {
+        if (fields.length != weights.length) {
+            throw new IllegalArgumentException("Se esperaban " + weights.length + " campos");
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotById.get(id);
+            int slot = existing == null ? allocate() : existing;
+            if (existing == null) {
+                slotById.put(id, slot);
+                ids[slot] = id;
+                sources[slot] = new String[weights.length];
+                texts[slot] = new String[weights.length];
+            }
+            for (int field = 0; field < weights.length; field++) {
+                if (Objects.equals(sources[slot][field], fields[field]) && texts[slot][field] != null) {
+                    continue;
+                }
+                String text = fold(fields[field]);
+                String previous = texts[slot][field];
+                sources[slot][field] = fields[field];
+                texts[slot][field] = text;
+                if (text.equals(previous)) {
+                    continue;
+                }
+                if (previous != null) {
+                    forEachGram(previous, field, gram -> postings.get(gram).clear(slot));
+                }
+                forEachGram(text, field, gram -> postings.computeIfAbsent(gram, key -> new BitSet()).set(slot));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Consultas ==========
+
+    // Elementos que contienen todos los términos de la consulta, de mayor a menor puntuación
+    // (a igualdad, por orden de alta). La consulta se normaliza igual que el texto indexado
+    public List<SearchHit> search(String query, int limit) {
+        String[] terms = terms(query);
+        if (terms.length == 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return new Query(terms).run(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Una consulta trabaja sobre copias de los BitSets como arrays de long. La puntuación se
+    // acumula en contadores por bits (un array por bit de la puntuación) con operaciones de palabra
+    // completa, y los mejores se eligen bajando por esos bits: el coste depende del número de
+    // elementos indexados / 64, no de cuántos coinciden
+    private final class Query {
+
+        private final String[] terms;
+        private final int words = (slotCount + 63) >>> 6;
+        private final long[][][] inField;
+        private final long[][][] atWordStart;
+        private final boolean[] verified;
+        private final int scoreBits;
+
+        Query(String[] terms) {
+            this.terms = terms;
+            this.inField = new long[terms.length][weights.length][];
+            this.atWordStart = new long[terms.length][weights.length][];
+            this.verified = new boolean[terms.length];
+            int maxWeight = 0;
+            for (int weight : weights) {
+                maxWeight = Math.max(maxWeight, weight);
+            }
+            this.scoreBits = 32 - Integer.numberOfLeadingZeros(2 * maxWeight * terms.length);
+
+            for (int t = 0; t < terms.length; t++) {
+                String term = terms[t];
+                verified[t] = term.length() <= 3;
+                for (int field = 0; field < weights.length; field++) {
+                    inField[t][field] = lookup(term, field);
+                    if (term.length() < 3) {
+                        atWordStart[t][field] = inField[t][field];
+                    } else {
+                        // Basta con que el campo tenga una palabra que empiece por las dos primeras letras
+                        long[] starts = copy(postings.get(gram(field, WORD_START, term.charAt(0), term.charAt(1))));
+                        for (int w = 0; w < words; w++) {
+                            starts[w] &= inField[t][field][w];
+                        }
+                        atWordStart[t][field] = starts;
+                    }
+                }
+            }
+        }
+
+        // Con más de tres letras la intersección de trigramas admite falsos positivos (trigramas
+        // presentes pero no seguidos). Solo se comprueba el texto de los elegidos; si alguno falla,
+        // se comprueban todos los candidatos de ese término y se repite la selección
+        List<SearchHit> run(int limit) {
+            while (true) {
+                long[] matches = matches();
+                long[][] scores = scores(matches);
+                int[] top = top(matches, scores, limit);
+                int failed = firstUnverified(top);
+                if (failed < 0) {
+                    List<SearchHit> hits = new ArrayList<>(top.length);
+                    for (int slot : top) {
+                        hits.add(new SearchHit(ids[slot], scoreOf(scores, slot)));
+                    }
+                    hits.sort(Comparator.comparingInt(SearchHit::getScore).reversed());
+                    return hits;
+                }
+                verify(failed, matches);
+            }
+        }
+
+        // Slots con todos los términos en algún campo
+        private long[] matches() {
+            long[] matches = new long[words];
+            Arrays.fill(matches, -1L);
+            for (int t = 0; t < terms.length; t++) {
+                for (int w = 0; w < words; w++) {
+                    long any = 0;
+                    for (int field = 0; field < weights.length; field++) {
+                        any |= inField[t][field][w];
+                    }
+                    matches[w] &= any;
+                }
+            }
+            return matches;
+        }
+
+        // scores[b] tiene a 1 los slots cuya puntuación tiene a 1 el bit b
+        private long[][] scores(long[] matches) {
+            long[][] scores = new long[scoreBits][words];
+            for (int t = 0; t < terms.length; t++) {
+                long[] seen = new long[words];
+                for (int field = 0; field < weights.length; field++) {
+                    int weight = weights[field];
+                    for (int w = 0; w < words; w++) {
+                        long first = inField[t][field][w] & ~seen[w] & matches[w];
+                        seen[w] |= inField[t][field][w];
+                        add(scores, w, first, weight);
+                        add(scores, w, first & atWordStart[t][field][w], weight);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        // Suma 'value' a los slots de 'mask' propagando el acarreo entre bits
+        private void add(long[][] scores, int w, long mask, int value) {
+            for (int bit = 0; mask != 0 && value >> bit != 0; bit++) {
+                if ((value >> bit & 1) == 0) {
+                    continue;
+                }
+                long carry = mask;
+                for (int b = bit; carry != 0 && b < scoreBits; b++) {
+                    long current = scores[b][w];
+                    scores[b][w] = current ^ carry;
+                    carry &= current;
+                }
+            }
+        }
+
+        // Los 'limit' de mayor puntuación, en orden de slot. Se baja del bit más alto al más bajo
+        // separando los que seguro entran de los empatados con el umbral; de estos, los primeros
+        private int[] top(long[] matches, long[][] scores, int limit) {
+            long[] chosen = new long[words];
+            long[] tied = matches.clone();
+            int chosenCount = 0;
+            for (int b = scoreBits - 1; b >= 0 && chosenCount < limit; b--) {
+                int count = chosenCount;
+                for (int w = 0; w < words; w++) {
+                    count += Long.bitCount(tied[w] & scores[b][w]);
+                }
+                if (count > limit) {
+                    for (int w = 0; w < words; w++) {
+                        tied[w] &= scores[b][w];
+                    }
+                } else {
+                    for (int w = 0; w < words; w++) {
+                        chosen[w] |= tied[w] & scores[b][w];
+                        tied[w] &= ~scores[b][w];
+                    }
+                    chosenCount = count;
+                }
+            }
+            for (int w = 0; w < words && chosenCount < limit; w++) {
+                for (long bits = tied[w]; bits != 0 && chosenCount < limit; bits &= bits - 1) {
+                    chosen[w] |= Long.lowestOneBit(bits);
+                    chosenCount++;
+                }
+            }
+
+            int[] top = new int[chosenCount];
+            int i = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = chosen[w]; bits != 0; bits &= bits - 1) {
+                    top[i++] = w << 6 | Long.numberOfTrailingZeros(bits);
+                }
+            }
+            return top;
+        }
+
+        private int scoreOf(long[][] scores, int slot) {
+            int score = 0;
+            for (int b = 0; b < scoreBits; b++) {
+                score |= (int) (scores[b][slot >>> 6] >>> slot & 1) << b;
+            }
+            return score;
+        }
+
+        // Primer término sin comprobar cuyo campo puntuado no contiene el texto en algún elegido
+        private int firstUnverified(int[] top) {
+            for (int t = 0; t < terms.length; t++) {
+                if (verified[t]) {
+                    continue;
+                }
+                for (int slot : top) {
+                    int field = firstField(t, slot);
+                    if (!texts[slot][field].contains(terms[t])) {
+                        return t;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private int firstField(int t, int slot) {
+            for (int field = 0; field < weights.length; field++) {
+                if ((inField[t][field][slot >>> 6] >>> slot & 1) != 0) {
+                    return field;
+                }
+            }
+            throw new IllegalStateException("Slot sin el término: " + slot);
+        }
+
+        private void verify(int t, long[] matches) {
+            for (int field = 0; field < weights.length; field++) {
+                long[] candidates = inField[t][field];
+                for (int w = 0; w < words; w++) {
+                    for (long bits = candidates[w] & matches[w]; bits != 0; bits &= bits - 1) {
+                        int slot = w << 6 | Long.numberOfTrailingZeros(bits);
+                        if (!texts[slot][field].contains(terms[t])) {
+                            candidates[w] &= ~Long.lowestOneBit(bits);
+                            atWordStart[t][field][w] &= ~Long.lowestOneBit(bits);
+                        }
+                    }
+                }
+            }
+            verified[t] = true;
+        }
+
+        // Slots con el término en el campo: inicio de palabra con una o dos letras; con más,
+        // los que tienen todos sus trigramas
+        private long[] lookup(String term, int field) {
+            if (term.length() < 3) {
+                return copy(postings.get(gram(field, WORD_START, term.charAt(0), term.length() == 2 ? term.charAt(1) : 0)));
+            }
+            long[] result = null;
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                BitSet posting = postings.get(gram(field, term.charAt(i), term.charAt(i + 1), term.charAt(i + 2)));
+                if (posting == null) {
+                    return new long[words];
+                }
+                if (result == null) {
+                    result = copy(posting);
+                } else {
+                    long[] other = posting.toLongArray();
+                    for (int w = 0; w < words; w++) {
+                        result[w] &= w < other.length ? other[w] : 0L;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private long[] copy(BitSet posting) {
+            return posting == null ? new long[words] : Arrays.copyOf(posting.toLongArray(), words);
+        }
+    }
+
+    // ========== Normalización ==========
+
+    // Sin tildes ni diacríticos, en minúsculas y con un espacio entre palabras (letras y dígitos)
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean separator = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && folded.length() > 0) {
+                    folded.append(' ');
+                }
+                separator = false;
+                folded.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                separator = true;
+            }
+        }
+        return folded.toString();
+    }
+
+    private static String[] terms(String query) {
+        String folded = fold(query);
+        if (folded.isEmpty()) {
+            return new String[0];
+        }
+        String[] terms = Arrays.stream(folded.split(" ")).distinct().toArray(String[]::new);
+        if (terms.length > MAX_TERMS) {
+            throw new IllegalArgumentException("La búsqueda admite como máximo " + MAX_TERMS + " palabras");
+        }
+        return terms;
+    }
+
+    // ========== N-gramas ==========
+
+    private static void forEachGram(String text, int field, GramConsumer action) {
+        int wordStart = 0;
+        while (wordStart < text.length()) {
+            int wordEnd = text.indexOf(' ', wordStart);
+            if (wordEnd < 0) {
+                wordEnd = text.length();
+            }
+            action.accept(gram(field, WORD_START, text.charAt(wordStart), 0));
+            for (int i = wordStart; i + 1 < wordEnd; i++) {
+                char previous = i == wordStart ? WORD_START : text.charAt(i - 1);
+                action.accept(gram(field, previous, text.charAt(i), text.charAt(i + 1)));
+            }
+            wordStart = wordEnd + 1;
+        }
+    }
+
+    // Campo y tres caracteres empaquetados en un long y multiplicados por una constante impar:
+    // la multiplicación es biyectiva y reparte los bits, que el hash de Long solo pliega con un XOR
+    private static long gram(int field, char first, char second, int third) {
+        return ((long) field << 48 | (long) first << 32 | (long) second << 16 | third) * 0x9E3779B97F4A7C15L;
+    }
+
+    @FunctionalInterface
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    private int allocate() {
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        return slotCount++;
+    }
+}
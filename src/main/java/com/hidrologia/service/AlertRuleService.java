@@ -0,0 +1,84 @@
+package com.hidrologia.service;
+
+import com.hidrologia.alerts.ReservoirRules;
+import com.hidrologia.alerts.WaterLevelRules;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirAlertRule;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelAlertRule;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Reglas de alerta por estación y por embalse. Se evalúan en la ruta de escritura de
+// HidrologiaService, antes de que la lectura llegue al almacén; los cambios de estado
+// resultantes se difunden como transiciones a través de los listeners del almacén
+@ApplicationScoped
+public class AlertRuleService {
+
+    private final WaterLevelRules waterLevelRules = new WaterLevelRules();
+    private final ReservoirRules reservoirRules = new ReservoirRules();
+
+    // ========== Evaluación ==========
+
+    public void applyToWaterLevels(Collection<WaterLevel> levels) {
+        waterLevelRules.apply(levels);
+    }
+
+    public void applyToReservoirs(Collection<Reservoir> reservoirs) {
+        reservoirRules.apply(reservoirs);
+    }
+
+    // ========== Estaciones ==========
+
+    public List<WaterLevelAlertRule> getWaterLevelRules() {
+        return waterLevelRules.getAll();
+    }
+
+    public Optional<WaterLevelAlertRule> getWaterLevelRule(String stationId) {
+        return waterLevelRules.get(stationId);
+    }
+
+    public void putWaterLevelRule(WaterLevelAlertRule rule) {
+        requireAscending(rule.getPrecautionLevel(), rule.getAlertLevel(), "precautionLevel", "alertLevel");
+        requireAscending(rule.getAlertLevel(), rule.getEmergencyLevel(), "alertLevel", "emergencyLevel");
+        requireAscending(rule.getPrecautionLevel(), rule.getEmergencyLevel(), "precautionLevel", "emergencyLevel");
+        requireAscending(rule.getLowLevel(), rule.getPrecautionLevel(), "lowLevel", "precautionLevel");
+        requireAscending(rule.getFlowRisePrecaution(), rule.getFlowRiseAlert(), "flowRisePrecaution", "flowRiseAlert");
+        waterLevelRules.put(rule);
+    }
+
+    public boolean removeWaterLevelRule(String stationId) {
+        return waterLevelRules.remove(stationId);
+    }
+
+    // ========== Embalses ==========
+
+    public List<ReservoirAlertRule> getReservoirRules() {
+        return reservoirRules.getAll();
+    }
+
+    public Optional<ReservoirAlertRule> getReservoirRule(String reservoirId) {
+        return reservoirRules.get(reservoirId);
+    }
+
+    public void putReservoirRule(ReservoirAlertRule rule) {
+        requireAscending(rule.getLowFillPercentage(), rule.getHighFillPercentage(), "lowFillPercentage", "highFillPercentage");
+        if (rule.getOutflowSpikeFactor() != null && rule.getOutflowSpikeFactor() <= 1.0) {
+            throw new IllegalArgumentException("outflowSpikeFactor debe ser mayor que 1");
+        }
+        reservoirRules.put(rule);
+    }
+
+    public boolean removeReservoirRule(String reservoirId) {
+        return reservoirRules.remove(reservoirId);
+    }
+
+    private static void requireAscending(Double lower, Double upper, String lowerName, String upperName) {
+        if (lower != null && upper != null && lower >= upper) {
+            throw new IllegalArgumentException(lowerName + " debe ser menor que " + upperName);
+        }
+    }
+}
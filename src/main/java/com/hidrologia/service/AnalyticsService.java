@@ -0,0 +1,44 @@
+package com.hidrologia.service;
+
+import com.hidrologia.analytics.ReservoirAggregator;
+import com.hidrologia.analytics.ReservoirColumns;
+import com.hidrologia.analytics.ReservoirDimension;
+import com.hidrologia.analytics.ReservoirMetric;
+import com.hidrologia.model.AnalyticsResult;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.store.Versioned;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+@ApplicationScoped
+public class AnalyticsService {
+
+    private final HidrologiaService hidrologiaService;
+    private volatile ReservoirColumns columns;
+
+    @Inject
+    public AnalyticsService(HidrologiaService hidrologiaService) {
+        this.hidrologiaService = hidrologiaService;
+    }
+
+    public AnalyticsResult aggregateReservoirs(ReservoirDimension groupBy, ReservoirMetric metric, double[] percentiles) {
+        ReservoirColumns current = reservoirColumns();
+        return new AnalyticsResult(groupBy.getParamName(), metric.getFieldName(), current.getRowCount(),
+                current.getVersion(), ReservoirAggregator.aggregate(current, groupBy, metric, percentiles));
+    }
+
+    // Las columnas se reconstruyen solo cuando cambia la versión del almacén de embalses
+    ReservoirColumns reservoirColumns() {
+        long version = hidrologiaService.getReservoirsVersion();
+        ReservoirColumns current = columns;
+        if (current == null || current.getVersion() != version) {
+            List<Reservoir> reservoirs = hidrologiaService.getAllReservoirs();
+            current = ReservoirColumns.build(reservoirs instanceof Versioned versioned ? versioned.getVersion() : version,
+                    reservoirs);
+            columns = current;
+        }
+        return current;
+    }
+}
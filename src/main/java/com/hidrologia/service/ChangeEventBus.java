@@ -0,0 +1,157 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.ChangeEvent;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+// Difusión de cambios a suscriptores en streaming. Cada suscriptor tiene su propio filtro
+// y un buffer acotado: si un cliente lento lo desborda se cierra su stream, sin frenar al publicador.
+// Los eventos de un lote se acumulan y se emiten solo cuando el lote se ha publicado, desde un hilo
+// propio: filtrado, buffers y serialización no se ejecutan en el hilo que escribe en el almacén
+@ApplicationScoped
+public class ChangeEventBus {
+
+    private final BroadcastProcessor<ChangeEvent> processor = BroadcastProcessor.create();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final int bufferSize;
+    // Un único hilo: los procesadores reactivos exigen señales serializadas y así se conserva el
+    // orden de publicación de los lotes de ambos almacenes
+    private final ExecutorService dispatcher;
+
+    // Eventos del lote en curso de cada almacén; solo se tocan dentro de su bloqueo de escritura
+    private List<ChangeEvent> pendingWaterLevels = new ArrayList<>();
+    private List<ChangeEvent> pendingReservoirs = new ArrayList<>();
+
+    @Inject
+    public ChangeEventBus(@ConfigProperty(name = "hidrologia.stream.buffer-size", defaultValue = "256") int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hidrologia-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        dispatcher.shutdownNow();
+    }
+
+    // ========== Publicación ==========
+
+    void onWaterLevelChange(WaterLevel previous, WaterLevel current) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        pendingWaterLevels.add(ChangeEvent.waterLevel(current));
+        if (previous != null && previous.getAlertStatus() != current.getAlertStatus()) {
+            pendingWaterLevels.add(ChangeEvent.alertTransition(previous, current));
+        }
+    }
+
+    void onReservoirChange(Reservoir previous, Reservoir current) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        pendingReservoirs.add(ChangeEvent.reservoir(current));
+        if (previous != null && previous.getStatus() != current.getStatus()) {
+            pendingReservoirs.add(ChangeEvent.statusTransition(previous, current));
+        }
+    }
+
+    void onWaterLevelsCommit(long version) {
+        if (!pendingWaterLevels.isEmpty()) {
+            List<ChangeEvent> events = pendingWaterLevels;
+            pendingWaterLevels = new ArrayList<>();
+            dispatch(events);
+        }
+    }
+
+    void onReservoirsCommit(long version) {
+        if (!pendingReservoirs.isEmpty()) {
+            List<ChangeEvent> events = pendingReservoirs;
+            pendingReservoirs = new ArrayList<>();
+            dispatch(events);
+        }
+    }
+
+    private void dispatch(List<ChangeEvent> events) {
+        try {
+            dispatcher.execute(() -> events.forEach(processor::onNext));
+        } catch (RejectedExecutionException e) {
+            // Aplicación deteniéndose: los streams se cierran igualmente
+        }
+    }
+
+    // ========== Suscripción ==========
+
+    public Multi<ChangeEvent> subscribeWaterLevels(Set<String> stationIds, WaterLevel.WaterType type,
+                                                   WaterLevel.AlertStatus minAlert) {
+        Predicate<ChangeEvent> filter = event -> {
+            WaterLevel level = event.getWaterLevel();
+            return level != null
+                    && (stationIds.isEmpty() || stationIds.contains(level.getStationId()))
+                    && (type == null || level.getType() == type)
+                    && (minAlert == null || atLeast(level.getAlertStatus(), minAlert));
+        };
+        return subscribe(filter);
+    }
+
+    public Multi<ChangeEvent> subscribeReservoirs(Set<String> reservoirIds, Reservoir.OperationalStatus status) {
+        Predicate<ChangeEvent> filter = event -> {
+            Reservoir reservoir = event.getReservoir();
+            return reservoir != null
+                    && (reservoirIds.isEmpty() || reservoirIds.contains(reservoir.getReservoirId()))
+                    && (status == null || reservoir.getStatus() == status);
+        };
+        return subscribe(filter);
+    }
+
+    public Multi<ChangeEvent> subscribeTransitions(WaterLevel.AlertStatus minAlert) {
+        Predicate<ChangeEvent> filter = event -> {
+            if (event.getType() == ChangeEvent.EventType.STATUS_TRANSITION) {
+                return true;
+            }
+            return event.getType() == ChangeEvent.EventType.ALERT_TRANSITION
+                    && (minAlert == null || atLeast(event.getWaterLevel().getAlertStatus(), minAlert));
+        };
+        return subscribe(filter);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    // emitOn tiene su propia cola: va antes del buffer para que este sea la última etapa y un
+    // cliente lento lo desborde tras 'bufferSize' eventos, no tras esa cola más el buffer
+    private Multi<ChangeEvent> subscribe(Predicate<ChangeEvent> filter) {
+        return processor
+                .onSubscription().invoke(subscribers::incrementAndGet)
+                .filter(filter)
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .onOverflow().buffer(bufferSize)
+                .onFailure(BackPressureFailure.class).recoverWithCompletion()
+                .onTermination().invoke(subscribers::decrementAndGet);
+    }
+
+    private static boolean atLeast(WaterLevel.AlertStatus status, WaterLevel.AlertStatus min) {
+        return status != null && status.ordinal() >= min.ordinal();
+    }
+}
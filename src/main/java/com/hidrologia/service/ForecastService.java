@@ -0,0 +1,86 @@
+package com.hidrologia.service;
+
+import com.hidrologia.forecast.ReservoirTrends;
+import com.hidrologia.forecast.VolumeProjection;
+import com.hidrologia.history.TimeSeriesSlice;
+import com.hidrologia.model.ForecastResult;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirForecast;
+import com.hidrologia.store.Versioned;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// Previsión de volumen de los embalses. Como las columnas de AnalyticsService, las tendencias se
+// reconstruyen solo cuando cambia la versión del almacén, y entonces solo se vuelven a ajustar
+// las de los embalses con lecturas nuevas
+@ApplicationScoped
+public class ForecastService {
+
+    private final HidrologiaService hidrologiaService;
+    private final HistoryService historyService;
+    private final int trendDays;
+    private final long trendSeconds;
+    private final int defaultDays;
+    private final int maxDays;
+    private volatile ReservoirTrends trends;
+
+    @Inject
+    public ForecastService(HidrologiaService hidrologiaService, HistoryService historyService,
+                           @ConfigProperty(name = "hidrologia.forecast.trend-days", defaultValue = "7") int trendDays,
+                           @ConfigProperty(name = "hidrologia.forecast.default-days", defaultValue = "30") int defaultDays,
+                           @ConfigProperty(name = "hidrologia.forecast.max-days", defaultValue = "365") int maxDays) {
+        this.hidrologiaService = hidrologiaService;
+        this.historyService = historyService;
+        this.trendDays = trendDays;
+        this.trendSeconds = Duration.ofDays(trendDays).toSeconds();
+        this.defaultDays = defaultDays;
+        this.maxDays = maxDays;
+    }
+
+    public ForecastResult forecastReservoirs(Integer days) {
+        int horizon = days(days);
+        ReservoirTrends current = reservoirTrends();
+        return new ForecastResult(horizon, trendDays, current.getVersion(),
+                VolumeProjection.projectAll(current, horizon));
+    }
+
+    public Optional<ReservoirForecast> forecastReservoir(String reservoirId, Integer days) {
+        int horizon = days(days);
+        ReservoirTrends current = reservoirTrends();
+        int row = current.row(reservoirId);
+        return row < 0 ? Optional.empty() : Optional.of(VolumeProjection.project(current, row, horizon));
+    }
+
+    ReservoirTrends reservoirTrends() {
+        long version = hidrologiaService.getReservoirsVersion();
+        ReservoirTrends current = trends;
+        if (current == null || current.getVersion() != version) {
+            List<Reservoir> reservoirs = hidrologiaService.getAllReservoirs();
+            current = ReservoirTrends.build(reservoirs instanceof Versioned versioned ? versioned.getVersion() : version,
+                    reservoirs, current, this::recentSamples);
+            trends = current;
+        }
+        return current;
+    }
+
+    // Ventana de tendencia hasta la última lectura del embalse, no hasta la hora actual
+    private TimeSeriesSlice recentSamples(Reservoir reservoir) {
+        long to = Math.floorDiv(reservoir.lastUpdatedEpochMilli(), 1000L);
+        return historyService.getReservoirSamples(reservoir.getReservoirId(), to - trendSeconds, to);
+    }
+
+    private int days(Integer days) {
+        if (days == null) {
+            return defaultDays;
+        }
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("El número de días debe estar entre 1 y " + maxDays);
+        }
+        return days;
+    }
+}
@@ -0,0 +1,157 @@
+package com.hidrologia.service;
+
+import com.hidrologia.geo.GeoHit;
+import com.hidrologia.geo.GridIndex;
+import com.hidrologia.model.GeoMatch;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Consultas geográficas sobre estaciones y embalses. Los índices se mantienen con los
+// listeners de los almacenes, por lo que reflejan cada escritura sin recorrer los listados
+@ApplicationScoped
+public class GeoService {
+
+    private static final double MAX_RADIUS_KM = 2000.0;
+    private static final int DEFAULT_NEAREST = 5;
+
+    private final HidrologiaService hidrologiaService;
+    private final GridIndex stations;
+    private final GridIndex reservoirs;
+    private final int maxResults;
+
+    @Inject
+    public GeoService(HidrologiaService hidrologiaService,
+                      @ConfigProperty(name = "hidrologia.geo.cell-degrees", defaultValue = "0.25") double cellDegrees,
+                      @ConfigProperty(name = "hidrologia.geo.max-results", defaultValue = "1000") int maxResults) {
+        this.hidrologiaService = hidrologiaService;
+        this.stations = new GridIndex(cellDegrees);
+        this.reservoirs = new GridIndex(cellDegrees);
+        this.maxResults = maxResults;
+
+        hidrologiaService.addWaterLevelListener((previous, current) ->
+                stations.update(current.getStationId(), current.latitudeOrNaN(), current.longitudeOrNaN()));
+        hidrologiaService.addReservoirListener((previous, current) ->
+                reservoirs.update(current.getReservoirId(), current.latitudeOrNaN(), current.longitudeOrNaN()));
+    }
+
+    // ========== Estaciones ==========
+
+    public List<GeoMatch> findStationsWithinRadius(Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        validatePoint(latitude, longitude);
+        validateRadius(radiusKm);
+        return toStations(stations.withinRadius(latitude, longitude, radiusKm, limit(limit)));
+    }
+
+    public List<GeoMatch> findNearestStations(Double latitude, Double longitude, Integer k) {
+        validatePoint(latitude, longitude);
+        return toStations(stations.nearest(latitude, longitude, k == null ? DEFAULT_NEAREST : limit(k)));
+    }
+
+    public List<GeoMatch> findStationsInBox(Double minLatitude, Double minLongitude,
+                                            Double maxLatitude, Double maxLongitude, Integer limit) {
+        validateBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        return toStations(stations.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit(limit)));
+    }
+
+    // ========== Embalses ==========
+
+    public List<GeoMatch> findReservoirsWithinRadius(Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        validatePoint(latitude, longitude);
+        validateRadius(radiusKm);
+        return toReservoirs(reservoirs.withinRadius(latitude, longitude, radiusKm, limit(limit)));
+    }
+
+    public List<GeoMatch> findNearestReservoirs(Double latitude, Double longitude, Integer k) {
+        validatePoint(latitude, longitude);
+        return toReservoirs(reservoirs.nearest(latitude, longitude, k == null ? DEFAULT_NEAREST : limit(k)));
+    }
+
+    public List<GeoMatch> findReservoirsInBox(Double minLatitude, Double minLongitude,
+                                              Double maxLatitude, Double maxLongitude, Integer limit) {
+        validateBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        return toReservoirs(reservoirs.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit(limit)));
+    }
+
+    // ========== Resolución de resultados ==========
+
+    private List<GeoMatch> toStations(List<GeoHit> hits) {
+        return resolve(hits, hidrologiaService::getWaterLevelByStationId, GeoMatch::of);
+    }
+
+    private List<GeoMatch> toReservoirs(List<GeoHit> hits) {
+        return resolve(hits, hidrologiaService::getReservoirById, GeoMatch::of);
+    }
+
+    private static <T> List<GeoMatch> resolve(List<GeoHit> hits, Function<String, Optional<T>> lookup,
+                                              MatchFactory<T> factory) {
+        List<GeoMatch> matches = new ArrayList<>(hits.size());
+        for (GeoHit hit : hits) {
+            lookup.apply(hit.getId()).ifPresent(item -> matches.add(factory.create(item, hit.getDistanceKm())));
+        }
+        return matches;
+    }
+
+    @FunctionalInterface
+    private interface MatchFactory<T> {
+        GeoMatch create(T item, double distanceKm);
+    }
+
+    // ========== Validación ==========
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return maxResults;
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + maxResults);
+        }
+        return limit;
+    }
+
+    private static void validatePoint(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Los parámetros 'lat' y 'lon' son obligatorios");
+        }
+        validateLatitude(latitude);
+        validateLongitude(longitude);
+    }
+
+    private static void validateRadius(Double radiusKm) {
+        if (radiusKm == null || radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("El radio debe estar entre 0 y " + (int) MAX_RADIUS_KM + " km");
+        }
+    }
+
+    private static void validateBox(Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude) {
+        if (minLatitude == null || minLongitude == null || maxLatitude == null || maxLongitude == null) {
+            throw new IllegalArgumentException("Los parámetros 'minLat', 'minLon', 'maxLat' y 'maxLon' son obligatorios");
+        }
+        validateLatitude(minLatitude);
+        validateLatitude(maxLatitude);
+        validateLongitude(minLongitude);
+        validateLongitude(maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("El rectángulo es inválido: los mínimos superan a los máximos");
+        }
+    }
+
+    private static void validateLatitude(double latitude) {
+        if (latitude < -90.0 || latitude > 90.0) {
+            throw new IllegalArgumentException("Latitud fuera de rango: " + latitude);
+        }
+    }
+
+    private static void validateLongitude(double longitude) {
+        if (longitude < -180.0 || longitude > 180.0) {
+            throw new IllegalArgumentException("Longitud fuera de rango: " + longitude);
+        }
+    }
+}
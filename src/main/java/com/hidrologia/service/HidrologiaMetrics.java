@@ -0,0 +1,205 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Métricas propias de la API. Todos los medidores del camino caliente se registran por adelantado
+// y se indexan por ordinal, de modo que registrar una medición no crea objetos
+@ApplicationScoped
+public class HidrologiaMetrics {
+
+    public enum Operation {
+        WATER_LEVELS_ALL("getAllWaterLevels", null),
+        WATER_LEVEL_BY_ID("getWaterLevelByStationId", null),
+        WATER_LEVELS_BY_TYPE("getWaterLevelsByType", WaterLevel.WaterType.class),
+        WATER_LEVELS_BY_ALERT("getWaterLevelsByAlertStatus", WaterLevel.AlertStatus.class),
+        WATER_LEVELS_QUERY("queryWaterLevels", null),
+        WATER_LEVELS_SAVE("saveWaterLevels", null),
+        RESERVOIRS_ALL("getAllReservoirs", null),
+        RESERVOIR_BY_ID("getReservoirById", null),
+        RESERVOIRS_BY_USE("getReservoirsByPrimaryUse", Reservoir.PrimaryUse.class),
+        RESERVOIRS_BY_STATUS("getReservoirsByStatus", Reservoir.OperationalStatus.class),
+        RESERVOIRS_QUERY("queryReservoirs", null),
+        RESERVOIRS_SAVE("saveReservoirs", null),
+        STATISTICS("getSystemStatistics", null),
+        HEALTH("isSystemHealthy", null);
+
+        private final String operationName;
+        private final Class<? extends Enum<?>> filterType;
+
+        Operation(String operationName, Class<? extends Enum<?>> filterType) {
+            this.operationName = operationName;
+            this.filterType = filterType;
+        }
+    }
+
+    private static final String[] OUTCOMES = {"400", "404", "500"};
+
+    private final MeterRegistry registry;
+    private final Timer[] timers;
+    private final Timer[][] filteredTimers;
+    private final Map<String, DistributionSummary> serializedBytes = new ConcurrentHashMap<>();
+    private final Map<Method, Counter[]> outcomes = new ConcurrentHashMap<>();
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+    private final Counter rejectedStationSamples;
+    private final Counter rejectedReservoirSamples;
+
+    @Inject
+    public HidrologiaMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Operation[] operations = Operation.values();
+        this.timers = new Timer[operations.length];
+        this.filteredTimers = new Timer[operations.length][];
+        for (Operation operation : operations) {
+            if (operation.filterType == null) {
+                timers[operation.ordinal()] = operationTimer(operation, "none");
+            } else {
+                Enum<?>[] values = operation.filterType.getEnumConstants();
+                Timer[] byValue = new Timer[values.length];
+                for (Enum<?> value : values) {
+                    byValue[value.ordinal()] = operationTimer(operation, value.name());
+                }
+                filteredTimers[operation.ordinal()] = byValue;
+            }
+        }
+        this.rateLimited = throttledCounter("rate");
+        this.concurrencyLimited = throttledCounter("concurrency");
+        this.rejectedStationSamples = rejectedSamplesCounter("station");
+        this.rejectedReservoirSamples = rejectedSamplesCounter("reservoir");
+    }
+
+    private Timer operationTimer(Operation operation, String filter) {
+        return Timer.builder("hidrologia.service.operation")
+                .description("Duración de las operaciones de HidrologiaService")
+                .tag("operation", operation.operationName)
+                .tag("filter", filter)
+                .register(registry);
+    }
+
+    // ========== Operaciones de servicio ==========
+
+    public void record(Operation operation, long startNanos) {
+        timers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(Operation operation, Enum<?> filter, long startNanos) {
+        filteredTimers[operation.ordinal()][filter.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ========== Gauges ==========
+
+    void registerStoreGauges(StatisticsAggregator statistics) {
+        Gauge.builder("hidrologia.store.size", statistics, StatisticsAggregator::getTotalStations)
+                .description("Número de entidades en el almacén")
+                .tag("entity", "station")
+                .register(registry);
+        Gauge.builder("hidrologia.store.size", statistics, StatisticsAggregator::getTotalReservoirs)
+                .description("Número de entidades en el almacén")
+                .tag("entity", "reservoir")
+                .register(registry);
+        for (WaterLevel.AlertStatus status : WaterLevel.AlertStatus.values()) {
+            Gauge.builder("hidrologia.stations.alert", statistics, s -> s.getStationCount(status))
+                    .description("Estaciones por estado de alerta")
+                    .tag("alertStatus", status.name())
+                    .register(registry);
+        }
+        for (Reservoir.OperationalStatus status : Reservoir.OperationalStatus.values()) {
+            Gauge.builder("hidrologia.reservoirs.status", statistics, s -> s.getReservoirCount(status))
+                    .description("Embalses por estado operativo")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    // ========== Serialización ==========
+
+    public void recordSerializedBytes(String listing, WireFormat format, int bytes) {
+        serializedBytes.computeIfAbsent(listing + ":" + format, key -> DistributionSummary.builder("hidrologia.serialization.bytes")
+                        .description("Tamaño de los listados serializados")
+                        .baseUnit("bytes")
+                        .tag("listing", listing)
+                        .tag("format", format.name().toLowerCase(Locale.ROOT))
+                        .register(registry))
+                .record(bytes);
+    }
+
+    // ========== Resultados HTTP ==========
+
+    // Los contadores de cada endpoint se crean en su primer error; después solo se incrementan
+    public void recordOutcome(Method endpoint, int status) {
+        int outcome = status == 400 ? 0 : status == 404 ? 1 : status >= 500 ? 2 : -1;
+        if (outcome < 0 || endpoint == null) {
+            return;
+        }
+        outcomes.computeIfAbsent(endpoint, this::outcomeCounters)[outcome].increment();
+    }
+
+    private Counter[] outcomeCounters(Method endpoint) {
+        String name = endpoint.getDeclaringClass().getSimpleName() + "." + endpoint.getName();
+        Counter[] counters = new Counter[OUTCOMES.length];
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            counters[i] = Counter.builder("hidrologia.api.errors")
+                    .description("Respuestas de error por endpoint")
+                    .tag("endpoint", name)
+                    .tag("status", OUTCOMES[i])
+                    .register(registry);
+        }
+        return counters;
+    }
+
+    // ========== Histórico ==========
+
+    private Counter rejectedSamplesCounter(String entity) {
+        return Counter.builder("hidrologia.history.rejected")
+                .description("Lecturas no añadidas al histórico por llegar con una marca de tiempo repetida o atrasada")
+                .tag("entity", entity)
+                .register(registry);
+    }
+
+    public void recordRejectedStationSample() {
+        rejectedStationSamples.increment();
+    }
+
+    public void recordRejectedReservoirSample() {
+        rejectedReservoirSamples.increment();
+    }
+
+    // ========== Limitación de peticiones ==========
+
+    private Counter throttledCounter(String reason) {
+        return Counter.builder("hidrologia.api.throttled")
+                .description("Peticiones rechazadas con 429 por cliente excedido")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public void recordRateLimited() {
+        rateLimited.increment();
+    }
+
+    public void recordConcurrencyLimited() {
+        concurrencyLimited.increment();
+    }
+
+    void registerRateLimitGauge(RateLimiter limiter) {
+        Gauge.builder("hidrologia.api.ratelimit.clients", limiter, RateLimiter::size)
+                .description("Clientes con límite de peticiones en memoria")
+                .register(registry);
+    }
+}
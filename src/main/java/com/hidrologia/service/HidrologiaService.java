@@ -1,272 +1,308 @@
 package com.hidrologia.service;
 
 import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.SystemStatistics;
 import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HidrologiaMetrics.Operation;
+import com.hidrologia.store.ChangeListener;
+import com.hidrologia.store.EnumIndex;
+import com.hidrologia.store.IndexedStore;
+import com.hidrologia.store.StoreQuery;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
 
 @ApplicationScoped
 public class HidrologiaService {
 
-    private final List<WaterLevel> waterLevels;
-    private final List<Reservoir> reservoirs;
+    private final HistoryService historyService;
+    private final HidrologiaMetrics metrics;
+    private final AlertRuleService alertRules;
 
-    public HidrologiaService() {
-        this.waterLevels = initializeWaterLevels();
-        this.reservoirs = initializeReservoirs();
+    private final IndexedStore<WaterLevel> waterLevels;
+    private final EnumIndex<WaterLevel.WaterType, WaterLevel> waterLevelsByType;
+    private final EnumIndex<WaterLevel.AlertStatus, WaterLevel> waterLevelsByAlertStatus;
+
+    private final IndexedStore<Reservoir> reservoirs;
+    private final EnumIndex<Reservoir.PrimaryUse, Reservoir> reservoirsByPrimaryUse;
+    private final EnumIndex<Reservoir.OperationalStatus, Reservoir> reservoirsByStatus;
+
+    private final StatisticsAggregator statistics = new StatisticsAggregator();
+
+    @Inject
+    public HidrologiaService(HistoryService historyService, ChangeEventBus eventBus, HidrologiaMetrics metrics,
+                             AlertRuleService alertRules) {
+        this.historyService = historyService;
+        this.metrics = metrics;
+        this.alertRules = alertRules;
+
+        this.waterLevels = new IndexedStore<>(WaterLevel::getStationId);
+        this.waterLevelsByType = waterLevels.addIndex(WaterLevel.WaterType.class, WaterLevel::getType);
+        this.waterLevelsByAlertStatus = waterLevels.addIndex(WaterLevel.AlertStatus.class, WaterLevel::getAlertStatus);
+
+        this.reservoirs = new IndexedStore<>(Reservoir::getReservoirId);
+        this.reservoirsByPrimaryUse = reservoirs.addIndex(Reservoir.PrimaryUse.class, Reservoir::getPrimaryUse);
+        this.reservoirsByStatus = reservoirs.addIndex(Reservoir.OperationalStatus.class, Reservoir::getStatus);
+
+        waterLevels.addListener(statistics::onWaterLevelChange);
+        reservoirs.addListener(statistics::onReservoirChange);
+        waterLevels.addCommitListener(statistics::onWaterLevelsCommit);
+        reservoirs.addCommitListener(statistics::onReservoirsCommit);
+        waterLevels.addListener(eventBus::onWaterLevelChange);
+        reservoirs.addListener(eventBus::onReservoirChange);
+        waterLevels.addCommitListener(eventBus::onWaterLevelsCommit);
+        reservoirs.addCommitListener(eventBus::onReservoirsCommit);
+        metrics.registerStoreGauges(statistics);
+
+        LocalDateTime now = LocalDateTime.now();
+        saveWaterLevels(SeedData.waterLevels(now));
+        saveReservoirs(SeedData.reservoirs(now));
     }
 
     // ========== Water Levels Methods ==========
     
     public List<WaterLevel> getAllWaterLevels() {
-        return waterLevels;
+        long start = System.nanoTime();
+        List<WaterLevel> result = waterLevels.values();
+        metrics.record(Operation.WATER_LEVELS_ALL, start);
+        return result;
     }
 
     public Optional<WaterLevel> getWaterLevelByStationId(String stationId) {
-        return waterLevels.stream()
-                .filter(level -> level.getStationId().equals(stationId))
-                .findFirst();
+        long start = System.nanoTime();
+        Optional<WaterLevel> result = waterLevels.get(stationId);
+        metrics.record(Operation.WATER_LEVEL_BY_ID, start);
+        return result;
     }
 
     public List<WaterLevel> getWaterLevelsByType(WaterLevel.WaterType type) {
-        return waterLevels.stream()
-                .filter(level -> level.getType() == type)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<WaterLevel> result = waterLevels.find(waterLevelsByType, type);
+        metrics.record(Operation.WATER_LEVELS_BY_TYPE, type, start);
+        return result;
     }
 
     public List<WaterLevel> getWaterLevelsByAlertStatus(WaterLevel.AlertStatus alertStatus) {
-        return waterLevels.stream()
-                .filter(level -> level.getAlertStatus() == alertStatus)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<WaterLevel> result = waterLevels.find(waterLevelsByAlertStatus, alertStatus);
+        metrics.record(Operation.WATER_LEVELS_BY_ALERT, alertStatus, start);
+        return result;
+    }
+
+    // IDs, tipos y estados se intersectan sobre los mapas de bits de una misma versión del almacén
+    public StoreQuery.Result<WaterLevel> queryWaterLevels(Collection<String> stationIds,
+                                                          Collection<WaterLevel.WaterType> types,
+                                                          Collection<WaterLevel.AlertStatus> alertStatuses,
+                                                          Predicate<WaterLevel> condition) {
+        long start = System.nanoTime();
+        StoreQuery<WaterLevel> query = new StoreQuery<WaterLevel>()
+                .ids(stationIds)
+                .anyOf(waterLevelsByType, types)
+                .anyOf(waterLevelsByAlertStatus, alertStatuses);
+        if (condition != null) {
+            query.where(condition);
+        }
+        StoreQuery.Result<WaterLevel> result = waterLevels.find(query);
+        metrics.record(Operation.WATER_LEVELS_QUERY, start);
+        return result;
+    }
+
+    public long getWaterLevelsVersion() {
+        return waterLevels.version();
+    }
+
+    // Las reglas de alerta fijan el estado de cada lectura antes de guardarla. El histórico se
+    // escribe antes que el almacén: lo que un listener del almacén ya ha visto (por ejemplo,
+    // el log de persistencia) está siempre en el histórico
+    public void saveWaterLevel(WaterLevel level) {
+        alertRules.applyToWaterLevels(List.of(level));
+        recordHistory(level);
+        waterLevels.put(level);
+    }
+
+    public void saveWaterLevels(Collection<WaterLevel> levels) {
+        storeWaterLevels(levels, true);
+    }
+
+    // Estado restaurado desde disco: su histórico ya se ha reconstruido, y volver a registrarlo
+    // solo añadiría marcas de tiempo repetidas contadas como lecturas rechazadas
+    public void restoreWaterLevels(Collection<WaterLevel> levels) {
+        storeWaterLevels(levels, false);
+    }
+
+    private void storeWaterLevels(Collection<WaterLevel> levels, boolean recordHistory) {
+        long start = System.nanoTime();
+        alertRules.applyToWaterLevels(levels);
+        if (recordHistory) {
+            for (WaterLevel level : levels) {
+                recordHistory(level);
+            }
+        }
+        waterLevels.putAll(levels);
+        metrics.record(Operation.WATER_LEVELS_SAVE, start);
+    }
+
+    // Vuelve a evaluar las reglas sobre una copia de la última lectura, p. ej. tras cambiar los
+    // umbrales. Es la misma lectura, así que no pasa por el histórico
+    public Optional<WaterLevel> reevaluateWaterLevel(String stationId) {
+        Optional<WaterLevel> current = waterLevels.get(stationId);
+        current.ifPresent(level -> storeWaterLevels(List.of(new WaterLevel(level)), false));
+        return waterLevels.get(stationId);
     }
 
     // ========== Reservoirs Methods ==========
 
     public List<Reservoir> getAllReservoirs() {
-        return reservoirs;
+        long start = System.nanoTime();
+        List<Reservoir> result = reservoirs.values();
+        metrics.record(Operation.RESERVOIRS_ALL, start);
+        return result;
     }
 
     public Optional<Reservoir> getReservoirById(String reservoirId) {
-        return reservoirs.stream()
-                .filter(reservoir -> reservoir.getReservoirId().equals(reservoirId))
-                .findFirst();
+        long start = System.nanoTime();
+        Optional<Reservoir> result = reservoirs.get(reservoirId);
+        metrics.record(Operation.RESERVOIR_BY_ID, start);
+        return result;
     }
 
     public List<Reservoir> getReservoirsByPrimaryUse(Reservoir.PrimaryUse primaryUse) {
-        return reservoirs.stream()
-                .filter(reservoir -> reservoir.getPrimaryUse() == primaryUse)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<Reservoir> result = reservoirs.find(reservoirsByPrimaryUse, primaryUse);
+        metrics.record(Operation.RESERVOIRS_BY_USE, primaryUse, start);
+        return result;
     }
 
     public List<Reservoir> getReservoirsByStatus(Reservoir.OperationalStatus status) {
-        return reservoirs.stream()
-                .filter(reservoir -> reservoir.getStatus() == status)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<Reservoir> result = reservoirs.find(reservoirsByStatus, status);
+        metrics.record(Operation.RESERVOIRS_BY_STATUS, status, start);
+        return result;
+    }
+
+    public StoreQuery.Result<Reservoir> queryReservoirs(Collection<String> reservoirIds,
+                                                        Collection<Reservoir.PrimaryUse> primaryUses,
+                                                        Collection<Reservoir.OperationalStatus> statuses,
+                                                        Predicate<Reservoir> condition) {
+        long start = System.nanoTime();
+        StoreQuery<Reservoir> query = new StoreQuery<Reservoir>()
+                .ids(reservoirIds)
+                .anyOf(reservoirsByPrimaryUse, primaryUses)
+                .anyOf(reservoirsByStatus, statuses);
+        if (condition != null) {
+            query.where(condition);
+        }
+        StoreQuery.Result<Reservoir> result = reservoirs.find(query);
+        metrics.record(Operation.RESERVOIRS_QUERY, start);
+        return result;
+    }
+
+    public long getReservoirsVersion() {
+        return reservoirs.version();
+    }
+
+    // Igual que con las estaciones, el histórico se escribe antes que el almacén
+    public void saveReservoir(Reservoir reservoir) {
+        alertRules.applyToReservoirs(List.of(reservoir));
+        recordHistory(reservoir);
+        reservoirs.put(reservoir);
+    }
+
+    public void saveReservoirs(Collection<Reservoir> updated) {
+        storeReservoirs(updated, true);
+    }
+
+    public void restoreReservoirs(Collection<Reservoir> restored) {
+        storeReservoirs(restored, false);
+    }
+
+    private void storeReservoirs(Collection<Reservoir> updated, boolean recordHistory) {
+        long start = System.nanoTime();
+        alertRules.applyToReservoirs(updated);
+        if (recordHistory) {
+            for (Reservoir reservoir : updated) {
+                recordHistory(reservoir);
+            }
+        }
+        reservoirs.putAll(updated);
+        metrics.record(Operation.RESERVOIRS_SAVE, start);
+    }
+
+    // El histórico solo admite marcas de tiempo crecientes por serie (con resolución de segundos):
+    // una lectura repetida o atrasada actualiza el almacén pero no el histórico, y se cuenta.
+    // La restauración y la reevaluación no pasan por aquí: no son lecturas nuevas
+    private void recordHistory(WaterLevel level) {
+        if (!historyService.recordWaterLevel(level) && level.lastUpdatedEpochMilli() != WaterLevel.NO_TIMESTAMP) {
+            metrics.recordRejectedStationSample();
+        }
+    }
+
+    private void recordHistory(Reservoir reservoir) {
+        if (!historyService.recordReservoir(reservoir) && reservoir.lastUpdatedEpochMilli() != Reservoir.NO_TIMESTAMP) {
+            metrics.recordRejectedReservoirSample();
+        }
+    }
+
+    public Optional<Reservoir> reevaluateReservoir(String reservoirId) {
+        Optional<Reservoir> current = reservoirs.get(reservoirId);
+        current.ifPresent(reservoir -> storeReservoirs(List.of(new Reservoir(reservoir)), false));
+        return reservoirs.get(reservoirId);
     }
 
     // ========== Statistics Methods ==========
 
     public String getSystemStatistics() {
-        int totalStations = waterLevels.size();
-        int totalReservoirs = reservoirs.size();
-        long alertStations = waterLevels.stream()
-                .filter(level -> level.getAlertStatus() != WaterLevel.AlertStatus.NORMAL)
-                .count();
-        
-        double avgFillPercentage = reservoirs.stream()
-                .mapToDouble(Reservoir::getFillPercentage)
-                .average()
-                .orElse(0.0);
-
-        return String.format(
+        long start = System.nanoTime();
+        String result = String.format(
                 "Sistema Hidrológico - Estadísticas:\n" +
                 "- Total de estaciones: %d\n" +
                 "- Total de embalses: %d\n" +
                 "- Estaciones en alerta: %d\n" +
                 "- Promedio de llenado de embalses: %.1f%%\n" +
                 "- Última actualización: %s",
-                totalStations, totalReservoirs, alertStations, 
-                avgFillPercentage, LocalDateTime.now()
+                statistics.getTotalStations(), statistics.getTotalReservoirs(), statistics.getAlertStations(),
+                statistics.getAverageFillPercentage(), LocalDateTime.now()
         );
+        metrics.record(Operation.STATISTICS, start);
+        return result;
     }
 
-    // ========== Health Check ==========
+    public SystemStatistics getSystemStatisticsSummary() {
+        return statistics.snapshot();
+    }
 
-    public boolean isSystemHealthy() {
-        long criticalAlerts = waterLevels.stream()
-                .filter(level -> level.getAlertStatus() == WaterLevel.AlertStatus.EMERGENCIA)
-                .count();
-        
-        long reservoirsOutOfService = reservoirs.stream()
-                .filter(reservoir -> reservoir.getStatus() == Reservoir.OperationalStatus.FUERA_SERVICIO)
-                .count();
+    // ========== Listeners ==========
 
-        return criticalAlerts == 0 && reservoirsOutOfService == 0;
+    // El listener recibe primero el contenido actual del almacén como altas
+    public void addWaterLevelListener(ChangeListener<WaterLevel> listener) {
+        waterLevels.addListener(listener);
     }
 
-    // ========== Data Initialization ==========
+    public void addReservoirListener(ChangeListener<Reservoir> listener) {
+        reservoirs.addListener(listener);
+    }
 
-    private List<WaterLevel> initializeWaterLevels() {
-        LocalDateTime now = LocalDateTime.now();
-        
-        return Arrays.asList(
-            new WaterLevel(
-                "HIDRO_001", 
-                "Río Ebro - Zaragoza", 
-                2.45, 
-                125.8, 
-                WaterLevel.WaterType.RIO, 
-                WaterLevel.AlertStatus.NORMAL,
-                "Zaragoza, Aragón", 
-                now.minusMinutes(15), 
-                18.5, 
-                "Condiciones normales de navegación"
-            ),
-            new WaterLevel(
-                "HIDRO_002", 
-                "Río Tajo - Toledo", 
-                1.89, 
-                78.2, 
-                WaterLevel.WaterType.RIO, 
-                WaterLevel.AlertStatus.PRECAUCION,
-                "Toledo, Castilla-La Mancha", 
-                now.minusMinutes(10), 
-                19.2, 
-                "Nivel ligeramente por debajo de lo normal"
-            ),
-            new WaterLevel(
-                "HIDRO_003", 
-                "Río Guadalquivir - Sevilla", 
-                3.12, 
-                89.5, 
-                WaterLevel.WaterType.RIO, 
-                WaterLevel.AlertStatus.NORMAL,
-                "Sevilla, Andalucía", 
-                now.minusMinutes(5), 
-                21.8, 
-                "Caudal estable, condiciones óptimas"
-            ),
-            new WaterLevel(
-                "HIDRO_004", 
-                "Embalse de Buendía", 
-                15.67, 
-                45.3, 
-                WaterLevel.WaterType.EMBALSE, 
-                WaterLevel.AlertStatus.ALERTA,
-                "Cuenca, Castilla-La Mancha", 
-                now.minusMinutes(20), 
-                16.9, 
-                "Nivel alto debido a lluvias recientes"
-            ),
-            new WaterLevel(
-                "HIDRO_005", 
-                "Río Duero - Zamora", 
-                2.78, 
-                156.7, 
-                WaterLevel.WaterType.RIO, 
-                WaterLevel.AlertStatus.NORMAL,
-                "Zamora, Castilla y León", 
-                now.minusMinutes(8), 
-                17.3, 
-                "Flujo normal hacia Portugal"
-            )
-        );
+    // Recibe la versión de cada lote publicado, después de los listeners de sus cambios
+    public void addWaterLevelCommitListener(LongConsumer listener) {
+        waterLevels.addCommitListener(listener);
     }
 
-    private List<Reservoir> initializeReservoirs() {
-        LocalDateTime now = LocalDateTime.now();
-        
-        return Arrays.asList(
-            new Reservoir(
-                "EMB_001",
-                "Embalse de Mequinenza",
-                1534.0,
-                980.5,
-                63.9,
-                Reservoir.PrimaryUse.HIDROELECTRICA,
-                Reservoir.OperationalStatus.OPERATIVO,
-                "Mequinenza, Zaragoza",
-                "Río Ebro",
-                1966,
-                78.5,
-                550.0,
-                45.2,
-                now.minusMinutes(30),
-                "Central hidroeléctrica funcionando a capacidad normal"
-            ),
-            new Reservoir(
-                "EMB_002",
-                "Embalse de Buendía",
-                1639.0,
-                1245.8,
-                76.0,
-                Reservoir.PrimaryUse.ABASTECIMIENTO,
-                Reservoir.OperationalStatus.OPERATIVO,
-                "Cuenca, Castilla-La Mancha",
-                "Río Guadiela",
-                1958,
-                78.0,
-                340.0,
-                32.1,
-                now.minusMinutes(25),
-                "Reservas para abastecimiento en niveles óptimos"
-            ),
-            new Reservoir(
-                "EMB_003",
-                "Embalse de Alcántara",
-                3162.0,
-                2456.7,
-                77.7,
-                Reservoir.PrimaryUse.HIDROELECTRICA,
-                Reservoir.OperationalStatus.OPERATIVO,
-                "Alcántara, Cáceres",
-                "Río Tajo",
-                1969,
-                130.0,
-                570.0,
-                67.8,
-                now.minusMinutes(40),
-                "Mayor embalse de España, funcionamiento normal"
-            ),
-            new Reservoir(
-                "EMB_004",
-                "Embalse de La Serena",
-                3219.0,
-                1934.5,
-                60.1,
-                Reservoir.PrimaryUse.RIEGO,
-                Reservoir.OperationalStatus.OPERATIVO,
-                "Castuera, Badajoz",
-                "Río Zújar",
-                1989,
-                104.0,
-                470.0,
-                28.9,
-                now.minusMinutes(35),
-                "Suministro de agua para regadíos extremeños"
-            ),
-            new Reservoir(
-                "EMB_005",
-                "Embalse de Riaño",
-                664.0,
-                523.4,
-                78.8,
-                Reservoir.PrimaryUse.ABASTECIMIENTO,
-                Reservoir.OperationalStatus.MANTENIMIENTO,
-                "Riaño, León",
-                "Río Esla",
-                1987,
-                99.5,
-                280.0,
-                15.6,
-                now.minusMinutes(50),
-                "En mantenimiento preventivo programado"
-            )
-        );
+    public void addReservoirCommitListener(LongConsumer listener) {
+        reservoirs.addCommitListener(listener);
+    }
+
+    // ========== Health Check ==========
+
+    public boolean isSystemHealthy() {
+        long start = System.nanoTime();
+        boolean healthy = statistics.isHealthy();
+        metrics.record(Operation.HEALTH, start);
+        return healthy;
     }
 }
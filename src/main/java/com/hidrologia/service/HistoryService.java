@@ -0,0 +1,177 @@
+package com.hidrologia.service;
+
+import com.hidrologia.history.RollupSeries;
+import com.hidrologia.history.TieredSeries;
+import com.hidrologia.history.TieredSlice;
+import com.hidrologia.history.TimeSeriesSlice;
+import com.hidrologia.model.HistorySeries;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelHistory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+@ApplicationScoped
+public class HistoryService {
+
+    static final int LEVEL = 0;
+    static final int FLOW = 1;
+    static final int TEMPERATURE = 2;
+
+    private static final String[] WATER_LEVEL_COLUMNS = {"waterLevel", "flow", "temperature"};
+    private static final String[] RESERVOIR_COLUMNS = {"currentVolume", "outflow"};
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final long retentionSeconds;
+    private final long hourlyRetentionSeconds;
+    private final long dailyRetentionSeconds;
+    private final int defaultMaxPoints;
+    private final int maxPointsLimit;
+    private final Map<String, TieredSeries> waterLevelSeries = new ConcurrentHashMap<>();
+    private final Map<String, TieredSeries> reservoirSeries = new ConcurrentHashMap<>();
+
+    @Inject
+    public HistoryService(@ConfigProperty(name = "hidrologia.history.retention-days", defaultValue = "90") int retentionDays,
+                          @ConfigProperty(name = "hidrologia.history.hourly-retention-days", defaultValue = "365") int hourlyRetentionDays,
+                          @ConfigProperty(name = "hidrologia.history.daily-retention-days", defaultValue = "3650") int dailyRetentionDays,
+                          @ConfigProperty(name = "hidrologia.history.default-max-points", defaultValue = "1000") int defaultMaxPoints,
+                          @ConfigProperty(name = "hidrologia.history.max-points-limit", defaultValue = "10000") int maxPointsLimit) {
+        this.retentionSeconds = Duration.ofDays(retentionDays).toSeconds();
+        this.hourlyRetentionSeconds = Duration.ofDays(hourlyRetentionDays).toSeconds();
+        this.dailyRetentionSeconds = Duration.ofDays(dailyRetentionDays).toSeconds();
+        this.defaultMaxPoints = defaultMaxPoints;
+        this.maxPointsLimit = maxPointsLimit;
+    }
+
+    // ========== Escritura ==========
+
+    public boolean recordWaterLevel(WaterLevel level) {
+        if (level.lastUpdatedEpochMilli() == WaterLevel.NO_TIMESTAMP) {
+            return false;
+        }
+        return recordWaterLevelSample(level.getStationId(), Math.floorDiv(level.lastUpdatedEpochMilli(), 1000L),
+                level.waterLevelOrNaN(), level.flowOrNaN(), level.temperatureOrNaN());
+    }
+
+    // Muestra ya convertida a segundos epoch; usada al restaurar desde disco
+    public boolean recordWaterLevelSample(String stationId, long epochSecond, double level, double flow, double temperature) {
+        TieredSeries series = waterLevelSeries.computeIfAbsent(stationId, id -> newSeries(WATER_LEVEL_COLUMNS.length));
+        return series.append(epochSecond, level, flow, temperature);
+    }
+
+    public boolean recordReservoir(Reservoir reservoir) {
+        if (reservoir.lastUpdatedEpochMilli() == Reservoir.NO_TIMESTAMP) {
+            return false;
+        }
+        return recordReservoirSample(reservoir.getReservoirId(), Math.floorDiv(reservoir.lastUpdatedEpochMilli(), 1000L),
+                reservoir.currentVolumeOrNaN(), reservoir.outflowOrNaN());
+    }
+
+    public boolean recordReservoirSample(String reservoirId, long epochSecond, double volume, double outflow) {
+        TieredSeries series = reservoirSeries.computeIfAbsent(reservoirId, id -> newSeries(RESERVOIR_COLUMNS.length));
+        return series.append(epochSecond, volume, outflow, Double.NaN);
+    }
+
+    private TieredSeries newSeries(int columnCount) {
+        return new TieredSeries(columnCount, retentionSeconds, hourlyRetentionSeconds, dailyRetentionSeconds);
+    }
+
+    public void clear() {
+        waterLevelSeries.clear();
+        reservoirSeries.clear();
+    }
+
+    // ========== Lectura ==========
+
+    public WaterLevelHistory getWaterLevelHistory(String stationId, LocalDateTime from, LocalDateTime to) {
+        TieredSeries series = waterLevelSeries.get(stationId);
+        if (series == null) {
+            return new WaterLevelHistory(stationId, from, to, new long[0], new double[0], new double[0], new double[0]);
+        }
+
+        TimeSeriesSlice slice = series.raw().slice(toEpochSecond(from), toEpochSecond(to));
+        return new WaterLevelHistory(stationId, from, to, toEpochMillis(slice.getEpochSeconds()),
+                slice.column(LEVEL), slice.column(FLOW), slice.column(TEMPERATURE));
+    }
+
+    // Histórico para gráficas: el nivel (bruto, horario o diario) se elige según el rango y el
+    // número máximo de puntos pedido; null usa el valor por defecto
+    public HistorySeries getWaterLevelSeries(String stationId, LocalDateTime from, LocalDateTime to, Integer maxPoints) {
+        return series(waterLevelSeries.get(stationId), WATER_LEVEL_COLUMNS, stationId, from, to, maxPoints);
+    }
+
+    public HistorySeries getReservoirSeries(String reservoirId, LocalDateTime from, LocalDateTime to, Integer maxPoints) {
+        return series(reservoirSeries.get(reservoirId), RESERVOIR_COLUMNS, reservoirId, from, to, maxPoints);
+    }
+
+    private HistorySeries series(TieredSeries series, String[] names, String id,
+                                 LocalDateTime from, LocalDateTime to, Integer maxPoints) {
+        int points = maxPoints == null ? defaultMaxPoints : maxPoints;
+        if (points < 3 || points > maxPointsLimit) {
+            throw new IllegalArgumentException("maxPoints debe estar entre 3 y " + maxPointsLimit);
+        }
+
+        Map<String, HistorySeries.Column> columns = new LinkedHashMap<>();
+        if (series == null) {
+            for (String name : names) {
+                columns.put(name, new HistorySeries.Column(new double[0], null, null, null));
+            }
+            return new HistorySeries(id, "raw", 0, from, to, 0, new long[0], columns);
+        }
+
+        TieredSlice result = series.query(toEpochSecond(from), toEpochSecond(to), points);
+        TimeSeriesSlice slice = result.getSlice();
+        boolean raw = result.getTier().getBucketSeconds() == 0;
+        for (int c = 0; c < names.length; c++) {
+            columns.put(names[c], raw
+                    ? new HistorySeries.Column(slice.column(c), null, null, null)
+                    : new HistorySeries.Column(
+                            slice.column(c * RollupSeries.STATS + RollupSeries.AVG),
+                            slice.column(c * RollupSeries.STATS + RollupSeries.MIN),
+                            slice.column(c * RollupSeries.STATS + RollupSeries.MAX),
+                            slice.column(c * RollupSeries.STATS + RollupSeries.LAST)));
+        }
+        return new HistorySeries(id, result.getTier().getLabel(), result.getTier().getBucketSeconds(), from, to,
+                result.getSourceCount(), toEpochMillis(slice.getEpochSeconds()), columns);
+    }
+
+    // Lecturas en bruto de un embalse (volumen, desembalse) en el rango; null si no tiene histórico
+    public TimeSeriesSlice getReservoirSamples(String reservoirId, long fromEpochSecond, long toEpochSecond) {
+        TieredSeries series = reservoirSeries.get(reservoirId);
+        return series == null ? null : series.raw().slice(fromEpochSecond, toEpochSecond);
+    }
+
+    public int getSampleCount(String stationId) {
+        TieredSeries series = waterLevelSeries.get(stationId);
+        return series == null ? 0 : series.raw().size();
+    }
+
+    // Recorre todas las series en bruto; cada serie se copia de forma consistente, pero no el conjunto
+    public void forEachWaterLevelSeries(BiConsumer<String, TimeSeriesSlice> consumer) {
+        waterLevelSeries.forEach((stationId, series) -> consumer.accept(stationId, series.raw().all()));
+    }
+
+    public void forEachReservoirSeries(BiConsumer<String, TimeSeriesSlice> consumer) {
+        reservoirSeries.forEach((reservoirId, series) -> consumer.accept(reservoirId, series.raw().all()));
+    }
+
+    private long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toEpochSecond();
+    }
+
+    private static long[] toEpochMillis(long[] epochSeconds) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            epochSeconds[i] *= 1000L;
+        }
+        return epochSeconds;
+    }
+}
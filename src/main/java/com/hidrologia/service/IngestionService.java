@@ -0,0 +1,188 @@
+package com.hidrologia.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hidrologia.model.BatchResult;
+import com.hidrologia.model.WaterLevel;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Ingesta de lecturas por lotes: parseo y validación por elemento, y una única escritura
+// en el almacén para todo el lote
+@ApplicationScoped
+public class IngestionService {
+
+    private final HidrologiaService hidrologiaService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader waterLevelReader;
+
+    @Inject
+    public IngestionService(HidrologiaService hidrologiaService, Validator validator, ObjectMapper objectMapper) {
+        this.hidrologiaService = hidrologiaService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.waterLevelReader = objectMapper.readerFor(WaterLevel.class);
+    }
+
+    // Array JSON: un error de sintaxis invalida el lote; un error de mapeo solo su elemento
+    public BatchResult ingestJsonArray(InputStream body) throws IOException {
+        List<Parsed> parsed = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un array JSON de lecturas");
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                parsed.add(parse(index++, node));
+            }
+        }
+        return apply(parsed);
+    }
+
+    // NDJSON: una lectura por línea; las líneas vacías se ignoran
+    public BatchResult ingestNdjson(InputStream body) throws IOException {
+        List<Parsed> parsed = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int index = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    parsed.add(new Parsed(index, waterLevelReader.readValue(line), null));
+                } catch (JsonProcessingException e) {
+                    parsed.add(new Parsed(index, null, "JSON inválido: " + e.getOriginalMessage()));
+                }
+                index++;
+            }
+        }
+        return apply(parsed);
+    }
+
+    private Parsed parse(int index, JsonNode node) {
+        try {
+            return new Parsed(index, waterLevelReader.readValue(node), null);
+        } catch (IOException e) {
+            String message = e instanceof JsonProcessingException
+                    ? ((JsonProcessingException) e).getOriginalMessage()
+                    : e.getMessage();
+            return new Parsed(index, null, node.path("stationId").asText(null), "JSON inválido: " + message);
+        }
+    }
+
+    private BatchResult apply(List<Parsed> parsed) {
+        BatchResult result = new BatchResult();
+        List<WaterLevel> accepted = new ArrayList<>(parsed.size());
+        // Lecturas del propio lote, para completar varias lecturas nuevas de una misma estación
+        Map<String, WaterLevel> pending = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Parsed item : parsed) {
+            if (item.level == null) {
+                result.reject(item.index, item.stationId, List.of(item.error));
+                continue;
+            }
+
+            WaterLevel reading = item.level;
+            WaterLevel known = reading.getStationId() == null ? null : pending.get(reading.getStationId());
+            if (known == null && reading.getStationId() != null) {
+                Optional<WaterLevel> existing = hidrologiaService.getWaterLevelByStationId(reading.getStationId());
+                known = existing.orElse(null);
+            }
+            WaterLevel merged = merge(known, reading, now);
+
+            Set<ConstraintViolation<WaterLevel>> violations = validator.validate(merged);
+            if (!violations.isEmpty()) {
+                List<String> errors = new ArrayList<>(violations.size());
+                for (ConstraintViolation<WaterLevel> violation : violations) {
+                    errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                }
+                result.reject(item.index, reading.getStationId(), errors);
+                continue;
+            }
+
+            accepted.add(merged);
+            pending.put(merged.getStationId(), merged);
+            result.accept(item.index, merged.getStationId());
+        }
+
+        if (!accepted.isEmpty()) {
+            hidrologiaService.saveWaterLevels(accepted);
+        }
+        return result;
+    }
+
+    // Una lectura solo necesita los valores medidos; los datos descriptivos se heredan de la estación
+    private static WaterLevel merge(WaterLevel known, WaterLevel reading, LocalDateTime now) {
+        if (reading.getLastUpdated() == null) {
+            reading.setLastUpdated(now);
+        }
+        if (known == null) {
+            return reading;
+        }
+        if (reading.getStationName() == null) {
+            reading.setStationName(known.getStationName());
+        }
+        if (reading.getType() == null) {
+            reading.setType(known.getType());
+        }
+        if (reading.getAlertStatus() == null) {
+            reading.setAlertStatus(known.getAlertStatus());
+        }
+        if (reading.getLocation() == null) {
+            reading.setLocation(known.getLocation());
+        }
+        if (reading.getLatitude() == null || reading.getLongitude() == null) {
+            reading.setLatitude(known.getLatitude());
+            reading.setLongitude(known.getLongitude());
+        }
+        if (reading.getRiver() == null || reading.getRiverKm() == null) {
+            reading.setRiver(known.getRiver());
+            reading.setRiverKm(known.getRiverKm());
+        }
+        if (reading.getObservations() == null) {
+            reading.setObservations(known.getObservations());
+        }
+        return reading;
+    }
+
+    private static final class Parsed {
+        final int index;
+        final WaterLevel level;
+        final String stationId;
+        final String error;
+
+        Parsed(int index, WaterLevel level, String error) {
+            this(index, level, null, error);
+        }
+
+        Parsed(int index, WaterLevel level, String stationId, String error) {
+            this.index = index;
+            this.level = level;
+            this.stationId = stationId;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hidrologia.service;
+
+// Página de un listado ya serializada, junto a la versión del snapshot del que se obtuvo
+public class ListingPage {
+
+    private final byte[] bytes;
+    private final long version;
+
+    public ListingPage(byte[] bytes, long version) {
+        this.bytes = bytes;
+        this.version = version;
+    }
+
+    public byte[] getBytes() { return bytes; }
+
+    public long getVersion() { return version; }
+}
@@ -0,0 +1,135 @@
+package com.hidrologia.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hidrologia.listing.FieldWriter;
+import com.hidrologia.listing.ListingCursor;
+import com.hidrologia.listing.ListingSchema;
+import com.hidrologia.listing.ListingSchemas;
+import com.hidrologia.listing.SortedView;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.store.Versioned;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Listados paginados por cursor, ordenados por campos numéricos y con proyección de campos.
+// Solo se escriben los campos pedidos, directamente sobre el generador del formato negociado
+@ApplicationScoped
+public class ListingService {
+
+    private final HidrologiaService hidrologiaService;
+    private final WireFormats wireFormats;
+    private final HidrologiaMetrics metrics;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    // Una vista ordenada por listado y campo de ordenación, actualizada a partir de la anterior al cambiar la versión
+    private final Map<String, SortedView<?>> views = new ConcurrentHashMap<>();
+
+    @Inject
+    public ListingService(HidrologiaService hidrologiaService, WireFormats wireFormats, HidrologiaMetrics metrics,
+                          @ConfigProperty(name = "hidrologia.listing.default-limit", defaultValue = "100") int defaultLimit,
+                          @ConfigProperty(name = "hidrologia.listing.max-limit", defaultValue = "1000") int maxLimit) {
+        this.hidrologiaService = hidrologiaService;
+        this.wireFormats = wireFormats;
+        this.metrics = metrics;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public ListingPage listWaterLevels(String fields, String sort, String cursor, Integer limit, WireFormat format) {
+        return list("water-levels", ListingSchemas.WATER_LEVELS, hidrologiaService.getWaterLevelsVersion(),
+                hidrologiaService::getAllWaterLevels, fields, sort, cursor, limit, format);
+    }
+
+    public ListingPage listReservoirs(String fields, String sort, String cursor, Integer limit, WireFormat format) {
+        return list("reservoirs", ListingSchemas.RESERVOIRS, hidrologiaService.getReservoirsVersion(),
+                hidrologiaService::getAllReservoirs, fields, sort, cursor, limit, format);
+    }
+
+    private <T> ListingPage list(String listing, ListingSchema<T> schema, long version, Supplier<List<T>> data,
+                            String fields, String sort, String cursor, Integer limit, WireFormat format) {
+        int pageSize = limit == null ? defaultLimit : limit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + maxLimit);
+        }
+
+        // Formato de orden: "campo" ascendente, "-campo" descendente
+        boolean descending = sort != null && sort.startsWith("-");
+        String sortField = sort == null || sort.isBlank() ? ListingSchema.ID_SORT : descending ? sort.substring(1) : sort;
+        List<FieldWriter<T>> projection = schema.projection(fields);
+        SortedView<T> view = view(listing, schema, sortField, version, data);
+
+        int start;
+        if (cursor == null || cursor.isBlank()) {
+            start = descending ? view.size() - 1 : 0;
+        } else {
+            ListingCursor position = ListingCursor.decode(cursor);
+            if (!position.getSort().equals(sortField) || position.isDescending() != descending) {
+                throw new IllegalArgumentException("El cursor corresponde a otra ordenación");
+            }
+            start = descending
+                    ? view.lastBefore(position.getKey(), position.getId())
+                    : view.firstAfter(position.getKey(), position.getId());
+        }
+
+        int step = descending ? -1 : 1;
+        int end = descending ? Math.max(start - pageSize, -1) : Math.min(start + pageSize, view.size());
+        int count = Math.abs(end - start);
+        boolean hasMore = descending ? end >= 0 : end < view.size();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + count * 64 * projection.size());
+        try (JsonGenerator generator = wireFormats.mapper(format).getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            for (int i = start; i != end; i += step) {
+                T item = view.item(i);
+                generator.writeStartObject();
+                for (FieldWriter<T> writer : projection) {
+                    writer.write(generator, item);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("count", count);
+            if (hasMore && count > 0) {
+                int last = end - step;
+                generator.writeStringField("nextCursor",
+                        new ListingCursor(sortField, descending, view.key(last), view.id(last)).encode());
+            } else {
+                generator.writeNullField("nextCursor");
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] bytes = out.toByteArray();
+        metrics.recordSerializedBytes(listing + "-page", format, bytes.length);
+        return new ListingPage(bytes, view.getVersion());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SortedView<T> view(String listing, ListingSchema<T> schema, String sortField,
+                                   long version, Supplier<List<T>> data) {
+        String key = listing + "-" + sortField;
+        SortedView<T> view = (SortedView<T>) views.get(key);
+        if (view == null || view.getVersion() != version) {
+            // La vista queda ligada a la versión del snapshot realmente leído, que puede ser posterior
+            List<T> source = data.get();
+            long sourceVersion = source instanceof Versioned versioned ? versioned.getVersion() : version;
+            view = new SortedView<>(sourceVersion, source, schema, sortField, view);
+            views.put(key, view);
+        }
+        return view;
+    }
+}
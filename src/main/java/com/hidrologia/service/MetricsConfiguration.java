@@ -0,0 +1,29 @@
+package com.hidrologia.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+public class MetricsConfiguration {
+
+    // Histogramas de latencia para los endpoints HTTP y las operaciones de servicio
+    @Produces
+    @Singleton
+    public MeterFilter enableHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                String name = id.getName();
+                if (name.startsWith("http.server.requests") || name.startsWith("hidrologia.")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
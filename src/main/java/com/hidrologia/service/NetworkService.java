@@ -0,0 +1,270 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.NetworkNode;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.RiverInflow;
+import com.hidrologia.model.RiverSummary;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.network.River;
+import com.hidrologia.network.RiverCatalog;
+import com.hidrologia.network.RiverGraph;
+import com.hidrologia.network.RiverHit;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Consultas sobre la red fluvial (aguas arriba, aguas abajo, caudal entrante y tiempo de
+// llegada de una onda de crecida). El grafo solo se reconstruye cuando un lote cambia la
+// topología (altas, río o punto kilométrico), en un hilo propio: las consultas usan el último
+// grafo construido sin esperar. Los valores medidos se leen del almacén
+@ApplicationScoped
+public class NetworkService {
+
+    private static final Logger LOG = Logger.getLogger(NetworkService.class);
+    private static final double MAX_CELERITY_KMH = 100.0;
+
+    private final HidrologiaService hidrologiaService;
+    private final double defaultCelerityKmh;
+    private final int maxResults;
+    private final ExecutorService rebuilder;
+
+    // Los flags se escriben dentro del bloqueo de escritura de su almacén y se consumen al publicarse el lote
+    private boolean stationsChanged;
+    private boolean reservoirsChanged;
+    // Varias publicaciones seguidas se agrupan en una sola reconstrucción
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile RiverGraph graph;
+
+    @Inject
+    public NetworkService(HidrologiaService hidrologiaService,
+                          @ConfigProperty(name = "hidrologia.network.wave-celerity-kmh", defaultValue = "5.0") double defaultCelerityKmh,
+                          @ConfigProperty(name = "hidrologia.network.max-results", defaultValue = "1000") int maxResults) {
+        this.hidrologiaService = hidrologiaService;
+        this.defaultCelerityKmh = defaultCelerityKmh;
+        this.maxResults = maxResults;
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hidrologia-network");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.graph = build();
+
+        hidrologiaService.addWaterLevelListener((previous, current) -> {
+            if (previous == null || !Objects.equals(previous.getRiver(), current.getRiver())
+                    || Double.compare(previous.riverKmOrNaN(), current.riverKmOrNaN()) != 0) {
+                stationsChanged = true;
+            }
+        });
+        hidrologiaService.addWaterLevelCommitListener(version -> {
+            if (stationsChanged) {
+                stationsChanged = false;
+                scheduleRebuild();
+            }
+        });
+        hidrologiaService.addReservoirListener((previous, current) -> {
+            if (previous == null || !Objects.equals(previous.getMainRiver(), current.getMainRiver())
+                    || Double.compare(previous.riverKmOrNaN(), current.riverKmOrNaN()) != 0) {
+                reservoirsChanged = true;
+            }
+        });
+        hidrologiaService.addReservoirCommitListener(version -> {
+            if (reservoirsChanged) {
+                reservoirsChanged = false;
+                scheduleRebuild();
+            }
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        rebuilder.shutdownNow();
+    }
+
+    // ========== Consultas ==========
+
+    public List<RiverSummary> getRivers() {
+        RiverGraph graph = this.graph;
+        List<RiverSummary> rivers = new ArrayList<>(graph.riverCount());
+        for (int river = 0; river < graph.riverCount(); river++) {
+            String name = graph.riverName(river);
+            Optional<River> info = RiverCatalog.find(name);
+            rivers.add(new RiverSummary(name,
+                    info.map(River::getLengthKm).orElse(null),
+                    info.map(River::getReceivingRiver).orElse(null),
+                    info.filter(r -> r.getReceivingRiver() != null).map(River::getConfluenceKm).orElse(null),
+                    graph.stationCount(river), graph.reservoirCount(river)));
+        }
+        return rivers;
+    }
+
+    // Puntos aguas abajo con la hora estimada de llegada de una onda de crecida que parta del punto
+    public Optional<List<NetworkNode>> findDownstream(String id, Double maxKm, Double celerityKmh, Integer limit) {
+        double range = range(maxKm);
+        double celerity = celerity(celerityKmh);
+        int resultLimit = limit(limit);
+        RiverGraph graph = this.graph;
+        if (!graph.contains(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(resolve(graph.downstream(id, range, resultLimit), celerity));
+    }
+
+    public Optional<List<NetworkNode>> findUpstream(String id, Double maxKm, Integer limit) {
+        double range = range(maxKm);
+        int resultLimit = limit(limit);
+        RiverGraph graph = this.graph;
+        if (!graph.contains(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(resolve(graph.upstream(id, range, resultLimit), Double.NaN));
+    }
+
+    // El caudal entrante es la suma de los puntos con caudal más cercanos aguas arriba: lo que
+    // desembalsa una presa ya incluye lo que recibe, así que no se recorre lo que queda detrás
+    public Optional<RiverInflow> getInflow(String id) {
+        RiverGraph graph = this.graph;
+        Optional<NetworkNode> node = resolve(id, Double.NaN, Double.NaN);
+        if (!graph.contains(id) || node.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<NetworkNode> sources = resolve(graph.nearestUpstream(id, this::hasFlow), Double.NaN);
+        Double inflow = null;
+        for (NetworkNode source : sources) {
+            if (source.getFlow() != null) {
+                inflow = (inflow == null ? 0.0 : inflow) + source.getFlow();
+            }
+        }
+
+        BasinTotals basin = new BasinTotals();
+        graph.forEachUpstream(id, (upstreamId, reservoir) -> {
+            if (!reservoir) {
+                basin.stations++;
+                return;
+            }
+            basin.reservoirs++;
+            hidrologiaService.getReservoirById(upstreamId).ifPresent(r -> {
+                basin.volume += valueOrZero(r.currentVolumeOrNaN());
+                basin.capacity += valueOrZero(r.maxCapacityOrNaN());
+            });
+        });
+
+        return Optional.of(new RiverInflow(node.get(), inflow, sources, basin.stations, basin.reservoirs,
+                basin.volume, basin.capacity));
+    }
+
+    private boolean hasFlow(String id) {
+        Optional<WaterLevel> station = hidrologiaService.getWaterLevelByStationId(id);
+        if (station.isPresent()) {
+            return !Double.isNaN(station.get().flowOrNaN());
+        }
+        return hidrologiaService.getReservoirById(id).map(r -> !Double.isNaN(r.outflowOrNaN())).orElse(false);
+    }
+
+    // ========== Grafo ==========
+
+    private void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                // Se libera antes de leer los almacenes: un lote publicado durante la construcción
+                // programa otra reconstrucción
+                rebuildPending.set(false);
+                try {
+                    graph = build();
+                } catch (RuntimeException e) {
+                    LOG.error("Error al reconstruir el grafo de la red fluvial", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Aplicación deteniéndose
+            rebuildPending.set(false);
+        }
+    }
+
+    private RiverGraph build() {
+        RiverGraph.Builder builder = new RiverGraph.Builder();
+        for (WaterLevel level : hidrologiaService.getAllWaterLevels()) {
+            builder.add(level.getStationId(), false, level.getRiver(), level.riverKmOrNaN());
+        }
+        for (Reservoir reservoir : hidrologiaService.getAllReservoirs()) {
+            builder.add(reservoir.getReservoirId(), true, reservoir.getMainRiver(), reservoir.riverKmOrNaN());
+        }
+        return builder.build();
+    }
+
+    // ========== Resolución de resultados ==========
+
+    private List<NetworkNode> resolve(List<RiverHit> hits, double celerityKmh) {
+        List<NetworkNode> nodes = new ArrayList<>(hits.size());
+        for (RiverHit hit : hits) {
+            resolve(hit.getId(), hit.getDistanceKm(), celerityKmh).ifPresent(nodes::add);
+        }
+        return nodes;
+    }
+
+    private Optional<NetworkNode> resolve(String id, double distanceKm, double celerityKmh) {
+        double travelHours = distanceKm / celerityKmh;
+        Optional<WaterLevel> station = hidrologiaService.getWaterLevelByStationId(id);
+        if (station.isPresent()) {
+            return Optional.of(NetworkNode.of(station.get(), distanceKm, travelHours));
+        }
+        return hidrologiaService.getReservoirById(id).map(r -> NetworkNode.of(r, distanceKm, travelHours));
+    }
+
+    // ========== Validación ==========
+
+    private static double range(Double maxKm) {
+        if (maxKm == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (!(maxKm > 0)) {
+            throw new IllegalArgumentException("La distancia máxima debe ser positiva");
+        }
+        return maxKm;
+    }
+
+    private double celerity(Double celerityKmh) {
+        if (celerityKmh == null) {
+            return defaultCelerityKmh;
+        }
+        if (!(celerityKmh > 0 && celerityKmh <= MAX_CELERITY_KMH)) {
+            throw new IllegalArgumentException("La celeridad debe estar entre 0 y " + (int) MAX_CELERITY_KMH + " km/h");
+        }
+        return celerityKmh;
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return maxResults;
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + maxResults);
+        }
+        return limit;
+    }
+
+    private static double valueOrZero(double value) {
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    private static final class BasinTotals {
+        int stations;
+        int reservoirs;
+        double volume;
+        double capacity;
+    }
+}
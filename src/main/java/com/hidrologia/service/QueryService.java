@@ -0,0 +1,122 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.QueryResult;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirQuery;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelQuery;
+import com.hidrologia.store.StoreQuery;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+// Consultas compuestas (varios IDs y filtros combinados) en una sola lectura del almacén.
+// IDs y enums se resuelven con los mapas de bits de los índices; los rangos se comprueban
+// después, solo sobre los elementos que quedan, con los valores primitivos de los modelos
+@ApplicationScoped
+public class QueryService {
+
+    private final HidrologiaService hidrologiaService;
+    private final int maxIds;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Inject
+    public QueryService(HidrologiaService hidrologiaService,
+                        @ConfigProperty(name = "hidrologia.query.max-ids", defaultValue = "1000") int maxIds) {
+        this.hidrologiaService = hidrologiaService;
+        this.maxIds = maxIds;
+    }
+
+    public QueryResult<WaterLevel> queryWaterLevels(WaterLevelQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("El cuerpo de la consulta es obligatorio");
+        }
+        List<String> ids = ids(query.getStationIds(), "stationIds");
+        Predicate<WaterLevel> condition = and(
+                range(WaterLevel::waterLevelOrNaN, query.getMinWaterLevel(), query.getMaxWaterLevel(), "WaterLevel"),
+                range(WaterLevel::flowOrNaN, query.getMinFlow(), query.getMaxFlow(), "Flow"),
+                window(WaterLevel::lastUpdatedEpochMilli, query.getUpdatedFrom(), query.getUpdatedTo()));
+        return toResult(hidrologiaService.queryWaterLevels(ids, query.getTypes(), query.getAlertStatuses(), condition),
+                ids != null);
+    }
+
+    public QueryResult<Reservoir> queryReservoirs(ReservoirQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("El cuerpo de la consulta es obligatorio");
+        }
+        List<String> ids = ids(query.getReservoirIds(), "reservoirIds");
+        Predicate<Reservoir> condition = and(
+                range(Reservoir::fillPercentageOrNaN, query.getMinFillPercentage(), query.getMaxFillPercentage(), "FillPercentage"),
+                range(Reservoir::outflowOrNaN, query.getMinOutflow(), query.getMaxOutflow(), "Outflow"),
+                window(Reservoir::lastUpdatedEpochMilli, query.getUpdatedFrom(), query.getUpdatedTo()));
+        return toResult(hidrologiaService.queryReservoirs(ids, query.getPrimaryUses(), query.getStatuses(), condition),
+                ids != null);
+    }
+
+    private static <T> QueryResult<T> toResult(StoreQuery.Result<T> result, boolean byIds) {
+        return new QueryResult<>(result.getItems(), result.getItems().size(),
+                byIds ? result.getMissingIds() : null, result.getItems().getVersion());
+    }
+
+    // ========== Criterios ==========
+
+    private List<String> ids(List<String> ids, String field) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("'" + field + "' admite como máximo " + maxIds + " IDs");
+        }
+        return ids;
+    }
+
+    // Un valor NaN (sin medida) no cumple ningún rango
+    private static <T> Predicate<T> range(ToDoubleFunction<T> value, Double min, Double max, String field) {
+        if (min == null && max == null) {
+            return null;
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("'min" + field + "' es mayor que 'max" + field + "'");
+        }
+        double low = min == null ? Double.NEGATIVE_INFINITY : min;
+        double high = max == null ? Double.POSITIVE_INFINITY : max;
+        return item -> {
+            double v = value.applyAsDouble(item);
+            return v >= low && v <= high;
+        };
+    }
+
+    private <T> Predicate<T> window(ToLongFunction<T> epochMilli, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'updatedFrom' es posterior a 'updatedTo'");
+        }
+        long low = from == null ? Long.MIN_VALUE + 1 : from.atZone(zone).toInstant().toEpochMilli();
+        long high = to == null ? Long.MAX_VALUE : to.atZone(zone).toInstant().toEpochMilli();
+        // Los elementos sin fecha (NO_TIMESTAMP, Long.MIN_VALUE) quedan fuera de cualquier ventana
+        return item -> {
+            long t = epochMilli.applyAsLong(item);
+            return t >= low && t <= high;
+        };
+    }
+
+    @SafeVarargs
+    private static <T> Predicate<T> and(Predicate<T>... conditions) {
+        Predicate<T> combined = null;
+        for (Predicate<T> condition : conditions) {
+            if (condition != null) {
+                combined = combined == null ? condition : combined.and(condition);
+            }
+        }
+        return combined;
+    }
+}
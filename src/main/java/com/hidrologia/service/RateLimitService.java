@@ -0,0 +1,53 @@
+package com.hidrologia.service;
+
+import com.hidrologia.ratelimit.ClientLimiter;
+import com.hidrologia.ratelimit.RateLimiter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Límites de peticiones de la API pública. Cada cliente se identifica por su clave de API
+// (cabecera configurable) si es una de las configuradas o, si no, por su IP: una clave
+// inventada no da un límite nuevo ni ocupa entradas de la tabla de clientes
+@ApplicationScoped
+public class RateLimitService {
+
+    private final boolean enabled;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+    private final RateLimiter limiter;
+
+    @Inject
+    public RateLimitService(HidrologiaMetrics metrics,
+                            @ConfigProperty(name = "hidrologia.rate-limit.enabled", defaultValue = "true") boolean enabled,
+                            @ConfigProperty(name = "hidrologia.rate-limit.requests-per-second", defaultValue = "50") double requestsPerSecond,
+                            @ConfigProperty(name = "hidrologia.rate-limit.burst", defaultValue = "100") int burst,
+                            @ConfigProperty(name = "hidrologia.rate-limit.max-concurrent", defaultValue = "8") int maxConcurrent,
+                            @ConfigProperty(name = "hidrologia.rate-limit.max-clients", defaultValue = "10000") int maxClients,
+                            @ConfigProperty(name = "hidrologia.rate-limit.client-header", defaultValue = "X-API-Key") String clientHeader,
+                            @ConfigProperty(name = "hidrologia.rate-limit.api-keys") Optional<List<String>> apiKeys) {
+        this.enabled = enabled;
+        this.clientHeader = clientHeader;
+        this.apiKeys = Set.copyOf(apiKeys.orElse(List.of()));
+        this.limiter = new RateLimiter(requestsPerSecond, burst, maxConcurrent, maxClients);
+        metrics.registerRateLimitGauge(limiter);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    // Con prefijo para que una clave de API no pueda coincidir con una IP
+    public ClientLimiter client(String apiKey, String remoteHost, long now) {
+        String key = apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + remoteHost;
+        return limiter.client(key, now);
+    }
+}
@@ -0,0 +1,112 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.SearchMatch;
+import com.hidrologia.search.SearchHit;
+import com.hidrologia.search.TextIndex;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Búsqueda de texto sobre nombres, ríos, ubicaciones y observaciones. Como los índices
+// geográficos, se mantiene con los listeners de los almacenes y solo vuelve a indexar
+// los campos de texto que cambian, no con cada nueva medida
+@ApplicationScoped
+public class SearchService {
+
+    // Nombre, río, ubicación y observaciones, de más a menos relevante
+    private static final int[] FIELD_WEIGHTS = {8, 4, 2, 1};
+
+    private final HidrologiaService hidrologiaService;
+    private final TextIndex stations = new TextIndex(FIELD_WEIGHTS);
+    private final TextIndex reservoirs = new TextIndex(FIELD_WEIGHTS);
+    private final int defaultLimit;
+    private final int maxResults;
+
+    @Inject
+    public SearchService(HidrologiaService hidrologiaService,
+                         @ConfigProperty(name = "hidrologia.search.default-limit", defaultValue = "10") int defaultLimit,
+                         @ConfigProperty(name = "hidrologia.search.max-results", defaultValue = "100") int maxResults) {
+        this.hidrologiaService = hidrologiaService;
+        this.defaultLimit = defaultLimit;
+        this.maxResults = maxResults;
+
+        hidrologiaService.addWaterLevelListener((previous, current) ->
+                stations.update(current.getStationId(), current.getStationName(), current.getRiver(),
+                        current.getLocation(), current.getObservations()));
+        hidrologiaService.addReservoirListener((previous, current) ->
+                reservoirs.update(current.getReservoirId(), current.getName(), current.getMainRiver(),
+                        current.getLocation(), current.getObservations()));
+    }
+
+    // Estaciones y embalses juntos, por puntuación; a igualdad, las estaciones primero
+    public List<SearchMatch> search(String query, Integer limit) {
+        validate(query);
+        int resultLimit = limit(limit);
+        List<SearchMatch> stationMatches = toStations(stations.search(query, resultLimit));
+        List<SearchMatch> reservoirMatches = toReservoirs(reservoirs.search(query, resultLimit));
+
+        List<SearchMatch> matches = new ArrayList<>(Math.min(resultLimit, stationMatches.size() + reservoirMatches.size()));
+        int s = 0;
+        int r = 0;
+        while (matches.size() < resultLimit && (s < stationMatches.size() || r < reservoirMatches.size())) {
+            if (r == reservoirMatches.size() || (s < stationMatches.size()
+                    && stationMatches.get(s).getScore() >= reservoirMatches.get(r).getScore())) {
+                matches.add(stationMatches.get(s++));
+            } else {
+                matches.add(reservoirMatches.get(r++));
+            }
+        }
+        return matches;
+    }
+
+    public List<SearchMatch> searchStations(String query, Integer limit) {
+        validate(query);
+        return toStations(stations.search(query, limit(limit)));
+    }
+
+    public List<SearchMatch> searchReservoirs(String query, Integer limit) {
+        validate(query);
+        return toReservoirs(reservoirs.search(query, limit(limit)));
+    }
+
+    // ========== Resolución de resultados ==========
+
+    private List<SearchMatch> toStations(List<SearchHit> hits) {
+        List<SearchMatch> matches = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            hidrologiaService.getWaterLevelByStationId(hit.getId())
+                    .ifPresent(level -> matches.add(SearchMatch.of(level, hit.getScore())));
+        }
+        return matches;
+    }
+
+    private List<SearchMatch> toReservoirs(List<SearchHit> hits) {
+        List<SearchMatch> matches = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            hidrologiaService.getReservoirById(hit.getId())
+                    .ifPresent(reservoir -> matches.add(SearchMatch.of(reservoir, hit.getScore())));
+        }
+        return matches;
+    }
+
+    // ========== Validación ==========
+
+    private static void validate(String query) {
+        if (query == null || TextIndex.fold(query).isEmpty()) {
+            throw new IllegalArgumentException("El parámetro 'q' es obligatorio y debe contener letras o dígitos");
+        }
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + maxResults);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,231 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Estaciones y embalses con los que arranca el servicio. Son constantes de clase: en la imagen
+// nativa la clase se inicializa durante la compilación y los registros quedan en el heap de la
+// imagen. Las fechas se guardan como antigüedad en minutos y cada arranque recibe copias con la
+// fecha ya fijada, porque las reglas de alerta modifican los registros al guardarlos
+final class SeedData {
+
+    private static final WaterLevel[] WATER_LEVELS = {
+        new WaterLevel(
+            "HIDRO_001",
+            "Río Ebro - Zaragoza",
+            2.45,
+            125.8,
+            WaterLevel.WaterType.RIO,
+            WaterLevel.AlertStatus.NORMAL,
+            "Zaragoza, Aragón",
+            41.6561,
+            -0.8773,
+            null,
+            18.5,
+            "Condiciones normales de navegación"
+        ),
+        new WaterLevel(
+            "HIDRO_002",
+            "Río Tajo - Toledo",
+            1.89,
+            78.2,
+            WaterLevel.WaterType.RIO,
+            WaterLevel.AlertStatus.PRECAUCION,
+            "Toledo, Castilla-La Mancha",
+            39.8628,
+            -4.0273,
+            null,
+            19.2,
+            "Nivel ligeramente por debajo de lo normal"
+        ),
+        new WaterLevel(
+            "HIDRO_003",
+            "Río Guadalquivir - Sevilla",
+            3.12,
+            89.5,
+            WaterLevel.WaterType.RIO,
+            WaterLevel.AlertStatus.NORMAL,
+            "Sevilla, Andalucía",
+            37.3828,
+            -5.9732,
+            null,
+            21.8,
+            "Caudal estable, condiciones óptimas"
+        ),
+        new WaterLevel(
+            "HIDRO_004",
+            "Embalse de Buendía",
+            15.67,
+            45.3,
+            WaterLevel.WaterType.EMBALSE,
+            WaterLevel.AlertStatus.ALERTA,
+            "Cuenca, Castilla-La Mancha",
+            40.3650,
+            -2.7800,
+            null,
+            16.9,
+            "Nivel alto debido a lluvias recientes"
+        ),
+        new WaterLevel(
+            "HIDRO_005",
+            "Río Duero - Zamora",
+            2.78,
+            156.7,
+            WaterLevel.WaterType.RIO,
+            WaterLevel.AlertStatus.NORMAL,
+            "Zamora, Castilla y León",
+            41.5034,
+            -5.7467,
+            null,
+            17.3,
+            "Flujo normal hacia Portugal"
+        )
+    };
+    private static final int[] WATER_LEVEL_AGE_MINUTES = {15, 10, 5, 20, 8};
+
+    private static final Reservoir[] RESERVOIRS = {
+        new Reservoir(
+            "EMB_001",
+            "Embalse de Mequinenza",
+            1534.0,
+            980.5,
+            63.9,
+            Reservoir.PrimaryUse.HIDROELECTRICA,
+            Reservoir.OperationalStatus.OPERATIVO,
+            "Mequinenza, Zaragoza",
+            41.3736,
+            0.2989,
+            "Río Ebro",
+            1966,
+            78.5,
+            550.0,
+            45.2,
+            null,
+            "Central hidroeléctrica funcionando a capacidad normal"
+        ),
+        new Reservoir(
+            "EMB_002",
+            "Embalse de Buendía",
+            1639.0,
+            1245.8,
+            76.0,
+            Reservoir.PrimaryUse.ABASTECIMIENTO,
+            Reservoir.OperationalStatus.OPERATIVO,
+            "Cuenca, Castilla-La Mancha",
+            40.3650,
+            -2.7800,
+            "Río Guadiela",
+            1958,
+            78.0,
+            340.0,
+            32.1,
+            null,
+            "Reservas para abastecimiento en niveles óptimos"
+        ),
+        new Reservoir(
+            "EMB_003",
+            "Embalse de Alcántara",
+            3162.0,
+            2456.7,
+            77.7,
+            Reservoir.PrimaryUse.HIDROELECTRICA,
+            Reservoir.OperationalStatus.OPERATIVO,
+            "Alcántara, Cáceres",
+            39.7236,
+            -6.8853,
+            "Río Tajo",
+            1969,
+            130.0,
+            570.0,
+            67.8,
+            null,
+            "Mayor embalse de España, funcionamiento normal"
+        ),
+        new Reservoir(
+            "EMB_004",
+            "Embalse de La Serena",
+            3219.0,
+            1934.5,
+            60.1,
+            Reservoir.PrimaryUse.RIEGO,
+            Reservoir.OperationalStatus.OPERATIVO,
+            "Castuera, Badajoz",
+            38.9400,
+            -5.4050,
+            "Río Zújar",
+            1989,
+            104.0,
+            470.0,
+            28.9,
+            null,
+            "Suministro de agua para regadíos extremeños"
+        ),
+        new Reservoir(
+            "EMB_005",
+            "Embalse de Riaño",
+            664.0,
+            523.4,
+            78.8,
+            Reservoir.PrimaryUse.ABASTECIMIENTO,
+            Reservoir.OperationalStatus.MANTENIMIENTO,
+            "Riaño, León",
+            42.9750,
+            -5.0100,
+            "Río Esla",
+            1987,
+            99.5,
+            280.0,
+            15.6,
+            null,
+            "En mantenimiento preventivo programado"
+        )
+    };
+    private static final int[] RESERVOIR_AGE_MINUTES = {30, 25, 40, 35, 50};
+
+    static {
+        // Posición en la red fluvial (punto kilométrico desde el nacimiento)
+        onRiver(WATER_LEVELS[0], "Río Ebro", 480.0);
+        onRiver(WATER_LEVELS[1], "Río Tajo", 370.0);
+        onRiver(WATER_LEVELS[2], "Río Guadalquivir", 560.0);
+        onRiver(WATER_LEVELS[3], "Río Guadiela", 76.0);
+        onRiver(WATER_LEVELS[4], "Río Duero", 530.0);
+
+        // Punto kilométrico en su río principal
+        RESERVOIRS[0].setRiverKm(600.0);
+        RESERVOIRS[1].setRiverKm(75.0);
+        RESERVOIRS[2].setRiverKm(780.0);
+        RESERVOIRS[3].setRiverKm(150.0);
+        RESERVOIRS[4].setRiverKm(30.0);
+    }
+
+    private SeedData() {}
+
+    static List<WaterLevel> waterLevels(LocalDateTime now) {
+        List<WaterLevel> levels = new ArrayList<>(WATER_LEVELS.length);
+        for (int i = 0; i < WATER_LEVELS.length; i++) {
+            WaterLevel level = new WaterLevel(WATER_LEVELS[i]);
+            level.setLastUpdated(now.minusMinutes(WATER_LEVEL_AGE_MINUTES[i]));
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    static List<Reservoir> reservoirs(LocalDateTime now) {
+        List<Reservoir> reservoirs = new ArrayList<>(RESERVOIRS.length);
+        for (int i = 0; i < RESERVOIRS.length; i++) {
+            Reservoir reservoir = new Reservoir(RESERVOIRS[i]);
+            reservoir.setLastUpdated(now.minusMinutes(RESERVOIR_AGE_MINUTES[i]));
+            reservoirs.add(reservoir);
+        }
+        return reservoirs;
+    }
+
+    private static void onRiver(WaterLevel level, String river, double riverKm) {
+        level.setRiver(river);
+        level.setRiverKm(riverKm);
+    }
+}
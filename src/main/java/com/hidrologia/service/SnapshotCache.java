@@ -0,0 +1,110 @@
+package com.hidrologia.service;
+
+import com.hidrologia.store.Versioned;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Caché de respuestas ya serializadas por formato, versionada con la versión del almacén de origen
+@ApplicationScoped
+public class SnapshotCache {
+
+    private final WireFormats wireFormats;
+    private final HidrologiaMetrics metrics;
+    private final Map<String, SerializedSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Distingue ETags entre reinicios, ya que las versiones vuelven a empezar desde cero
+    private final String instanceId = Long.toHexString(System.nanoTime() ^ System.currentTimeMillis());
+
+    @Inject
+    public SnapshotCache(WireFormats wireFormats, HidrologiaMetrics metrics) {
+        this.wireFormats = wireFormats;
+        this.metrics = metrics;
+    }
+
+    public SerializedSnapshot get(String key, long version, Supplier<?> data) {
+        return get(key, WireFormat.JSON, version, data);
+    }
+
+    // Snapshot en caché si sigue vigente para esa versión, sin serializar nada
+    public SerializedSnapshot getIfCurrent(String key, WireFormat format, long version) {
+        SerializedSnapshot snapshot = snapshots.get(format == WireFormat.JSON ? key : key + "." + format);
+        return snapshot != null && snapshot.getVersion() == version ? snapshot : null;
+    }
+
+    // La versión debe leerse antes que los datos: si los datos resultan más nuevos,
+    // la siguiente petición detecta el cambio de versión y vuelve a serializar
+    public SerializedSnapshot get(String key, WireFormat format, long version, Supplier<?> data) {
+        String cacheKey = format == WireFormat.JSON ? key : key + "." + format;
+        SerializedSnapshot snapshot = snapshots.get(cacheKey);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+
+        // Los listados del almacén llevan su propia versión: el snapshot queda ligado a la que se serializó
+        Object value = data.get();
+        long dataVersion = value instanceof Versioned versioned ? versioned.getVersion() : version;
+        byte[] bytes;
+        try {
+            bytes = wireFormats.mapper(format).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        metrics.recordSerializedBytes(key, format, bytes.length);
+        snapshot = new SerializedSnapshot(bytes, format, dataVersion, instanceId + "-" + cacheKey + "-" + dataVersion);
+        snapshots.put(cacheKey, snapshot);
+        return snapshot;
+    }
+
+    public static class SerializedSnapshot {
+
+        private final byte[] bytes;
+        private final WireFormat format;
+        private final long version;
+        private final String etag;
+        // Variante gzip, comprimida en la primera petición que la acepta y reutilizada hasta el cambio de versión
+        private volatile byte[] gzipBytes;
+
+        SerializedSnapshot(byte[] bytes, WireFormat format, long version, String etag) {
+            this.bytes = bytes;
+            this.format = format;
+            this.version = version;
+            this.etag = etag;
+        }
+
+        public byte[] getBytes() { return bytes; }
+
+        public WireFormat getFormat() { return format; }
+
+        public long getVersion() { return version; }
+
+        public String getEtag() { return etag; }
+
+        public boolean hasGzipBytes() { return gzipBytes != null; }
+
+        public byte[] getGzipBytes() {
+            byte[] compressed = gzipBytes;
+            if (compressed == null) {
+                compressed = gzip(bytes);
+                gzipBytes = compressed;
+            }
+            return compressed;
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
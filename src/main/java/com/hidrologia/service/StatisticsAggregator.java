@@ -0,0 +1,279 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.SystemStatistics;
+import com.hidrologia.model.WaterLevel;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Agregados del sistema mantenidos de forma incremental: cada cambio resta la
+// contribución del valor anterior y suma la del nuevo, sin recorrer las listas.
+// Los acumuladores solo se tocan dentro del bloqueo de escritura de su almacén; al publicarse
+// cada lote se congelan en una vista inmutable, que es lo único que ven los lectores.
+// Las sumas son compensadas (Neumaier) para que restar y volver a sumar millones de veces no
+// acumule error de redondeo, y las fechas se guardan en milisegundos epoch hasta leerlas
+class StatisticsAggregator {
+
+    private static final WaterLevel.AlertStatus[] ALERT_STATUSES = WaterLevel.AlertStatus.values();
+    private static final Reservoir.OperationalStatus[] OPERATIONAL_STATUSES = Reservoir.OperationalStatus.values();
+
+    // Acumuladores de estaciones (bloqueo del almacén de niveles)
+    private int totalStations;
+    private final int[] stationsByAlert = new int[ALERT_STATUSES.length];
+    private long stationsUpdated = WaterLevel.NO_TIMESTAMP;
+
+    // Acumuladores de embalses (bloqueo del almacén de embalses)
+    private int totalReservoirs;
+    private final int[] reservoirsByStatus = new int[OPERATIONAL_STATUSES.length];
+    private int fillCount;
+    private final CompensatedSum fillSum = new CompensatedSum();
+    // Multiconjunto ordenado para mantener mínimo y máximo también ante bajas
+    private final TreeMap<Double, Integer> fillValues = new TreeMap<>();
+    private final CompensatedSum totalCapacity = new CompensatedSum();
+    private final CompensatedSum totalVolume = new CompensatedSum();
+    private final Map<String, BasinTotals> basins = new HashMap<>();
+    private long reservoirsUpdated = Reservoir.NO_TIMESTAMP;
+
+    private volatile StationTotals stationView = new StationTotals(0L, 0, new int[ALERT_STATUSES.length],
+            WaterLevel.NO_TIMESTAMP);
+    private volatile ReservoirTotals reservoirView = new ReservoirTotals(0L, 0, new int[OPERATIONAL_STATUSES.length],
+            0.0, null, null, 0.0, 0.0, List.of(), Reservoir.NO_TIMESTAMP);
+
+    // ========== Actualización incremental ==========
+
+    void onWaterLevelChange(WaterLevel previous, WaterLevel current) {
+        if (previous == null) {
+            totalStations++;
+        } else if (previous.getAlertStatus() != null) {
+            stationsByAlert[previous.getAlertStatus().ordinal()]--;
+        }
+        if (current.getAlertStatus() != null) {
+            stationsByAlert[current.getAlertStatus().ordinal()]++;
+        }
+        stationsUpdated = Math.max(stationsUpdated, current.lastUpdatedEpochMilli());
+    }
+
+    void onReservoirChange(Reservoir previous, Reservoir current) {
+        if (previous == null) {
+            totalReservoirs++;
+        } else {
+            apply(previous, -1);
+        }
+        apply(current, 1);
+        reservoirsUpdated = Math.max(reservoirsUpdated, current.lastUpdatedEpochMilli());
+    }
+
+    private void apply(Reservoir reservoir, int sign) {
+        if (reservoir.getStatus() != null) {
+            reservoirsByStatus[reservoir.getStatus().ordinal()] += sign;
+        }
+
+        double fill = reservoir.fillPercentageOrNaN();
+        if (!Double.isNaN(fill)) {
+            fillCount += sign;
+            fillSum.add(sign * fill);
+            if (fillCount == 0) {
+                fillSum.reset();
+            }
+            fillValues.merge(fill, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        double capacity = valueOrZero(reservoir.maxCapacityOrNaN());
+        double volume = valueOrZero(reservoir.currentVolumeOrNaN());
+        totalCapacity.add(sign * capacity);
+        totalVolume.add(sign * volume);
+
+        if (reservoir.getMainRiver() != null) {
+            BasinTotals basin = basins.computeIfAbsent(reservoir.getMainRiver(), river -> new BasinTotals());
+            basin.reservoirs += sign;
+            basin.capacity.add(sign * capacity);
+            basin.volume.add(sign * volume);
+            basin.outflow.add(sign * valueOrZero(reservoir.outflowOrNaN()));
+            if (basin.reservoirs == 0) {
+                basins.remove(reservoir.getMainRiver());
+            }
+        }
+    }
+
+    // ========== Publicación por lote ==========
+
+    void onWaterLevelsCommit(long version) {
+        stationView = new StationTotals(version, totalStations, stationsByAlert.clone(), stationsUpdated);
+    }
+
+    void onReservoirsCommit(long version) {
+        List<SystemStatistics.BasinStatistics> basinList = new ArrayList<>(basins.size());
+        basins.forEach((river, totals) -> basinList.add(new SystemStatistics.BasinStatistics(
+                river, totals.reservoirs, totals.capacity.value(), totals.volume.value(), totals.outflow.value())));
+        basinList.sort((a, b) -> a.getMainRiver().compareTo(b.getMainRiver()));
+
+        reservoirView = new ReservoirTotals(version, totalReservoirs, reservoirsByStatus.clone(),
+                fillCount == 0 ? 0.0 : fillSum.value() / fillCount,
+                fillValues.isEmpty() ? null : fillValues.firstKey(),
+                fillValues.isEmpty() ? null : fillValues.lastKey(),
+                totalCapacity.value(), totalVolume.value(), List.copyOf(basinList), reservoirsUpdated);
+    }
+
+    // ========== Lectura (vistas publicadas, sin bloqueos) ==========
+
+    int getTotalStations() {
+        return stationView.total;
+    }
+
+    int getTotalReservoirs() {
+        return reservoirView.total;
+    }
+
+    int getStationCount(WaterLevel.AlertStatus status) {
+        return stationView.byAlert[status.ordinal()];
+    }
+
+    int getReservoirCount(Reservoir.OperationalStatus status) {
+        return reservoirView.byStatus[status.ordinal()];
+    }
+
+    int getAlertStations() {
+        StationTotals stations = stationView;
+        return stations.total - stations.byAlert[WaterLevel.AlertStatus.NORMAL.ordinal()];
+    }
+
+    double getAverageFillPercentage() {
+        return reservoirView.averageFill;
+    }
+
+    boolean isHealthy() {
+        return isHealthy(stationView, reservoirView);
+    }
+
+    private static boolean isHealthy(StationTotals stations, ReservoirTotals reservoirs) {
+        return stations.byAlert[WaterLevel.AlertStatus.EMERGENCIA.ordinal()] == 0
+                && reservoirs.byStatus[Reservoir.OperationalStatus.FUERA_SERVICIO.ordinal()] == 0;
+    }
+
+    // Cada mitad corresponde a un lote completo de su almacén; las versiones indican cuáles
+    SystemStatistics snapshot() {
+        StationTotals stations = stationView;
+        ReservoirTotals reservoirs = reservoirView;
+
+        SystemStatistics statistics = new SystemStatistics();
+        statistics.setTotalStations(stations.total);
+        statistics.setTotalReservoirs(reservoirs.total);
+        statistics.setAlertStations(stations.total - stations.byAlert[WaterLevel.AlertStatus.NORMAL.ordinal()]);
+
+        Map<WaterLevel.AlertStatus, Integer> byAlert = new EnumMap<>(WaterLevel.AlertStatus.class);
+        for (WaterLevel.AlertStatus status : ALERT_STATUSES) {
+            byAlert.put(status, stations.byAlert[status.ordinal()]);
+        }
+        statistics.setStationsByAlertStatus(byAlert);
+
+        Map<Reservoir.OperationalStatus, Integer> byStatus = new EnumMap<>(Reservoir.OperationalStatus.class);
+        for (Reservoir.OperationalStatus status : OPERATIONAL_STATUSES) {
+            byStatus.put(status, reservoirs.byStatus[status.ordinal()]);
+        }
+        statistics.setReservoirsByStatus(byStatus);
+
+        statistics.setAverageFillPercentage(reservoirs.averageFill);
+        statistics.setMinFillPercentage(reservoirs.minFill);
+        statistics.setMaxFillPercentage(reservoirs.maxFill);
+        statistics.setTotalCapacity(reservoirs.capacity);
+        statistics.setTotalVolume(reservoirs.volume);
+        statistics.setBasins(reservoirs.basins);
+
+        statistics.setHealthy(isHealthy(stations, reservoirs));
+        statistics.setLastUpdated(toDateTime(Math.max(stations.lastUpdated, reservoirs.lastUpdated)));
+        statistics.setWaterLevelsVersion(stations.version);
+        statistics.setReservoirsVersion(reservoirs.version);
+        return statistics;
+    }
+
+    private static LocalDateTime toDateTime(long epochMilli) {
+        return epochMilli == Reservoir.NO_TIMESTAMP
+                ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    private static double valueOrZero(double value) {
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    // Suma de Kahan-Babuška-Neumaier: el término de compensación recoge lo que se pierde al redondear
+    private static final class CompensatedSum {
+        double sum;
+        double compensation;
+
+        void add(double value) {
+            double total = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - total) + value;
+            } else {
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+
+        void reset() {
+            sum = 0.0;
+            compensation = 0.0;
+        }
+    }
+
+    private static final class BasinTotals {
+        int reservoirs;
+        final CompensatedSum capacity = new CompensatedSum();
+        final CompensatedSum volume = new CompensatedSum();
+        final CompensatedSum outflow = new CompensatedSum();
+    }
+
+    private static final class StationTotals {
+        final long version;
+        final int total;
+        final int[] byAlert;
+        final long lastUpdated;
+
+        StationTotals(long version, int total, int[] byAlert, long lastUpdated) {
+            this.version = version;
+            this.total = total;
+            this.byAlert = byAlert;
+            this.lastUpdated = lastUpdated;
+        }
+    }
+
+    private static final class ReservoirTotals {
+        final long version;
+        final int total;
+        final int[] byStatus;
+        final double averageFill;
+        final Double minFill;
+        final Double maxFill;
+        final double capacity;
+        final double volume;
+        final List<SystemStatistics.BasinStatistics> basins;
+        final long lastUpdated;
+
+        ReservoirTotals(long version, int total, int[] byStatus, double averageFill, Double minFill, Double maxFill,
+                        double capacity, double volume, List<SystemStatistics.BasinStatistics> basins,
+                        long lastUpdated) {
+            this.version = version;
+            this.total = total;
+            this.byStatus = byStatus;
+            this.averageFill = averageFill;
+            this.minFill = minFill;
+            this.maxFill = maxFill;
+            this.capacity = capacity;
+            this.volume = volume;
+            this.basins = basins;
+            this.lastUpdated = lastUpdated;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hidrologia.service;
+
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.List;
+
+// Formatos de respuesta negociables. Los binarios comparten el esquema del JSON
+// (mismos nombres y tipos de campo); solo cambia la codificación
+public enum WireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(WireFormat.APPLICATION_CBOR),
+    SMILE(WireFormat.APPLICATION_SMILE);
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    private static final WireFormat[] FORMATS = values();
+
+    private final String mediaType;
+    private final MediaType type;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+        this.type = MediaType.valueOf(mediaType);
+    }
+
+    public String getMediaType() { return mediaType; }
+
+    public MediaType getType() { return type; }
+
+    // Primer formato compatible según el orden de preferencia de Accept; JSON por defecto
+    public static WireFormat negotiate(List<MediaType> acceptable) {
+        for (MediaType accepted : acceptable) {
+            for (WireFormat format : FORMATS) {
+                if (accepted.isCompatible(format.type)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    public static WireFormat of(MediaType mediaType) {
+        for (WireFormat format : FORMATS) {
+            if (format.type.isCompatible(mediaType)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+}
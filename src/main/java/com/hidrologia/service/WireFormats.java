@@ -0,0 +1,26 @@
+package com.hidrologia.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Un ObjectMapper por formato, copiados del de la aplicación para conservar
+// módulos y configuración (fechas ISO-8601, campos nulos, etc.)
+@ApplicationScoped
+public class WireFormats {
+
+    private final ObjectMapper[] mappers = new ObjectMapper[WireFormat.values().length];
+
+    @Inject
+    public WireFormats(ObjectMapper objectMapper) {
+        mappers[WireFormat.JSON.ordinal()] = objectMapper;
+        mappers[WireFormat.CBOR.ordinal()] = objectMapper.copyWith(new CBORFactory());
+        mappers[WireFormat.SMILE.ordinal()] = objectMapper.copyWith(new SmileFactory());
+    }
+
+    public ObjectMapper mapper(WireFormat format) {
+        return mappers[format.ordinal()];
+    }
+}
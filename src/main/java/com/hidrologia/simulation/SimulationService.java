@@ -0,0 +1,114 @@
+package com.hidrologia.simulation;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.AlertRuleService;
+import com.hidrologia.service.HidrologiaService;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Modo de carga sintética: genera N estaciones/embalses y los actualiza periódicamente
+@ApplicationScoped
+public class SimulationService {
+
+    private static final Logger LOG = Logger.getLogger(SimulationService.class);
+
+    @Inject
+    HidrologiaService hidrologiaService;
+
+    @Inject
+    AlertRuleService alertRuleService;
+
+    @ConfigProperty(name = "hidrologia.simulation.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "hidrologia.simulation.stations", defaultValue = "1000")
+    int stationCount;
+
+    @ConfigProperty(name = "hidrologia.simulation.reservoirs", defaultValue = "200")
+    int reservoirCount;
+
+    @ConfigProperty(name = "hidrologia.simulation.seed", defaultValue = "42")
+    long seed;
+
+    @ConfigProperty(name = "hidrologia.simulation.tick-ms", defaultValue = "100")
+    long tickMillis;
+
+    @ConfigProperty(name = "hidrologia.simulation.updates-per-second", defaultValue = "10000")
+    int updatesPerSecond;
+
+    @ConfigProperty(name = "hidrologia.simulation.hours-per-update", defaultValue = "0.25")
+    double hoursPerUpdate;
+
+    private SyntheticDataGenerator generator;
+    private ScheduledExecutorService scheduler;
+    private int stationUpdatesPerTick;
+    private int reservoirUpdatesPerTick;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        generator = new SyntheticDataGenerator(seed);
+        List<WaterLevel> levels = generator.generateWaterLevels(stationCount, now);
+        List<Reservoir> generated = generator.generateReservoirs(reservoirCount, now);
+        // Las reglas se registran antes de la primera escritura para que ya se apliquen en ella
+        generator.waterLevelRules().forEach(alertRuleService::putWaterLevelRule);
+        generator.reservoirRules().forEach(alertRuleService::putReservoirRule);
+        hidrologiaService.saveWaterLevels(levels);
+        hidrologiaService.saveReservoirs(generated);
+
+        // Reparto del ritmo de actualizaciones proporcional al número de entidades
+        long updatesPerTick = Math.max(1L, (long) updatesPerSecond * tickMillis / 1000L);
+        int total = Math.max(1, stationCount + reservoirCount);
+        stationUpdatesPerTick = (int) (updatesPerTick * stationCount / total);
+        reservoirUpdatesPerTick = (int) (updatesPerTick * reservoirCount / total);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hidrologia-simulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        LOG.infof("Simulación activa: %d estaciones, %d embalses, %d actualizaciones/s (semilla %d)",
+                stationCount, reservoirCount, updatesPerSecond, seed);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Cada tick se aplica como un único lote por tipo de entidad
+    void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (stationUpdatesPerTick > 0) {
+                List<WaterLevel> levels = generator.advanceWaterLevels(stationUpdatesPerTick, now);
+                hidrologiaService.saveWaterLevels(levels);
+            }
+            if (reservoirUpdatesPerTick > 0) {
+                List<Reservoir> updated = generator.advanceReservoirs(reservoirUpdatesPerTick, hoursPerUpdate, now);
+                hidrologiaService.saveReservoirs(updated);
+            }
+        } catch (Exception e) {
+            // Una excepción no capturada cancelaría la tarea programada
+            LOG.error("Error en tick de simulación", e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.hidrologia.simulation;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirAlertRule;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelAlertRule;
+import com.hidrologia.network.River;
+import com.hidrologia.network.RiverCatalog;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Generador determinista de estaciones y embalses sintéticos.
+// El estado numérico de la simulación vive en arrays primitivos; cada avance produce
+// copias nuevas de los registros para no mutar objetos visibles por los lectores.
+public class SyntheticDataGenerator {
+
+    private static final String[] RIVERS = {
+        "Río Ebro", "Río Tajo", "Río Duero", "Río Guadiana", "Río Guadalquivir",
+        "Río Júcar", "Río Segura", "Río Miño", "Río Genil", "Río Esla"
+    };
+
+    private static final double[] RIVER_LENGTHS_KM = Arrays.stream(RIVERS)
+        .mapToDouble(river -> RiverCatalog.find(river).map(River::getLengthKm).orElse(100.0))
+        .toArray();
+
+    private static final String[] LOCATIONS = {
+        "Zaragoza, Aragón", "Toledo, Castilla-La Mancha", "Zamora, Castilla y León",
+        "Badajoz, Extremadura", "Sevilla, Andalucía", "Valencia, Comunidad Valenciana",
+        "Murcia, Región de Murcia", "Ourense, Galicia", "Granada, Andalucía", "León, Castilla y León"
+    };
+
+    // Latitud y longitud de cada localidad de LOCATIONS
+    private static final double[][] LOCATION_COORDINATES = {
+        {41.6561, -0.8773}, {39.8628, -4.0273}, {41.5034, -5.7467},
+        {38.8794, -6.9707}, {37.3828, -5.9732}, {39.4699, -0.3763},
+        {37.9922, -1.1307}, {42.3358, -7.8639}, {37.1773, -3.5986}, {42.5987, -5.5671}
+    };
+
+    // Dispersión máxima en grados alrededor de la localidad
+    private static final double COORDINATE_SPREAD = 0.5;
+
+    private static final WaterLevel.WaterType[] WATER_TYPES = WaterLevel.WaterType.values();
+    private static final Reservoir.PrimaryUse[] PRIMARY_USES = Reservoir.PrimaryUse.values();
+
+    private final SplittableRandom random;
+
+    private WaterLevel[] stations = new WaterLevel[0];
+    private double[] baseLevel = new double[0];
+    private double[] baseFlow = new double[0];
+    private int nextStation;
+
+    private Reservoir[] reservoirs = new Reservoir[0];
+    private double[] inflow = new double[0];
+    private int nextReservoir;
+
+    public SyntheticDataGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // ========== Generación inicial ==========
+
+    public List<WaterLevel> generateWaterLevels(int count, LocalDateTime now) {
+        stations = new WaterLevel[count];
+        baseLevel = new double[count];
+        baseFlow = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            int river = random.nextInt(RIVERS.length);
+            WaterLevel.WaterType type = WATER_TYPES[weightedTypeIndex()];
+            baseLevel[i] = type == WaterLevel.WaterType.EMBALSE ? 8.0 + random.nextDouble() * 20.0 : 0.8 + random.nextDouble() * 3.5;
+            baseFlow[i] = 10.0 + random.nextDouble() * 250.0;
+            int location = random.nextInt(LOCATIONS.length);
+
+            stations[i] = new WaterLevel(
+                String.format("SIM_HIDRO_%05d", i + 1),
+                RIVERS[river] + " - Estación simulada " + (i + 1),
+                round2(baseLevel[i]),
+                round2(baseFlow[i]),
+                type,
+                WaterLevel.AlertStatus.NORMAL,
+                LOCATIONS[location],
+                latitude(location),
+                longitude(location),
+                now,
+                round2(8.0 + random.nextDouble() * 16.0),
+                "Estación generada por el simulador"
+            );
+            stations[i].setRiver(RIVERS[river]);
+            stations[i].setRiverKm(riverKm(river));
+        }
+        nextStation = 0;
+        return List.of(stations);
+    }
+
+    public List<Reservoir> generateReservoirs(int count, LocalDateTime now) {
+        reservoirs = new Reservoir[count];
+        inflow = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            double capacity = 50.0 + random.nextDouble() * 3000.0;
+            double volume = capacity * (0.2 + random.nextDouble() * 0.7);
+            double outflow = 2.0 + random.nextDouble() * 60.0;
+            inflow[i] = outflow * (0.8 + random.nextDouble() * 0.4);
+            int location = random.nextInt(LOCATIONS.length);
+            int river = random.nextInt(RIVERS.length);
+
+            reservoirs[i] = new Reservoir(
+                String.format("SIM_EMB_%05d", i + 1),
+                "Embalse simulado " + (i + 1),
+                round2(capacity),
+                round2(volume),
+                round1(volume / capacity * 100.0),
+                PRIMARY_USES[random.nextInt(PRIMARY_USES.length)],
+                Reservoir.OperationalStatus.OPERATIVO,
+                LOCATIONS[location],
+                latitude(location),
+                longitude(location),
+                RIVERS[river],
+                1940 + random.nextInt(70),
+                round1(20.0 + random.nextDouble() * 110.0),
+                round1(100.0 + random.nextDouble() * 600.0),
+                round2(outflow),
+                now,
+                "Embalse generado por el simulador"
+            );
+            reservoirs[i].setRiverKm(riverKm(river));
+        }
+        nextReservoir = 0;
+        return List.of(reservoirs);
+    }
+
+    // ========== Avance de la simulación ==========
+
+    // Avanza 'count' estaciones en orden circular (paseo aleatorio con reversión a la media)
+    public List<WaterLevel> advanceWaterLevels(int count, LocalDateTime now) {
+        int total = stations.length;
+        List<WaterLevel> updated = new ArrayList<>(Math.min(count, total));
+        for (int n = 0; n < count && n < total; n++) {
+            int i = nextStation;
+            nextStation = (nextStation + 1) % total;
+
+            WaterLevel current = stations[i];
+            double level = current.waterLevelOrNaN();
+            level += (baseLevel[i] - level) * 0.05 + random.nextGaussian() * baseLevel[i] * 0.03;
+            level = Math.max(0.05, level);
+            double flow = Math.max(0.1, baseFlow[i] * (level / baseLevel[i]) * (0.95 + random.nextDouble() * 0.1));
+
+            WaterLevel next = new WaterLevel(current);
+            next.setWaterLevel(round2(level));
+            next.setFlow(round2(flow));
+            next.setLastUpdated(now);
+            stations[i] = next;
+            updated.add(next);
+        }
+        return updated;
+    }
+
+    // Avanza 'count' embalses con un balance de entradas/salidas de 'hours' horas
+    public List<Reservoir> advanceReservoirs(int count, double hours, LocalDateTime now) {
+        int total = reservoirs.length;
+        List<Reservoir> updated = new ArrayList<>(Math.min(count, total));
+        for (int n = 0; n < count && n < total; n++) {
+            int i = nextReservoir;
+            nextReservoir = (nextReservoir + 1) % total;
+
+            Reservoir current = reservoirs[i];
+            double capacity = current.maxCapacityOrNaN();
+            double outflow = Math.max(0.0, current.outflowOrNaN() * (0.97 + random.nextDouble() * 0.06));
+            inflow[i] = Math.max(0.0, inflow[i] * (0.97 + random.nextDouble() * 0.06));
+            // Caudales en m³/s, volumen en hm³
+            double delta = (inflow[i] - outflow) * hours * 3600.0 / 1_000_000.0;
+            double volume = Math.min(capacity, Math.max(0.01, current.currentVolumeOrNaN() + delta));
+
+            Reservoir next = new Reservoir(current);
+            next.setCurrentVolume(round2(volume));
+            next.setFillPercentage(round1(volume / capacity * 100.0));
+            next.setOutflow(round2(outflow));
+            next.setLastUpdated(now);
+            reservoirs[i] = next;
+            updated.add(next);
+        }
+        return updated;
+    }
+
+    // ========== Reglas de alerta ==========
+
+    // Umbrales relativos al nivel base de cada estación; el estado lo fija el motor de reglas.
+    // Sin regla de subida de caudal: los avances son demasiado frecuentes para una tasa horaria
+    public List<WaterLevelAlertRule> waterLevelRules() {
+        List<WaterLevelAlertRule> rules = new ArrayList<>(stations.length);
+        for (int i = 0; i < stations.length; i++) {
+            rules.add(new WaterLevelAlertRule(
+                stations[i].getStationId(),
+                round2(baseLevel[i] * 1.15),
+                round2(baseLevel[i] * 1.3),
+                round2(baseLevel[i] * 1.5),
+                round2(baseLevel[i] * 0.6),
+                null,
+                null
+            ));
+        }
+        return rules;
+    }
+
+    public List<ReservoirAlertRule> reservoirRules() {
+        List<ReservoirAlertRule> rules = new ArrayList<>(reservoirs.length);
+        for (Reservoir reservoir : reservoirs) {
+            rules.add(new ReservoirAlertRule(reservoir.getReservoirId(), 98.0, 5.0, null, null));
+        }
+        return rules;
+    }
+
+    private int weightedTypeIndex() {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return WaterLevel.WaterType.RIO.ordinal();
+        } else if (roll < 85) {
+            return WaterLevel.WaterType.EMBALSE.ordinal();
+        } else if (roll < 93) {
+            return WaterLevel.WaterType.LAGO.ordinal();
+        }
+        return WaterLevel.WaterType.ACUIFERO.ordinal();
+    }
+
+    // Punto kilométrico al azar a lo largo del río
+    private double riverKm(int river) {
+        return round1(random.nextDouble() * RIVER_LENGTHS_KM[river]);
+    }
+
+    private double latitude(int location) {
+        return round4(LOCATION_COORDINATES[location][0] + (random.nextDouble() * 2.0 - 1.0) * COORDINATE_SPREAD);
+    }
+
+    private double longitude(int location) {
+        return round4(LOCATION_COORDINATES[location][1] + (random.nextDouble() * 2.0 - 1.0) * COORDINATE_SPREAD);
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+}
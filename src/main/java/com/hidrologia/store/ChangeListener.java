@@ -0,0 +1,10 @@
+package com.hidrologia.store;
+
+// Se invoca al publicar cada lote, con el lote ya visible y todavía dentro del bloqueo de escritura
+// del almacén; debe ser rápido y no bloquear
+@FunctionalInterface
+public interface ChangeListener<T> {
+
+    // previous es null cuando el elemento es nuevo
+    void onChange(T previous, T current);
+}
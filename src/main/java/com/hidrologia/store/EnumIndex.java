@@ -0,0 +1,24 @@
+package com.hidrologia.store;
+
+import java.util.function.Function;
+
+// Índice secundario por valor de enum. Las posiciones de cada valor se guardan como mapa de
+// bits dentro de cada versión del almacén; esta clase solo identifica el índice
+public final class EnumIndex<E extends Enum<E>, T> {
+
+    final int position;
+    final int keyCount;
+    private final Function<T, E> keyExtractor;
+
+    EnumIndex(int position, Class<E> keyType, Function<T, E> keyExtractor) {
+        this.position = position;
+        this.keyCount = keyType.getEnumConstants().length;
+        this.keyExtractor = keyExtractor;
+    }
+
+    // -1 si el elemento no tiene valor para este índice
+    int ordinal(T value) {
+        E key = keyExtractor.apply(value);
+        return key == null ? -1 : key.ordinal();
+    }
+}
@@ -0,0 +1,302 @@
+package com.hidrologia.store;
+
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+// Almacén en memoria con índice por ID e índices secundarios por enum. Cada lote de escritura
+// publica una nueva versión inmutable (StoreState) con un único cambio de referencia: los
+// lectores nunca esperan ni ven lotes a medio aplicar, y solo los escritores se sincronizan
+public class IndexedStore<T> {
+
+    private static final Logger LOG = Logger.getLogger(IndexedStore.class);
+
+    private final Function<T, String> idExtractor;
+    // Posición de cada ID. Las posiciones no cambian y solo se añaden; una posición fuera del
+    // tamaño de la versión leída corresponde a un alta aún no publicada
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final List<EnumIndex<?, T>> indexes = new ArrayList<>();
+    private final List<ChangeListener<T>> listeners = new ArrayList<>();
+    private final List<LongConsumer> commitListeners = new ArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @SuppressWarnings("unchecked")
+    private volatile StoreState<T> state = (StoreState<T>) StoreState.EMPTY;
+
+    public IndexedStore(Function<T, String> idExtractor) {
+        this.idExtractor = idExtractor;
+    }
+
+    public <E extends Enum<E>> EnumIndex<E, T> addIndex(Class<E> keyType, Function<T, E> keyExtractor) {
+        writeLock.lock();
+        try {
+            StoreState<T> current = state;
+            EnumIndex<E, T> index = new EnumIndex<>(indexes.size(), keyType, keyExtractor);
+            long[][] bitmaps = new long[index.keyCount][];
+            int[] counts = new int[index.keyCount];
+            Arrays.fill(bitmaps, new long[0]);
+            for (int slot = 0; slot < current.size; slot++) {
+                int ordinal = index.ordinal(current.item(slot));
+                if (ordinal >= 0) {
+                    long[] words = bitmaps[ordinal];
+                    if (words.length <= slot >>> 6) {
+                        words = bitmaps[ordinal] = Arrays.copyOf(words, wordsFor(current.size));
+                    }
+                    words[slot >>> 6] |= 1L << slot;
+                    counts[ordinal]++;
+                }
+            }
+            indexes.add(index);
+            long[][][] allBitmaps = Arrays.copyOf(current.bitmaps, indexes.size());
+            int[][] allCounts = Arrays.copyOf(current.counts, indexes.size());
+            allBitmaps[index.position] = bitmaps;
+            allCounts[index.position] = counts;
+            state = new StoreState<>(current.chunks, current.size, current.version, allBitmaps, allCounts);
+            return index;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Los listeners reciben primero el estado actual como altas, para partir de un agregado consistente
+    public void addListener(ChangeListener<T> listener) {
+        writeLock.lock();
+        try {
+            for (T value : state.values()) {
+                listener.onChange(null, value);
+            }
+            listeners.add(listener);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Recibe la versión recién publicada, después de los ChangeListener y todavía dentro del bloqueo de escritura
+    public void addCommitListener(LongConsumer listener) {
+        writeLock.lock();
+        try {
+            commitListeners.add(listener);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ========== Escritura ==========
+
+    public Optional<T> put(T value) {
+        String id = requireId(value);
+        writeLock.lock();
+        try {
+            Batch batch = new Batch(state);
+            T previous;
+            try {
+                previous = batch.put(id, value);
+            } catch (RuntimeException e) {
+                batch.abort();
+                throw e;
+            }
+            batch.publish();
+            return Optional.ofNullable(previous);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void putAll(Collection<? extends T> values) {
+        // Los IDs se validan antes de aplicar nada, para no dejar un lote a medias
+        String[] ids = new String[values.size()];
+        int i = 0;
+        for (T value : values) {
+            ids[i++] = requireId(value);
+        }
+
+        writeLock.lock();
+        try {
+            Batch batch = new Batch(state);
+            try {
+                i = 0;
+                for (T value : values) {
+                    batch.put(ids[i++], value);
+                }
+            } catch (RuntimeException e) {
+                batch.abort();
+                throw e;
+            }
+            batch.publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private String requireId(T value) {
+        String id = idExtractor.apply(value);
+        if (id == null) {
+            throw new IllegalArgumentException("El elemento no tiene ID");
+        }
+        return id;
+    }
+
+    // ========== Lectura (sin bloqueos) ==========
+
+    public Optional<T> get(String id) {
+        StoreState<T> current = state;
+        Integer slot = slots.get(id);
+        return slot == null || slot >= current.size ? Optional.empty() : Optional.of(current.item(slot));
+    }
+
+    public SnapshotList<T> values() {
+        return state.values();
+    }
+
+    public <E extends Enum<E>> SnapshotList<T> find(EnumIndex<E, T> index, E key) {
+        return state.find(index.position, key.ordinal());
+    }
+
+    public StoreQuery.Result<T> find(StoreQuery<T> query) {
+        return state.find(query, slots);
+    }
+
+    public <E extends Enum<E>> int count(EnumIndex<E, T> index, E key) {
+        return state.counts[index.position][key.ordinal()];
+    }
+
+    // Se incrementa con cada lote publicado; permite invalidar vistas derivadas
+    public long version() {
+        return state.version;
+    }
+
+    public int size() {
+        return state.size;
+    }
+
+    private static int wordsFor(int slots) {
+        return (slots + 63) >>> 6;
+    }
+
+    // Copia de trabajo de un lote: solo se copian los bloques y mapas de bits que el lote modifica.
+    // Los cambios se acumulan y se notifican al publicar, para que ningún listener vea un lote que
+    // después no llega a publicarse
+    private final class Batch {
+
+        private final StoreState<T> base;
+        private Object[][] chunks;
+        private boolean[] chunkCopied;
+        private int size;
+        private final long[][][] bitmaps;
+        private final boolean[][] bitmapCopied;
+        private final int[][] counts;
+        private final List<String> added = new ArrayList<>();
+        private final List<T> previousValues = new ArrayList<>();
+        private final List<T> currentValues = new ArrayList<>();
+
+        Batch(StoreState<T> base) {
+            this.base = base;
+            this.chunks = base.chunks.clone();
+            this.chunkCopied = new boolean[chunks.length];
+            this.size = base.size;
+            this.bitmaps = new long[base.bitmaps.length][][];
+            this.bitmapCopied = new boolean[base.bitmaps.length][];
+            this.counts = new int[base.counts.length][];
+            for (int index = 0; index < bitmaps.length; index++) {
+                bitmaps[index] = base.bitmaps[index].clone();
+                bitmapCopied[index] = new boolean[bitmaps[index].length];
+                counts[index] = base.counts[index].clone();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T put(String id, T value) {
+            Integer existing = slots.get(id);
+            int slot;
+            T previous = null;
+            if (existing == null) {
+                slot = size++;
+                slots.put(id, slot);
+                added.add(id);
+            } else {
+                slot = existing;
+                previous = (T) chunks[slot >>> StoreState.CHUNK_BITS][slot & StoreState.CHUNK_MASK];
+            }
+            writableChunk(slot >>> StoreState.CHUNK_BITS)[slot & StoreState.CHUNK_MASK] = value;
+
+            for (EnumIndex<?, T> index : indexes) {
+                int oldKey = previous == null ? -1 : index.ordinal(previous);
+                int newKey = index.ordinal(value);
+                if (oldKey != newKey) {
+                    if (oldKey >= 0) {
+                        writableWords(index.position, oldKey, slot)[slot >>> 6] &= ~(1L << slot);
+                        counts[index.position][oldKey]--;
+                    }
+                    if (newKey >= 0) {
+                        writableWords(index.position, newKey, slot)[slot >>> 6] |= 1L << slot;
+                        counts[index.position][newKey]++;
+                    }
+                }
+            }
+
+            previousValues.add(previous);
+            currentValues.add(value);
+            return previous;
+        }
+
+        // El lote no se publica: las posiciones reservadas se liberan para el siguiente
+        void abort() {
+            added.forEach(slots::remove);
+        }
+
+        // Un listener que falla no impide notificar a los demás: el lote ya es visible para los lectores
+        void publish() {
+            StoreState<T> published = new StoreState<>(chunks, size, base.version + 1, bitmaps, counts);
+            state = published;
+            for (ChangeListener<T> listener : listeners) {
+                try {
+                    for (int change = 0; change < currentValues.size(); change++) {
+                        listener.onChange(previousValues.get(change), currentValues.get(change));
+                    }
+                } catch (RuntimeException e) {
+                    LOG.error("Error en un listener de cambios del almacén", e);
+                }
+            }
+            for (LongConsumer listener : commitListeners) {
+                try {
+                    listener.accept(published.version);
+                } catch (RuntimeException e) {
+                    LOG.error("Error en un listener de publicación del almacén", e);
+                }
+            }
+        }
+
+        private Object[] writableChunk(int chunk) {
+            if (chunk >= chunks.length) {
+                int length = Math.max(chunk + 1, chunks.length + (chunks.length >> 1));
+                chunks = Arrays.copyOf(chunks, length);
+                chunkCopied = Arrays.copyOf(chunkCopied, length);
+            }
+            if (!chunkCopied[chunk]) {
+                chunks[chunk] = chunks[chunk] == null ? new Object[StoreState.CHUNK_SIZE] : chunks[chunk].clone();
+                chunkCopied[chunk] = true;
+            }
+            return chunks[chunk];
+        }
+
+        private long[] writableWords(int index, int key, int slot) {
+            long[] words = bitmaps[index][key];
+            int needed = (slot >>> 6) + 1;
+            if (!bitmapCopied[index][key] || words.length < needed) {
+                int length = words.length >= needed ? words.length : Math.max(needed, wordsFor(size) + (words.length >> 1));
+                words = bitmaps[index][key] = Arrays.copyOf(words, length);
+                bitmapCopied[index][key] = true;
+            }
+            return words;
+        }
+    }
+}
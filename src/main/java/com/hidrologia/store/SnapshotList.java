@@ -0,0 +1,37 @@
+package com.hidrologia.store;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+// Vista inmutable de solo lectura sobre los bloques de una versión del almacén; no copia elementos
+public final class SnapshotList<T> extends AbstractList<T> implements RandomAccess, Versioned {
+
+    private final Object[][] chunks;
+    private final int size;
+    private final long version;
+
+    SnapshotList(Object[][] chunks, int size, long version) {
+        this.chunks = chunks;
+        this.size = size;
+        this.version = version;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (T) chunks[index >>> StoreState.CHUNK_BITS][index & StoreState.CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+}
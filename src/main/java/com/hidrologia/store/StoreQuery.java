@@ -0,0 +1,54 @@
+package com.hidrologia.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Consulta conjuntiva sobre una versión del almacén: un conjunto de IDs, valores admitidos por
+// índice de enum (cualquiera de ellos) y una condición sobre el elemento. IDs e índices se
+// resuelven como mapas de bits y se intersectan palabra a palabra; la condición solo se evalúa
+// sobre los elementos que sobreviven a la intersección
+public final class StoreQuery<T> {
+
+    Collection<String> ids;
+    final List<EnumIndex<?, T>> indexes = new ArrayList<>();
+    final List<int[]> ordinals = new ArrayList<>();
+    Predicate<T> condition;
+
+    // Solo estos IDs; sin llamar, todos los elementos
+    public StoreQuery<T> ids(Collection<String> ids) {
+        this.ids = ids;
+        return this;
+    }
+
+    // Elementos cuyo valor en el índice es alguno de 'keys'; con 'keys' vacío no filtra
+    public <E extends Enum<E>> StoreQuery<T> anyOf(EnumIndex<E, T> index, Collection<E> keys) {
+        if (keys != null && !keys.isEmpty()) {
+            indexes.add(index);
+            ordinals.add(keys.stream().mapToInt(Enum::ordinal).distinct().toArray());
+        }
+        return this;
+    }
+
+    public StoreQuery<T> where(Predicate<T> condition) {
+        this.condition = this.condition == null ? condition : this.condition.and(condition);
+        return this;
+    }
+
+    // Elementos encontrados, en orden de alta, y los IDs pedidos que no existen en esa versión
+    public static final class Result<T> {
+
+        private final SnapshotList<T> items;
+        private final List<String> missingIds;
+
+        Result(SnapshotList<T> items, List<String> missingIds) {
+            this.items = items;
+            this.missingIds = missingIds;
+        }
+
+        public SnapshotList<T> getItems() { return items; }
+
+        public List<String> getMissingIds() { return missingIds; }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hidrologia.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// Versión inmutable del almacén. Los elementos viven en bloques de tamaño fijo por posición;
+// una escritura copia solo los bloques que modifica y comparte el resto con la versión anterior.
+// Cada índice guarda un mapa de bits de posiciones por valor de enum, copiado solo para los
+// valores que cambian
+final class StoreState<T> {
+
+    static final int CHUNK_BITS = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static final StoreState<?> EMPTY = new StoreState<>(new Object[0][], 0, 0L, new long[0][][], new int[0][]);
+
+    final Object[][] chunks;
+    final int size;
+    final long version;
+    // [índice][ordinal del valor] -> palabras del mapa de bits de posiciones
+    final long[][][] bitmaps;
+    // [índice][ordinal del valor] -> número de elementos
+    final int[][] counts;
+
+    StoreState(Object[][] chunks, int size, long version, long[][][] bitmaps, int[][] counts) {
+        this.chunks = chunks;
+        this.size = size;
+        this.version = version;
+        this.bitmaps = bitmaps;
+        this.counts = counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    T item(int slot) {
+        return (T) chunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    SnapshotList<T> values() {
+        return new SnapshotList<>(chunks, size, version);
+    }
+
+    // Elementos cuyo valor de índice tiene el ordinal dado, en orden de posición
+    SnapshotList<T> find(int index, int ordinal) {
+        int count = counts[index][ordinal];
+        Object[][] matches = new Object[(count + CHUNK_MASK) >>> CHUNK_BITS][];
+        for (int c = 0; c < matches.length; c++) {
+            matches[c] = new Object[Math.min(CHUNK_SIZE, count - (c << CHUNK_BITS))];
+        }
+        long[] words = bitmaps[index][ordinal];
+        int found = 0;
+        for (int w = 0; w < words.length && found < count; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                matches[found >>> CHUNK_BITS][found & CHUNK_MASK] = item(slot);
+                found++;
+                word &= word - 1;
+            }
+        }
+        return new SnapshotList<>(matches, count, version);
+    }
+
+    // Una sola pasada por palabras de 64 posiciones: cada palabra parte de los IDs pedidos (o de
+    // todas las posiciones) y se intersecta con la unión de los valores admitidos de cada índice;
+    // solo las posiciones que quedan se leen y pasan por la condición
+    StoreQuery.Result<T> find(StoreQuery<T> query, Map<String, Integer> slots) {
+        int words = (size + 63) >>> 6;
+        long[] requested = null;
+        List<String> missingIds = new ArrayList<>();
+        if (query.ids != null) {
+            requested = new long[words];
+            for (String id : query.ids) {
+                Integer slot = slots.get(id);
+                if (slot == null || slot >= size) {
+                    missingIds.add(id);
+                } else {
+                    requested[slot >>> 6] |= 1L << slot;
+                }
+            }
+        }
+
+        int filters = query.indexes.size();
+        long[][][] allowed = new long[filters][][];
+        for (int f = 0; f < filters; f++) {
+            int[] ordinals = query.ordinals.get(f);
+            allowed[f] = new long[ordinals.length][];
+            for (int k = 0; k < ordinals.length; k++) {
+                allowed[f][k] = bitmaps[query.indexes.get(f).position][ordinals[k]];
+            }
+        }
+
+        Object[][] matches = new Object[1][];
+        matches[0] = new Object[Math.min(CHUNK_SIZE, Math.max(16, size))];
+        int found = 0;
+        for (int w = 0; w < words; w++) {
+            long word = requested != null ? requested[w] : w < words - 1 || (size & 63) == 0 ? -1L : (1L << size) - 1;
+            for (int f = 0; f < filters && word != 0; f++) {
+                long any = 0;
+                for (long[] bitmap : allowed[f]) {
+                    if (w < bitmap.length) {
+                        any |= bitmap[w];
+                    }
+                }
+                word &= any;
+            }
+            for (; word != 0; word &= word - 1) {
+                T item = item((w << 6) + Long.numberOfTrailingZeros(word));
+                if (query.condition != null && !query.condition.test(item)) {
+                    continue;
+                }
+                int chunk = found >>> CHUNK_BITS;
+                if (chunk == matches.length) {
+                    matches = Arrays.copyOf(matches, chunk + 1);
+                    matches[chunk] = new Object[CHUNK_SIZE];
+                } else if ((found & CHUNK_MASK) == matches[chunk].length) {
+                    matches[chunk] = Arrays.copyOf(matches[chunk], CHUNK_SIZE);
+                }
+                matches[chunk][found & CHUNK_MASK] = item;
+                found++;
+            }
+        }
+        return new StoreQuery.Result<>(new SnapshotList<>(matches, found, version), missingIds);
+    }
+}
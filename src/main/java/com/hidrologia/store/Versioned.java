@@ -0,0 +1,7 @@
+package com.hidrologia.store;
+
+// Resultado calculado a partir de una versión concreta del almacén
+public interface Versioned {
+
+    long getVersion();
+}
@@ -0,0 +1,96 @@
+package com.hidrologia.alerts;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirAlertRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReservoirRulesTest {
+
+    private static final Reservoir.OperationalStatus OPERATIVO = Reservoir.OperationalStatus.OPERATIVO;
+    private static final Reservoir.OperationalStatus EMERGENCIA = Reservoir.OperationalStatus.EMERGENCIA;
+
+    private ReservoirRules rules;
+
+    // Llenado entre 10 % y 95 %, desembalse máximo de 500 m³/s y picos de 3 veces el anterior
+    @BeforeEach
+    void setUp() {
+        rules = new ReservoirRules();
+        rules.put(new ReservoirAlertRule("EMB-001", 95.0, 10.0, 500.0, 3.0));
+    }
+
+    private Reservoir.OperationalStatus evaluate(String reservoirId, Double fill, Double outflow,
+                                                 Reservoir.OperationalStatus status) {
+        Reservoir reservoir = new Reservoir();
+        reservoir.setReservoirId(reservoirId);
+        reservoir.setFillPercentage(fill);
+        reservoir.setOutflow(outflow);
+        reservoir.setStatus(status);
+        rules.apply(List.of(reservoir));
+        return reservoir.getStatus();
+    }
+
+    private Reservoir.OperationalStatus evaluate(Double fill, Double outflow) {
+        return evaluate("EMB-001", fill, outflow, OPERATIVO);
+    }
+
+    @Test
+    void fillBoundsAreInclusive() {
+        assertEquals(OPERATIVO, evaluate(94.9, null));
+        assertEquals(EMERGENCIA, evaluate(95.0, null));
+        assertEquals(OPERATIVO, evaluate(10.1, null));
+        assertEquals(EMERGENCIA, evaluate(10.0, null));
+    }
+
+    @Test
+    void outflowAboveMaximumIsAnEmergency() {
+        assertEquals(OPERATIVO, evaluate(50.0, 499.0));
+        assertEquals(EMERGENCIA, evaluate(50.0, 500.0));
+    }
+
+    @Test
+    void spikeIsRelativeToThePreviousOutflow() {
+        assertEquals(OPERATIVO, evaluate(50.0, 40.0));
+        assertEquals(OPERATIVO, evaluate(50.0, 119.0));
+        assertEquals(OPERATIVO, evaluate(50.0, 40.0));
+        assertEquals(EMERGENCIA, evaluate(50.0, 120.0));
+    }
+
+    @Test
+    void zeroOutflowIsNotASpikeBaseline() {
+        assertEquals(OPERATIVO, evaluate(50.0, 0.0));
+        // Reevaluar la misma lectura con desembalse 0 no es un pico
+        assertEquals(OPERATIVO, evaluate(50.0, 0.0));
+        assertEquals(OPERATIVO, evaluate(50.0, 50.0));
+        // A partir de una base positiva el factor vuelve a aplicarse
+        assertEquals(EMERGENCIA, evaluate(50.0, 150.0));
+    }
+
+    @Test
+    void repeatedReadingIsNotASpike() {
+        assertEquals(OPERATIVO, evaluate(50.0, 80.0));
+        assertEquals(OPERATIVO, evaluate(50.0, 80.0));
+    }
+
+    @Test
+    void disabledThresholdsNeverTrigger() {
+        rules.put(new ReservoirAlertRule("EMB-002", null, null, null, null));
+
+        assertEquals(OPERATIVO, evaluate("EMB-002", 100.0, 10.0, OPERATIVO));
+        assertEquals(OPERATIVO, evaluate("EMB-002", 0.0, 10_000.0, OPERATIVO));
+        assertEquals(OPERATIVO, evaluate("EMB-001", null, null, OPERATIVO));
+    }
+
+    @Test
+    void administrativeStatusesAndUnruledReservoirsAreKept() {
+        assertEquals(Reservoir.OperationalStatus.MANTENIMIENTO,
+                evaluate("EMB-001", 99.0, 900.0, Reservoir.OperationalStatus.MANTENIMIENTO));
+        assertEquals(Reservoir.OperationalStatus.FUERA_SERVICIO,
+                evaluate("EMB-001", 99.0, 900.0, Reservoir.OperationalStatus.FUERA_SERVICIO));
+        assertEquals(EMERGENCIA, evaluate("EMB-999", 50.0, 10.0, EMERGENCIA));
+    }
+}
@@ -0,0 +1,103 @@
+package com.hidrologia.alerts;
+
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.model.WaterLevelAlertRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaterLevelRulesTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 12, 8, 0);
+
+    private WaterLevelRules rules;
+
+    // Bandas 3 / 4 / 5 m, nivel bajo 1 m y subidas de caudal de 50 y 100 m³/s por hora
+    @BeforeEach
+    void setUp() {
+        rules = new WaterLevelRules();
+        rules.put(new WaterLevelAlertRule("EST-001", 3.0, 4.0, 5.0, 1.0, 50.0, 100.0));
+    }
+
+    private static WaterLevel reading(String stationId, Double level, Double flow, LocalDateTime time) {
+        WaterLevel reading = new WaterLevel();
+        reading.setStationId(stationId);
+        reading.setWaterLevel(level);
+        reading.setFlow(flow);
+        reading.setLastUpdated(time);
+        reading.setAlertStatus(WaterLevel.AlertStatus.NORMAL);
+        return reading;
+    }
+
+    private WaterLevel.AlertStatus evaluate(String stationId, Double level, Double flow, LocalDateTime time) {
+        WaterLevel reading = reading(stationId, level, flow, time);
+        rules.apply(List.of(reading));
+        return reading.getAlertStatus();
+    }
+
+    @Test
+    void levelBandsIncludeTheirLowerBound() {
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 2.99, null, null));
+        assertEquals(WaterLevel.AlertStatus.PRECAUCION, evaluate("EST-001", 3.0, null, null));
+        assertEquals(WaterLevel.AlertStatus.ALERTA, evaluate("EST-001", 4.0, null, null));
+        assertEquals(WaterLevel.AlertStatus.EMERGENCIA, evaluate("EST-001", 5.0, null, null));
+        assertEquals(WaterLevel.AlertStatus.PRECAUCION, evaluate("EST-001", 1.0, null, null));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 1.01, null, null));
+    }
+
+    @Test
+    void flowRiseIsMeasuredPerHour() {
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 2.0, 100.0, T0));
+        // +30 m³/s en media hora: 60 por hora
+        assertEquals(WaterLevel.AlertStatus.PRECAUCION, evaluate("EST-001", 2.0, 130.0, T0.plusMinutes(30)));
+        // +60 m³/s en media hora: 120 por hora
+        assertEquals(WaterLevel.AlertStatus.ALERTA, evaluate("EST-001", 2.0, 190.0, T0.plusMinutes(60)));
+        // La subida no rebaja una banda de nivel más alta
+        assertEquals(WaterLevel.AlertStatus.EMERGENCIA, evaluate("EST-001", 5.5, 300.0, T0.plusMinutes(90)));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 2.0, 290.0, T0.plusMinutes(120)));
+    }
+
+    @Test
+    void lateOrRepeatedReadingsDoNotMoveTheFlowBaseline() {
+        evaluate("EST-001", 2.0, 100.0, T0.plusMinutes(60));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 2.0, 500.0, T0));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 2.0, 100.0, T0.plusMinutes(60)));
+        // La base sigue siendo 100 m³/s: +40 en una hora no llega a precaución
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", 2.0, 140.0, T0.plusMinutes(120)));
+    }
+
+    @Test
+    void disabledThresholdsNeverTrigger() {
+        rules.put(new WaterLevelAlertRule("EST-002", null, null, 5.0, null, null, null));
+
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-002", 0.1, 10.0, T0));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-002", 4.99, 10_000.0, T0.plusMinutes(1)));
+        assertEquals(WaterLevel.AlertStatus.EMERGENCIA, evaluate("EST-002", 5.0, 10.0, T0.plusMinutes(2)));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, evaluate("EST-001", null, null, null));
+
+        WaterLevelAlertRule stored = rules.get("EST-002").orElseThrow();
+        assertNull(stored.getPrecautionLevel());
+        assertEquals(Double.valueOf(5.0), stored.getEmergencyLevel());
+    }
+
+    @Test
+    void stationsWithoutRuleKeepTheirStatus() {
+        WaterLevel reading = reading("EST-999", 100.0, 100.0, T0);
+        reading.setAlertStatus(WaterLevel.AlertStatus.ALERTA);
+        rules.apply(List.of(reading));
+        assertEquals(WaterLevel.AlertStatus.ALERTA, reading.getAlertStatus());
+
+        assertTrue(rules.remove("EST-001"));
+        assertFalse(rules.remove("EST-001"));
+        WaterLevel unruled = reading("EST-001", 10.0, null, null);
+        rules.apply(List.of(unruled));
+        assertEquals(WaterLevel.AlertStatus.NORMAL, unruled.getAlertStatus());
+    }
+}
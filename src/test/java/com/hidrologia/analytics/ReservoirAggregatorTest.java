@@ -0,0 +1,123 @@
+package com.hidrologia.analytics;
+
+import com.hidrologia.model.GroupAggregate;
+import com.hidrologia.model.Reservoir;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservoirAggregatorTest {
+
+    private static final double[] PERCENTILES = {0, 25, 50, 90, 99.5, 100};
+
+    @Test
+    void nearestRankPercentiles() {
+        List<Reservoir> reservoirs = new ArrayList<>();
+        // Desordenados para comprobar que se ordenan antes de elegir el rango
+        for (int value : new int[] {7, 3, 10, 1, 5, 9, 2, 8, 4, 6}) {
+            reservoirs.add(reservoir("Ebro", value));
+        }
+
+        GroupAggregate ebro = aggregate(reservoirs).get(0);
+
+        Map<String, Double> percentiles = ebro.getPercentiles();
+        assertEquals(List.of("p0", "p25", "p50", "p90", "p99.5", "p100"), List.copyOf(percentiles.keySet()));
+        assertEquals(Double.valueOf(1.0), percentiles.get("p0"));
+        assertEquals(Double.valueOf(3.0), percentiles.get("p25"));
+        assertEquals(Double.valueOf(5.0), percentiles.get("p50"));
+        assertEquals(Double.valueOf(9.0), percentiles.get("p90"));
+        assertEquals(Double.valueOf(10.0), percentiles.get("p99.5"));
+        assertEquals(Double.valueOf(10.0), percentiles.get("p100"));
+        assertEquals(10, ebro.getCount());
+        assertEquals(Double.valueOf(55.0), ebro.getSum());
+        assertEquals(Double.valueOf(5.5), ebro.getAvg());
+    }
+
+    @Test
+    void singleElementGroup() {
+        GroupAggregate tajo = aggregate(List.of(reservoir("Tajo", 42.5))).get(0);
+
+        assertEquals("Tajo", tajo.getGroup());
+        assertEquals(1, tajo.getCount());
+        assertEquals(Double.valueOf(42.5), tajo.getMin());
+        assertEquals(Double.valueOf(42.5), tajo.getMax());
+        assertEquals(Double.valueOf(42.5), tajo.getAvg());
+        for (Double value : tajo.getPercentiles().values()) {
+            assertEquals(Double.valueOf(42.5), value);
+        }
+    }
+
+    @Test
+    void emptyInputAndGroupsWithoutValues() {
+        assertTrue(aggregate(List.of()).isEmpty());
+
+        // Un grupo con filas pero sin valores aparece con recuento 0 y sin estadísticos
+        List<GroupAggregate> result = aggregate(List.of(reservoir("Duero", Double.NaN), reservoir(null, 3)));
+        assertEquals(List.of("Duero", "SIN_DATO"), result.stream().map(GroupAggregate::getGroup).toList());
+        GroupAggregate duero = result.get(0);
+        assertEquals(0, duero.getCount());
+        assertNull(duero.getSum());
+        assertNull(duero.getMin());
+        assertNull(duero.getPercentiles());
+    }
+
+    @Test
+    void parallelBlocksMatchSequentialComputation() {
+        Random random = new Random(11);
+        String[] rivers = {"Ebro", "Tajo", "Duero", "Guadiana", "Miño"};
+        List<Reservoir> reservoirs = new ArrayList<>();
+        // Varios bloques de filas, para que los parciales se calculen y combinen en paralelo
+        for (int i = 0; i < 70_000; i++) {
+            double value = random.nextInt(20) == 0 ? Double.NaN : random.nextInt(100_000) / 100.0;
+            reservoirs.add(reservoir(rivers[random.nextInt(rivers.length)], value));
+        }
+
+        List<GroupAggregate> result = aggregate(reservoirs);
+
+        assertEquals(rivers.length, result.size());
+        for (GroupAggregate group : result) {
+            double[] values = reservoirs.stream()
+                    .filter(reservoir -> reservoir.getMainRiver().equals(group.getGroup()))
+                    .mapToDouble(Reservoir::fillPercentageOrNaN)
+                    .filter(value -> !Double.isNaN(value))
+                    .sorted()
+                    .toArray();
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            assertEquals(values.length, group.getCount());
+            assertEquals(sum, group.getSum().doubleValue(), 1e-6);
+            assertEquals(Double.valueOf(values[0]), group.getMin());
+            assertEquals(Double.valueOf(values[values.length - 1]), group.getMax());
+            for (double p : PERCENTILES) {
+                int rank = (int) Math.ceil(p / 100.0 * values.length);
+                double expected = values[Math.max(0, rank - 1)];
+                String key = p == Math.rint(p) ? "p" + (long) p : "p" + p;
+                assertEquals(Double.valueOf(expected), group.getPercentiles().get(key), key);
+            }
+        }
+        assertEquals(List.of("Duero", "Ebro", "Guadiana", "Miño", "Tajo"),
+                result.stream().map(GroupAggregate::getGroup).toList());
+    }
+
+    private static List<GroupAggregate> aggregate(List<Reservoir> reservoirs) {
+        ReservoirColumns columns = ReservoirColumns.build(1, reservoirs);
+        return ReservoirAggregator.aggregate(columns, ReservoirDimension.MAIN_RIVER,
+                ReservoirMetric.FILL_PERCENTAGE, PERCENTILES);
+    }
+
+    private static Reservoir reservoir(String river, double fill) {
+        Reservoir reservoir = new Reservoir();
+        reservoir.setMainRiver(river);
+        reservoir.setFillPercentage(Double.isNaN(fill) ? null : fill);
+        return reservoir;
+    }
+}
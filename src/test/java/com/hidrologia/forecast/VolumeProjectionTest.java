@@ -0,0 +1,142 @@
+package com.hidrologia.forecast;
+
+import com.hidrologia.history.TimeSeriesSlice;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.ReservoirForecast;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VolumeProjectionTest {
+
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2024, 3, 10, 12, 0);
+    private static final long DAY = 86_400;
+
+    @Test
+    void horizonsDependOnTrendDirection() {
+        ReservoirTrends trends = trends(Map.of(
+                reservoir("R1", 100, 50), slice(48, 50),
+                reservoir("R2", 100, 50), slice(52, 50),
+                reservoir("R3", 100, 50), slice(50)));
+        double[] daysToFull = new double[3];
+        double[] daysToEmpty = new double[3];
+
+        VolumeProjection.horizons(trends, 0, 3, daysToFull, daysToEmpty);
+
+        int r1 = trends.row("R1");
+        int r2 = trends.row("R2");
+        int r3 = trends.row("R3");
+        assertEquals(25.0, daysToFull[r1], 1e-9);
+        assertTrue(Double.isNaN(daysToEmpty[r1]));
+        assertEquals(25.0, daysToEmpty[r2], 1e-9);
+        assertTrue(Double.isNaN(daysToFull[r2]));
+        assertTrue(Double.isNaN(daysToFull[r3]));
+        assertTrue(Double.isNaN(daysToEmpty[r3]));
+    }
+
+    @Test
+    void projectionIsClampedBetweenZeroAndCapacity() {
+        double[] steps = {1, 2, 3};
+        double[] volumes = new double[3];
+        double[] fill = new double[3];
+
+        VolumeProjection.project(90, 5, 100, steps, volumes, fill);
+        assertArrayEquals(new double[] {95, 100, 100}, volumes, 1e-12);
+        assertArrayEquals(new double[] {95, 100, 100}, fill, 1e-12);
+
+        VolumeProjection.project(4, -3, 200, steps, volumes, fill);
+        assertArrayEquals(new double[] {1, 0, 0}, volumes, 1e-12);
+        assertArrayEquals(new double[] {0.5, 0, 0}, fill, 1e-12);
+    }
+
+    @Test
+    void unknownOrNonPositiveCapacityHasNoUpperBoundNorFill() {
+        double[] steps = {1, 2};
+        for (double capacity : new double[] {Double.NaN, 0, -5}) {
+            double[] volumes = new double[2];
+            double[] fill = new double[2];
+
+            VolumeProjection.project(10, 5, capacity, steps, volumes, fill);
+
+            assertArrayEquals(new double[] {15, 20}, volumes, 1e-12);
+            assertTrue(Double.isNaN(fill[0]) && Double.isNaN(fill[1]), "capacidad " + capacity);
+        }
+
+        ReservoirTrends trends = trends(Map.of(reservoir("R1", 0, 10), slice(8, 10)));
+        ReservoirForecast forecast = VolumeProjection.project(trends, 0, 2);
+        assertNull(forecast.getDaysToFull());
+        assertTrue(Double.isNaN(forecast.getProjectedFillPercentage()[0]));
+        assertArrayEquals(new double[] {12, 14}, forecast.getProjectedVolume(), 1e-9);
+    }
+
+    @Test
+    void singleSampleGivesFlatProjectionWithoutHorizons() {
+        ReservoirTrends trends = trends(Map.of(reservoir("R1", 100, 40), slice(40)));
+
+        ReservoirForecast forecast = VolumeProjection.project(trends, 0, 3);
+
+        assertNull(forecast.getNetFlow());
+        assertNull(forecast.getDaysToFull());
+        assertNull(forecast.getDaysToEmpty());
+        assertEquals(1, forecast.getTrendSamples());
+        assertArrayEquals(new double[] {40, 40, 40}, forecast.getProjectedVolume(), 1e-12);
+        assertArrayEquals(new double[] {40, 40, 40}, forecast.getProjectedFillPercentage(), 1e-12);
+    }
+
+    @Test
+    void projectAllMatchesSingleProjection() {
+        ReservoirTrends trends = trends(Map.of(
+                reservoir("R1", 100, 50), slice(48, 50),
+                reservoir("R2", 80, 20), slice(30, 25, 20)));
+
+        List<ReservoirForecast> all = VolumeProjection.projectAll(trends, 4);
+
+        assertEquals(2, all.size());
+        for (int row = 0; row < 2; row++) {
+            ReservoirForecast single = VolumeProjection.project(trends, row, 4);
+            assertEquals(single.getReservoirId(), all.get(row).getReservoirId());
+            assertEquals(single.getDaysToFull(), all.get(row).getDaysToFull());
+            assertEquals(single.getDaysToEmpty(), all.get(row).getDaysToEmpty());
+            assertArrayEquals(single.getProjectedVolume(), all.get(row).getProjectedVolume());
+        }
+        assertEquals(4.0, all.get(trends.row("R2")).getDaysToEmpty(), 1e-9);
+    }
+
+    // Cada embalse con su histórico: una muestra diaria que termina en la lectura actual
+    private static ReservoirTrends trends(Map<Reservoir, TimeSeriesSlice> history) {
+        List<Reservoir> reservoirs = history.keySet().stream()
+                .sorted((a, b) -> a.getReservoirId().compareTo(b.getReservoirId()))
+                .toList();
+        return ReservoirTrends.build(1, reservoirs, null, history::get);
+    }
+
+    private static Reservoir reservoir(String id, double capacity, double volume) {
+        Reservoir reservoir = new Reservoir();
+        reservoir.setReservoirId(id);
+        reservoir.setName(id);
+        reservoir.setMaxCapacity(capacity);
+        reservoir.setCurrentVolume(volume);
+        reservoir.setOutflow(1.0);
+        reservoir.setLastUpdated(AS_OF);
+        return reservoir;
+    }
+
+    private static TimeSeriesSlice slice(double... volumes) {
+        long last = AS_OF.toEpochSecond(ZoneOffset.UTC);
+        long[] times = new long[volumes.length];
+        double[] outflows = new double[volumes.length];
+        for (int i = 0; i < volumes.length; i++) {
+            times[i] = last - (volumes.length - 1 - i) * DAY;
+            outflows[i] = 1.0;
+        }
+        return new TimeSeriesSlice(times, new double[][] {volumes, outflows});
+    }
+}
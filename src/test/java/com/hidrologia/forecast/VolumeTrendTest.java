@@ -0,0 +1,48 @@
+package com.hidrologia.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VolumeTrendTest {
+
+    private static final long DAY = 86_400;
+    private static final long BASE = 1_700_000_000L;
+
+    @Test
+    void slopeIsLeastSquaresFitPerDay() {
+        long[] times = {BASE, BASE + DAY, BASE + 2 * DAY, BASE + 3 * DAY};
+
+        assertEquals(2.0, VolumeTrend.slopePerDay(times, new double[] {10, 12, 14, 16}), 1e-12);
+        // x = 0..3, y = 1, 3, 2, 5: sxy = 5.5, sxx = 5
+        assertEquals(1.1, VolumeTrend.slopePerDay(times, new double[] {1, 3, 2, 5}), 1e-12);
+        assertEquals(-0.5, VolumeTrend.slopePerDay(new long[] {BASE, BASE + DAY / 2},
+                new double[] {4, 3.75}), 1e-12);
+    }
+
+    @Test
+    void nanSamplesAreIgnored() {
+        long[] times = {BASE, BASE + DAY, BASE + 2 * DAY, BASE + 3 * DAY};
+
+        assertEquals(2.0, VolumeTrend.slopePerDay(times, new double[] {10, Double.NaN, 14, 16}), 1e-12);
+        assertEquals(3, VolumeTrend.validCount(new double[] {10, Double.NaN, 14, 16}));
+        assertEquals(40.0 / 3, VolumeTrend.mean(new double[] {10, Double.NaN, 14, 16}), 1e-12);
+    }
+
+    @Test
+    void slopeNeedsTwoValidSamplesAtDifferentInstants() {
+        assertTrue(Double.isNaN(VolumeTrend.slopePerDay(new long[0], new double[0])));
+        assertTrue(Double.isNaN(VolumeTrend.slopePerDay(new long[] {BASE}, new double[] {5})));
+        assertTrue(Double.isNaN(VolumeTrend.slopePerDay(new long[] {BASE, BASE + DAY},
+                new double[] {Double.NaN, 5})));
+        assertTrue(Double.isNaN(VolumeTrend.slopePerDay(new long[] {BASE, BASE}, new double[] {4, 6})));
+    }
+
+    @Test
+    void meanOfNoValidValuesIsNaN() {
+        assertTrue(Double.isNaN(VolumeTrend.mean(new double[0])));
+        assertTrue(Double.isNaN(VolumeTrend.mean(new double[] {Double.NaN})));
+        assertEquals(0, VolumeTrend.validCount(new double[] {Double.NaN}));
+    }
+}
@@ -0,0 +1,147 @@
+package com.hidrologia.geo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridIndexTest {
+
+    private GridIndex index;
+    private List<String> ids;
+    private List<double[]> points;
+
+    // Puntos aleatorios (con semilla fija) sobre la península
+    @BeforeEach
+    void setUp() {
+        index = new GridIndex(0.25);
+        ids = new ArrayList<>();
+        points = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            double latitude = 36.0 + random.nextDouble() * 7.5;
+            double longitude = -9.0 + random.nextDouble() * 12.0;
+            add("P" + i, latitude, longitude);
+        }
+    }
+
+    private void add(String id, double latitude, double longitude) {
+        index.update(id, latitude, longitude);
+        ids.add(id);
+        points.add(new double[] {latitude, longitude});
+    }
+
+    private List<String> bruteForceNearest(double latitude, double longitude, int k) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble(i -> GridIndex.distanceKm(latitude, longitude, points.get(i)[0], points.get(i)[1])));
+        return order.stream().limit(k).map(ids::get).collect(Collectors.toList());
+    }
+
+    private static List<String> idsOf(List<GeoHit> hits) {
+        return hits.stream().map(GeoHit::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int query = 0; query < 200; query++) {
+            double latitude = 35.0 + random.nextDouble() * 9.5;
+            double longitude = -10.0 + random.nextDouble() * 14.0;
+            int k = 1 + random.nextInt(12);
+            assertEquals(bruteForceNearest(latitude, longitude, k), idsOf(index.nearest(latitude, longitude, k)),
+                    "origen " + latitude + "," + longitude + " k=" + k);
+        }
+    }
+
+    @Test
+    void nearestFromFarOutsideTheOccupiedArea() {
+        assertEquals(bruteForceNearest(28.1, -15.4, 5), idsOf(index.nearest(28.1, -15.4, 5)));
+        assertEquals(bruteForceNearest(60.0, 30.0, 3), idsOf(index.nearest(60.0, 30.0, 3)));
+        assertEquals(bruteForceNearest(-89.0, -179.0, 1), idsOf(index.nearest(-89.0, -179.0, 1)));
+    }
+
+    @Test
+    void nearestReturnsEveryPointWhenKExceedsSize() {
+        List<GeoHit> hits = index.nearest(40.0, -3.7, 1000);
+
+        assertEquals(500, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i).getDistanceKm() >= hits.get(i - 1).getDistanceKm());
+        }
+        assertTrue(new GridIndex(1.0).nearest(40.0, -3.7, 5).isEmpty());
+    }
+
+    @Test
+    void movedAndRemovedPointsAreReflected() {
+        index.update("P0", 28.3, -16.5);
+        points.set(0, new double[] {28.3, -16.5});
+        assertEquals("P0", index.nearest(28.0, -16.0, 1).get(0).getId());
+
+        index.update("P0", Double.NaN, Double.NaN);
+        assertEquals(499, index.size());
+        assertFalse(idsOf(index.nearest(28.0, -16.0, 3)).contains("P0"));
+
+        // El slot liberado se reutiliza sin arrastrar la posición anterior
+        index.update("NEW", 43.3, -8.4);
+        assertEquals(500, index.size());
+        assertEquals("NEW", index.nearest(43.3, -8.4, 1).get(0).getId());
+    }
+
+    @Test
+    void withinRadiusMatchesBruteForce() {
+        double latitude = 40.4;
+        double longitude = -3.7;
+        double radiusKm = 120.0;
+        List<String> expected = new ArrayList<>();
+        for (String id : bruteForceNearest(latitude, longitude, points.size())) {
+            double[] point = points.get(ids.indexOf(id));
+            if (GridIndex.distanceKm(latitude, longitude, point[0], point[1]) <= radiusKm) {
+                expected.add(id);
+            }
+        }
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, idsOf(index.withinRadius(latitude, longitude, radiusKm, 1000)));
+        assertEquals(expected.subList(0, 3), idsOf(index.withinRadius(latitude, longitude, radiusKm, 3)));
+    }
+
+    @Test
+    void withinBoxReturnsOnlyContainedPoints() {
+        List<GeoHit> hits = index.withinBox(39.0, -5.0, 41.0, -2.0, 1000);
+
+        long expected = points.stream()
+                .filter(p -> p[0] >= 39.0 && p[0] <= 41.0 && p[1] >= -5.0 && p[1] <= -2.0)
+                .count();
+        assertEquals(expected, hits.size());
+        for (GeoHit hit : hits) {
+            double[] point = points.get(ids.indexOf(hit.getId()));
+            assertTrue(point[0] >= 39.0 && point[0] <= 41.0 && point[1] >= -5.0 && point[1] <= -2.0);
+        }
+        assertEquals(2, index.withinBox(39.0, -5.0, 41.0, -2.0, 2).size());
+    }
+
+    @Test
+    void distanceBetweenKnownCities() {
+        // Madrid - Barcelona, unos 505 km
+        assertEquals(505.0, GridIndex.distanceKm(40.4168, -3.7038, 41.3874, 2.1686), 5.0);
+        assertEquals(0.0, GridIndex.distanceKm(40.0, -3.0, 40.0, -3.0));
+    }
+
+    @Test
+    void invalidCellSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GridIndex(0));
+        assertThrows(IllegalArgumentException.class, () -> new GridIndex(91));
+    }
+}
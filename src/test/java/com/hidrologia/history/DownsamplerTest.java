@@ -0,0 +1,69 @@
+package com.hidrologia.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplerTest {
+
+    private static long[] times(int n) {
+        long[] x = new long[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 1_700_000_000L + i * 60L;
+        }
+        return x;
+    }
+
+    @Test
+    void seriesWithinBudgetIsKeptWhole() {
+        assertArrayEquals(new int[] {0, 1, 2, 3}, Downsampler.lttb(times(4), new double[] {1, 2, 3, 4}, 10));
+    }
+
+    @Test
+    void keepsEndpointsAndPeaks() {
+        double[] y = new double[1000];
+        y[250] = 50;
+        y[700] = -80;
+
+        int[] selected = Downsampler.lttb(times(1000), y, 20);
+
+        assertEquals(20, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(999, selected[19]);
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue(selected[i] > selected[i - 1]);
+        }
+        assertTrue(contains(selected, 250));
+        assertTrue(contains(selected, 700));
+    }
+
+    @Test
+    void missingValuesAreNotPreferredOverPresentOnes() {
+        double[] y = new double[100];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = i % 2 == 0 ? Double.NaN : i;
+        }
+
+        int[] selected = Downsampler.lttb(times(100), y, 10);
+        for (int i = 1; i < selected.length - 1; i++) {
+            assertTrue(selected[i] % 2 == 1);
+        }
+    }
+
+    @Test
+    void budgetBelowThreeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Downsampler.lttb(times(10), new double[10], 2));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
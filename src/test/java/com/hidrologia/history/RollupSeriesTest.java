@@ -0,0 +1,89 @@
+package com.hidrologia.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollupSeriesTest {
+
+    // Inicio de una hora en punto
+    private static final long HOUR = 472_222L * 3600;
+
+    private static double stat(TimeSeriesSlice slice, int column, int stat, int row) {
+        return slice.column(column * RollupSeries.STATS + stat)[row];
+    }
+
+    @Test
+    void closedAndOpenBucketsCarryMinMaxAvgLast() {
+        RollupSeries rollup = new RollupSeries(2, 3600, 16, 86_400);
+        // Muestras cada 10 minutos durante 3 horas: la última hora queda abierta
+        for (int i = 0; i < 18; i++) {
+            rollup.add(HOUR + i * 600, i, 100 - i, Double.NaN);
+        }
+
+        TimeSeriesSlice slice = rollup.slice(HOUR, HOUR + 3 * 3600);
+        assertEquals(3, slice.size());
+        assertEquals(3, rollup.count(HOUR, HOUR + 3 * 3600));
+        assertArrayEquals(new long[] {HOUR, HOUR + 3600, HOUR + 7200}, slice.getEpochSeconds());
+
+        assertEquals(0, stat(slice, 0, RollupSeries.MIN, 0));
+        assertEquals(5, stat(slice, 0, RollupSeries.MAX, 0));
+        assertEquals(2.5, stat(slice, 0, RollupSeries.AVG, 0));
+        assertEquals(5, stat(slice, 0, RollupSeries.LAST, 0));
+        assertEquals(95, stat(slice, 1, RollupSeries.MIN, 0));
+        assertEquals(100, stat(slice, 1, RollupSeries.MAX, 0));
+
+        // El intervalo abierto se incluye con lo acumulado hasta ahora
+        assertEquals(12, stat(slice, 0, RollupSeries.MIN, 2));
+        assertEquals(17, stat(slice, 0, RollupSeries.MAX, 2));
+        assertEquals(14.5, stat(slice, 0, RollupSeries.AVG, 2));
+        assertEquals(83, stat(slice, 1, RollupSeries.LAST, 2));
+    }
+
+    @Test
+    void missingValuesDoNotCount() {
+        RollupSeries rollup = new RollupSeries(2, 3600, 16, 86_400);
+        rollup.add(HOUR, 1, Double.NaN, 0);
+        rollup.add(HOUR + 60, Double.NaN, Double.NaN, 0);
+        rollup.add(HOUR + 120, 3, Double.NaN, 0);
+        rollup.add(HOUR + 3600, 10, 10, 0);
+
+        TimeSeriesSlice slice = rollup.slice(HOUR, HOUR);
+        assertEquals(1, slice.size());
+        assertEquals(2, stat(slice, 0, RollupSeries.AVG, 0));
+        assertEquals(3, stat(slice, 0, RollupSeries.LAST, 0));
+        assertTrue(Double.isNaN(stat(slice, 1, RollupSeries.MIN, 0)));
+        assertTrue(Double.isNaN(stat(slice, 1, RollupSeries.AVG, 0)));
+        assertTrue(Double.isNaN(stat(slice, 1, RollupSeries.LAST, 0)));
+    }
+
+    @Test
+    void samplesForAnEarlierBucketAreIgnored() {
+        RollupSeries rollup = new RollupSeries(1, 3600, 16, 86_400);
+        rollup.add(HOUR + 3600, 5, 0, 0);
+        rollup.add(HOUR, 1000, 0, 0);
+
+        TimeSeriesSlice slice = rollup.slice(HOUR, HOUR + 3600);
+        assertArrayEquals(new long[] {HOUR + 3600}, slice.getEpochSeconds());
+        assertEquals(5, stat(slice, 0, RollupSeries.MAX, 0));
+    }
+
+    @Test
+    void rangeOutsideOpenBucketExcludesIt() {
+        RollupSeries rollup = new RollupSeries(1, 3600, 16, 86_400);
+        rollup.add(HOUR, 1, 0, 0);
+        rollup.add(HOUR + 3600, 2, 0, 0);
+
+        assertEquals(1, rollup.count(HOUR, HOUR + 3599));
+        assertEquals(0, rollup.count(HOUR + 7200, HOUR + 9000));
+        assertEquals(0, rollup.slice(HOUR - 7200, HOUR - 1).size());
+    }
+
+    @Test
+    void nonPositiveBucketIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RollupSeries(1, 0, 16, 86_400));
+    }
+}
@@ -0,0 +1,72 @@
+package com.hidrologia.history;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TieredSeriesTest {
+
+    // Inicio de un día en UTC
+    private static final long DAY = 19_675L * 86_400;
+    private static final long RETENTION = 30L * 86_400;
+
+    private TieredSeries series;
+
+    // Tres días con una muestra cada 5 minutos: 864 en bruto, 72 horas y 3 días
+    @BeforeEach
+    void setUp() {
+        series = new TieredSeries(3, RETENTION, RETENTION, RETENTION);
+        for (int i = 0; i < 864; i++) {
+            series.append(DAY + i * 300L, i % 100, i, Double.NaN);
+        }
+    }
+
+    @Test
+    void rawTierIsUsedWhileWithinOversampledBudget() {
+        TieredSlice result = series.query(DAY, DAY + 3 * 86_400, 300);
+
+        assertEquals(RollupTier.RAW, result.getTier());
+        assertEquals(864, result.getSourceCount());
+        assertEquals(300, result.getSlice().size());
+        assertEquals(3, result.getSlice().getColumnCount());
+        assertEquals(DAY, result.getSlice().getEpochSeconds()[0]);
+        assertEquals(DAY + 863 * 300L, result.getSlice().getEpochSeconds()[299]);
+    }
+
+    @Test
+    void hourlyTierIsChosenWhenRawExceedsBudget() {
+        TieredSlice result = series.query(DAY, DAY + 3 * 86_400, 50);
+
+        assertEquals(RollupTier.HOUR, result.getTier());
+        assertEquals(72, result.getSourceCount());
+        assertEquals(50, result.getSlice().size());
+        assertEquals(3 * RollupSeries.STATS, result.getSlice().getColumnCount());
+    }
+
+    @Test
+    void dailyTierIsChosenForSmallBudgets() {
+        TieredSlice result = series.query(DAY, DAY + 3 * 86_400, 5);
+
+        assertEquals(RollupTier.DAY, result.getTier());
+        assertEquals(3, result.getSourceCount());
+        TimeSeriesSlice slice = result.getSlice();
+        assertEquals(3, slice.size());
+        assertEquals(DAY + 86_400, slice.getEpochSeconds()[1]);
+        assertEquals(288, slice.column(1 * RollupSeries.STATS + RollupSeries.MIN)[1]);
+        assertEquals(575, slice.column(1 * RollupSeries.STATS + RollupSeries.MAX)[1]);
+        assertEquals(431.5, slice.column(1 * RollupSeries.STATS + RollupSeries.AVG)[1]);
+    }
+
+    @Test
+    void rejectedSamplesDoNotReachRollups() {
+        assertFalse(series.append(DAY, 1000, 1000, 1000));
+
+        TieredSlice result = series.query(DAY, DAY + 3 * 86_400, 3);
+        assertEquals(RollupTier.DAY, result.getTier());
+        assertEquals(99, result.getSlice().column(RollupSeries.MAX)[0]);
+        assertEquals(0, result.getSlice().column(1 * RollupSeries.STATS + RollupSeries.MIN)[0]);
+        assertEquals(864, series.raw().size());
+    }
+}
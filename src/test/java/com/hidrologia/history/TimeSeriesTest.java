@@ -0,0 +1,97 @@
+package com.hidrologia.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesTest {
+
+    private static final long BASE = 1_700_000_000L;
+
+    @Test
+    void sliceReturnsInclusiveRangeAcrossChunks() {
+        TimeSeries series = new TimeSeries(2, 4, 86_400);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(series.append(BASE + i * 60, i, i * 0.5));
+        }
+
+        TimeSeriesSlice slice = series.slice(BASE + 120, BASE + 420);
+        assertEquals(6, slice.size());
+        assertEquals(6, series.count(BASE + 120, BASE + 420));
+        assertArrayEquals(new long[] {BASE + 120, BASE + 180, BASE + 240, BASE + 300, BASE + 360, BASE + 420},
+                slice.getEpochSeconds());
+        assertArrayEquals(new double[] {2, 3, 4, 5, 6, 7}, slice.column(0));
+        assertArrayEquals(new double[] {1, 1.5, 2, 2.5, 3, 3.5}, slice.column(1));
+    }
+
+    @Test
+    void rangeBoundsBetweenSamplesAreRespected() {
+        TimeSeries series = new TimeSeries(1, 4, 86_400);
+        for (int i = 0; i < 10; i++) {
+            series.append(BASE + i * 60, i, 0, 0);
+        }
+
+        assertEquals(0, series.count(BASE - 100, BASE - 1));
+        assertEquals(0, series.count(BASE + 61, BASE + 119));
+        assertEquals(2, series.count(BASE + 59, BASE + 121));
+        assertEquals(10, series.slice(0, Long.MAX_VALUE).size());
+        assertEquals(10, series.all().size());
+    }
+
+    @Test
+    void repeatedOrLateSamplesAreRejected() {
+        TimeSeries series = new TimeSeries(1, 86_400);
+        assertTrue(series.append(BASE + 60, 1, 0, 0));
+        assertFalse(series.append(BASE + 60, 2, 0, 0));
+        assertFalse(series.append(BASE, 3, 0, 0));
+        assertTrue(series.append(BASE + 61, 4, 0, 0));
+
+        assertEquals(2, series.size());
+        assertEquals(BASE + 61, series.lastEpochSecond());
+        assertArrayEquals(new double[] {1, 4}, series.all().column(0));
+    }
+
+    @Test
+    void retentionDropsWholeExpiredChunks() {
+        TimeSeries series = new TimeSeries(1, 4, 600);
+        for (int i = 0; i < 20; i++) {
+            series.append(BASE + i * 60, i, 0, 0);
+        }
+
+        // Ventana de 600 s sobre la muestra de BASE + 1140: se conservan los bloques que la tocan
+        TimeSeriesSlice all = series.all();
+        assertEquals(12, series.size());
+        assertEquals(12, all.size());
+        assertEquals(BASE + 480, all.getEpochSeconds()[0]);
+        assertEquals(BASE + 1140, series.lastEpochSecond());
+    }
+
+    @Test
+    void arrayAppendSupportsAnyColumnCount() {
+        TimeSeries series = new TimeSeries(5, 8, 86_400);
+        series.append(BASE, new double[] {1, 2, 3, 4, 5});
+        series.append(BASE + 1, new double[] {6, 7, 8, 9, 10});
+
+        TimeSeriesSlice slice = series.all();
+        assertEquals(5, slice.getColumnCount());
+        assertArrayEquals(new double[] {5, 10}, slice.column(4));
+    }
+
+    @Test
+    void emptySeriesReturnsEmptySlice() {
+        TimeSeries series = new TimeSeries(3, 86_400);
+        assertEquals(0, series.all().size());
+        assertEquals(3, series.all().getColumnCount());
+        assertEquals(Long.MIN_VALUE, series.lastEpochSecond());
+    }
+
+    @Test
+    void invalidShapeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeries(0, 86_400));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeries(1, 0, 86_400));
+    }
+}
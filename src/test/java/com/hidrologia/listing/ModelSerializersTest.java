@@ -0,0 +1,126 @@
+package com.hidrologia.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModelSerializersTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 3, 10, 8, 5, 9);
+
+    // Serialización por getters, la referencia que deben reproducir los serializadores propios
+    private final ObjectMapper beanMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ObjectMapper schemaMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(ModelSerializers.module())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void waterLevelGoldenJson() throws Exception {
+        String expected = "{\"stationId\":\"EA001\",\"stationName\":\"Ebro en Zaragoza\",\"waterLevel\":2.35,"
+                + "\"flow\":180.5,\"type\":\"RIO\",\"alertStatus\":\"NORMAL\",\"location\":\"Zaragoza\","
+                + "\"latitude\":41.6561,\"longitude\":-0.8773,\"lastUpdated\":\"2024-03-10 08:05:09\","
+                + "\"temperature\":12.0,\"observations\":null,\"river\":\"Ebro\",\"riverKm\":null}";
+
+        assertEquals(expected, schemaMapper.writeValueAsString(waterLevel()));
+        assertEquals(expected, beanMapper.writeValueAsString(waterLevel()));
+    }
+
+    @Test
+    void reservoirGoldenJson() throws Exception {
+        String expected = "{\"reservoirId\":\"E001\",\"name\":\"Mequinenza\",\"maxCapacity\":1530.0,"
+                + "\"currentVolume\":1101.6,\"fillPercentage\":72.0,\"primaryUse\":\"HIDROELECTRICA\","
+                + "\"status\":\"OPERATIVO\",\"location\":\"Mequinenza, Zaragoza\",\"latitude\":null,"
+                + "\"longitude\":null,\"mainRiver\":\"Ebro\",\"constructionYear\":1966,\"damHeight\":79.0,"
+                + "\"damLength\":null,\"outflow\":0.0,\"lastUpdated\":\"2024-03-10 08:05:09\","
+                + "\"observations\":\"Sin incidencias\",\"riverKm\":-0.0}";
+
+        assertEquals(expected, schemaMapper.writeValueAsString(reservoir()));
+        assertEquals(expected, beanMapper.writeValueAsString(reservoir()));
+    }
+
+    @Test
+    void matchesBeanSerialization() throws Exception {
+        WaterLevel extreme = waterLevel();
+        extreme.setWaterLevel(0.1 + 0.2);
+        extreme.setFlow(1e-7);
+        extreme.setTemperature(1e20);
+        extreme.setObservations("Comillas \" y saltos\nde línea");
+        Reservoir noYear = reservoir();
+        noYear.setConstructionYear(null);
+        noYear.setLastUpdated(null);
+
+        for (WaterLevel level : List.of(waterLevel(), extreme, new WaterLevel())) {
+            assertEquals(beanMapper.writeValueAsString(level), schemaMapper.writeValueAsString(level));
+        }
+        for (Reservoir reservoir : List.of(reservoir(), noYear, new Reservoir())) {
+            assertEquals(beanMapper.writeValueAsString(reservoir), schemaMapper.writeValueAsString(reservoir));
+        }
+        // Los modelos anidados en listas y otros objetos también pasan por el serializador propio
+        assertEquals(beanMapper.writeValueAsString(List.of(waterLevel(), new WaterLevel())),
+                schemaMapper.writeValueAsString(List.of(waterLevel(), new WaterLevel())));
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        String levelJson = schemaMapper.writeValueAsString(waterLevel());
+        WaterLevel level = schemaMapper.readValue(levelJson, WaterLevel.class);
+        assertEquals(UPDATED, level.getLastUpdated());
+        assertEquals(levelJson, schemaMapper.writeValueAsString(level));
+
+        String reservoirJson = schemaMapper.writeValueAsString(reservoir());
+        Reservoir reservoir = schemaMapper.readValue(reservoirJson, Reservoir.class);
+        assertEquals(Integer.valueOf(1966), reservoir.getConstructionYear());
+        assertEquals(reservoirJson, schemaMapper.writeValueAsString(reservoir));
+
+        String emptyJson = schemaMapper.writeValueAsString(new Reservoir());
+        assertEquals(emptyJson, schemaMapper.writeValueAsString(schemaMapper.readValue(emptyJson, Reservoir.class)));
+    }
+
+    private static WaterLevel waterLevel() {
+        WaterLevel level = new WaterLevel();
+        level.setStationId("EA001");
+        level.setStationName("Ebro en Zaragoza");
+        level.setWaterLevel(2.35);
+        level.setFlow(180.5);
+        level.setType(WaterLevel.WaterType.RIO);
+        level.setAlertStatus(WaterLevel.AlertStatus.NORMAL);
+        level.setLocation("Zaragoza");
+        level.setLatitude(41.6561);
+        level.setLongitude(-0.8773);
+        level.setLastUpdated(UPDATED);
+        level.setTemperature(12.0);
+        level.setRiver("Ebro");
+        return level;
+    }
+
+    private static Reservoir reservoir() {
+        Reservoir reservoir = new Reservoir();
+        reservoir.setReservoirId("E001");
+        reservoir.setName("Mequinenza");
+        reservoir.setMaxCapacity(1530.0);
+        reservoir.setCurrentVolume(1101.6);
+        reservoir.setFillPercentage(72.0);
+        reservoir.setPrimaryUse(Reservoir.PrimaryUse.HIDROELECTRICA);
+        reservoir.setStatus(Reservoir.OperationalStatus.OPERATIVO);
+        reservoir.setLocation("Mequinenza, Zaragoza");
+        reservoir.setMainRiver("Ebro");
+        reservoir.setConstructionYear(1966);
+        reservoir.setDamHeight(79.0);
+        reservoir.setOutflow(0.0);
+        reservoir.setLastUpdated(UPDATED);
+        reservoir.setObservations("Sin incidencias");
+        reservoir.setRiverKm(-0.0);
+        return reservoir;
+    }
+}
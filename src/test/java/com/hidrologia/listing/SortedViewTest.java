@@ -0,0 +1,121 @@
+package com.hidrologia.listing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SortedViewTest {
+
+    private record Item(String id, double value) {}
+
+    private static final ListingSchema<Item> SCHEMA = new ListingSchema<Item>(Item::id)
+            .number("value", Item::value);
+
+    @Test
+    void ordersByKeyThenId() {
+        List<Item> items = List.of(new Item("c", 2), new Item("a", 2), new Item("d", Double.NaN),
+                new Item("b", 1), new Item("e", 3));
+
+        SortedView<Item> view = new SortedView<>(1, items, SCHEMA, "value", null);
+
+        // Los empates se resuelven por ID y los valores ausentes quedan al final
+        assertEquals(List.of("b", "a", "c", "e", "d"), ids(view));
+    }
+
+    @Test
+    void idSortIgnoresValues() {
+        List<Item> items = List.of(new Item("c", 1), new Item("a", 3), new Item("b", 2));
+
+        SortedView<Item> view = new SortedView<>(1, items, SCHEMA, ListingSchema.ID_SORT, null);
+
+        assertEquals(List.of("a", "b", "c"), ids(view));
+    }
+
+    @Test
+    void unchangedVersionReusesOrder() {
+        List<Item> items = List.of(new Item("a", 2), new Item("b", 1));
+        SortedView<Item> first = new SortedView<>(1, items, SCHEMA, "value", null);
+
+        SortedView<Item> second = new SortedView<>(2, new ArrayList<>(items), SCHEMA, "value", first);
+
+        assertEquals(List.of("b", "a"), ids(second));
+        assertEquals(2, second.getVersion());
+        assertSame(first.item(0), second.item(0));
+    }
+
+    @Test
+    void updatesMatchFullSort() {
+        Random random = new Random(7);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(new Item(String.format("S%03d", i), random.nextInt(50)));
+        }
+        SortedView<Item> view = new SortedView<>(0, List.copyOf(items), SCHEMA, "value", null);
+
+        for (int version = 1; version <= 50; version++) {
+            // Unas pocas actualizaciones (reordenación parcial) o muchas (reordenación completa), y alguna alta
+            int updates = version % 10 == 0 ? 60 : 1 + random.nextInt(5);
+            for (int u = 0; u < updates; u++) {
+                int position = random.nextInt(items.size());
+                double value = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(50);
+                items.set(position, new Item(items.get(position).id(), value));
+            }
+            if (version % 7 == 0) {
+                items.add(new Item(String.format("S%03d", items.size()), random.nextInt(50)));
+            }
+            List<Item> source = List.copyOf(items);
+            view = new SortedView<>(version, source, SCHEMA, "value", view);
+
+            assertEquals(ids(new SortedView<>(version, source, SCHEMA, "value", null)), ids(view),
+                    "versión " + version);
+        }
+    }
+
+    @Test
+    void cursorStaysStableAcrossVersions() {
+        List<Item> items = new ArrayList<>(List.of(new Item("a", 1), new Item("b", 2), new Item("c", 3),
+                new Item("d", 4), new Item("e", 5), new Item("f", 6)));
+        SortedView<Item> first = new SortedView<>(1, List.copyOf(items), SCHEMA, "value", null);
+        double cursorKey = first.key(1);
+        String cursorId = first.id(1);
+
+        // Entre páginas un elemento posterior pasa por delante del cursor y llega un alta anterior
+        items.set(5, new Item("f", 1.5));
+        items.add(new Item("aa", 0.5));
+        SortedView<Item> second = new SortedView<>(2, List.copyOf(items), SCHEMA, "value", first);
+
+        int next = second.firstAfter(cursorKey, cursorId);
+        assertEquals("c", second.id(next));
+        assertEquals("d", second.id(next + 1));
+        // Hacia atrás, el anterior al cursor es el último que queda por delante de "b"
+        assertEquals("f", second.id(second.lastBefore(cursorKey, cursorId)));
+    }
+
+    @Test
+    void lastAndEmptyPages() {
+        List<Item> items = List.of(new Item("a", 1), new Item("b", 2), new Item("c", 2));
+        SortedView<Item> view = new SortedView<>(1, items, SCHEMA, "value", null);
+
+        assertEquals(2, view.firstAfter(2, "b"));
+        assertEquals(view.size(), view.firstAfter(view.key(2), view.id(2)));
+        assertEquals(-1, view.lastBefore(view.key(0), view.id(0)));
+
+        SortedView<Item> empty = new SortedView<>(1, List.of(), SCHEMA, "value", null);
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.firstAfter(1, "a"));
+        assertEquals(-1, empty.lastBefore(1, "a"));
+    }
+
+    private static List<String> ids(SortedView<Item> view) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++) {
+            ids.add(view.id(i));
+        }
+        return ids;
+    }
+}
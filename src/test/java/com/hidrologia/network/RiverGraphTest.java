@@ -0,0 +1,186 @@
+package com.hidrologia.network;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RiverGraphTest {
+
+    private static final String GUADALQUIVIR = "Río Guadalquivir";
+    private static final String GENIL = "Río Genil";
+
+    private RiverGraph graph;
+
+    // El Genil (337 km) desemboca en el Guadalquivir en su km 390. Los puntos se añaden
+    // desordenados para comprobar que cada río se ordena por punto kilométrico
+    @BeforeEach
+    void setUp() {
+        graph = new RiverGraph.Builder()
+                .add("G600", false, GUADALQUIVIR, 600)
+                .add("N200", false, GENIL, 200)
+                .add("G100", false, GUADALQUIVIR, 100)
+                .add("E400", true, GUADALQUIVIR, 400)
+                .add("N50", false, GENIL, 50)
+                .add("G300", false, GUADALQUIVIR, 300)
+                .add("A1", false, "Arroyo del Valle", 1)
+                .add("A2", false, "Arroyo del Valle", 2)
+                .add("SIN_KM", false, GUADALQUIVIR, Double.NaN)
+                .add("G100", false, GENIL, 10)
+                .build();
+    }
+
+    private static List<String> ids(List<RiverHit> hits) {
+        return hits.stream().map(RiverHit::getId).collect(Collectors.toList());
+    }
+
+    private static List<Double> distances(List<RiverHit> hits) {
+        return hits.stream().map(RiverHit::getDistanceKm).collect(Collectors.toList());
+    }
+
+    @Test
+    void downstreamFollowsRiverKmAndConfluence() {
+        List<RiverHit> hits = graph.downstream("N50", Double.MAX_VALUE, 10);
+
+        // N200 -> fin del Genil (137 km) -> km 390 del Guadalquivir -> E400 (10 km)
+        assertEquals(List.of("N200", "E400", "G600"), ids(hits));
+        assertEquals(List.of(150.0, 297.0, 497.0), distances(hits));
+        assertTrue(hits.get(1).isReservoir());
+    }
+
+    @Test
+    void downstreamStopsAtDistanceAndLimit() {
+        assertEquals(List.of("N200"), ids(graph.downstream("N50", 296.0, 10)));
+        assertEquals(List.of("N200", "E400"), ids(graph.downstream("N50", Double.MAX_VALUE, 2)));
+        assertTrue(graph.downstream("G600", Double.MAX_VALUE, 10).isEmpty());
+    }
+
+    @Test
+    void upstreamIncludesTributaryBasinByDistance() {
+        List<RiverHit> hits = graph.upstream("E400", Double.MAX_VALUE, 10);
+
+        assertEquals(List.of("G300", "N200", "N50", "G100"), ids(hits));
+        assertEquals(List.of(100.0, 147.0, 297.0, 300.0), distances(hits));
+        assertEquals(List.of("G300", "N200"), ids(graph.upstream("E400", 200.0, 10)));
+        assertEquals(List.of("G300"), ids(graph.upstream("E400", Double.MAX_VALUE, 1)));
+    }
+
+    @Test
+    void nearestUpstreamStopsAtMeasuredPoints() {
+        assertEquals(List.of("E400"), ids(graph.nearestUpstream("G600", Set.of("E400", "G300")::contains)));
+
+        List<RiverHit> hits = graph.nearestUpstream("G600", Set.of("G300", "N50")::contains);
+        assertEquals(Set.of("G300", "N50"), Set.copyOf(ids(hits)));
+        Map<String, Double> byId = hits.stream().collect(Collectors.toMap(RiverHit::getId, RiverHit::getDistanceKm));
+        assertEquals(300.0, byId.get("G300").doubleValue());
+        assertEquals(497.0, byId.get("N50").doubleValue());
+    }
+
+    @Test
+    void forEachUpstreamVisitsWholeBasin() {
+        Map<String, Boolean> basin = new HashMap<>();
+        graph.forEachUpstream("G600", basin::put);
+
+        assertEquals(Set.of("E400", "G300", "G100", "N200", "N50"), basin.keySet());
+        assertTrue(basin.get("E400"));
+        assertFalse(basin.get("G100"));
+    }
+
+    @Test
+    void uncataloguedRiversAndPointsWithoutKmFormTheirOwnBasins() {
+        assertEquals(List.of("A2"), ids(graph.downstream("A1", Double.MAX_VALUE, 10)));
+        assertTrue(graph.downstream("A2", Double.MAX_VALUE, 10).isEmpty());
+        assertTrue(graph.downstream("SIN_KM", Double.MAX_VALUE, 10).isEmpty());
+        assertTrue(graph.upstream("SIN_KM", Double.MAX_VALUE, 10).isEmpty());
+        assertTrue(graph.contains("SIN_KM"));
+    }
+
+    @Test
+    void receivingRiverWithoutPointsDownstreamEndsTheChain() {
+        // El Esla desemboca en el Duero en su km 560, pero el Duero solo tiene un punto antes
+        RiverGraph sparse = new RiverGraph.Builder()
+                .add("D100", false, "Río Duero", 100)
+                .add("S10", false, "Río Esla", 10)
+                .build();
+
+        assertTrue(sparse.downstream("S10", Double.MAX_VALUE, 10).isEmpty());
+        assertTrue(sparse.upstream("D100", Double.MAX_VALUE, 10).isEmpty());
+    }
+
+    @Test
+    void riversAreCountedInCatalogOrder() {
+        assertEquals(RiverCatalog.all().size() + 1, graph.riverCount());
+        assertEquals("Arroyo del Valle", graph.riverName(graph.riverCount() - 1));
+        int guadalquivir = indexOf(graph, GUADALQUIVIR);
+        assertEquals(4, graph.stationCount(guadalquivir));
+        assertEquals(1, graph.reservoirCount(guadalquivir));
+        // El ID repetido conserva el primer punto (en el Guadalquivir)
+        assertEquals(2, graph.stationCount(indexOf(graph, GENIL)));
+        assertEquals(10 - 1, graph.size());
+    }
+
+    @Test
+    void unknownPointIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> graph.downstream("NADA", 10, 10));
+    }
+
+    // Red aleatoria: la cuenca de cada punto debe coincidir con los puntos cuya cadena aguas abajo lo alcanza
+    @Test
+    void upstreamMatchesDownstreamChains() {
+        List<String> rivers = RiverCatalog.all().stream().map(River::getName).collect(Collectors.toList());
+        Random random = new Random(3);
+        RiverGraph.Builder builder = new RiverGraph.Builder();
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String river = rivers.get(random.nextInt(rivers.size()));
+            double km = Math.floor(random.nextDouble() * RiverCatalog.find(river).orElseThrow().getLengthKm());
+            builder.add("P" + i, random.nextInt(5) == 0, river, km);
+            nodes.add("P" + i);
+        }
+        RiverGraph random300 = builder.build();
+
+        Map<String, Map<String, Double>> expected = new HashMap<>();
+        for (String node : nodes) {
+            expected.put(node, new HashMap<>());
+        }
+        for (String node : nodes) {
+            for (RiverHit hit : random300.downstream(node, Double.MAX_VALUE, Integer.MAX_VALUE)) {
+                expected.get(hit.getId()).put(node, hit.getDistanceKm());
+            }
+        }
+        for (String node : nodes) {
+            List<RiverHit> hits = random300.upstream(node, Double.MAX_VALUE, Integer.MAX_VALUE);
+            Map<String, Double> actual = new HashMap<>();
+            for (int i = 0; i < hits.size(); i++) {
+                actual.put(hits.get(i).getId(), hits.get(i).getDistanceKm());
+                if (i > 0) {
+                    assertTrue(hits.get(i).getDistanceKm() >= hits.get(i - 1).getDistanceKm());
+                }
+            }
+            assertEquals(expected.get(node).keySet(), actual.keySet(), "cuenca de " + node);
+            for (Map.Entry<String, Double> entry : actual.entrySet()) {
+                assertEquals(expected.get(node).get(entry.getKey()).doubleValue(), entry.getValue().doubleValue(), 1e-9);
+            }
+        }
+    }
+
+    private static int indexOf(RiverGraph graph, String river) {
+        for (int i = 0; i < graph.riverCount(); i++) {
+            if (graph.riverName(i).equals(river)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(river);
+    }
+}
@@ -0,0 +1,103 @@
+package com.hidrologia.persistence;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.AlertRuleService;
+import com.hidrologia.service.ChangeEventBus;
+import com.hidrologia.service.HidrologiaMetrics;
+import com.hidrologia.service.HidrologiaService;
+import com.hidrologia.service.HistoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PersistenceServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoreDoesNotCountRestoredStateAsRejectedSamples() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PersistenceService persistence = persistence(registry);
+        HidrologiaService service = persistence.hidrologiaService;
+        persistence.onStart(null);
+
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        WaterLevel station = new WaterLevel(service.getAllWaterLevels().get(0));
+        station.setWaterLevel(3.25);
+        station.setLastUpdated(later);
+        service.saveWaterLevel(station);
+        Reservoir reservoir = new Reservoir(service.getAllReservoirs().get(0));
+        reservoir.setOutflow(12.5);
+        reservoir.setLastUpdated(later);
+        service.saveReservoir(reservoir);
+        persistence.snapshot();
+
+        // Parte del estado queda en el snapshot y parte solo en el segmento posterior
+        WaterLevel next = new WaterLevel(station);
+        next.setWaterLevel(3.5);
+        next.setLastUpdated(later.plusMinutes(10));
+        service.saveWaterLevel(next);
+        persistence.onStop(null);
+        int samples = persistence.historyService.getSampleCount(station.getStationId());
+
+        MeterRegistry restoredRegistry = new SimpleMeterRegistry();
+        PersistenceService restored = persistence(restoredRegistry);
+        restored.onStart(null);
+        try {
+            HidrologiaService restoredService = restored.hidrologiaService;
+            assertEquals(3.5, restoredService.getWaterLevelByStationId(station.getStationId()).orElseThrow().waterLevelOrNaN());
+            assertEquals(12.5, restoredService.getReservoirById(reservoir.getReservoirId()).orElseThrow().getOutflow().doubleValue());
+            assertEquals(samples, restored.historyService.getSampleCount(station.getStationId()));
+            assertEquals(0.0, rejected(restoredRegistry, "station"));
+            assertEquals(0.0, rejected(restoredRegistry, "reservoir"));
+
+            // Reevaluar las reglas repite la misma lectura: tampoco es una muestra rechazada
+            restoredService.reevaluateWaterLevel(station.getStationId());
+            restoredService.reevaluateReservoir(reservoir.getReservoirId());
+            assertEquals(0.0, rejected(restoredRegistry, "station"));
+            assertEquals(0.0, rejected(restoredRegistry, "reservoir"));
+            assertEquals(samples, restored.historyService.getSampleCount(station.getStationId()));
+        } finally {
+            restored.onStop(null);
+        }
+    }
+
+    @Test
+    void repeatedReadingIsCountedAsRejected() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        HidrologiaService service = persistence(registry).hidrologiaService;
+
+        WaterLevel station = new WaterLevel(service.getAllWaterLevels().get(0));
+        station.setLastUpdated(LocalDateTime.now().plusHours(1));
+        service.saveWaterLevel(station);
+        service.saveWaterLevel(new WaterLevel(station));
+
+        assertEquals(1.0, rejected(registry, "station"));
+    }
+
+    private PersistenceService persistence(MeterRegistry registry) {
+        HistoryService history = new HistoryService(90, 365, 3650, 1000, 10000);
+        PersistenceService persistence = new PersistenceService();
+        persistence.historyService = history;
+        persistence.hidrologiaService = new HidrologiaService(history, new ChangeEventBus(16),
+                new HidrologiaMetrics(registry), new AlertRuleService());
+        persistence.enabled = true;
+        persistence.directory = directory.toString();
+        persistence.segmentSizeMb = 1;
+        persistence.flushIntervalMillis = 1000;
+        persistence.snapshotIntervalMinutes = 60;
+        return persistence;
+    }
+
+    private static double rejected(MeterRegistry registry, String entity) {
+        return registry.get("hidrologia.history.rejected").tag("entity", entity).counter().count();
+    }
+}
@@ -0,0 +1,195 @@
+package com.hidrologia.persistence;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordCodecTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 3, 12, 8, 15, 30, 250_000_000);
+
+    private static WaterLevel level() {
+        WaterLevel level = new WaterLevel("EST-001", "Zaragoza - Ebro", 2.35, 187.5,
+                WaterLevel.WaterType.RIO, WaterLevel.AlertStatus.PRECAUCION, "Zaragoza, Aragón",
+                41.6561, -0.8773, UPDATED, 14.2, "Crecida moderada");
+        level.setRiver("Río Ebro");
+        level.setRiverKm(620.0);
+        return level;
+    }
+
+    private static Reservoir reservoir() {
+        Reservoir reservoir = new Reservoir("EMB-001", "Embalse de Alcántara", 3160.0, 2120.5, 67.1,
+                Reservoir.PrimaryUse.HIDROELECTRICA, Reservoir.OperationalStatus.OPERATIVO, "Cáceres, Extremadura",
+                39.7236, -6.8844, "Río Tajo", 1969, 130.0, 570.0, 85.0, UPDATED, null);
+        reservoir.setRiverKm(905.0);
+        return reservoir;
+    }
+
+    // Contenido del registro sin el byte de tipo, como lo entrega el log al leer
+    private static ByteBuffer payload(RecordBuffer record, byte type) {
+        ByteBuffer in = record.contents();
+        assertEquals(type, in.get());
+        return in;
+    }
+
+    private static void assertSameLevel(WaterLevel expected, WaterLevel actual) {
+        assertEquals(expected.getStationId(), actual.getStationId());
+        assertEquals(expected.getStationName(), actual.getStationName());
+        assertEquals(expected.getWaterLevel(), actual.getWaterLevel());
+        assertEquals(expected.getFlow(), actual.getFlow());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getAlertStatus(), actual.getAlertStatus());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getLatitude(), actual.getLatitude());
+        assertEquals(expected.getLongitude(), actual.getLongitude());
+        assertEquals(expected.getLastUpdated(), actual.getLastUpdated());
+        assertEquals(expected.getTemperature(), actual.getTemperature());
+        assertEquals(expected.getObservations(), actual.getObservations());
+        assertEquals(expected.getRiver(), actual.getRiver());
+        assertEquals(expected.getRiverKm(), actual.getRiverKm());
+    }
+
+    private static void assertSameReservoir(Reservoir expected, Reservoir actual) {
+        assertEquals(expected.getReservoirId(), actual.getReservoirId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getMaxCapacity(), actual.getMaxCapacity());
+        assertEquals(expected.getCurrentVolume(), actual.getCurrentVolume());
+        assertEquals(expected.getFillPercentage(), actual.getFillPercentage());
+        assertEquals(expected.getPrimaryUse(), actual.getPrimaryUse());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getLatitude(), actual.getLatitude());
+        assertEquals(expected.getLongitude(), actual.getLongitude());
+        assertEquals(expected.getMainRiver(), actual.getMainRiver());
+        assertEquals(expected.getConstructionYear(), actual.getConstructionYear());
+        assertEquals(expected.getDamHeight(), actual.getDamHeight());
+        assertEquals(expected.getDamLength(), actual.getDamLength());
+        assertEquals(expected.getOutflow(), actual.getOutflow());
+        assertEquals(expected.getLastUpdated(), actual.getLastUpdated());
+        assertEquals(expected.getObservations(), actual.getObservations());
+        assertEquals(expected.getRiverKm(), actual.getRiverKm());
+    }
+
+    @Test
+    void fullWaterLevelRoundTrips() {
+        RecordBuffer record = new RecordBuffer(16);
+        RecordCodec.writeWaterLevel(record, level());
+
+        ByteBuffer in = payload(record, RecordCodec.WATER_LEVEL);
+        assertSameLevel(level(), RecordCodec.readWaterLevel(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void missingValuesRoundTripAsNull() {
+        WaterLevel empty = new WaterLevel();
+        empty.setStationId("EST-002");
+        RecordBuffer record = new RecordBuffer(16);
+        RecordCodec.writeWaterLevel(record, empty);
+
+        WaterLevel read = RecordCodec.readWaterLevel(payload(record, RecordCodec.WATER_LEVEL));
+        assertSameLevel(empty, read);
+        assertNull(read.getWaterLevel());
+        assertNull(read.getType());
+        assertNull(read.getLastUpdated());
+        assertNull(read.getRiverKm());
+    }
+
+    @Test
+    void recordsWithoutTrailingFieldsStillRead() {
+        // Formato anterior a los campos de río: el registro termina en las observaciones
+        RecordBuffer record = new RecordBuffer(16);
+        RecordCodec.writeWaterLevel(record, level());
+        ByteBuffer in = payload(record, RecordCodec.WATER_LEVEL);
+        in.limit(in.limit() - (4 + "Río Ebro".getBytes(StandardCharsets.UTF_8).length + 8));
+
+        WaterLevel read = RecordCodec.readWaterLevel(in);
+        assertEquals("Crecida moderada", read.getObservations());
+        assertNull(read.getRiver());
+        assertNull(read.getRiverKm());
+    }
+
+    @Test
+    void waterReadingAppliesOnlyMeasuredValues() {
+        WaterLevel next = new WaterLevel(level());
+        next.setWaterLevel(2.9);
+        next.setFlow(null);
+        next.setAlertStatus(WaterLevel.AlertStatus.ALERTA);
+        next.setLastUpdated(UPDATED.plusMinutes(10));
+        next.setTemperature(13.8);
+        assertTrue(RecordCodec.isReading(level(), next));
+
+        RecordBuffer record = new RecordBuffer(16);
+        RecordCodec.writeWaterReading(record, next);
+        ByteBuffer in = payload(record, RecordCodec.WATER_READING);
+        assertEquals("EST-001", RecordCodec.readId(in));
+
+        assertSameLevel(next, RecordCodec.readWaterReading(in, level()));
+        assertTrue(record.size() < 64);
+    }
+
+    @Test
+    void descriptiveChangesNeedAFullRecord() {
+        assertFalse(RecordCodec.isReading(null, level()));
+        WaterLevel renamed = new WaterLevel(level());
+        renamed.setStationName("Zaragoza - Almozara");
+        assertFalse(RecordCodec.isReading(level(), renamed));
+        WaterLevel moved = new WaterLevel(level());
+        moved.setRiverKm(621.0);
+        assertFalse(RecordCodec.isReading(level(), moved));
+
+        Reservoir raised = new Reservoir(reservoir());
+        raised.setDamHeight(135.0);
+        assertFalse(RecordCodec.isReading(reservoir(), raised));
+    }
+
+    @Test
+    void fullReservoirRoundTrips() {
+        RecordBuffer record = new RecordBuffer(16);
+        RecordCodec.writeReservoir(record, reservoir());
+
+        ByteBuffer in = payload(record, RecordCodec.RESERVOIR);
+        assertSameReservoir(reservoir(), RecordCodec.readReservoir(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void reservoirReadingAppliesOnlyMeasuredValues() {
+        Reservoir next = new Reservoir(reservoir());
+        next.setCurrentVolume(2100.0);
+        next.setFillPercentage(66.5);
+        next.setStatus(Reservoir.OperationalStatus.MANTENIMIENTO);
+        next.setOutflow(120.0);
+        next.setLastUpdated(UPDATED.plusHours(1));
+        assertTrue(RecordCodec.isReading(reservoir(), next));
+
+        RecordBuffer record = new RecordBuffer(16);
+        RecordCodec.writeReservoirReading(record, next);
+        ByteBuffer in = payload(record, RecordCodec.RESERVOIR_READING);
+        assertEquals("EMB-001", RecordCodec.readId(in));
+
+        assertSameReservoir(next, RecordCodec.readReservoirReading(in, reservoir()));
+    }
+
+    @Test
+    void bufferIsReusableAfterClear() {
+        RecordBuffer record = new RecordBuffer(4);
+        RecordCodec.writeReservoir(record, reservoir());
+        int size = record.size();
+
+        record.clear();
+        assertEquals(0, record.size());
+        RecordCodec.writeReservoir(record, reservoir());
+        assertEquals(size, record.size());
+        assertSameReservoir(reservoir(), RecordCodec.readReservoir(payload(record, RecordCodec.RESERVOIR)));
+    }
+}
@@ -0,0 +1,162 @@
+package com.hidrologia.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentLogTest {
+
+    private static final int RECORD_OVERHEAD = 8;
+
+    @TempDir
+    Path directory;
+
+    private static RecordBuffer record(String text) {
+        RecordBuffer record = new RecordBuffer(16);
+        record.putString(text);
+        return record;
+    }
+
+    private static List<String> replay(Path segment) throws IOException {
+        List<String> texts = new ArrayList<>();
+        SegmentLog.replay(segment, payload -> texts.add(RecordCodec.getString(payload)));
+        return texts;
+    }
+
+    private List<String> replayAll() throws IOException {
+        List<String> texts = new ArrayList<>();
+        for (Path segment : SegmentLog.segments(directory)) {
+            texts.addAll(replay(segment));
+        }
+        return texts;
+    }
+
+    @Test
+    void recordsAreReplayedInOrder() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            log.open();
+            log.append(record("uno"));
+            log.append(record("dos"));
+            log.append(record("tres"));
+        }
+
+        List<Path> segments = SegmentLog.segments(directory);
+        assertEquals(1, segments.size());
+        assertEquals(1, SegmentLog.sequenceOf(segments.get(0)));
+        assertEquals(List.of("uno", "dos", "tres"), replay(segments.get(0)));
+    }
+
+    @Test
+    void reopeningStartsANewSegment() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            log.open();
+            log.append(record("antes"));
+        }
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            log.open();
+            log.append(record("después"));
+        }
+
+        List<Path> segments = SegmentLog.segments(directory);
+        assertEquals(2, segments.size());
+        assertEquals(2, SegmentLog.sequenceOf(segments.get(1)));
+        assertEquals(List.of("antes", "después"), replayAll());
+    }
+
+    @Test
+    void fullSegmentRollsToTheNext() throws IOException {
+        // Cabecera de 14 bytes y registros de 8 + 4 + 12: solo caben dos por segmento
+        int segmentSize = SegmentLog.HEADER_SIZE + 2 * (RECORD_OVERHEAD + 16) + 4;
+        try (SegmentLog log = new SegmentLog(directory, segmentSize)) {
+            log.open();
+            for (int i = 0; i < 5; i++) {
+                log.append(record("registro-00" + i));
+            }
+            assertEquals(4, log.roll());
+        }
+
+        assertEquals(4, SegmentLog.segments(directory).size());
+        assertEquals(List.of("registro-000", "registro-001", "registro-002", "registro-003", "registro-004"), replayAll());
+    }
+
+    @Test
+    void replayStopsAtCorruptedRecord() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            log.open();
+            log.append(record("uno"));
+            log.append(record("dos"));
+            log.append(record("tres"));
+        }
+        Path segment = SegmentLog.segments(directory).get(0);
+
+        // Se altera un byte del contenido del segundo registro: su CRC deja de coincidir
+        int second = SegmentLog.HEADER_SIZE + RECORD_OVERHEAD + 4 + 3;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("X".getBytes(StandardCharsets.UTF_8)), second + RECORD_OVERHEAD + 4);
+        }
+
+        assertEquals(List.of("uno"), replay(segment));
+        assertEquals(1, SegmentLog.replay(segment, payload -> { }));
+    }
+
+    @Test
+    void replayStopsAtTruncatedRecord() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            log.open();
+            log.append(record("uno"));
+            log.append(record("dos"));
+        }
+        Path segment = SegmentLog.segments(directory).get(0);
+
+        // Cola cortada a mitad del segundo registro, como tras un fallo durante la escritura
+        int cut = SegmentLog.HEADER_SIZE + RECORD_OVERHEAD + 4 + 3 + RECORD_OVERHEAD + 2;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(cut);
+        }
+
+        assertEquals(List.of("uno"), replay(segment));
+    }
+
+    @Test
+    void segmentWithInvalidHeaderIsRejected() throws IOException {
+        Path segment = directory.resolve("segment-0000000000000001.log");
+        Files.write(segment, new byte[64]);
+
+        assertThrows(IOException.class, () -> SegmentLog.replay(segment, payload -> { }));
+    }
+
+    @Test
+    void oldSegmentsCanBeDeleted() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            log.open();
+            log.append(record("viejo"));
+            long next = log.roll();
+            log.append(record("nuevo"));
+            log.deleteSegmentsBefore(next);
+        }
+
+        assertEquals(1, SegmentLog.segments(directory).size());
+        assertEquals(List.of("nuevo"), replayAll());
+    }
+
+    @Test
+    void oversizedRecordIsRejected() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 64)) {
+            log.open();
+            assertThrows(IOException.class, () -> log.append(record("x".repeat(64))));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SegmentLog(directory, SegmentLog.HEADER_SIZE));
+    }
+}
@@ -0,0 +1,128 @@
+package com.hidrologia.persistence;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.WaterLevel;
+import com.hidrologia.service.HistoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotFileTest {
+
+    private static final long BASE = 1_710_000_000L;
+
+    @TempDir
+    Path directory;
+
+    // Acumula lo leído de un snapshot
+    private static final class Collector implements SnapshotFile.Reader {
+        final List<WaterLevel> levels = new ArrayList<>();
+        final List<Reservoir> reservoirs = new ArrayList<>();
+        final Map<String, long[]> waterLevelTimes = new HashMap<>();
+        final Map<String, float[]> waterLevelValues = new HashMap<>();
+        final Map<String, float[]> reservoirVolumes = new HashMap<>();
+
+        @Override
+        public void onWaterLevel(WaterLevel level) {
+            levels.add(level);
+        }
+
+        @Override
+        public void onReservoir(Reservoir reservoir) {
+            reservoirs.add(reservoir);
+        }
+
+        @Override
+        public void onWaterLevelSeries(String stationId, long[] epochSeconds, float[] level, float[] flow, float[] temperature) {
+            waterLevelTimes.put(stationId, epochSeconds);
+            waterLevelValues.put(stationId, level);
+        }
+
+        @Override
+        public void onReservoirSeries(String reservoirId, long[] epochSeconds, float[] volume, float[] outflow) {
+            reservoirVolumes.put(reservoirId, volume);
+        }
+    }
+
+    private static HistoryService history() {
+        HistoryService history = new HistoryService(90, 365, 3650, 1000, 10000);
+        for (int i = 0; i < 500; i++) {
+            history.recordWaterLevelSample("EST-001", BASE + i * 600L, 2.0 + i * 0.01, 150.0, Double.NaN);
+            history.recordReservoirSample("EMB-001", BASE + i * 3600L, 2000.0 - i, 80.0);
+        }
+        history.recordWaterLevelSample("EST-002", BASE, 1.0, 10.0, 12.0);
+        return history;
+    }
+
+    private Path write(long nextSegment) throws IOException {
+        WaterLevel level = new WaterLevel("EST-001", "Zaragoza - Ebro", 2.35, 187.5, WaterLevel.WaterType.RIO,
+                WaterLevel.AlertStatus.NORMAL, "Zaragoza", LocalDateTime.of(2024, 3, 12, 8, 0), 14.2, null);
+        Reservoir reservoir = new Reservoir("EMB-001", "Embalse de Alcántara", 3160.0, 2120.5, 67.1,
+                Reservoir.PrimaryUse.HIDROELECTRICA, Reservoir.OperationalStatus.OPERATIVO, "Cáceres", "Río Tajo",
+                1969, 130.0, 570.0, 85.0, LocalDateTime.of(2024, 3, 12, 8, 0), null);
+        return SnapshotFile.write(directory, nextSegment, List.of(level), List.of(reservoir), history());
+    }
+
+    @Test
+    void snapshotRoundTripsEntitiesAndHistory() throws IOException {
+        Path snapshot = write(7);
+
+        Collector collector = new Collector();
+        assertEquals(7, SnapshotFile.read(snapshot, collector));
+
+        assertEquals(1, collector.levels.size());
+        assertEquals("Zaragoza - Ebro", collector.levels.get(0).getStationName());
+        assertEquals(1, collector.reservoirs.size());
+        assertEquals(Integer.valueOf(1969), collector.reservoirs.get(0).getConstructionYear());
+
+        long[] times = collector.waterLevelTimes.get("EST-001");
+        assertEquals(500, times.length);
+        assertEquals(BASE, times[0]);
+        assertEquals(BASE + 499 * 600L, times[499]);
+        assertEquals((float) (2.0 + 499 * 0.01), collector.waterLevelValues.get("EST-001")[499]);
+        assertArrayEquals(new long[] {BASE}, collector.waterLevelTimes.get("EST-002"));
+        assertEquals(1501.0f, collector.reservoirVolumes.get("EMB-001")[499]);
+    }
+
+    @Test
+    void latestSnapshotWinsAndOlderOnesCanBeDeleted() throws IOException {
+        write(3);
+        Path newest = write(12);
+        assertEquals(newest, SnapshotFile.latest(directory).orElseThrow());
+
+        SnapshotFile.deleteAllExcept(directory, newest);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(newest), files.collect(Collectors.toList()));
+        }
+        assertTrue(SnapshotFile.latest(directory.resolve("no-existe")).isEmpty());
+    }
+
+    @Test
+    void snapshotWithoutClosingMarkerIsRejected() throws IOException {
+        Path snapshot = write(1);
+        // Se borra la marca final, como si la escritura se hubiera interrumpido antes de terminar
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), channel.size() - 4);
+        }
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(snapshot, new Collector()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.hidrologia.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientLimiterTest {
+
+    // 10 peticiones por segundo con ráfagas de 5
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BURST = 5;
+    private static final long START = 1_000_000_000_000L;
+
+    private static ClientLimiter limiter() {
+        return new ClientLimiter(INTERVAL, INTERVAL * BURST, 2, START);
+    }
+
+    @Test
+    void fullBucketAllowsBurstThenReportsWait() {
+        ClientLimiter limiter = limiter();
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, limiter.tryAcquire(START));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire(START));
+        assertEquals(INTERVAL - 30, limiter.tryAcquire(START + 30));
+
+        // Pasado un intervalo se recupera exactamente una ficha
+        assertEquals(0, limiter.tryAcquire(START + INTERVAL));
+        assertEquals(INTERVAL, limiter.tryAcquire(START + INTERVAL));
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumeTokens() {
+        ClientLimiter limiter = limiter();
+        for (int i = 0; i < BURST; i++) {
+            limiter.tryAcquire(START);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(START + 1) > 0);
+        }
+        assertEquals(0, limiter.tryAcquire(START + INTERVAL));
+    }
+
+    @Test
+    void steadyRateIsNeverThrottled() {
+        ClientLimiter limiter = limiter();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire(START + i * INTERVAL));
+        }
+    }
+
+    @Test
+    void idleTimeRefillsUpToBurstOnly() {
+        ClientLimiter limiter = limiter();
+        long later = START + 1000 * INTERVAL;
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, limiter.tryAcquire(later));
+        }
+        assertTrue(limiter.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void refundReturnsAToken() {
+        ClientLimiter limiter = limiter();
+        for (int i = 0; i < BURST; i++) {
+            limiter.tryAcquire(START);
+        }
+        limiter.refund();
+        assertEquals(0, limiter.tryAcquire(START));
+        assertTrue(limiter.tryAcquire(START) > 0);
+    }
+
+    @Test
+    void concurrencyIsCapped() {
+        ClientLimiter limiter = limiter();
+        assertTrue(limiter.enter());
+        assertTrue(limiter.enter());
+        assertFalse(limiter.enter());
+
+        limiter.exit();
+        assertTrue(limiter.enter());
+    }
+
+    @Test
+    void idleOnlyWithoutRequestsInFlightAndFullBucket() {
+        ClientLimiter limiter = limiter();
+        assertTrue(limiter.isIdle(START));
+
+        limiter.tryAcquire(START);
+        assertFalse(limiter.isIdle(START));
+        assertTrue(limiter.isIdle(START + INTERVAL));
+
+        limiter.enter();
+        assertFalse(limiter.isIdle(START + INTERVAL));
+        limiter.exit();
+        assertTrue(limiter.isIdle(START + INTERVAL));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedBurst() throws InterruptedException {
+        ClientLimiter limiter = limiter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        try {
+            for (int i = 0; i < 400; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (limiter.tryAcquire(START) == 0) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(BURST, granted.get());
+    }
+}
@@ -0,0 +1,85 @@
+package com.hidrologia.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void eachClientHasItsOwnBucket() {
+        RateLimiter limiter = new RateLimiter(2.0, 2, 4, 100);
+        long now = System.nanoTime();
+
+        ClientLimiter a = limiter.client("a", now);
+        assertSame(a, limiter.client("a", now));
+        assertEquals(0, a.tryAcquire(now));
+        assertEquals(0, a.tryAcquire(now));
+        assertTrue(a.tryAcquire(now) > 0);
+
+        ClientLimiter b = limiter.client("b", now);
+        assertNotSame(a, b);
+        assertEquals(0, b.tryAcquire(now));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void rateIsConvertedToInterval() {
+        RateLimiter limiter = new RateLimiter(4.0, 1, 1, 10);
+        long now = System.nanoTime();
+        ClientLimiter client = limiter.client("a", now);
+
+        assertEquals(0, client.tryAcquire(now));
+        assertEquals(SECOND / 4, client.tryAcquire(now));
+        assertEquals(0, client.tryAcquire(now + SECOND / 4));
+    }
+
+    @Test
+    void fullTableSharesOverflowLimitUntilIdleClientsAreSwept() {
+        RateLimiter limiter = new RateLimiter(1.0, 1, 1, 2);
+        long now = System.nanoTime();
+        limiter.client("a", now).tryAcquire(now);
+        limiter.client("b", now).tryAcquire(now);
+
+        // Tabla llena y barrido reciente: los clientes nuevos comparten el límite de desbordamiento
+        ClientLimiter c = limiter.client("c", now);
+        assertSame(c, limiter.client("d", now));
+        assertEquals(2, limiter.size());
+
+        // Pasado el intervalo de barrido y con los cubos llenos, 'a' y 'b' se olvidan
+        long later = now + 2 * SECOND;
+        ClientLimiter e = limiter.client("e", later);
+        assertNotSame(c, e);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void busyClientsAreNotSwept() {
+        RateLimiter limiter = new RateLimiter(1.0, 1, 1, 1);
+        long now = System.nanoTime();
+        ClientLimiter a = limiter.client("a", now);
+        a.enter();
+
+        ClientLimiter b = limiter.client("b", now + 2 * SECOND);
+        assertNotSame(a, b);
+        assertSame(a, limiter.client("a", now + 2 * SECOND));
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void nonPositiveLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Double.NaN, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 1, 1, 0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.hidrologia.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIndexTest {
+
+    private TextIndex index;
+
+    // Campos: nombre (peso 3) y río (peso 1)
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex(3, 1);
+        index.update("E1", "Embalse de Alarcón", "Río Júcar");
+        index.update("E2", "Alcántara", "Río Tajo");
+        index.update("E3", "Zaragoza", "Río Ebro");
+        index.update("E4", "Puente del Río Júcar", "Río Júcar");
+    }
+
+    private List<String> search(String query) {
+        return index.search(query, 10).stream().map(SearchHit::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void foldRemovesAccentsCaseAndPunctuation() {
+        assertEquals("embalse de alarcon", TextIndex.fold("Embalse de Alarcón"));
+        assertEquals("rio ebro zaragoza", TextIndex.fold("  Río   EBRO—Zaragoza. "));
+        assertEquals("l albufera", TextIndex.fold("L'Albufera"));
+        assertEquals("penarroya pueblonuevo", TextIndex.fold("Peñarroya-Pueblonuevo"));
+        assertEquals("guell a 3", TextIndex.fold("Güell (A-3)"));
+        assertEquals("", TextIndex.fold(null));
+        assertEquals("", TextIndex.fold(" - "));
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        assertEquals(List.of("E1"), search("alarcon"));
+        assertEquals(List.of("E1"), search("ALARCÓN"));
+        assertEquals(List.of("E2"), search("alcantara"));
+        assertEquals(search("jucar"), search("Júcar"));
+    }
+
+    @Test
+    void nameWeighsMoreThanRiverAndWordStartsDouble() {
+        List<SearchHit> hits = index.search("jucar", 10);
+
+        // E4 lo tiene en el nombre (3 x 2); E1 solo en el río (1 x 2)
+        assertEquals(List.of("E4", "E1"), hits.stream().map(SearchHit::getId).collect(Collectors.toList()));
+        assertEquals(6, hits.get(0).getScore());
+        assertEquals(2, hits.get(1).getScore());
+        // Subcadena que no empieza palabra: solo el peso del campo
+        assertEquals(3, index.search("cantara", 10).get(0).getScore());
+    }
+
+    @Test
+    void shortTermsMatchWordStartsOnly() {
+        assertEquals(List.of("E1", "E2"), search("al"));
+        assertEquals(List.of("E3"), search("z"));
+        assertTrue(search("ra").isEmpty());
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        assertEquals(List.of("E1"), search("embalse jucar"));
+        assertEquals(List.of("E4", "E1"), search("rio jucar"));
+        assertTrue(search("zaragoza tajo").isEmpty());
+    }
+
+    @Test
+    void trigramFalsePositivesAreDiscarded() {
+        // "abcxbcde" tiene todos los trigramas de "abcde" pero no la subcadena
+        index.update("F1", "abcxbcde", "");
+        index.update("F2", "abcde", "");
+
+        assertEquals(List.of("F2"), search("abcde"));
+        index.update("F2", "otro", "");
+        assertTrue(search("abcde").isEmpty());
+    }
+
+    @Test
+    void updateReindexesChangedFields() {
+        index.update("E3", "Mequinenza", "Río Ebro");
+
+        assertTrue(search("zaragoza").isEmpty());
+        assertEquals(List.of("E3"), search("mequinenza"));
+        assertEquals(List.of("E3"), search("ebro"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void limitKeepsBestAndBreaksTiesByInsertionOrder() {
+        for (int i = 0; i < 100; i++) {
+            index.update("R" + i, "Estación " + i, "Río Segura");
+        }
+        index.update("TOP", "Segura de la Sierra", "Río Segura");
+
+        List<SearchHit> hits = index.search("segura", 3);
+        assertEquals(List.of("TOP", "R0", "R1"), hits.stream().map(SearchHit::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void invalidInputIsRejected() {
+        assertTrue(index.search(" ¿? ", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.search("a b c d e f g h i", 10));
+        assertThrows(IllegalArgumentException.class, () -> index.update("E5", "solo un campo"));
+        assertThrows(IllegalArgumentException.class, () -> new TextIndex());
+        assertThrows(IllegalArgumentException.class, () -> new TextIndex(1, 0));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.ChangeEvent;
+import com.hidrologia.model.WaterLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeEventBusTest {
+
+    private static final int BUFFER_SIZE = 4;
+    private static final int EVENTS = 50;
+
+    private final ChangeEventBus bus = new ChangeEventBus(BUFFER_SIZE);
+
+    @AfterEach
+    void stop() {
+        bus.onStop(null);
+    }
+
+    @Test
+    void slowSubscriberIsClosedWithoutAffectingOthers() throws Exception {
+        RecordingSubscriber fast = new RecordingSubscriber(Long.MAX_VALUE, EVENTS);
+        RecordingSubscriber slow = new RecordingSubscriber(1, EVENTS);
+        bus.subscribeWaterLevels(Set.of(), null, null).subscribe(fast);
+        bus.subscribeWaterLevels(Set.of(), null, null).subscribe(slow);
+        assertEquals(2, bus.getSubscriberCount());
+
+        // Muchos menos eventos que la cola de emitOn: el buffer del suscriptor es el que se desborda
+        for (int i = 0; i < EVENTS; i++) {
+            bus.onWaterLevelChange(null, level("S" + i));
+            bus.onWaterLevelsCommit(i + 1);
+        }
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS), "el suscriptor lento debe cerrarse");
+        assertTrue(slow.items.size() <= 1 + BUFFER_SIZE);
+        assertTrue(fast.received.await(5, TimeUnit.SECONDS), "el suscriptor rápido recibe todos los eventos");
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals("S" + i, fast.items.get(i).getWaterLevel().getStationId());
+        }
+        assertEquals(1, fast.completed.getCount());
+        assertEquals(1, bus.getSubscriberCount());
+    }
+
+    @Test
+    void filteredEventsDoNotFillTheBuffer() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber(1, 1);
+        bus.subscribeWaterLevels(Set.of("S0"), null, null).subscribe(subscriber);
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.onWaterLevelChange(null, level("S" + (i % 10)));
+            bus.onWaterLevelsCommit(i + 1);
+        }
+
+        // Solo se acumulan los eventos de S0, que caben en el buffer
+        assertTrue(subscriber.received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("S0"), subscriber.items.stream().map(event -> event.getWaterLevel().getStationId()).toList());
+        assertEquals(1, subscriber.completed.getCount());
+        assertEquals(1, bus.getSubscriberCount());
+    }
+
+    private static WaterLevel level(String stationId) {
+        WaterLevel level = new WaterLevel();
+        level.setStationId(stationId);
+        level.setAlertStatus(WaterLevel.AlertStatus.NORMAL);
+        return level;
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<ChangeEvent> {
+
+        private final long demand;
+        private final List<ChangeEvent> items = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingSubscriber(long demand, int expected) {
+            this.demand = demand;
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onNext(ChangeEvent event) {
+            items.add(event);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
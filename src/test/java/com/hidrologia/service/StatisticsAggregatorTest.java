@@ -0,0 +1,237 @@
+package com.hidrologia.service;
+
+import com.hidrologia.model.Reservoir;
+import com.hidrologia.model.SystemStatistics;
+import com.hidrologia.model.WaterLevel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StatisticsAggregatorTest {
+
+    private static final String[] RIVERS = {"Ebro", "Tajo", "Duero", null};
+
+    @Test
+    void randomChangesMatchFullRecomputation() {
+        Random random = new Random(42);
+        StatisticsAggregator aggregator = new StatisticsAggregator();
+        Map<String, Reservoir> reservoirs = new TreeMap<>();
+        Map<String, WaterLevel> stations = new TreeMap<>();
+        SystemStatistics published = aggregator.snapshot();
+        long version = 0;
+
+        for (int step = 0; step < 5_000; step++) {
+            if (random.nextBoolean()) {
+                String id = "E" + random.nextInt(40);
+                Reservoir current = randomReservoir(random, id);
+                aggregator.onReservoirChange(reservoirs.put(id, current), current);
+            } else {
+                String id = "S" + random.nextInt(40);
+                WaterLevel current = randomStation(random, id);
+                aggregator.onWaterLevelChange(stations.put(id, current), current);
+            }
+
+            if (random.nextInt(8) == 0) {
+                // Hasta publicar el lote los lectores siguen viendo la vista anterior
+                assertEquals(published.getTotalReservoirs(), aggregator.snapshot().getTotalReservoirs());
+                assertEquals(published.getReservoirsVersion(), aggregator.snapshot().getReservoirsVersion());
+
+                version++;
+                aggregator.onReservoirsCommit(version);
+                aggregator.onWaterLevelsCommit(version);
+                published = aggregator.snapshot();
+                assertMatches(reservoirs.values(), stations.values(), published);
+                assertEquals(version, published.getReservoirsVersion());
+                assertEquals(version, published.getWaterLevelsVersion());
+            }
+        }
+    }
+
+    @Test
+    void compensatedSumKeepsSmallTermsAcrossLargeCancellations() {
+        StatisticsAggregator aggregator = new StatisticsAggregator();
+        Reservoir large = reservoir("E1", 1e16, 50.0, "Ebro");
+        Reservoir small = reservoir("E2", 1.0, 50.0, "Ebro");
+        aggregator.onReservoirChange(null, large);
+        aggregator.onReservoirChange(null, small);
+        // Sin compensación, 1e16 + 1 - 1e16 daría 0
+        aggregator.onReservoirChange(large, reservoir("E1", 0.0, 50.0, "Ebro"));
+        aggregator.onReservoirsCommit(1);
+
+        SystemStatistics statistics = aggregator.snapshot();
+        assertEquals(1.0, statistics.getTotalCapacity());
+        assertEquals(1.0, statistics.getBasins().get(0).getTotalCapacity());
+    }
+
+    @Test
+    void minAndMaxFollowRemovedExtremes() {
+        StatisticsAggregator aggregator = new StatisticsAggregator();
+        Reservoir a = reservoir("E1", 100, 10.0, "Ebro");
+        Reservoir b = reservoir("E2", 100, 10.0, "Ebro");
+        Reservoir c = reservoir("E3", 100, 90.0, "Ebro");
+        aggregator.onReservoirChange(null, a);
+        aggregator.onReservoirChange(null, b);
+        aggregator.onReservoirChange(null, c);
+        aggregator.onReservoirsCommit(1);
+        assertEquals(Double.valueOf(10.0), aggregator.snapshot().getMinFillPercentage());
+        assertEquals(Double.valueOf(90.0), aggregator.snapshot().getMaxFillPercentage());
+
+        // El mínimo está repetido: quitar una aparición no lo cambia
+        Reservoir a2 = reservoir("E1", 100, 50.0, "Ebro");
+        aggregator.onReservoirChange(a, a2);
+        aggregator.onReservoirsCommit(2);
+        assertEquals(Double.valueOf(10.0), aggregator.snapshot().getMinFillPercentage());
+
+        // Se actualiza el último mínimo y el máximo: pasan a los siguientes valores
+        Reservoir b2 = reservoir("E2", 100, 60.0, "Ebro");
+        Reservoir c2 = reservoir("E3", 100, 55.0, "Ebro");
+        aggregator.onReservoirChange(b, b2);
+        aggregator.onReservoirChange(c, c2);
+        aggregator.onReservoirsCommit(3);
+        assertEquals(Double.valueOf(50.0), aggregator.snapshot().getMinFillPercentage());
+        assertEquals(Double.valueOf(60.0), aggregator.snapshot().getMaxFillPercentage());
+
+        // Sin llenados conocidos no hay mínimo ni máximo y la media vuelve a 0
+        aggregator.onReservoirChange(a2, reservoir("E1", 100, Double.NaN, "Ebro"));
+        aggregator.onReservoirChange(b2, reservoir("E2", 100, Double.NaN, "Ebro"));
+        aggregator.onReservoirChange(c2, reservoir("E3", 100, Double.NaN, "Ebro"));
+        aggregator.onReservoirsCommit(4);
+        assertNull(aggregator.snapshot().getMinFillPercentage());
+        assertNull(aggregator.snapshot().getMaxFillPercentage());
+        assertEquals(0.0, aggregator.snapshot().getAverageFillPercentage());
+    }
+
+    @Test
+    void basinIsRemovedWhenItsLastReservoirMoves() {
+        StatisticsAggregator aggregator = new StatisticsAggregator();
+        Reservoir ebro = reservoir("E1", 100, 40.0, "Ebro");
+        aggregator.onReservoirChange(null, ebro);
+        aggregator.onReservoirChange(null, reservoir("E2", 200, 40.0, "Tajo"));
+        aggregator.onReservoirsCommit(1);
+        assertEquals(List.of("Ebro", "Tajo"), rivers(aggregator.snapshot()));
+
+        aggregator.onReservoirChange(ebro, reservoir("E1", 100, 40.0, "Tajo"));
+        aggregator.onReservoirsCommit(2);
+
+        SystemStatistics statistics = aggregator.snapshot();
+        assertEquals(List.of("Tajo"), rivers(statistics));
+        assertEquals(2, statistics.getBasins().get(0).getReservoirs());
+        assertEquals(300.0, statistics.getBasins().get(0).getTotalCapacity());
+    }
+
+    // ========== Recálculo completo ==========
+
+    private static void assertMatches(Iterable<Reservoir> reservoirs, Iterable<WaterLevel> stations,
+                                      SystemStatistics statistics) {
+        int total = 0;
+        Map<Reservoir.OperationalStatus, Integer> byStatus = new EnumMap<>(Reservoir.OperationalStatus.class);
+        for (Reservoir.OperationalStatus status : Reservoir.OperationalStatus.values()) {
+            byStatus.put(status, 0);
+        }
+        int fillCount = 0;
+        BigDecimal fillSum = BigDecimal.ZERO;
+        Double minFill = null;
+        Double maxFill = null;
+        BigDecimal capacity = BigDecimal.ZERO;
+        BigDecimal volume = BigDecimal.ZERO;
+        Map<String, BigDecimal[]> basins = new TreeMap<>();
+        for (Reservoir reservoir : reservoirs) {
+            total++;
+            if (reservoir.getStatus() != null) {
+                byStatus.merge(reservoir.getStatus(), 1, Integer::sum);
+            }
+            double fill = reservoir.fillPercentageOrNaN();
+            if (!Double.isNaN(fill)) {
+                fillCount++;
+                fillSum = fillSum.add(new BigDecimal(fill));
+                minFill = minFill == null ? fill : Math.min(minFill, fill);
+                maxFill = maxFill == null ? fill : Math.max(maxFill, fill);
+            }
+            capacity = capacity.add(new BigDecimal(reservoir.maxCapacityOrNaN()));
+            volume = volume.add(new BigDecimal(reservoir.currentVolumeOrNaN()));
+            if (reservoir.getMainRiver() != null) {
+                BigDecimal[] basin = basins.computeIfAbsent(reservoir.getMainRiver(),
+                        river -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+                basin[0] = basin[0].add(BigDecimal.ONE);
+                basin[1] = basin[1].add(new BigDecimal(reservoir.maxCapacityOrNaN()));
+                basin[2] = basin[2].add(new BigDecimal(reservoir.currentVolumeOrNaN()));
+                basin[3] = basin[3].add(new BigDecimal(reservoir.outflowOrNaN()));
+            }
+        }
+
+        assertEquals(total, statistics.getTotalReservoirs());
+        assertEquals(byStatus, statistics.getReservoirsByStatus());
+        assertEquals(fillCount == 0 ? 0.0 : fillSum.doubleValue() / fillCount, statistics.getAverageFillPercentage(), 1e-9);
+        assertEquals(minFill, statistics.getMinFillPercentage());
+        assertEquals(maxFill, statistics.getMaxFillPercentage());
+        assertEquals(capacity.doubleValue(), statistics.getTotalCapacity(), 1e-6);
+        assertEquals(volume.doubleValue(), statistics.getTotalVolume(), 1e-6);
+        assertEquals(new ArrayList<>(basins.keySet()), rivers(statistics));
+        for (SystemStatistics.BasinStatistics basin : statistics.getBasins()) {
+            BigDecimal[] expected = basins.get(basin.getMainRiver());
+            assertEquals(expected[0].intValue(), basin.getReservoirs());
+            assertEquals(expected[1].doubleValue(), basin.getTotalCapacity(), 1e-6);
+            assertEquals(expected[2].doubleValue(), basin.getTotalVolume(), 1e-6);
+            assertEquals(expected[3].doubleValue(), basin.getTotalOutflow(), 1e-6);
+        }
+
+        int stationTotal = 0;
+        Map<WaterLevel.AlertStatus, Integer> byAlert = new EnumMap<>(WaterLevel.AlertStatus.class);
+        for (WaterLevel.AlertStatus status : WaterLevel.AlertStatus.values()) {
+            byAlert.put(status, 0);
+        }
+        for (WaterLevel station : stations) {
+            stationTotal++;
+            if (station.getAlertStatus() != null) {
+                byAlert.merge(station.getAlertStatus(), 1, Integer::sum);
+            }
+        }
+        assertEquals(stationTotal, statistics.getTotalStations());
+        assertEquals(byAlert, statistics.getStationsByAlertStatus());
+    }
+
+    private static List<String> rivers(SystemStatistics statistics) {
+        return statistics.getBasins().stream().map(SystemStatistics.BasinStatistics::getMainRiver).toList();
+    }
+
+    private static Reservoir randomReservoir(Random random, String id) {
+        // Valores con decimales y magnitudes dispares para que el redondeo se note
+        double fill = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(1000) / 10.0;
+        Reservoir reservoir = reservoir(id, random.nextDouble() * 1_000_000, fill,
+                RIVERS[random.nextInt(RIVERS.length)]);
+        reservoir.setCurrentVolume(random.nextDouble() * 1_000);
+        reservoir.setOutflow(random.nextDouble() * 0.1);
+        Reservoir.OperationalStatus[] statuses = Reservoir.OperationalStatus.values();
+        reservoir.setStatus(random.nextInt(10) == 0 ? null : statuses[random.nextInt(statuses.length)]);
+        return reservoir;
+    }
+
+    private static WaterLevel randomStation(Random random, String id) {
+        WaterLevel station = new WaterLevel();
+        station.setStationId(id);
+        WaterLevel.AlertStatus[] statuses = WaterLevel.AlertStatus.values();
+        station.setAlertStatus(random.nextInt(10) == 0 ? null : statuses[random.nextInt(statuses.length)]);
+        return station;
+    }
+
+    private static Reservoir reservoir(String id, double capacity, double fill, String river) {
+        Reservoir reservoir = new Reservoir();
+        reservoir.setReservoirId(id);
+        reservoir.setMaxCapacity(capacity);
+        reservoir.setCurrentVolume(capacity * 0.5);
+        reservoir.setFillPercentage(Double.isNaN(fill) ? null : fill);
+        reservoir.setOutflow(1.0);
+        reservoir.setMainRiver(river);
+        reservoir.setStatus(Reservoir.OperationalStatus.values()[0]);
+        return reservoir;
+    }
+}
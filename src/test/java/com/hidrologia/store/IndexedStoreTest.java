@@ -0,0 +1,188 @@
+package com.hidrologia.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedStoreTest {
+
+    enum Kind { RIVER, RESERVOIR, CANAL }
+
+    static final class Item {
+        final String id;
+        final Kind kind;
+
+        Item(String id, Kind kind) {
+            this.id = id;
+            this.kind = kind;
+        }
+    }
+
+    private IndexedStore<Item> store;
+    private EnumIndex<Kind, Item> byKind;
+
+    @BeforeEach
+    void setUp() {
+        store = new IndexedStore<>(item -> item.id);
+        byKind = store.addIndex(Kind.class, item -> item.kind);
+    }
+
+    // Más de 64 posiciones para que los mapas de bits ocupen varias palabras
+    private List<Item> items(int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Item("E" + i, i % 3 == 0 ? Kind.RESERVOIR : Kind.RIVER));
+        }
+        return items;
+    }
+
+    @Test
+    void findReturnsIndexedItemsInInsertionOrder() {
+        store.putAll(items(200));
+
+        assertEquals(200, store.size());
+        assertEquals(67, store.count(byKind, Kind.RESERVOIR));
+        assertEquals(133, store.count(byKind, Kind.RIVER));
+        assertEquals(0, store.count(byKind, Kind.CANAL));
+
+        SnapshotList<Item> reservoirs = store.find(byKind, Kind.RESERVOIR);
+        assertEquals(67, reservoirs.size());
+        for (int i = 0; i < reservoirs.size(); i++) {
+            assertEquals("E" + (i * 3), reservoirs.get(i).id);
+        }
+        assertTrue(store.find(byKind, Kind.CANAL).isEmpty());
+    }
+
+    @Test
+    void updateMovesItemBetweenBitmapsWithoutTouchingOldVersions() {
+        store.putAll(items(200));
+        SnapshotList<Item> before = store.find(byKind, Kind.RESERVOIR);
+
+        store.put(new Item("E99", Kind.CANAL));
+
+        assertEquals(66, store.count(byKind, Kind.RESERVOIR));
+        assertEquals(1, store.count(byKind, Kind.CANAL));
+        assertEquals("E99", store.find(byKind, Kind.CANAL).get(0).id);
+        assertFalse(store.find(byKind, Kind.RESERVOIR).stream().anyMatch(item -> item.id.equals("E99")));
+        assertEquals(Kind.CANAL, store.get("E99").orElseThrow().kind);
+        assertEquals(200, store.size());
+
+        // La versión leída antes de la escritura no cambia
+        assertEquals(67, before.size());
+        assertTrue(before.stream().anyMatch(item -> item.id.equals("E99")));
+    }
+
+    @Test
+    void itemsWithoutKeyAreNotIndexed() {
+        store.put(new Item("E1", null));
+        store.put(new Item("E2", Kind.RIVER));
+        store.put(new Item("E1", Kind.RIVER));
+        store.put(new Item("E2", null));
+
+        assertEquals(1, store.count(byKind, Kind.RIVER));
+        assertEquals("E1", store.find(byKind, Kind.RIVER).get(0).id);
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void indexAddedLaterCoversExistingItems() {
+        store.putAll(items(130));
+        EnumIndex<Kind, Item> second = store.addIndex(Kind.class, item -> item.kind == Kind.RIVER ? Kind.CANAL : null);
+
+        assertEquals(86, store.count(second, Kind.CANAL));
+        assertEquals("E1", store.find(second, Kind.CANAL).get(0).id);
+        assertEquals("E128", store.find(second, Kind.CANAL).get(85).id);
+    }
+
+    @Test
+    void eachBatchPublishesOneVersion() {
+        long initial = store.version();
+        store.putAll(items(100));
+        assertEquals(initial + 1, store.version());
+
+        store.put(new Item("E5", Kind.CANAL));
+        assertEquals(initial + 2, store.version());
+        assertEquals(initial + 2, store.values().getVersion());
+    }
+
+    @Test
+    void batchWithMissingIdIsRejectedWithoutChanges() {
+        store.putAll(items(10));
+        long version = store.version();
+
+        List<Item> batch = List.of(new Item("E1", Kind.CANAL), new Item(null, Kind.CANAL));
+        assertThrows(IllegalArgumentException.class, () -> store.putAll(batch));
+
+        assertEquals(version, store.version());
+        assertEquals(Kind.RIVER, store.get("E1").orElseThrow().kind);
+        assertEquals(0, store.count(byKind, Kind.CANAL));
+    }
+
+    @Test
+    void failedBatchReleasesReservedSlots() {
+        IndexedStore<Item> failing = new IndexedStore<>(item -> item.id);
+        EnumIndex<Kind, Item> index = failing.addIndex(Kind.class, item -> {
+            if (item.id.equals("BAD")) {
+                throw new IllegalStateException("clave inválida");
+            }
+            return item.kind;
+        });
+        failing.put(new Item("E0", Kind.RIVER));
+
+        List<Item> batch = List.of(new Item("E1", Kind.RIVER), new Item("BAD", Kind.RIVER));
+        assertThrows(IllegalStateException.class, () -> failing.putAll(batch));
+        assertEquals(1, failing.size());
+        assertFalse(failing.get("E1").isPresent());
+
+        // El ID descartado vuelve a recibir una posición válida en el siguiente lote
+        failing.put(new Item("E1", Kind.RESERVOIR));
+        assertEquals(2, failing.size());
+        assertEquals("E1", failing.find(index, Kind.RESERVOIR).get(0).id);
+    }
+
+    @Test
+    void listenersSeeTheBatchAlreadyPublished() {
+        store.put(new Item("E0", Kind.RIVER));
+        List<String> changes = new ArrayList<>();
+        store.addListener((previous, current) -> changes.add(
+                (previous == null ? "alta " : "cambio ") + current.id + " " + current.kind
+                        + " visible=" + store.get(current.id).orElseThrow().kind));
+
+        // La suscripción recibe primero el estado actual como altas
+        assertEquals(List.of("alta E0 RIVER visible=RIVER"), changes);
+
+        store.putAll(List.of(new Item("E0", Kind.CANAL), new Item("E1", Kind.RESERVOIR)));
+        assertEquals(List.of(
+                "alta E0 RIVER visible=RIVER",
+                "cambio E0 CANAL visible=CANAL",
+                "alta E1 RESERVOIR visible=RESERVOIR"), changes);
+    }
+
+    @Test
+    void failingListenerDoesNotStopOtherListeners() {
+        List<String> seen = new ArrayList<>();
+        AtomicLong committed = new AtomicLong(-1);
+        store.addListener((previous, current) -> {
+            throw new IllegalStateException("listener roto");
+        });
+        store.addListener((previous, current) -> seen.add(current.id));
+        store.addCommitListener(version -> {
+            assertEquals(version, store.version());
+            committed.set(version);
+        });
+
+        store.putAll(items(3));
+
+        assertEquals(List.of("E0", "E1", "E2"), seen);
+        assertEquals(store.version(), committed.get());
+        assertEquals(3, store.size());
+    }
+}
@@ -0,0 +1,95 @@
+#!/bin/bash
+
+# Arranque en frío de Hidrología Mock API: JVM frente a ejecutable nativo
+# Uso: ./startup-bench.sh <jvm|native> [ejecuciones]
+#   jvm:    ./mvnw package               -> target/quarkus-app/quarkus-run.jar
+#   native: ./mvnw package -Dnative      -> target/*-runner
+# Por ejecución mide el tiempo hasta la primera respuesta correcta de /api/water/levels (lo que
+# espera la primera petición tras escalar desde cero), el "started in" que registra Quarkus y la
+# memoria residente (VmRSS) tras esa primera respuesta. Los resultados quedan en
+# startup-results/<modo>.txt; comparar la mediana de varias ejecuciones en la misma máquina.
+
+MODE=${1:?"Uso: ./startup-bench.sh <jvm|native> [ejecuciones]"}
+RUNS=${2:-10}
+PORT=${PORT:-8080}
+URL="http://localhost:$PORT/api/water/levels"
+JAVA_OPTS=${JAVA_OPTS:-"-XX:+UseParallelGC"}
+
+case "$MODE" in
+    jvm)
+        if [ ! -f target/quarkus-app/quarkus-run.jar ]; then
+            echo "❌ Falta target/quarkus-app/quarkus-run.jar (./mvnw package)"
+            exit 1
+        fi
+        CMD=(java $JAVA_OPTS -Dquarkus.http.port="$PORT" -jar target/quarkus-app/quarkus-run.jar)
+        ;;
+    native)
+        RUNNER=$(ls target/*-runner 2> /dev/null | head -1)
+        if [ -z "$RUNNER" ]; then
+            echo "❌ Falta el ejecutable nativo en target/ (./mvnw package -Dnative)"
+            exit 1
+        fi
+        CMD=("$RUNNER" -Dquarkus.http.port="$PORT")
+        ;;
+    *)
+        echo "❌ Modo desconocido: $MODE (jvm o native)"
+        exit 1
+        ;;
+esac
+
+if curl -s "http://localhost:$PORT" > /dev/null; then
+    echo "❌ El puerto $PORT ya está en uso"
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+mkdir -p startup-results
+OUTPUT="startup-results/$MODE.txt"
+LOG=$(mktemp)
+echo "# ejecución primera_respuesta_ms started_in_s rss_kb" > "$OUTPUT"
+
+for run in $(seq 1 "$RUNS"); do
+    START=$(now_ms)
+    "${CMD[@]}" > "$LOG" 2>&1 &
+    PID=$!
+
+    # Sondeo cada 5 ms hasta la primera respuesta 200 (como máximo 60 s)
+    READY=""
+    while [ $(( $(now_ms) - START )) -lt 60000 ]; do
+        if curl -sf -o /dev/null "$URL"; then
+            READY=$(( $(now_ms) - START ))
+            break
+        fi
+        if ! kill -0 "$PID" 2> /dev/null; then
+            break
+        fi
+        sleep 0.005
+    done
+
+    RSS=$(awk '/^VmRSS/ {print $2}' "/proc/$PID/status" 2> /dev/null)
+    STARTED=$(grep -oE "started in [0-9.]+s" "$LOG" | grep -oE "[0-9.]+" | head -1)
+    kill "$PID" 2> /dev/null
+    wait "$PID" 2> /dev/null
+
+    if [ -z "$READY" ]; then
+        echo "❌ La ejecución $run no respondió; log:"
+        cat "$LOG"
+        rm -f "$LOG"
+        exit 1
+    fi
+    echo "⏱️  $MODE #$run: primera respuesta ${READY} ms, started in ${STARTED:-?} s, RSS ${RSS:-?} KB"
+    echo "$run $READY ${STARTED:--} ${RSS:--}" >> "$OUTPUT"
+done
+rm -f "$LOG"
+
+# Mediana de cada columna
+echo "✅ Resultados en $OUTPUT"
+for column in 2 3 4; do
+    NAME=$(head -1 "$OUTPUT" | awk -v c=$((column + 1)) '{print $c}')
+    MEDIAN=$(tail -n +2 "$OUTPUT" | awk -v c=$column '$c != "-" {print $c}' | sort -n \
+        | awk '{v[NR] = $1} END {if (NR) print (NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2)}')
+    echo "   mediana $NAME: ${MEDIAN:-?}"
+done